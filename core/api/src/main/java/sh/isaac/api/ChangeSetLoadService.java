@@ -42,6 +42,8 @@ package sh.isaac.api;
 //~--- JDK imports ------------------------------------------------------------
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
 
 //~--- non-JDK imports --------------------------------------------------------
 
@@ -63,5 +65,17 @@ public interface ChangeSetLoadService {
     */
    public int readChangesetFiles()
             throws IOException;
+
+   /**
+    * Compacts the processed changeset files older than the given time into one pack per month, replacing the files.
+    * Files written during this session are never compacted.
+    *
+    * @param olderThan files older than this are compacted
+    * @return the names of the files that were replaced, relative to the changeset folder, which a sync service 
+    * should remove 
+    * @throws IOException Signals that an I/O exception has occurred.
+    */
+   public List<String> compactChangesetFiles(Instant olderThan)
+            throws IOException;
 }
 
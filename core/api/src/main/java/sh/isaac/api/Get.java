@@ -316,6 +316,19 @@ public class Get
       return getService(BinaryDataServiceFactory.class).getReader(inputStream);
    }
 
+   /**
+    * A reader that memory maps the file, and can parse its records in parallel.
+    *
+    * @param dataPath the data path
+    * @param useIndexSidecar true to cache the record offsets in a ".idx" file next to the data
+    * @return the binary data reader service
+    * @throws IOException if the file cannot be indexed or mapped
+    */
+   public static BinaryDataReaderService mappedBinaryDataReader(Path dataPath, boolean useIndexSidecar)
+            throws IOException {
+      return getService(BinaryDataServiceFactory.class).getMappedReader(dataPath, useIndexSidecar);
+   }
+
    /**
     * Binary data writer.
     *
@@ -112,6 +112,49 @@ public interface GlobalDatastoreConfiguration extends UserConfigurationInternalI
 	 */
 	public void setMemoryConfiguration(MemoryConfiguration memoryConfiguration);
 	
+	/**
+	 * @return The approximate number of heap bytes the chronology object cache may hold.  If the returned
+	 * optional is empty, then the chronology service is free to choose a default that suits the heap size.
+	 * 
+	 * Note that this value can be overridden by specifying a system property of 
+	 * {@link SystemPropertyConstants#CHRONOLOGY_CACHE_MAXIMUM_BYTES} with a number of bytes.
+	 * 
+	 * Changes only take effect after a restart.
+	 */
+	public default Optional<Long> getChronologyCacheMaximumBytes()
+	{
+		return Optional.empty();
+	}
+	
+	/**
+	 * @param maximumBytes the approximate number of heap bytes the chronology object cache may hold, or null to 
+	 * let the chronology service choose
+	 */
+	public default void setChronologyCacheMaximumBytes(Long maximumBytes)
+	{
+		throw new UnsupportedOperationException();
+	}
+	
+	/**
+	 * @return true, if chronologies evicted from the chronology object cache should be kept behind soft references, 
+	 * to be reclaimed only when the heap runs low.  Intended for large heaps.
+	 * 
+	 * Note that this value can be overridden by specifying a system property of 
+	 * {@link SystemPropertyConstants#CHRONOLOGY_CACHE_SOFT_TIER} with 'true' or 'false'
+	 */
+	public default boolean enableChronologySoftCache()
+	{
+		return false;
+	}
+	
+	/**
+	 * @param enable change the state of the chronology soft cache flag
+	 */
+	public default void setEnableChronologySoftCache(boolean enable)
+	{
+		throw new UnsupportedOperationException();
+	}
+	
 	/**
 	 * Sets the default classifier. When changed, other default objects that
 	 * reference this object will be updated accordingly. Default: The value to
@@ -198,5 +198,11 @@ public interface TaxonomyService
     * @return
     */
    public int[] getAllTaxonomyChildren(int parentNid);
+
+   /**
+    * 
+    * @return memory used in bytes by the reachability indexes of the cached taxonomy trees
+    */
+   long getMemoryInUse();
 }
 
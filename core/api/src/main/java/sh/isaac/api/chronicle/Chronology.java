@@ -45,6 +45,7 @@
 package sh.isaac.api.chronicle;
 
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -237,6 +238,27 @@ public interface Chronology
     */
    int[] getVersionStampSequences();
 
+   /**
+    * Gets the versions with the given stamps. Implementations that decode versions when first asked for only decode
+    * these versions.
+    *
+    * @param <V>
+    * @param stampSequences stamps of versions of this chronology, such as from {@link #getVersionStampSequences()}
+    * @return a new list of the versions with those stamps
+    */
+   default <V extends StampedVersion> List<V> getVersionsForStamps(int[] stampSequences) {
+      final List<V> versions = new ArrayList<>(stampSequences.length);
+      for (StampedVersion version : getVersionList()) {
+         for (int stampSequence : stampSequences) {
+            if (version.getStampSequence() == stampSequence) {
+               versions.add((V) version);
+               break;
+            }
+         }
+      }
+      return versions;
+   }
+
    /**
     * Gets the visible ordered version list.
     *
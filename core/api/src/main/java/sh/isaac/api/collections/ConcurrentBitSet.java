@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.api.collections;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * A fixed size bit set that may be set from many threads at once without locking. Bits are set with a compare and
+ * set on the word that holds them, so writers of different bits never lose each other's updates.
+ *
+ * Intended for marking positions of an array evaluated in parallel, with the set bits read once all writers are
+ * done.
+ */
+public class ConcurrentBitSet {
+    private final AtomicLongArray words;
+    private final int size;
+
+    /**
+     * @param size the number of bits, from 0 to size - 1
+     */
+    public ConcurrentBitSet(int size) {
+        this.size = size;
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+    public void set(int index) {
+        checkIndex(index);
+        int wordIndex = index >>> 6;
+        long mask = 1L << index;
+        long word = words.get(wordIndex);
+        while ((word & mask) == 0 && !words.weakCompareAndSetVolatile(wordIndex, word, word | mask)) {
+            word = words.get(wordIndex);
+        }
+    }
+
+    public boolean get(int index) {
+        checkIndex(index);
+        return (words.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    /**
+     * @return the number of set bits
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < words.length(); i++) {
+            cardinality += Long.bitCount(words.get(i));
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return the indexes of the set bits, in increasing order
+     */
+    public IntStream stream() {
+        return IntStream.range(0, words.length()).flatMap(wordIndex -> {
+            long word = words.get(wordIndex);
+            if (word == 0) {
+                return IntStream.empty();
+            }
+            int[] indexes = new int[Long.bitCount(word)];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+            return IntStream.of(indexes);
+        });
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + " size: " + size);
+        }
+    }
+}
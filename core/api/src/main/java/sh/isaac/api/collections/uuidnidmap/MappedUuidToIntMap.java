@@ -0,0 +1,669 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.api.collections.uuidnidmap;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import sh.isaac.api.ConfigurationService.BuildMode;
+import sh.isaac.api.Get;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+
+/**
+ * A UUID to nid map held off heap, in open addressing hash tables stored in memory mapped files.
+ *
+ * The map is split into {@link #SEGMENT_COUNT} segments by the hash of the UUID, each a file of fixed size slots
+ * holding the most and least significant bits of a UUID, its nid, and the state of the slot. Slots are probed
+ * linearly. Nothing is read onto the heap at startup, and the operating system pages the tables in and out, so a map
+ * of hundreds of millions of UUIDs costs little heap, and opens without reading the files.
+ *
+ * Reads take no locks. An insert claims an empty slot with a compare and set of its state, fills it, then publishes
+ * it, so inserts into a segment run concurrently. A reader that finds a claimed slot waits for it to be published
+ * before comparing, so an insert racing another insert of the same UUID finds the first one, and a UUID is never
+ * stored twice. When a segment is more than {@link #MAX_LOAD_FACTOR} full, it is copied into a table of twice the
+ * size. Inserts into the segment wait for the copy, while reads continue against the old table, which holds every
+ * entry until the new one replaces it.
+ *
+ * Each segment records whether it was synced after its last insert, and the highest nid it held when it was. A segment
+ * that wasn't, after a crash, is scanned when opened, to recount it, to find its highest nid, and to retire slots
+ * whose insert was claimed but never published. The next nid generated is past the highest nid of every segment, as
+ * the tables may have been flushed with nids newer than the last one saved in {@code map.params}.
+ */
+public class MappedUuidToIntMap
+         implements UuidToIntMap {
+   private static final Logger LOG = LogManager.getLogger();
+
+   /** The number of segments, which must be a power of two. */
+   private static final int SEGMENT_COUNT = 256;
+   private static final int INITIAL_SEGMENT_CAPACITY = 1 << 14;
+   private static final double MAX_LOAD_FACTOR = 0.7;
+
+   private static final int MAGIC = 0x55554945;
+   /** A multiple of 8, so the longs of every slot are 8 byte aligned. */
+   private static final int HEADER_BYTES = 24;
+   private static final int HEADER_CAPACITY_OFFSET = 4;
+   private static final int HEADER_COUNT_OFFSET = 8;
+   private static final int HEADER_CLEAN_OFFSET = 12;
+   private static final int HEADER_MAX_NID_OFFSET = 16;
+
+   /** msb (8 bytes), lsb (8 bytes), nid (4 bytes), state (4 bytes). */
+   private static final int SLOT_BYTES = 24;
+   private static final int NID_OFFSET = 16;
+   private static final int STATE_OFFSET = 20;
+
+   private static final int EMPTY = 0;
+   private static final int CLAIMED = 1;
+   private static final int FULL = 2;
+   /** A slot claimed, but never filled, before a crash. Probes pass over it, and it never matches. */
+   private static final int RETIRED = 3;
+
+   private static final VarHandle INT_HANDLE = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+   private static final VarHandle LONG_HANDLE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+   private final File folder;
+   private final int initialSegmentCapacity;
+   private final Segment[] segments = new Segment[SEGMENT_COUNT];
+   private final AtomicInteger nextNidProvider = new AtomicInteger(Integer.MIN_VALUE);
+
+   private Cache<Integer, UUID[]> nidToPrimordialCache = null;
+
+   /**
+    * One open addressing table, and the lock that holds inserts off while it is resized.
+    */
+   private class Segment {
+      final int index;
+      final ReentrantReadWriteLock resizeLock = new ReentrantReadWriteLock();
+      final AtomicInteger count = new AtomicInteger();
+      /** The highest nid in the segment. */
+      final AtomicInteger maxNid = new AtomicInteger(Integer.MIN_VALUE);
+      volatile Table table;
+      volatile boolean clean;
+
+      Segment(int index, Table table, int count, boolean clean) {
+         this.index = index;
+         this.table = table;
+         this.count.set(count);
+         this.clean = clean;
+      }
+
+      void nidStored(int nid) {
+         this.maxNid.accumulateAndGet(nid, Math::max);
+      }
+
+      File fileFor(int generation) {
+         return new File(folder, index + "-" + generation + "-uuid-nid.table");
+      }
+   }
+
+   /**
+    * The slots of a segment, in one mapped file.
+    */
+   private static class Table {
+      final int generation;
+      final int capacity;
+      final MappedByteBuffer buffer;
+      final File file;
+
+      Table(int generation, int capacity, MappedByteBuffer buffer, File file) {
+         this.generation = generation;
+         this.capacity = capacity;
+         this.buffer = buffer;
+         this.file = file;
+      }
+
+      static int slotOffset(int slot) {
+         return HEADER_BYTES + (slot * SLOT_BYTES);
+      }
+
+      int state(int slot) {
+         return (int) INT_HANDLE.getAcquire(buffer, slotOffset(slot) + STATE_OFFSET);
+      }
+
+      boolean matches(int slot, long msb, long lsb) {
+         int offset = slotOffset(slot);
+         return (long) LONG_HANDLE.get(buffer, offset) == msb && (long) LONG_HANDLE.get(buffer, offset + 8) == lsb;
+      }
+
+      int nid(int slot) {
+         return (int) INT_HANDLE.getVolatile(buffer, slotOffset(slot) + NID_OFFSET);
+      }
+
+      boolean claim(int slot) {
+         return INT_HANDLE.compareAndSet(buffer, slotOffset(slot) + STATE_OFFSET, EMPTY, CLAIMED);
+      }
+
+      void fill(int slot, long msb, long lsb, int nid) {
+         int offset = slotOffset(slot);
+         LONG_HANDLE.set(buffer, offset, msb);
+         LONG_HANDLE.set(buffer, offset + 8, lsb);
+         INT_HANDLE.set(buffer, offset + NID_OFFSET, nid);
+         INT_HANDLE.setRelease(buffer, offset + STATE_OFFSET, FULL);
+      }
+
+      void setNid(int slot, int nid) {
+         INT_HANDLE.setVolatile(buffer, slotOffset(slot) + NID_OFFSET, nid);
+      }
+
+      /**
+       * @return the slot holding the UUID, or the negative of one more than the empty slot that ends its probe
+       */
+      int find(long msb, long lsb, int hash) {
+         int mask = capacity - 1;
+         for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int state = state(slot);
+            while (state == CLAIMED) {
+               // An insert is filling the slot, and won't be long.
+               Thread.onSpinWait();
+               state = state(slot);
+            }
+            if (state == EMPTY) {
+               return -slot - 1;
+            }
+            if (state == FULL && matches(slot, msb, lsb)) {
+               return slot;
+            }
+         }
+      }
+   }
+
+   private MappedUuidToIntMap(File folder, int initialSegmentCapacity) {
+      this.folder = folder;
+      this.initialSegmentCapacity = initialSegmentCapacity;
+   }
+
+   /**
+    * Open the map in a folder, creating it if it doesn't exist.
+    *
+    * @param folder the folder to keep the tables in
+    * @return the map
+    */
+   public static MappedUuidToIntMap create(File folder) {
+      LOG.debug("starting memory mapped uuid to int map");
+      MappedUuidToIntMap map = open(folder, INITIAL_SEGMENT_CAPACITY);
+
+      // Loader utility enables this when doing IBDF file creation to to get from nid back to UUID - this prevents it from doing table scans.
+      if (Get.configurationService().isInDBBuildMode(BuildMode.IBDF)) {
+         map.enableInverseCache();
+      }
+      return map;
+   }
+
+   /**
+    * Open the map in a folder, creating it with segments of the given capacity if it doesn't exist.
+    *
+    * @param initialSegmentCapacity the number of slots in a new segment, a power of two
+    */
+   static MappedUuidToIntMap open(File folder, int initialSegmentCapacity) {
+      folder.mkdirs();
+      MappedUuidToIntMap map = new MappedUuidToIntMap(folder, initialSegmentCapacity);
+      try {
+         File params = new File(folder, "map.params");
+         if (params.isFile()) {
+            ByteArrayDataBuffer badb = new ByteArrayDataBuffer(Files.readAllBytes(params.toPath()));
+            map.nextNidProvider.set(badb.getInt());
+         }
+         for (int i = 0; i < SEGMENT_COUNT; i++) {
+            map.segments[i] = map.openSegment(i);
+            // Never generate a nid that a segment already holds.
+            map.nextNidProvider.accumulateAndGet(map.segments[i].maxNid.get(), Math::max);
+         }
+      } catch (IOException e) {
+         throw new RuntimeException("Unable to open the uuid to nid tables in " + folder, e);
+      }
+      return map;
+   }
+
+   /**
+    * @return true if the folder holds a map written by this class
+    */
+   public static boolean existsIn(File folder) {
+      File[] tables = folder.listFiles((dir, name) -> name.endsWith("-uuid-nid.table"));
+      return tables != null && tables.length > 0;
+   }
+
+   private Segment openSegment(int index) throws IOException {
+      // Keep the newest generation, and clean up any left by a resize that couldn't delete the old table.
+      int generation = -1;
+      String prefix = index + "-";
+      File[] files = this.folder.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith("-uuid-nid.table"));
+      for (File file : files == null ? new File[0] : files) {
+         String[] parts = file.getName().split("-");
+         generation = Math.max(generation, Integer.parseInt(parts[1]));
+      }
+      for (File file : files == null ? new File[0] : files) {
+         if (Integer.parseInt(file.getName().split("-")[1]) != generation) {
+            Files.deleteIfExists(file.toPath());
+         }
+      }
+
+      Segment segment = new Segment(index, null, 0, true);
+      if (generation < 0) {
+         segment.table = createTable(segment.fileFor(0), 0, this.initialSegmentCapacity);
+         return segment;
+      }
+
+      Table table = mapTable(segment.fileFor(generation), generation);
+      segment.table = table;
+      boolean clean = (int) INT_HANDLE.get(table.buffer, HEADER_CLEAN_OFFSET) != 0;
+      if (clean) {
+         segment.count.set((int) INT_HANDLE.get(table.buffer, HEADER_COUNT_OFFSET));
+         segment.maxNid.set((int) INT_HANDLE.get(table.buffer, HEADER_MAX_NID_OFFSET));
+      } else {
+         LOG.info("Recovering uuid to nid segment {}, which was not synced after its last write", index);
+         int count = 0;
+         for (int slot = 0; slot < table.capacity; slot++) {
+            int state = table.state(slot);
+            if (state == CLAIMED) {
+               INT_HANDLE.setVolatile(table.buffer, Table.slotOffset(slot) + STATE_OFFSET, RETIRED);
+            } else if (state == FULL) {
+               count++;
+               segment.nidStored(table.nid(slot));
+            }
+         }
+         segment.count.set(count);
+         table.buffer.force();
+         writeHeader(table, count, true, segment.maxNid.get());
+         table.buffer.force();
+      }
+      return segment;
+   }
+
+   private static Table createTable(File file, int generation, int capacity) throws IOException {
+      long size = HEADER_BYTES + ((long) capacity * SLOT_BYTES);
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+         // A new file reads as zeros, so every slot starts empty.
+         MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+         Table table = new Table(generation, capacity, buffer, file);
+         INT_HANDLE.set(buffer, 0, MAGIC);
+         INT_HANDLE.set(buffer, HEADER_CAPACITY_OFFSET, capacity);
+         writeHeader(table, 0, true, Integer.MIN_VALUE);
+         return table;
+      }
+   }
+
+   private static Table mapTable(File file, int generation) throws IOException {
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+         MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+         if ((int) INT_HANDLE.get(buffer, 0) != MAGIC) {
+            throw new IOException("Not a uuid to nid table: " + file);
+         }
+         return new Table(generation, (int) INT_HANDLE.get(buffer, HEADER_CAPACITY_OFFSET), buffer, file);
+      }
+   }
+
+   private static void writeHeader(Table table, int count, boolean clean, int maxNid) {
+      INT_HANDLE.setVolatile(table.buffer, HEADER_COUNT_OFFSET, count);
+      INT_HANDLE.setVolatile(table.buffer, HEADER_MAX_NID_OFFSET, maxNid);
+      INT_HANDLE.setVolatile(table.buffer, HEADER_CLEAN_OFFSET, clean ? 1 : 0);
+   }
+
+   private static int hash(long msb, long lsb) {
+      long h = msb ^ Long.rotateLeft(lsb, 32);
+      h ^= h >>> 33;
+      h *= 0xff51afd7ed558ccdL;
+      h ^= h >>> 33;
+      h *= 0xc4ceb9fe1a85ec53L;
+      h ^= h >>> 33;
+      return (int) h;
+   }
+
+   private Segment segmentFor(int hash) {
+      // The high bits pick the segment, the low bits the slot.
+      return this.segments[hash >>> 24 & (SEGMENT_COUNT - 1)];
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public OptionalInt get(UUID key) {
+      long msb = key.getMostSignificantBits();
+      long lsb = key.getLeastSignificantBits();
+      int hash = hash(msb, lsb);
+      Table table = segmentFor(hash).table;
+      int slot = table.find(msb, lsb, hash);
+      return slot >= 0 ? OptionalInt.of(table.nid(slot)) : OptionalInt.empty();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean containsKey(UUID key) {
+      return get(key).isPresent();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean containsValue(int value) {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean put(UUID key, int value) {
+      boolean[] inserted = new boolean[1];
+      int nid = insert(key, () -> {
+         inserted[0] = true;
+         return value;
+      }, true, value);
+      if (inserted[0]) {
+         updateCache(nid, key);
+      }
+      return inserted[0];
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public int getWithGeneration(UUID uuidKey) {
+      OptionalInt existing = get(uuidKey);
+      if (existing.isPresent()) {
+         return existing.getAsInt();
+      }
+      boolean[] inserted = new boolean[1];
+      // The nid is only generated once the slot is claimed, so a race for the same UUID doesn't use up a nid.
+      int nid = insert(uuidKey, () -> {
+         inserted[0] = true;
+         return this.nextNidProvider.incrementAndGet();
+      }, false, 0);
+      if (inserted[0]) {
+         updateCache(nid, uuidKey);
+      }
+      return nid;
+   }
+
+   private interface NidSupplier {
+      int get();
+   }
+
+   /**
+    * @param replace true to set the nid of a UUID that is already present to {@code replacement}
+    * @return the nid of the UUID
+    */
+   private int insert(UUID key, NidSupplier newNid, boolean replace, int replacement) {
+      long msb = key.getMostSignificantBits();
+      long lsb = key.getLeastSignificantBits();
+      int hash = hash(msb, lsb);
+      Segment segment = segmentFor(hash);
+      while (true) {
+         segment.resizeLock.readLock().lock();
+         try {
+            Table table = segment.table;
+            if (segment.count.get() < table.capacity * MAX_LOAD_FACTOR) {
+               while (true) {
+                  int slot = table.find(msb, lsb, hash);
+                  if (slot >= 0) {
+                     if (replace) {
+                        markDirty(segment, table);
+                        segment.nidStored(replacement);
+                        table.setNid(slot, replacement);
+                     }
+                     return replace ? replacement : table.nid(slot);
+                  }
+                  int emptySlot = -slot - 1;
+                  if (table.claim(emptySlot)) {
+                     markDirty(segment, table);
+                     int nid = newNid.get();
+                     segment.nidStored(nid);
+                     table.fill(emptySlot, msb, lsb, nid);
+                     segment.count.incrementAndGet();
+                     return nid;
+                  }
+                  // Another insert took the slot, probe again, as it may have been for this UUID.
+               }
+            }
+         } finally {
+            segment.resizeLock.readLock().unlock();
+         }
+         resize(segment);
+      }
+   }
+
+   /**
+    * Clear the clean flag of the table, and force it to disk, before the first slot write after the table was synced.
+    * Otherwise the page holding a slot could reach the disk before the header page, and a crash would leave a table
+    * that reads as clean, with a count and max nid that don't cover the slot.
+    */
+   private static void markDirty(Segment segment, Table table) {
+      if (segment.clean) {
+         synchronized (segment) {
+            if (segment.clean) {
+               writeHeader(table, segment.count.get(), false, segment.maxNid.get());
+               // The table was forced when it was marked clean, so the header page is the only dirty page to write.
+               table.buffer.force();
+               // Other inserts write their slots once they see this, so only set it once the header is on disk.
+               segment.clean = false;
+            }
+         }
+      }
+   }
+
+   private void resize(Segment segment) {
+      segment.resizeLock.writeLock().lock();
+      try {
+         Table oldTable = segment.table;
+         if (segment.count.get() < oldTable.capacity * MAX_LOAD_FACTOR) {
+            // Another thread resized while this one waited.
+            return;
+         }
+         int generation = oldTable.generation + 1;
+         Table newTable = createTable(segment.fileFor(generation), generation, oldTable.capacity * 2);
+         int count = 0;
+         for (int slot = 0; slot < oldTable.capacity; slot++) {
+            if (oldTable.state(slot) == FULL) {
+               int offset = Table.slotOffset(slot);
+               long msb = (long) LONG_HANDLE.get(oldTable.buffer, offset);
+               long lsb = (long) LONG_HANDLE.get(oldTable.buffer, offset + 8);
+               int newSlot = -newTable.find(msb, lsb, hash(msb, lsb)) - 1;
+               newTable.claim(newSlot);
+               newTable.fill(newSlot, msb, lsb, oldTable.nid(slot));
+               count++;
+            }
+         }
+         writeHeader(newTable, count, false, segment.maxNid.get());
+         newTable.buffer.force();
+         segment.count.set(count);
+         segment.clean = false;
+         segment.table = newTable;
+         // Readers may still be probing the old table, which is unmapped once they let go of it. Where the platform
+         // won't delete a mapped file, the next open deletes it.
+         if (!oldTable.file.delete()) {
+            LOG.debug("Unable to delete {} while mapped, will delete when next opened", oldTable.file);
+         }
+      } catch (IOException e) {
+         throw new RuntimeException("Unable to resize uuid to nid segment " + segment.index, e);
+      } finally {
+         segment.resizeLock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * Force the tables to disk, and record the highest nid generated.
+    *
+    * @throws IOException if the nid can't be written
+    */
+   public void write() throws IOException {
+      for (Segment segment : this.segments) {
+         segment.resizeLock.writeLock().lock();
+         try {
+            if (!segment.clean) {
+               segment.table.buffer.force();
+               writeHeader(segment.table, segment.count.get(), true, segment.maxNid.get());
+               segment.table.buffer.force();
+               segment.clean = true;
+            }
+         } finally {
+            segment.resizeLock.writeLock().unlock();
+         }
+      }
+      ByteArrayDataBuffer badb = new ByteArrayDataBuffer();
+      badb.putInt(getMaxNid());
+      Files.write(new File(this.folder, "map.params").toPath(), badb.getData());
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public int getMaxNid() {
+      return this.nextNidProvider.get();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public UUID[] getKeysForValue(int nid) {
+      if (this.nidToPrimordialCache != null) {
+         final UUID[] cacheHit = this.nidToPrimordialCache.getIfPresent(nid);
+
+         if ((cacheHit != null) && (cacheHit.length > 0)) {
+            return cacheHit;
+         }
+      }
+
+      final ArrayList<UUID> uuids = new ArrayList<>();
+      for (Segment segment : this.segments) {
+         Table table = segment.table;
+         for (int slot = 0; slot < table.capacity; slot++) {
+            if (table.state(slot) == FULL && table.nid(slot) == nid) {
+               int offset = Table.slotOffset(slot);
+               uuids.add(new UUID((long) LONG_HANDLE.get(table.buffer, offset), (long) LONG_HANDLE.get(table.buffer, offset + 8)));
+            }
+         }
+      }
+
+      final UUID[] temp = uuids.toArray(new UUID[uuids.size()]);
+
+      if ((this.nidToPrimordialCache != null) && (temp.length > 0)) {
+         this.nidToPrimordialCache.put(nid, temp);
+      }
+
+      return temp;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean inverseCacheEnabled() {
+      return this.nidToPrimordialCache != null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void enableInverseCache() {
+      if (this.nidToPrimordialCache == null) {
+         this.nidToPrimordialCache = Caffeine.newBuilder().build();
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean cacheContainsNid(int nid) {
+      if (this.nidToPrimordialCache != null) {
+         return this.nidToPrimordialCache.getIfPresent(nid) != null;
+      }
+      return false;
+   }
+
+   private void updateCache(int nid, UUID uuidKey) {
+      if (this.nidToPrimordialCache != null) {
+         synchronized (this.nidToPrimordialCache) {
+            final UUID[] temp = this.nidToPrimordialCache.getIfPresent(nid);
+            UUID[] temp1;
+
+            if (temp == null) {
+               temp1 = new UUID[] { uuidKey };
+            } else {
+               temp1 = Arrays.copyOf(temp, temp.length + 1);
+               temp1[temp.length] = uuidKey;
+            }
+
+            this.nidToPrimordialCache.put(nid, temp1);
+         }
+      }
+   }
+
+   /**
+    * @return the number of UUIDs in the map
+    */
+   public int size() {
+      int size = 0;
+      for (Segment segment : this.segments) {
+         size += segment.count.get();
+      }
+      return size;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public int getDiskSpaceUsed() {
+      long bytes = 0;
+      for (Segment segment : this.segments) {
+         bytes += segment.table.file.length();
+      }
+      return (int) Math.min(bytes, Integer.MAX_VALUE);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public int getMemoryInUse() {
+      // The tables are off heap, only the segment objects are held here.
+      return SEGMENT_COUNT * 128;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void shutdown() {
+      try {
+         write();
+      } catch (IOException e) {
+         LOG.error("Unable to sync the uuid to nid map in " + this.folder, e);
+      }
+   }
+}
@@ -1,5 +1,6 @@
 package sh.isaac.api.commit;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface CommitListener {
@@ -17,4 +18,16 @@ public interface CommitListener {
      * @param commitRecord a record of a successful commit.
      */
     void handleCommit(CommitRecord commitRecord);
+
+    /**
+     * Called once for commits that were completed together, as a group commit does. Listeners
+     * that can share work across the records may override this.
+     * Don't do work on or block the calling thread.
+     * @param commitRecords records of successful commits, in commit order.
+     */
+    default void handleCommits(List<CommitRecord> commitRecords) {
+        for (CommitRecord commitRecord : commitRecords) {
+            handleCommit(commitRecord);
+        }
+    }
 }
@@ -40,6 +40,7 @@
 package sh.isaac.api.commit;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.stream.Stream;
@@ -104,6 +105,17 @@ public interface CommitService
     */
    Task<Void> addUncommitted(Transaction transaction, Chronology chronology);
 
+   /**
+    * Write many uncommitted chronologies as one task, rather than a task per chronology, for bulk changes such as
+    * the results of a classification. No change checks are performed. The chronologies must already be part of the
+    * transaction, and are committed with it; taxonomy and index updates are made once, when the transaction commits.
+    *
+    * @param transaction the transaction the chronologies were changed in
+    * @param chronologies the chronologies to write
+    * @return the write task, already submitted
+    */
+   Task<Void> addUncommittedNoChecks(Transaction transaction, Collection<? extends Chronology> chronologies);
+
    /**
     * Commit all pending changes for the provided EditCoordinate. The caller may
     * chose to block on the returned task if synchronous operation is desired.
@@ -40,6 +40,7 @@
 package sh.isaac.api.commit;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 import java.util.stream.IntStream;
 import org.eclipse.collections.api.factory.Sets;
@@ -105,6 +106,17 @@ public interface StampService
     */
    TimedTask<Void> commit(Transaction transaction, long commitTime);
 
+   /**
+    * Used by the commit manger to commit several transactions in a single pass over their
+    * uncommitted stamps, as when commits arriving together are grouped. Should only be used
+    * by developers creating their own commit service.
+    *
+    * @param transactions the transactions to commit
+    * @param commitTimes the commit time to associate with each transaction, in the same order
+    * @return the task
+    */
+   TimedTask<Void> commit(List<? extends Transaction> transactions, long[] commitTimes);
+
    /**
     * Describe stamp sequence.
     *
@@ -86,6 +86,58 @@ public class SystemPropertyConstants {
     */
    public static final String DATA_STORE_TYPE = "DATA_STORE_TYPE";
    
+   /** 
+    * Used to specify the on disk chronology format for a new file system datastore, either SPINE_FILES (the default) 
+    * or MAPPED_SEGMENTS. An existing datastore is always opened with the format it was created with.
+    */
+   public static final String FILESYSTEM_CHRONOLOGY_FORMAT = "FILESYSTEM_CHRONOLOGY_FORMAT";
+
+   /** 
+    * Used to enable the write ahead log of the file system datastore by providing a value of 'true'. Chronology and 
+    * taxonomy writes are then made durable by appending them to a log, and the spines are only rewritten when the log 
+    * is folded into them.
+    */
+   public static final String FILESYSTEM_WRITE_AHEAD_LOG = "FILESYSTEM_WRITE_AHEAD_LOG";
+
+   /** 
+    * Used to select the format of the UUID to nid map of a new datastore, when the map isn't kept in the datastore 
+    * itself. 'MAPPED' keeps it off heap, in memory mapped hash tables. Unset keeps it in the on heap shards. An 
+    * existing map always reopens in the format it was written in.
+    */
+   public static final String UUID_NID_MAP_FORMAT = "UUID_NID_MAP_FORMAT";
+
+   /** 
+    * Used to enable group commit, by specifying a window in milliseconds, for example '5'. Transaction commits that 
+    * arrive within the window of the first share one pass over their stamps and one notification of the commit 
+    * listeners. Unset or '0' commits each transaction on its own.
+    */
+   public static final String COMMIT_GROUP_WINDOW_MILLIS = "COMMIT_GROUP_WINDOW_MILLIS";
+
+   /** 
+    * Used to enable lazy decoding of the versions of chronologies read from the datastore, by providing a value of 
+    * 'true'. Only the stamps of the versions are read up front, and a version is decoded when it is first asked for,
+    * so finding the latest version under a filter only decodes the latest versions. 
+    */
+   public static final String LAZY_VERSION_DECODING = "LAZY_VERSION_DECODING";
+
+   /** 
+    * Used to specify the approximate number of heap bytes the chronology object cache may hold, for example 
+    * '4000000000'. This will override {@link GlobalDatastoreConfiguration#getChronologyCacheMaximumBytes()}
+    */
+   public static final String CHRONOLOGY_CACHE_MAXIMUM_BYTES = "CHRONOLOGY_CACHE_MAXIMUM_BYTES";
+
+   /** 
+    * Used to enable the soft reference tier of the chronology object cache by providing a value of 'true'.
+    * This will override {@link GlobalDatastoreConfiguration#enableChronologySoftCache()}
+    */
+   public static final String CHRONOLOGY_CACHE_SOFT_TIER = "CHRONOLOGY_CACHE_SOFT_TIER";
+
+   /** 
+    * Used to disable the reachability index built for each taxonomy tree by providing a value of 'false'. Descendent 
+    * tests on the tree then walk its parents rather than consulting the index.
+    */
+   public static final String TAXONOMY_REACHABILITY_INDEX = "TAXONOMY_REACHABILITY_INDEX";
+   
    /** 
     * Used to disable the lucene implementation, even when it is on the classpath.
     * This will override {@ GlobalDatastoreConfiguration#enableLuceneIndexes()}
@@ -101,6 +101,21 @@ public interface DataStore
     */
    Optional<ByteArrayDataBuffer> getChronologyVersionData(int nid);
 
+   /**
+    * Get the chronology data for many nids in one call. Implementations may group the nids by assemblage and 
+    * spine, so each spine is looked up once per call, rather than once per nid.
+    *
+    * @param nids the nids to get data for
+    * @return the data for each nid, in the order of the nids, with null where a nid has no data
+    */
+   default ByteArrayDataBuffer[] getChronologyVersionData(int[] nids) {
+      ByteArrayDataBuffer[] data = new ByteArrayDataBuffer[nids.length];
+      for (int i = 0; i < nids.length; i++) {
+         data[i] = getChronologyVersionData(nids[i]).orElse(null);
+      }
+      return data;
+   }
+
    /**
     * Gets the SemanticChronology nids for component.
     *
@@ -41,6 +41,7 @@ package sh.isaac.api.externalizable;
 
 //~--- JDK imports ------------------------------------------------------------
 
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 //~--- interfaces -------------------------------------------------------------
@@ -60,5 +61,25 @@ public interface BinaryDataReaderService
     * @return the stream
     */
    Stream<IsaacExternalizable> getStream();
+
+   /**
+    * Pass every object to the action in two phases: first the stamp, stamp alias and stamp comment records, in 
+    * order, and then the concepts and semantics, which implementations may parse and pass to the action in 
+    * parallel. The action must be thread safe.
+    *
+    * The default implementation passes every object in order, on the calling thread.
+    *
+    * @param action the action to perform on each object
+    */
+   default void forEachInPhases(Consumer<? super IsaacExternalizable> action) {
+      getStream().forEach(action);
+   }
+
+   /**
+    * @return the number of objects the reader will pass, or -1 if it is not known before the data is read
+    */
+   default int getObjectCount() {
+      return -1;
+   }
 }
 
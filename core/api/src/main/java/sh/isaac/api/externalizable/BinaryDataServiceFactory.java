@@ -81,6 +81,17 @@ public interface BinaryDataServiceFactory {
    BinaryDataReaderService getReader(InputStream inputStream)
             throws FileNotFoundException;
 
+   /**
+    * Gets a reader that memory maps the file, and splits its records for parallel parsing.
+    *
+    * @param dataPath data file location
+    * @param useIndexSidecar true to cache the offsets of the records in a ".idx" file next to the data file
+    * @return the BinaryDataReaderService for the given dataPath
+    * @throws IOException if the file cannot be indexed or mapped
+    */
+   BinaryDataReaderService getMappedReader(Path dataPath, boolean useIndexSidecar)
+            throws IOException;
+
    /**
     * Gets the writer.
     *
@@ -670,6 +670,25 @@ public class ByteArrayDataBuffer {
       return this;
    }
 
+   /**
+    * A read only buffer over the same data, with the same start, limit and format, and a position of its own,
+    * starting at the position of this buffer. Reading either buffer doesn't move the position of the other.
+    *
+    * @return the byte array data buffer
+    */
+   public ByteArrayDataBuffer duplicate() {
+      final ByteArrayDataBuffer duplicate = new ByteArrayDataBuffer(this.data, this.positionStart);
+
+      duplicate.readOnly                = true;
+      duplicate.position                = this.position;
+      duplicate.used                    = this.used;
+      duplicate.objectDataFormatVersion = this.objectDataFormatVersion;
+      duplicate.externalData            = this.externalData;
+      duplicate.identifierService       = this.identifierService;
+      duplicate.stampService            = this.stampService;
+      return duplicate;
+   }
+
    /**
     * Slice.
     *
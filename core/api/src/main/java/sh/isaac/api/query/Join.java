@@ -26,8 +26,16 @@ import sh.isaac.api.observable.ObservableChronology;
 import sh.isaac.api.observable.ObservableVersion;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
 
 /**
  *
@@ -38,6 +46,7 @@ public class Join
 
     List<? extends JoinSpecification> joinSpecifications = new ArrayList<>();
     List<int[]> joinResults = new ArrayList<>();
+    JoinStrategy joinStrategy = JoinStrategy.HASH;
     
     /**
      * Default no arg constructor for Jaxb.
@@ -70,6 +79,14 @@ public class Join
         this.joinSpecifications = joinSpecifications;
     }
 
+    public JoinStrategy getJoinStrategy() {
+        return joinStrategy;
+    }
+
+    public void setJoinStrategy(JoinStrategy joinStrategy) {
+        this.joinStrategy = joinStrategy;
+    }
+
     public int[][] getJoinResults() {
         return joinResults.toArray(new int[joinResults.size()][]);
     }
@@ -90,28 +107,157 @@ public class Join
             NidSet nidSet1 = searchSpace.get(joinSpec.getFirstAssemblage());
             NidSet nidSet2 = searchSpace.get(joinSpec.getSecondAssemblage());
             StampFilter stampFilter = getLetItem(joinSpec.getStampFilterKey());
-            for (int nid1: nidSet1.asArray()) {
-                ObservableChronology chron1 = Get.observableChronology(nid1);
-                LatestVersion<ObservableVersion> version1Latest = chron1.getLatestObservableVersion(stampFilter);
-                if (version1Latest.isPresent() && version1Latest.get().getPropertyMap().containsKey(joinSpec.getFirstField().getFieldSpec())) {
-                    ObservableVersion v1 = version1Latest.get();
-                    ReadOnlyProperty<?> v1Prop = v1.getPropertyMap().get(joinSpec.getFirstField().getFieldSpec());
-                    for (int nid2: nidSet2.asArray()) {
-                        ObservableChronology chron2 = Get.observableChronology(nid2);
-                        LatestVersion<ObservableVersion> version2Latest = chron2.getLatestObservableVersion(stampFilter);
-                        if (version2Latest.isPresent() && version2Latest.get().getPropertyMap().containsKey(joinSpec.getSecondField().getFieldSpec())) {
-                            ObservableVersion v2 = version2Latest.get();
-                            ReadOnlyProperty<?> v2Prop = v2.getPropertyMap().get(joinSpec.getSecondField().getFieldSpec());
-                            if (v1Prop.getValue().equals(v2Prop.getValue())) {
-                                joinResults.add(new int[] {nid1, nid2});
-                            } 
-                        } 
+            JoinKeys firstKeys = JoinKeys.project(nidSet1, joinSpec.getFirstField().getFieldSpec(), stampFilter);
+            JoinKeys secondKeys = JoinKeys.project(nidSet2, joinSpec.getSecondField().getFieldSpec(), stampFilter);
+            joinResults.addAll(join(joinStrategy, firstKeys, secondKeys));
+        }
+
+        return searchSpace;
+    }
+
+    /**
+     * Pair the members of the two sides with equal join fields.
+     *
+     * @return the pairs of first and second nids, sorted by first then second nid
+     */
+    static List<int[]> join(JoinStrategy joinStrategy, JoinKeys firstKeys, JoinKeys secondKeys) {
+        List<int[]> pairs = (joinStrategy == JoinStrategy.SORT_MERGE) ?
+                sortMergeJoin(firstKeys, secondKeys) : hashJoin(firstKeys, secondKeys);
+        // Same order as a nested loop over the two nid sets.
+        pairs.sort((int[] pair1, int[] pair2) -> {
+            int comparison = Integer.compare(pair1[0], pair2[0]);
+            return comparison != 0 ? comparison : Integer.compare(pair1[1], pair2[1]);
+        });
+        return pairs;
+    }
+
+    /**
+     * The join field of each member of one side of a join, taken once from the latest version of the member.
+     * Members without a latest version, or without the field, have a null value and match nothing.
+     */
+    static class JoinKeys {
+        final int[] nids;
+        final Object[] values;
+
+        JoinKeys(int[] nids, Object[] values) {
+            this.nids = nids;
+            this.values = values;
+        }
+
+        static JoinKeys project(NidSet nidSet, ConceptSpecification fieldSpec, StampFilter stampFilter) {
+            int[] nids = nidSet.asArray();
+            Object[] values = new Object[nids.length];
+            IntStream.range(0, nids.length).parallel().forEach((index) -> {
+                ObservableChronology chronology = Get.observableChronology(nids[index]);
+                LatestVersion<ObservableVersion> latestVersion = chronology.getLatestObservableVersion(stampFilter);
+                if (latestVersion.isPresent()) {
+                    ReadOnlyProperty<?> property = latestVersion.get().getPropertyMap().get(fieldSpec);
+                    if (property != null) {
+                        values[index] = property.getValue();
                     }
-                } 
+                }
+            });
+            return new JoinKeys(nids, values);
+        }
+    }
+
+    /**
+     * Hash the smaller side, then stream the larger side through the table in parallel. Integer fields, which
+     * hold nids, are kept in a primitive keyed table.
+     */
+    private static List<int[]> hashJoin(JoinKeys first, JoinKeys second) {
+        boolean buildFirst = first.nids.length <= second.nids.length;
+        JoinKeys build = buildFirst ? first : second;
+        JoinKeys probe = buildFirst ? second : first;
+        MutableIntObjectMap<IntArrayList> intTable = IntObjectMaps.mutable.empty();
+        Map<Object, IntArrayList> objectTable = new HashMap<>();
+
+        for (int index = 0; index < build.nids.length; index++) {
+            Object value = build.values[index];
+            if (value instanceof Integer) {
+                intTable.getIfAbsentPut((Integer) value, IntArrayList::new).add(build.nids[index]);
+            } else if (value != null) {
+                objectTable.computeIfAbsent(value, (key) -> new IntArrayList()).add(build.nids[index]);
             }
         }
 
-        return searchSpace;
+        return IntStream.range(0, probe.nids.length).parallel().boxed().flatMap((index) -> {
+            Object value = probe.values[index];
+            IntArrayList matches = null;
+            if (value instanceof Integer) {
+                matches = intTable.get((Integer) value);
+            } else if (value != null) {
+                matches = objectTable.get(value);
+            }
+            if (matches == null) {
+                return Stream.empty();
+            }
+            int probeNid = probe.nids[index];
+            return IntStream.of(matches.toArray()).mapToObj((buildNid) ->
+                    buildFirst ? new int[] {buildNid, probeNid} : new int[] {probeNid, buildNid});
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * Sort both sides by join field, and pair the runs of equal fields. Falls back to a hash join unless all the
+     * fields are of a single comparable class.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<int[]> sortMergeJoin(JoinKeys first, JoinKeys second) {
+        Class<?> keyClass = null;
+        for (JoinKeys keys: new JoinKeys[] {first, second}) {
+            for (Object value: keys.values) {
+                if (value != null) {
+                    if (keyClass == null) {
+                        keyClass = value.getClass();
+                    }
+                    if (value.getClass() != keyClass || !(value instanceof Comparable)) {
+                        return hashJoin(first, second);
+                    }
+                }
+            }
+        }
+        Integer[] firstOrder = sortedIndexes(first);
+        Integer[] secondOrder = sortedIndexes(second);
+        List<int[]> pairs = new ArrayList<>();
+        int firstPosition = 0;
+        int secondPosition = 0;
+
+        while (firstPosition < firstOrder.length && secondPosition < secondOrder.length) {
+            Comparable firstValue = (Comparable) first.values[firstOrder[firstPosition]];
+            int comparison = firstValue.compareTo(second.values[secondOrder[secondPosition]]);
+            if (comparison < 0) {
+                firstPosition++;
+            } else if (comparison > 0) {
+                secondPosition++;
+            } else {
+                int firstEnd = firstPosition;
+                while (firstEnd < firstOrder.length && firstValue.compareTo(first.values[firstOrder[firstEnd]]) == 0) {
+                    firstEnd++;
+                }
+                int secondEnd = secondPosition;
+                while (secondEnd < secondOrder.length && firstValue.compareTo(second.values[secondOrder[secondEnd]]) == 0) {
+                    secondEnd++;
+                }
+                for (int i = firstPosition; i < firstEnd; i++) {
+                    for (int j = secondPosition; j < secondEnd; j++) {
+                        pairs.add(new int[] {first.nids[firstOrder[i]], second.nids[secondOrder[j]]});
+                    }
+                }
+                firstPosition = firstEnd;
+                secondPosition = secondEnd;
+            }
+        }
+        return pairs;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Integer[] sortedIndexes(JoinKeys keys) {
+        Integer[] order = IntStream.range(0, keys.nids.length)
+                .filter((index) -> keys.values[index] != null)
+                .boxed().toArray(Integer[]::new);
+        Arrays.parallelSort(order, (index1, index2) -> ((Comparable) keys.values[index1]).compareTo(keys.values[index2]));
+        return order;
     }
 
     @Override
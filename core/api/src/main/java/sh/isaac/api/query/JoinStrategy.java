@@ -0,0 +1,28 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.api.query;
+
+/**
+ * How a {@link Join} matches the join fields of its two assemblages. Both strategies read the join field of each
+ * member once, and produce the same pairs.
+ */
+public enum JoinStrategy {
+    /** Hash the join fields of the smaller side, and probe the table with the larger side in parallel. */
+    HASH,
+    /**
+     * Sort both sides by join field, and merge. Used when the join fields are ordered, falls back to
+     * {@link #HASH} when they are not mutually comparable.
+     */
+    SORT_MERGE;
+}
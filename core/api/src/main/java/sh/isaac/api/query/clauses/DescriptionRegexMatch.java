@@ -46,24 +46,28 @@ import sh.isaac.api.collections.NidSet;
 import sh.isaac.api.component.concept.ConceptSpecification;
 import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.component.semantic.version.DescriptionVersion;
+import sh.isaac.api.coordinate.StampFilter;
 import sh.isaac.api.query.*;
 import sh.isaac.api.query.properties.QueryStringClause;
+import sh.isaac.api.query.properties.StampCoordinateClause;
 
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 //~--- non-JDK imports --------------------------------------------------------
 
 //~--- classes ----------------------------------------------------------------
 /**
  * Calculates descriptions that match the specified Java Regular Expression.
- * Very slow when iterating over a large sets.
+ * The expression is compiled once, and the descriptions are matched in parallel.
+ * If a stamp coordinate key is set, only the latest description versions are matched.
  *
  * @author kec
  */
 public class DescriptionRegexMatch
-        extends QueryStringAbstract implements QueryStringClause {
+        extends QueryStringAbstract implements QueryStringClause, StampCoordinateClause {
 
 
     //~--- constructors --------------------------------------------------------
@@ -92,25 +96,19 @@ public class DescriptionRegexMatch
      */
     @Override
     public Map<ConceptSpecification, NidSet> computePossibleComponents(Map<ConceptSpecification, NidSet> incomingPossibleComponents) {
-        String regex = getQueryText();
-        NidSet possibleComponents = incomingPossibleComponents.get(getAssemblageForIteration());
-        for (int nid : possibleComponents.asArray()) {
+        Pattern pattern = Pattern.compile(getQueryText());
+        StampFilter stampFilter = getStampFilterForMatch();
+        return retainMatches(incomingPossibleComponents, nid -> {
             Optional<? extends Chronology> c = Get.identifiedObjectService().getChronology(nid);
-            boolean found = false;
             if (c.isPresent() && c.get() instanceof SemanticChronology && c.get().getVersionType() == VersionType.DESCRIPTION) {
-                for (Version dv : c.get().getVersionList()) {
-                    if (((DescriptionVersion) dv).getText().matches(regex)) {
-                        found = true;
-                        break;
+                for (Version dv : getVersionsToMatch(c.get(), stampFilter)) {
+                    if (pattern.matcher(((DescriptionVersion) dv).getText()).matches()) {
+                        return true;
                     }
                 }
             }
-            if (!found) {
-                possibleComponents.remove(nid);
-            }
-        }
-
-        return incomingPossibleComponents;
+            return false;
+        });
     }
 
     //~--- get methods ---------------------------------------------------------
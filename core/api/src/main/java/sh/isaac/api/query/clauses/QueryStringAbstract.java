@@ -16,12 +16,23 @@
  */
 package sh.isaac.api.query.clauses;
 
+import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.api.chronicle.LatestVersion;
+import sh.isaac.api.chronicle.Version;
+import sh.isaac.api.collections.ConcurrentBitSet;
+import sh.isaac.api.collections.NidSet;
+import sh.isaac.api.component.concept.ConceptSpecification;
+import sh.isaac.api.coordinate.StampFilter;
 import sh.isaac.api.query.LeafClause;
 import sh.isaac.api.query.LetItemKey;
 import sh.isaac.api.query.Query;
 import sh.isaac.api.query.properties.QueryStringClause;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
 
 /**
  *
@@ -36,6 +47,11 @@ public abstract class QueryStringAbstract extends LeafClause implements QueryStr
     
     private boolean regex = false;
 
+    /**
+     * When set, only the latest versions under this stamp filter are matched, otherwise every version is.
+     */
+    private LetItemKey stampCoordinateKey;
+
     public QueryStringAbstract() {
     }
 
@@ -72,6 +88,57 @@ public abstract class QueryStringAbstract extends LeafClause implements QueryStr
     public void setRegex(boolean regex) {
         this.regex = regex;
     }
-    
-    
+
+    public LetItemKey getStampCoordinateKey() {
+        return stampCoordinateKey;
+    }
+
+    public void setStampCoordinateKey(LetItemKey stampCoordinateKey) {
+        this.stampCoordinateKey = stampCoordinateKey;
+    }
+
+    /**
+     * @return the stamp filter that selects the versions to match, or null if every version is matched
+     */
+    protected StampFilter getStampFilterForMatch() {
+        if (stampCoordinateKey == null) {
+            return null;
+        }
+        return getLetItem(stampCoordinateKey);
+    }
+
+    /**
+     * @param chronology the chronology to match
+     * @param stampFilter the filter from {@link #getStampFilterForMatch()}
+     * @return every version if the filter is null, otherwise the latest version and any contradictions
+     */
+    protected static <V extends Version> List<V> getVersionsToMatch(Chronology chronology, StampFilter stampFilter) {
+        if (stampFilter == null) {
+            return chronology.getVersionList();
+        }
+        LatestVersion<V> latest = chronology.getLatestVersion(stampFilter);
+        return latest.versionList();
+    }
+
+    /**
+     * Test the possible components of the iteration assemblage in parallel on the fork join pool, and replace them
+     * with the ones that pass. Matches are marked by position in a concurrent bit set, rather than removed one at a
+     * time from the shared nid set.
+     *
+     * @param incomingPossibleComponents the incoming possible components
+     * @param matcher tests a nid, called concurrently
+     * @return the possible components, with those of the iteration assemblage filtered
+     */
+    protected final Map<ConceptSpecification, NidSet> retainMatches(Map<ConceptSpecification, NidSet> incomingPossibleComponents,
+            IntPredicate matcher) {
+        int[] possibleNids = incomingPossibleComponents.get(getAssemblageForIteration()).asArray();
+        ConcurrentBitSet matches = new ConcurrentBitSet(possibleNids.length);
+        IntStream.range(0, possibleNids.length).parallel().forEach(index -> {
+            if (matcher.test(possibleNids[index])) {
+                matches.set(index);
+            }
+        });
+        incomingPossibleComponents.put(getAssemblageForIteration(), NidSet.of(matches.stream().map(index -> possibleNids[index])));
+        return incomingPossibleComponents;
+    }
 }
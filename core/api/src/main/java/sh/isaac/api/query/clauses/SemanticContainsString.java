@@ -23,7 +23,9 @@ import sh.isaac.api.component.concept.ConceptSpecification;
 import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.component.semantic.version.StringVersion;
 import sh.isaac.api.component.semantic.version.brittle.*;
+import sh.isaac.api.coordinate.StampFilter;
 import sh.isaac.api.query.*;
+import sh.isaac.api.query.properties.StampCoordinateClause;
 
 import java.util.ArrayList;
 import java.util.EnumSet;
@@ -35,7 +37,7 @@ import java.util.regex.Pattern;
  *
  * @author kec
  */
-public class SemanticContainsString extends QueryStringAbstract {
+public class SemanticContainsString extends QueryStringAbstract implements StampCoordinateClause {
 
     public SemanticContainsString() {
     }
@@ -64,19 +66,24 @@ public class SemanticContainsString extends QueryStringAbstract {
             pattern = Pattern.compile(Pattern.quote(queryString));
         }
 
-        NidSet possibleComponents = incomingPossibleComponents.get(getAssemblageForIteration());
-        for (int nid : possibleComponents.asArray()) {
-            SemanticChronology sc = Get.assemblageService().getSemanticChronology(nid);
-            if (!regexMatch(sc, pattern)) {
-                possibleComponents.remove(nid);
-            }
-        }
-        return incomingPossibleComponents;
+        StampFilter stampFilter = getStampFilterForMatch();
+        return retainMatches(incomingPossibleComponents,
+                nid -> regexMatch(Get.assemblageService().getSemanticChronology(nid), pattern, stampFilter));
     }
 
     protected boolean regexMatch(SemanticChronology sc, Pattern pattern) {
+        return regexMatch(sc, pattern, null);
+    }
+
+    /**
+     * @param sc the semantic to match
+     * @param pattern the compiled pattern to find in the string fields of the semantic
+     * @param stampFilter if not null, only the latest versions under this filter are matched
+     * @return true if any string field of a matched version contains the pattern
+     */
+    protected boolean regexMatch(SemanticChronology sc, Pattern pattern, StampFilter stampFilter) {
         List<String> stringsToMatch = new ArrayList<>();
-        for (Version v : sc.getVersionList()) {
+        for (Version v : getVersionsToMatch(sc, stampFilter)) {
             switch (sc.getVersionType()) {
                 case Int1_Int2_Str3_Str4_Str5_Nid6_Nid7:
 
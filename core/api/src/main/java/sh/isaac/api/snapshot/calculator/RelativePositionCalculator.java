@@ -73,7 +73,6 @@ import sh.isaac.api.coordinate.StampPositionImmutable;
 import sh.isaac.api.coordinate.StatusSet;
 import sh.isaac.api.dag.Graph;
 import sh.isaac.api.dag.Node;
-import sh.isaac.api.identity.IdentifiedObject;
 import sh.isaac.api.identity.StampedVersion;
 import sh.isaac.api.observable.ObservableChronology;
 import sh.isaac.api.observable.ObservableVersion;
@@ -93,8 +92,6 @@ public class RelativePositionCalculator implements StaticIsaacCache {
            new ConcurrentReferenceHashMap<>(ConcurrentReferenceHashMap.ReferenceType.WEAK,
                    ConcurrentReferenceHashMap.ReferenceType.WEAK);
 
-   /** The error count. */
-   private int  errorCount   = 0;
    private StampService stampService;
 
    /** The coordinate. */
@@ -384,64 +381,6 @@ public class RelativePositionCalculator implements StaticIsaacCache {
                      });
    }
 
-   /**
-    * Handle part.
-    *
-    * @param <V> the value type
-    * @param partsForPosition the parts for position
-    * @param part the part
-    */
-   private <V extends StampedVersion> void handlePart(HashSet<V> partsForPosition, StampedVersion part) {
-      // create a list of values so we don't have any
-      // concurrent modification issues with removing/adding
-      // items to the partsForPosition.
-      final List<StampedVersion> partsToCompare = new ArrayList<>(partsForPosition);
-
-      for (final StampedVersion prevPartToTest: partsToCompare) {
-         switch (fastRelativePosition(part, prevPartToTest)) {
-         case AFTER:
-            partsForPosition.remove((V) prevPartToTest);
-            partsForPosition.add((V) part);
-            break;
-
-         case BEFORE:
-            break;
-
-         case CONTRADICTION:
-            partsForPosition.add((V) part);
-            break;
-
-         case EQUAL:
-
-            // Can only have one part per time/path
-            // combination.
-            if (prevPartToTest.equals(part)) {
-               // part already added from another position.
-               // No need to add again.
-               break;
-            }
-
-            // Duplicate values encountered.
-            this.errorCount++;
-
-            if (this.errorCount < 5) {
-               LOG.warn(
-                   "{} should never happen. " + "Data is malformed. StampSequence: {} Part:\n{} \n  Part to test: \n{}\n",
-                   new Object[] { RelativePosition.EQUAL, part.getStampSequence(), part, prevPartToTest,  
-                       ((IdentifiedObject)part).getPrimordialUuid()});
-            }
-
-            break;
-
-         case UNREACHABLE:
-
-            // Should have failed mapper.onRoute(part)
-            // above.
-            throw new RuntimeException(RelativePosition.UNREACHABLE + " should never happen.");
-         }
-      }
-   }
-
    /**
     * Handle stamp.
     *
@@ -581,24 +520,8 @@ public class RelativePositionCalculator implements StaticIsaacCache {
    }
 
    public <V extends ObservableVersion> LatestVersion<V> getLatestCommittedVersion(ObservableChronology chronicle) {
-      final HashSet<V> latestVersionSet = new HashSet<>();
-
-      chronicle.getVersionList()
-               .stream()
-               .filter(
-                   (newVersionToTest) -> ((newVersionToTest.getTime() != Long.MIN_VALUE) &&
-                         (!Get.stampService().isUncommitted(newVersionToTest.getStampSequence()))))
-               .filter((newVersionToTest) -> (onRoute(newVersionToTest)))
-               .forEach(
-                   (newVersionToTest) -> {
-                      if (latestVersionSet.isEmpty()) {
-                         latestVersionSet.add((V) newVersionToTest);
-                      } else {
-                         handlePart(latestVersionSet, newVersionToTest);
-                      }
-                   });
-
-      final List<V> latestVersionList = new ArrayList<>(latestVersionSet);
+      final List<V> latestVersionList = chronicle.getVersionsForStamps(
+            getLatestVersionStampSequences(getObservableStampSequences(chronicle), false));
 
       if (latestVersionList.isEmpty()) {
          return new LatestVersion<>();
@@ -645,6 +568,32 @@ public class RelativePositionCalculator implements StaticIsaacCache {
       return getResults(stampsForPosition);
    }
 
+   /**
+    * Gets the latest of the stamps of the versions of a chronology, skipping canceled stamps, without the allowed
+    * states filter of {@link #getLatestStampSequencesAsSet(int[])}, which the callers apply to the versions.
+    *
+    * @param stampSequences the stamps of the versions
+    * @param allowUncommitted false to skip uncommitted stamps
+    * @return the latest stamp sequences
+    */
+   private int[] getLatestVersionStampSequences(int[] stampSequences, boolean allowUncommitted) {
+      MutableIntSet stampsForPosition = IntSets.mutable.empty();
+      for (int stampToCompare: stampSequences) {
+         if (getStampService().getTimeForStamp(stampToCompare) != Long.MIN_VALUE) {
+            handleStamp(stampsForPosition, stampToCompare, allowUncommitted);
+         }
+      }
+      return stampsForPosition.toArray();
+   }
+
+   /**
+    * The observable versions are already decoded, and may include versions not yet in the wrapped chronology, so
+    * their stamps are taken from the versions, rather than from {@link Chronology#getVersionStampSequences()}.
+    */
+   private static int[] getObservableStampSequences(ObservableChronology chronicle) {
+      return chronicle.getVersionList().stream().mapToInt((version) -> version.getStampSequence()).distinct().toArray();
+   }
+
    private int[] getResults(MutableIntSet stampsForPosition) {
       MutableIntSet resultList = IntSets.mutable.of();
 
@@ -665,35 +614,14 @@ public class RelativePositionCalculator implements StaticIsaacCache {
     * @return the latest version
     */
    public <C extends Chronology, V extends StampedVersion> LatestVersion<V> getLatestVersion(C chronicle) {
-      final HashSet<V> latestVersionSet = new HashSet<>();
-
-      chronicle.getVersionList()
-               .stream()
-               .filter((newVersionToTest) -> (newVersionToTest.getTime() != Long.MIN_VALUE))
-               .filter((newVersionToTest) -> (onRoute(newVersionToTest)))
-               .forEach(
-                   (newVersionToTest) -> {
-                      if (latestVersionSet.isEmpty()) {
-                         latestVersionSet.add((V) newVersionToTest);
-                      } else {
-                         handlePart(latestVersionSet, newVersionToTest);
-                      }
-                   });
+      // Only the latest versions are asked for, so a chronology that decodes its versions lazily decodes no others.
+      final List<V> latestVersionList = chronicle.getVersionsForStamps(
+            getLatestVersionStampSequences(chronicle.getVersionStampSequences(), true));
 
       if (this.filter.getAllowedStates().isActiveOnly()) {
-         final HashSet<V> inactiveVersions = new HashSet<>();
-
-         latestVersionSet.stream()
-                         .forEach((version) -> {
-                                if (version.getStatus() != Status.ACTIVE) {
-                                   inactiveVersions.add(version);
-                                }
-                             });
-         latestVersionSet.removeAll(inactiveVersions);
+         latestVersionList.removeIf((version) -> version.getStatus() != Status.ACTIVE);
       }
 
-      final List<V> latestVersionList = new ArrayList<>(latestVersionSet);
-
       if (latestVersionList.isEmpty()) {
          return new LatestVersion<>();
       }
@@ -714,22 +642,8 @@ public class RelativePositionCalculator implements StaticIsaacCache {
     */
    public <V extends ObservableVersion> LatestVersion<V> getLatestVersion(ObservableChronology chronicle) {
       // TODO this observable method is slightly different than the primitive version. Is that to support temporary observable only versions?
-      final HashSet<V> latestVersionSet = new HashSet<>();
-
-      chronicle.getVersionList()
-               .stream()
-               .filter((newVersionToTest) -> (newVersionToTest.getTime() != Long.MIN_VALUE))
-               .filter((newVersionToTest) -> (onRoute(newVersionToTest)))
-               .forEach(
-                   (newVersionToTest) -> {
-                      if (latestVersionSet.isEmpty()) {
-                         latestVersionSet.add((V) newVersionToTest);
-                      } else {
-                         handlePart(latestVersionSet, newVersionToTest);
-                      }
-                   });
-
-      final List<V> latestVersionList = new ArrayList<>(latestVersionSet);
+      final List<V> latestVersionList = chronicle.getVersionsForStamps(
+            getLatestVersionStampSequences(getObservableStampSequences(chronicle), true));
 
       if (latestVersionList.isEmpty()) {
          return new LatestVersion<>();
@@ -746,7 +660,7 @@ public class RelativePositionCalculator implements StaticIsaacCache {
       }
       for (int i = 1; i < latestVersionList.size(); i++) {
          if (allowedStates.contains(latestVersionList.get(i).getStatus())) {
-            final List<V> latestVersionSubList = new ArrayList<>(latestVersionSet);
+            final List<V> latestVersionSubList = new ArrayList<>(latestVersionList);
             latestVersionSubList.remove(i);
             return new LatestVersion<>(latestVersionList.get(0), latestVersionSubList);
          }
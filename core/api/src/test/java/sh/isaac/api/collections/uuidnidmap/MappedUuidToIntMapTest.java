@@ -0,0 +1,206 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.api.collections.uuidnidmap;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the memory mapped UUID to nid map, with small segments, so that they resize.
+ */
+public class MappedUuidToIntMapTest {
+
+   private static final int SEGMENT_CAPACITY = 16;
+
+   @Rule
+   public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   private static List<UUID> uuids(int count, long seed) {
+      Random random = new Random(seed);
+      List<UUID> uuids = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+         uuids.add(new UUID(random.nextLong(), random.nextLong()));
+      }
+      return uuids;
+   }
+
+   private static int[] generateNids(MappedUuidToIntMap map, List<UUID> uuids) {
+      int[] nids = new int[uuids.size()];
+      for (int i = 0; i < nids.length; i++) {
+         nids[i] = map.getWithGeneration(uuids.get(i));
+      }
+      return nids;
+   }
+
+   private static void assertNids(MappedUuidToIntMap map, List<UUID> uuids, int[] nids) {
+      for (int i = 0; i < nids.length; i++) {
+         assertEquals(uuids.get(i).toString(), nids[i], map.get(uuids.get(i)).getAsInt());
+      }
+   }
+
+   @Test
+   public void concurrentGenerationAndPut() throws Exception {
+      MappedUuidToIntMap map = MappedUuidToIntMap.open(temporaryFolder.getRoot(), SEGMENT_CAPACITY);
+      List<UUID> generated = uuids(20_000, 1);
+      List<UUID> put = uuids(5_000, 2);
+      int threads = 8;
+
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+         List<Future<int[]>> generations = new ArrayList<>();
+         for (int t = 0; t < threads; t++) {
+            final long seed = t;
+            generations.add(executor.submit(() -> {
+               // Each thread asks for the same UUIDs, in its own order.
+               List<UUID> order = new ArrayList<>(generated);
+               Collections.shuffle(order, new Random(seed));
+               for (UUID uuid : order) {
+                  map.getWithGeneration(uuid);
+               }
+               return generateNids(map, generated);
+            }));
+            generations.add(executor.submit(() -> {
+               for (int i = 0; i < put.size(); i++) {
+                  map.put(put.get(i), i + 1);
+               }
+               return null;
+            }));
+         }
+
+         int[] nids = null;
+         for (Future<int[]> generation : generations) {
+            int[] threadNids = generation.get();
+            if (threadNids == null) {
+               continue;
+            }
+            if (nids == null) {
+               nids = threadNids;
+            } else {
+               assertArrayEquals("every thread gets the same nid for a UUID", nids, threadNids);
+            }
+         }
+
+         HashSet<Integer> distinct = new HashSet<>();
+         for (int nid : nids) {
+            assertTrue("nid " + nid + " generated twice", distinct.add(nid));
+            assertTrue(nid < 0);
+         }
+         // Nids are only generated for the inserts that won, so none are skipped.
+         assertEquals(Integer.MIN_VALUE + generated.size(), map.getMaxNid());
+         for (int i = 0; i < put.size(); i++) {
+            assertEquals(i + 1, map.get(put.get(i)).getAsInt());
+         }
+         assertEquals(generated.size() + put.size(), map.size());
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
+   @Test
+   public void resize() throws Exception {
+      File folder = temporaryFolder.getRoot();
+      MappedUuidToIntMap map = MappedUuidToIntMap.open(folder, SEGMENT_CAPACITY);
+      List<UUID> uuids = uuids(10_000, 3);
+      int[] nids = generateNids(map, uuids);
+
+      assertEquals(uuids.size(), map.size());
+      assertNids(map, uuids, nids);
+      assertFalse(map.get(new UUID(0, 0)).isPresent());
+      assertArrayEquals(new UUID[] { uuids.get(42) }, map.getKeysForValue(nids[42]));
+
+      // Only the newest generation of each segment is left, and it has grown.
+      File[] firstGeneration = folder.listFiles((dir, name) -> name.matches("\\d+-0-uuid-nid\\.table"));
+      assertEquals(0, firstGeneration.length);
+      assertTrue(map.getDiskSpaceUsed() > 256L * 2 * SEGMENT_CAPACITY * 24);
+   }
+
+   @Test
+   public void cleanReopen() throws Exception {
+      File folder = temporaryFolder.getRoot();
+      MappedUuidToIntMap map = MappedUuidToIntMap.open(folder, SEGMENT_CAPACITY);
+      List<UUID> uuids = uuids(5_000, 4);
+      int[] nids = generateNids(map, uuids);
+      map.write();
+      assertTrue(MappedUuidToIntMap.existsIn(folder));
+
+      MappedUuidToIntMap reopened = MappedUuidToIntMap.open(folder, SEGMENT_CAPACITY);
+      assertEquals(uuids.size(), reopened.size());
+      assertEquals(map.getMaxNid(), reopened.getMaxNid());
+      assertNids(reopened, uuids, nids);
+      assertEquals(map.getMaxNid() + 1, reopened.getWithGeneration(UUID.randomUUID()));
+   }
+
+   @Test
+   public void reopenAfterUncleanShutdown() throws Exception {
+      File folder = temporaryFolder.getRoot();
+      MappedUuidToIntMap map = MappedUuidToIntMap.open(folder, SEGMENT_CAPACITY);
+      List<UUID> synced = uuids(3_000, 5);
+      int[] syncedNids = generateNids(map, synced);
+      map.write();
+      // Inserted after the last write, so their segments are not clean, and map.params doesn't know their nids.
+      List<UUID> unsynced = uuids(3_000, 6);
+      int[] unsyncedNids = generateNids(map, unsynced);
+
+      MappedUuidToIntMap reopened = MappedUuidToIntMap.open(folder, SEGMENT_CAPACITY);
+      assertEquals(synced.size() + unsynced.size(), reopened.size());
+      assertNids(reopened, synced, syncedNids);
+      assertNids(reopened, unsynced, unsyncedNids);
+      assertNewNidsAreUnused(reopened, syncedNids, unsyncedNids);
+   }
+
+   @Test
+   public void reopenWithStaleParams() throws Exception {
+      File folder = temporaryFolder.getRoot();
+      MappedUuidToIntMap map = MappedUuidToIntMap.open(folder, SEGMENT_CAPACITY);
+      List<UUID> uuids = uuids(3_000, 7);
+      int[] nids = generateNids(map, uuids);
+      map.write();
+      // As if the tables were synced, but the process died before map.params was rewritten.
+      ByteArrayDataBuffer badb = new ByteArrayDataBuffer();
+      badb.putInt(Integer.MIN_VALUE + 10);
+      Files.write(new File(folder, "map.params").toPath(), badb.getData());
+
+      MappedUuidToIntMap reopened = MappedUuidToIntMap.open(folder, SEGMENT_CAPACITY);
+      assertEquals(map.getMaxNid(), reopened.getMaxNid());
+      assertNids(reopened, uuids, nids);
+      assertNewNidsAreUnused(reopened, nids);
+   }
+
+   private static void assertNewNidsAreUnused(MappedUuidToIntMap map, int[]... usedNids) {
+      HashSet<Integer> used = new HashSet<>();
+      for (int[] nids : usedNids) {
+         for (int nid : nids) {
+            used.add(nid);
+         }
+      }
+      for (UUID uuid : uuids(1_000, 8)) {
+         int nid = map.getWithGeneration(uuid);
+         assertTrue("nid " + nid + " is already in use", used.add(nid));
+      }
+   }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.api.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * The pairs each {@link JoinStrategy} makes from the join fields of two sides, compared with a nested loop.
+ */
+public class JoinTest {
+
+   private static Join.JoinKeys keys(int firstNid, Object... values) {
+      int[] nids = new int[values.length];
+      for (int i = 0; i < nids.length; i++) {
+         nids[i] = firstNid + i;
+      }
+      return new Join.JoinKeys(nids, values);
+   }
+
+   private static int[][] join(JoinStrategy joinStrategy, Join.JoinKeys first, Join.JoinKeys second) {
+      return Join.join(joinStrategy, first, second).toArray(new int[0][]);
+   }
+
+   /**
+    * The pairs of a nested loop over both sides, which are in first then second nid order when the nids of each
+    * side are ascending.
+    */
+   private static int[][] nestedLoop(Join.JoinKeys first, Join.JoinKeys second) {
+      List<int[]> pairs = new ArrayList<>();
+      for (int i = 0; i < first.nids.length; i++) {
+         for (int j = 0; j < second.nids.length; j++) {
+            if (first.values[i] != null && Objects.equals(first.values[i], second.values[j])) {
+               pairs.add(new int[] { first.nids[i], second.nids[j] });
+            }
+         }
+      }
+      return pairs.toArray(new int[0][]);
+   }
+
+   private static void assertJoin(int[][] expected, Join.JoinKeys first, Join.JoinKeys second) {
+      assertArrayEquals(expected, nestedLoop(first, second));
+      for (JoinStrategy joinStrategy : JoinStrategy.values()) {
+         assertArrayEquals(joinStrategy.name(), expected, join(joinStrategy, first, second));
+      }
+   }
+
+   @Test
+   public void emptySidesHaveNoPairs() {
+      assertJoin(new int[0][], keys(10), keys(20));
+      assertJoin(new int[0][], keys(10), keys(20, 1, 2));
+      assertJoin(new int[0][], keys(10, 1, 2), keys(20));
+      // Members without the field match nothing, not even each other.
+      assertJoin(new int[0][], keys(10, null, null), keys(20, (Object) null));
+   }
+
+   @Test
+   public void disjointSidesHaveNoPairs() {
+      assertJoin(new int[0][], keys(10, 1, 2, 3), keys(20, 4, 5));
+      assertJoin(new int[0][], keys(10, "a", "b"), keys(20, "c", "d", "e"));
+      // Equal text in a different class is not a match.
+      assertJoin(new int[0][], keys(10, 1, 2), keys(20, 1L, 2L));
+   }
+
+   @Test
+   public void overlappingSidesPairEveryMatch() {
+      int[][] expected = { { 11, 20 }, { 11, 22 }, { 12, 20 }, { 12, 22 }, { 14, 21 } };
+      // The first side is the larger, then the smaller, so each side is hashed in turn.
+      assertJoin(expected, keys(10, 1, 2, 2, null, 5), keys(20, 2, 5, 2, 7));
+      assertJoin(new int[][] { { 10, 21 }, { 10, 23 }, { 11, 22 } }, keys(10, "b", "c"), keys(20, "a", "b", "c", "b", null));
+   }
+
+   @Test
+   public void sortMergeOfMixedFieldsFallsBackToHashing() {
+      assertJoin(new int[][] { { 10, 21 }, { 11, 20 }, { 12, 22 } }, keys(10, 1, "a", 2L), keys(20, "a", 1, 2L));
+   }
+
+   @Test
+   public void strategiesMatchANestedLoopOnRandomFields() {
+      Random random = new Random(7);
+      for (int round = 0; round < 50; round++) {
+         Join.JoinKeys first = keys(1_000, randomValues(random, random.nextInt(40)));
+         Join.JoinKeys second = keys(2_000, randomValues(random, random.nextInt(40)));
+         assertJoin(nestedLoop(first, second), first, second);
+      }
+   }
+
+   private static Object[] randomValues(Random random, int count) {
+      Object[] values = new Object[count];
+      for (int i = 0; i < count; i++) {
+         int value = random.nextInt(12);
+         values[i] = value == 0 ? null : value;
+      }
+      return values;
+   }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model;
+
+/**
+ * A point in time snapshot of the chronology object cache counters, for monitoring and tuning the cache size.
+ * Counts are cumulative since the chronology service started.
+ */
+public final class ChronologyCacheStatistics {
+    private final long hitCount;
+    private final long softHitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long estimatedSize;
+    private final long weightedSize;
+    private final long maximumWeight;
+
+    public ChronologyCacheStatistics(long hitCount, long softHitCount, long missCount, long evictionCount,
+                                     long estimatedSize, long weightedSize, long maximumWeight) {
+        this.hitCount = hitCount;
+        this.softHitCount = softHitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.estimatedSize = estimatedSize;
+        this.weightedSize = weightedSize;
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * @return lookups answered by the weighted tier
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return lookups missed by the weighted tier but answered by the soft reference tier
+     */
+    public long getSoftHitCount() {
+        return softHitCount;
+    }
+
+    /**
+     * @return lookups that had to deserialize the chronology from the data store
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return chronologies evicted from the weighted tier to keep within the maximum weight
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the approximate number of chronologies in the weighted tier
+     */
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    /**
+     * @return the estimated heap bytes of the chronologies in the weighted tier
+     */
+    public long getWeightedSize() {
+        return weightedSize;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * @return the fraction of lookups answered without deserializing, or 1 if there were no lookups
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + softHitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) (hitCount + softHitCount) / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ChronologyCacheStatistics{hits=" + hitCount + ", softHits=" + softHitCount + ", misses=" + missCount
+                + ", evictions=" + evictionCount + ", hitRate=" + String.format("%.3f", getHitRate())
+                + ", entries=" + estimatedSize + ", weightedSize=" + weightedSize + ", maximumWeight=" + maximumWeight + "}";
+    }
+}
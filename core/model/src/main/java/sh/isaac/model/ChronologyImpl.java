@@ -48,6 +48,7 @@ import org.apache.mahout.math.set.OpenIntHashSet;
 import org.eclipse.collections.api.set.primitive.ImmutableIntSet;
 import org.eclipse.collections.api.set.primitive.MutableIntSet;
 import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
 import sh.isaac.api.Get;
 import sh.isaac.api.Status;
 import sh.isaac.api.chronicle.Chronology;
@@ -57,6 +58,7 @@ import sh.isaac.api.chronicle.VersionType;
 import sh.isaac.api.collections.StampSequenceSet;
 import sh.isaac.api.commit.CommitStates;
 import sh.isaac.api.component.semantic.SemanticChronology;
+import sh.isaac.api.constants.SystemPropertyConstants;
 import sh.isaac.api.coordinate.StampFilter;
 import sh.isaac.api.datastore.ChronologySerializeable;
 import sh.isaac.api.externalizable.ByteArrayDataBuffer;
@@ -78,6 +80,13 @@ public abstract class ChronologyImpl
 
     protected static final Logger LOG = LogManager.getLogger();
 
+    /**
+     * True to decode the versions of chronologies read from the datastore when they are first asked for.
+     * See {@link SystemPropertyConstants#LAZY_VERSION_DECODING}.
+     */
+    private static volatile boolean lazyVersionDecoding
+            = Boolean.parseBoolean(System.getProperty(SystemPropertyConstants.LAZY_VERSION_DECODING));
+
     /**
      * Position in the data where chronicle data ends, and version data starts.
      */
@@ -121,6 +130,36 @@ public abstract class ChronologyImpl
      */
     private final CopyOnWriteArrayList<Version> writtenVersions = new CopyOnWriteArrayList<>();
 
+    /**
+     * Versions read from the datastore, but not yet decoded, when lazy version decoding is enabled. Null once all
+     * versions are decoded.
+     */
+    private volatile UndecodedVersions undecodedVersions;
+
+    /**
+     * The stamps and positions of versions in a buffer, which are decoded, and added to the version lists, when they
+     * are first asked for. A version is added to the version lists before it is marked decoded, so a reader that
+     * looks at the undecoded versions before the version lists never misses a version.
+     */
+    private static final class UndecodedVersions {
+        final ByteArrayDataBuffer data;
+        final int[] stampSequences;
+        final int[] positions;
+        final boolean[] decoded;
+        /** True for the decoded versions that went to the written versions, to find where the next one goes. */
+        final boolean[] written;
+        int undecodedCount;
+
+        UndecodedVersions(ByteArrayDataBuffer data, int[] stampSequences, int[] positions) {
+            this.data = data;
+            this.stampSequences = stampSequences;
+            this.positions = positions;
+            this.decoded = new boolean[stampSequences.length];
+            this.written = new boolean[stampSequences.length];
+            this.undecodedCount = stampSequences.length;
+        }
+    }
+
     /**
      * No argument constructor for reconstituting an object previously
      * serialized together with the readData(ByteArrayDataBuffer data) method.
@@ -135,6 +174,7 @@ public abstract class ChronologyImpl
      * @return true if uncommitted versions where removed. 
      */
     public boolean removeUncommittedVersions() {
+        decodeAllVersions();
         boolean anyRemoved = false;
         if (this.unwrittenVersions != null) {
             List<Version> toRemove = new ArrayList<>();
@@ -500,6 +540,10 @@ public abstract class ChronologyImpl
       if (bb.getUsed() == 0) {
           throw new IllegalStateException();
       }
+        if (lazyVersionDecoding && !bb.isExternalData()) {
+            scanVersionList(bb);
+            return;
+        }
         int nextPosition = bb.getPosition();
 
         while (nextPosition < bb.getLimit()) {
@@ -522,6 +566,104 @@ public abstract class ChronologyImpl
         }
     }
 
+    /**
+     * Reads only the length and stamp of each version, and records where its data starts, so versions can be decoded
+     * when they are first asked for. Versions that {@link #addVersion(Version)} would not add are dropped here.
+     *
+     * @param bb the bb. A duplicate of it is kept until all versions are decoded, so decoding doesn't move its
+     * position.
+     */
+    private void scanVersionList(ByteArrayDataBuffer bb) {
+        final IntArrayList stampSequences = new IntArrayList();
+        final IntArrayList positions = new IntArrayList();
+        int nextPosition = bb.getPosition();
+
+        while (nextPosition < bb.getLimit()) {
+            bb.setPosition(nextPosition);
+            final int versionLength = bb.getInt();
+            assert versionLength >= 0 : "Length negative: " + versionLength + " buffer: " + bb;
+
+            if (versionLength > 0) {
+                nextPosition = nextPosition + versionLength;
+
+                final int stampSequence = bb.getStampSequence();
+
+                if (stampSequence >= 0) {
+                    if (Get.stampService().isUncommitted(stampSequence)
+                            || (Get.stampService().getStatusForStamp(stampSequence) != Status.CANCELED
+                            && Get.stampService().getTimeForStamp(stampSequence) != Version.CANCELED_TIME)) {
+                        stampSequences.add(stampSequence);
+                        positions.add(bb.getPosition());
+                    }
+                } else {
+                    LOG.warn("read a version length, but no stamp sequence? versionLength {}, stampSequence {}, {}", versionLength, stampSequence, bb);
+                }
+            } else {
+                nextPosition = Integer.MAX_VALUE;
+            }
+        }
+        if (!stampSequences.isEmpty()) {
+            this.undecodedVersions = new UndecodedVersions(bb.duplicate(), stampSequences.toArray(), positions.toArray());
+        }
+    }
+
+    /**
+     * Decodes the version for a stamp, if it hasn't been decoded yet.
+     *
+     * @param stampSequence the stamp sequence of the version
+     */
+    private void decodeVersion(int stampSequence) {
+        final UndecodedVersions undecoded = this.undecodedVersions;
+        if (undecoded != null) {
+            synchronized (undecoded) {
+                for (int i = 0; i < undecoded.stampSequences.length; i++) {
+                    if (undecoded.stampSequences[i] == stampSequence) {
+                        decodeVersion(undecoded, i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes all versions not decoded yet.
+     */
+    private void decodeAllVersions() {
+        final UndecodedVersions undecoded = this.undecodedVersions;
+        if (undecoded != null) {
+            synchronized (undecoded) {
+                for (int i = 0; i < undecoded.stampSequences.length; i++) {
+                    decodeVersion(undecoded, i);
+                }
+            }
+        }
+    }
+
+    private void decodeVersion(UndecodedVersions undecoded, int index) {
+        if (!undecoded.decoded[index]) {
+            undecoded.data.setPosition(undecoded.positions[index]);
+            final Version version = makeVersion(undecoded.stampSequences[index], undecoded.data);
+            if (version.isUncommitted()) {
+                addVersion(version);
+            } else {
+                // An eager read adds the versions in buffer order, ahead of any added since, so put this one after the
+                // versions decoded from earlier in the buffer, to keep the lists and the serialized data the same.
+                int insertAt = 0;
+                for (int i = 0; i < index; i++) {
+                    if (undecoded.written[i]) {
+                        insertAt++;
+                    }
+                }
+                this.writtenVersions.add(insertAt, version);
+                undecoded.written[index] = true;
+            }
+            undecoded.decoded[index] = true;
+            if (--undecoded.undecodedCount == 0 && this.undecodedVersions == undecoded) {
+                this.undecodedVersions = null;
+            }
+        }
+    }
+
     /**
      * Write if not canceled.
      *
@@ -872,6 +1014,7 @@ public abstract class ChronologyImpl
      */
     @Override
     public <V extends Version> List<V> getUnwrittenVersionList() {
+        decodeAllVersions();
         final ArrayList<V> results = new ArrayList<>();
 
         if (this.unwrittenVersions != null) {
@@ -909,6 +1052,7 @@ public abstract class ChronologyImpl
      * @return the version with the corresponding stamp sequence
      */
     public <V extends StampedVersion> Optional<V> getVersionForStamp(int stampSequence) {
+        decodeVersion(stampSequence);
 
         if (Get.stampService().isUncommitted(stampSequence)) {
             for (Version version : this.unwrittenVersions) {
@@ -940,6 +1084,7 @@ public abstract class ChronologyImpl
      */
     @Override
     public <V extends Version> List<V> getVersionList() {
+        decodeAllVersions();
 
         ArrayList<Version> versionList = new ArrayList<>(this.unwrittenVersions.size()
                 + this.writtenVersions.size());
@@ -949,6 +1094,7 @@ public abstract class ChronologyImpl
     }
 
     public CopyOnWriteArrayList<Version> getCommittedVersionList() {
+        decodeAllVersions();
         return this.writtenVersions;
     }
 
@@ -967,6 +1113,13 @@ public abstract class ChronologyImpl
     @Override
     public int[] getVersionStampSequences() {
         final OpenIntHashSet builder = new OpenIntHashSet();
+        // The undecoded versions first, see UndecodedVersions
+        final UndecodedVersions undecoded = this.undecodedVersions;
+        if (undecoded != null) {
+            for (int stampSequence : undecoded.stampSequences) {
+                builder.add(stampSequence);
+            }
+        }
 
         for (Version v : this.unwrittenVersions) {
             builder.add(v.getStampSequence());
@@ -985,18 +1138,30 @@ public abstract class ChronologyImpl
      * @param versions the new versions
      */
     public <V extends Version> void setVersions(Collection<V> versions) {
+        this.undecodedVersions = null;
         this.unwrittenVersions.clear();
         this.writtenVersions.clear();
         versions.forEach((V version) -> addVersion(version));
     }
 
     /**
-     * Gets the versions for stamps.
+     * Sets whether the versions of chronologies read from the datastore after this call are decoded when first asked
+     * for, overriding {@link SystemPropertyConstants#LAZY_VERSION_DECODING}.
+     *
+     * @param lazy true to decode versions when they are first asked for
+     */
+    public static void setLazyVersionDecoding(boolean lazy) {
+        lazyVersionDecoding = lazy;
+    }
+
+    /**
+     * Gets the versions for stamps, decoding only those versions if they were not decoded yet.
      *
      * @param stampSequences the stamp sequences
      * @return the versions for stamps
      */
-    private <V extends StampedVersion> List<V> getVersionsForStamps(int[] stampSequences) {
+    @Override
+    public <V extends StampedVersion> List<V> getVersionsForStamps(int[] stampSequences) {
         final List<V> versions = new ArrayList<>(stampSequences.length);
         for (int stampSequence : stampSequences) {
             Optional<V> version = getVersionForStamp(stampSequence);
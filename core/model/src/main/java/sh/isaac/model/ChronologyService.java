@@ -1,11 +1,27 @@
 package sh.isaac.model;
 
+import java.util.List;
 import org.jvnet.hk2.annotations.Contract;
 import sh.isaac.api.AssemblageService;
 import sh.isaac.api.IdentifiedObjectService;
+import sh.isaac.api.chronicle.Chronology;
 import sh.isaac.api.component.concept.ConceptService;
 
 @Contract
 public interface ChronologyService extends ConceptService, AssemblageService, IdentifiedObjectService {
     long getWriteSequence();
+
+    /**
+     * @return the current counters of the chronology object cache
+     */
+    ChronologyCacheStatistics getCacheStatistics();
+
+    /**
+     * Get many chronologies at once. The data of the nids not already cached is read from the data store in one
+     * call, and deserialized in parallel.
+     *
+     * @param nids the nids of the concepts or semantics to get
+     * @return the chronologies, in the order of the nids, without those that have no stored data
+     */
+    <C extends Chronology> List<C> getChronologies(int[] nids);
 }
@@ -60,6 +60,19 @@ public class ConcurrentSpineList<E extends Object> {
         spineArray.set(spineIndex, spine);
     }
 
+    /**
+     * Set the spine at the index, unless another thread has already set or created one there.
+     *
+     * @return the spine that is now at the index, which is the given spine if there was none
+     */
+    public E setSpineIfAbsent(int spineIndex, E spine) {
+        if (spineIndex >= spineArrayReference.get().length()) {
+            growArray(spineIndex);
+        }
+        E witness = spineArrayReference.get().compareAndExchange(spineIndex, null, spine);
+        return witness == null ? spine : witness;
+    }
+
     public int getSpineCount() {
         if (spineArrayReference.get() == null) {
             return 0;
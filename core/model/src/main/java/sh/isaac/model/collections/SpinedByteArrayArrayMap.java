@@ -105,12 +105,45 @@ public class SpinedByteArrayArrayMap extends SpinedIntObjectMap<byte[][]> {
         index = indexToSpineIndex(index);
         int spineIndex = index / spineSize;
         int indexInSpine = index % spineSize;
+        return getSpine(spineIndex).get(indexInSpine);
+    }
+
+    /**
+     * Get the values of many indexes. The indexes are sorted by spine, so each spine is looked up, and read from 
+     * the store if need be, once for all of the indexes that fall within it.
+     *
+     * @param indexes the indexes to get
+     * @return the values, in the order of the indexes, with null where an index has no value
+     */
+    public byte[][][] getAll(int[] indexes) {
+        byte[][][] values = new byte[indexes.length][][];
+        // index within the map in the high bits, position within the request in the low bits
+        long[] sortedIndexes = new long[indexes.length];
+        for (int position = 0; position < indexes.length; position++) {
+            sortedIndexes[position] = ((long) indexToSpineIndex(indexes[position]) << 32) | position;
+        }
+        Arrays.sort(sortedIndexes);
+        int currentSpineIndex = -1;
+        AtomicReferenceArray<byte[][]> spine = null;
+        for (long sortedIndex : sortedIndexes) {
+            int index = (int) (sortedIndex >>> 32);
+            int spineIndex = index / spineSize;
+            if (spineIndex != currentSpineIndex) {
+                spine = getSpine(spineIndex);
+                currentSpineIndex = spineIndex;
+            }
+            values[(int) sortedIndex] = spine.get(index % spineSize);
+        }
+        return values;
+    }
+
+    private AtomicReferenceArray<byte[][]> getSpine(int spineIndex) {
         if (spineIndex < this.spineCount.get()) {
             if (!this.spines.containsKey(spineIndex)) {
                 readSpine(spineIndex);
             }
         }
-        return this.spines.computeIfAbsent(spineIndex, this::newSpine).get(indexInSpine);
+        return this.spines.computeIfAbsent(spineIndex, this::newSpine);
     }
 
     @Override
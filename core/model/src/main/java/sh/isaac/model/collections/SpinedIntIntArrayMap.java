@@ -232,6 +232,41 @@ public class SpinedIntIntArrayMap implements IntObjectMap<int[]> {
 
     }
 
+    /**
+     * Merge the entries of another map into this one, spine by spine. A spine that is present only in the other
+     * map is adopted rather than copied, so the other map must be discarded after the merge. Spines that were
+     * never created in the other map are skipped, rather than created empty as {@link #forEach(IntBiConsumer)} does.
+     *
+     * Intended for combining thread confined partial maps. Merges of several maps into this one may run
+     * concurrently, since a spine is only adopted if no other merge has put one there first, and keys present in
+     * both maps are combined atomically.
+     *
+     * @param another the map to merge into this one
+     * @param accumulatorFunction combines the values of a key present in both maps
+     */
+    public void mergeFrom(SpinedIntIntArrayMap another, BinaryOperator<int[]> accumulatorFunction) {
+        if (another.elementsPerSpine != this.elementsPerSpine) {
+            throw new IllegalStateException("Spine sizes differ: " + this.elementsPerSpine + " " + another.elementsPerSpine);
+        }
+        AtomicReferenceArray<AtomicReferenceArray<int[]>> anotherSpines = another.spines.getSpines();
+        for (int spineIndex = 0; spineIndex < anotherSpines.length(); spineIndex++) {
+            AtomicReferenceArray<int[]> anotherSpine = anotherSpines.get(spineIndex);
+            if (anotherSpine == null) {
+                continue;
+            }
+            AtomicReferenceArray<int[]> thisSpine = this.spines.setSpineIfAbsent(spineIndex, anotherSpine);
+            if (thisSpine != anotherSpine) {
+                for (int indexInSpine = 0; indexInSpine < elementsPerSpine; indexInSpine++) {
+                    int[] element = anotherSpine.get(indexInSpine);
+                    if (element != null) {
+                        thisSpine.accumulateAndGet(indexInSpine, element, accumulatorFunction);
+                    }
+                }
+            }
+            this.changedSpineIndexes.add(spineIndex);
+        }
+    }
+
     public interface Processor<E> {
 
         public void process(int key, E value);
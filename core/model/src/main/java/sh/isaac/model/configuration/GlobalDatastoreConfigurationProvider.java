@@ -687,4 +687,61 @@ public class GlobalDatastoreConfigurationProvider implements GlobalDatastoreConf
 	{
 		putOption("enableLucene", Boolean.valueOf(enable));
 	}
+
+	@Override
+	public Optional<Long> getChronologyCacheMaximumBytes()
+	{
+		String temp = System.getProperty(SystemPropertyConstants.CHRONOLOGY_CACHE_MAXIMUM_BYTES);
+		
+		if (StringUtils.isNotBlank(temp))
+		{
+			try
+			{
+				long bytesFromSystem = Long.parseLong(temp.trim());
+				LOG.info("Overriding datastore configuration for 'chronologyCacheMaximumBytes' with System Property " 
+						+ SystemPropertyConstants.CHRONOLOGY_CACHE_MAXIMUM_BYTES + ": " + bytesFromSystem);
+				return Optional.of(bytesFromSystem);
+			}
+			catch (NumberFormatException e)
+			{
+				LOG.warn("Ignoring invalid value '{}' for system property '{}'", temp, SystemPropertyConstants.CHRONOLOGY_CACHE_MAXIMUM_BYTES);
+			}
+		}
+		return Optional.ofNullable(getOption("chronologyCacheMaximumBytes"));
+	}
+
+	@Override
+	public void setChronologyCacheMaximumBytes(Long maximumBytes)
+	{
+		putOption("chronologyCacheMaximumBytes", maximumBytes);
+	}
+
+	@Override
+	public boolean enableChronologySoftCache()
+	{
+		String temp = System.getProperty(SystemPropertyConstants.CHRONOLOGY_CACHE_SOFT_TIER);
+		
+		if (StringUtils.isNotBlank(temp))
+		{
+			boolean enableFromSystem = Boolean.parseBoolean(temp);
+			LOG.info("Overriding datastore configuration for 'enableChronologySoftCache' with System Property " 
+					+ SystemPropertyConstants.CHRONOLOGY_CACHE_SOFT_TIER + ": " + enableFromSystem);
+			return enableFromSystem;
+		}
+		
+		if (hasOption("enableChronologySoftCache"))
+		{
+			return getOption("enableChronologySoftCache");
+		}
+		else
+		{
+			return GlobalDatastoreConfiguration.super.enableChronologySoftCache();
+		}
+	}
+
+	@Override
+	public void setEnableChronologySoftCache(boolean enable)
+	{
+		putOption("enableChronologySoftCache", Boolean.valueOf(enable));
+	}
 }
@@ -0,0 +1,211 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.datastream;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import sh.isaac.api.Get;
+import sh.isaac.api.externalizable.BinaryDataReaderService;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+import sh.isaac.api.externalizable.IsaacExternalizable;
+import sh.isaac.api.task.TimedTaskWithProgressTracker;
+
+/**
+ * Loads an IBDF file or stream through a pipeline of bounded stages, each with its own worker pool:
+ * <ul>
+ * <li>read and parse - a file is read through {@link Get#mappedBinaryDataReader(Path, boolean)}, whose stream is
+ * split by record and parsed in parallel on a fork join pool. A stream is read on this task's thread, which hands
+ * the raw bytes to a parse stage. Nid assignment happens in the parse, as the chronology decoders assign a nid for
+ * each UUID they read, and set up the nid of the component being decoded.</li>
+ * <li>write - passes each parsed object to the write action, which stores it.</li>
+ * </ul>
+ * A caller that needs a further stage, such as a taxonomy or index update of what was written, can create a
+ * {@link PipelineStage} that outlives the individual files, and submit to it from the write action.
+ *
+ * Concepts, semantics and stamp records move through the stages together, in the order the parse workers finish
+ * them, so, as with {@link BinaryDatastreamReader}, the write action must not depend on the order of the file.
+ *
+ * Each stage has a bounded queue, so a stage that falls behind blocks the stage feeding it. The progress message
+ * of the task shows the depth of each queue, and how long its submitters have been blocked.
+ */
+public class BulkLoadPipeline
+        extends TimedTaskWithProgressTracker<Integer> {
+
+    private static final int QUEUE_CAPACITY_PER_WORKER = 256;
+
+    private final Path path;
+    private final InputStream inputStream;
+    private final Consumer<? super IsaacExternalizable> writeAction;
+    private volatile PipelineStage<IsaacExternalizableUnparsed> parseStage;
+    private volatile PipelineStage<IsaacExternalizable> writeStage;
+    private final PipelineStage<?>[] downstreamStages;
+
+    /**
+     * @param writeAction stores each parsed object. Called concurrently from the write workers.
+     * @param path the file to read
+     * @param downstreamStages stages fed by the write action, included in the progress message
+     */
+    public BulkLoadPipeline(Consumer<? super IsaacExternalizable> writeAction, Path path, PipelineStage<?>... downstreamStages) {
+        this(writeAction, path, null, downstreamStages);
+        updateTitle("Bulk loading " + path.toFile().getName());
+    }
+
+    /**
+     * @param writeAction stores each parsed object. Called concurrently from the write workers.
+     * @param is the stream to read
+     * @param downstreamStages stages fed by the write action, included in the progress message
+     */
+    public BulkLoadPipeline(Consumer<? super IsaacExternalizable> writeAction, InputStream is, PipelineStage<?>... downstreamStages) {
+        this(writeAction, null, is, downstreamStages);
+        updateTitle("Bulk loading input stream " + is.toString());
+    }
+
+    private BulkLoadPipeline(Consumer<? super IsaacExternalizable> writeAction, Path path, InputStream is,
+            PipelineStage<?>[] downstreamStages) {
+        this.path = path;
+        this.inputStream = is;
+        this.downstreamStages = downstreamStages;
+        this.writeAction = writeAction;
+        Get.activeTasks().add(this);
+    }
+
+    @Override
+    protected Integer call() throws Exception {
+        // The stages own their worker threads, so they are only started once the task runs.
+        int processors = Runtime.getRuntime().availableProcessors();
+        // Writes contend on the store, while parsing is pure CPU, so give parsing the larger share.
+        int parseWorkers = Math.max(1, (processors * 3) / 4);
+        int writeWorkers = Math.max(1, processors / 2);
+        this.writeStage = new PipelineStage<>("write", writeWorkers, writeWorkers * QUEUE_CAPACITY_PER_WORKER, this.writeAction);
+        int objectCount;
+        try {
+            if (this.path != null) {
+                objectCount = loadMapped(parseWorkers);
+            } else {
+                this.parseStage = new PipelineStage<>("parse", parseWorkers, parseWorkers * QUEUE_CAPACITY_PER_WORKER,
+                        unparsed -> submitToWriteStage(unparsed.parse()));
+                try {
+                    objectCount = loadStream();
+                } finally {
+                    // Parse workers feed the write stage, so they must be done before the write stage is told to finish.
+                    this.parseStage.finish();
+                }
+            }
+        } finally {
+            try {
+                this.writeStage.finish();
+            } finally {
+                Get.activeTasks().remove(this);
+            }
+        }
+        LOG.info("Bulk loaded {} objects from {}: {}", objectCount, path == null ? inputStream : path, getStageSummary());
+        return objectCount;
+    }
+
+    /**
+     * Parse the records of the file in parallel on a fork join pool of the parse workers, through the memory mapped
+     * reader, which hands out splits of its record index, and submit each object to the write stage.
+     */
+    private int loadMapped(int parseWorkers) throws Exception {
+        try (BinaryDataReaderService reader = Get.mappedBinaryDataReader(this.path, true)) {
+            int objectCount = reader.getObjectCount();
+            addToTotalWork(objectCount);
+            ForkJoinPool parsePool = new ForkJoinPool(parseWorkers);
+            try {
+                parsePool.submit(() -> reader.getStream().parallel().forEach(object -> {
+                    submitToWriteStage(object);
+                    completedUnitOfWork();
+                })).get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            } finally {
+                parsePool.shutdown();
+            }
+            return objectCount;
+        }
+    }
+
+    /**
+     * Read the length prefixed records of the stream on this thread, and submit each to the parse stage.
+     */
+    private int loadStream() throws Exception {
+        int objectCount = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(this.inputStream))) {
+            while (true) {
+                final int recordSizeInBytes;
+                try {
+                    recordSizeInBytes = input.readInt();
+                } catch (EOFException e) {
+                    //Normal escape route, if we are processing a passed in stream
+                    break;
+                }
+                final byte[] objectData = new byte[recordSizeInBytes];
+                input.readFully(objectData);
+                objectCount++;
+
+                ByteArrayDataBuffer byteArrayDataBuffer = new ByteArrayDataBuffer(objectData);
+                byteArrayDataBuffer.setExternalData(true);
+                this.parseStage.submit(new IsaacExternalizableUnparsed(byteArrayDataBuffer));
+            }
+        }
+        return objectCount;
+    }
+
+    private void submitToWriteStage(IsaacExternalizable object) {
+        try {
+            this.writeStage.submit(object);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the state of each stage, such as "parse 12/768 queued, 40960 done, blocked 3120 ms; write ..."
+     */
+    public String getStageSummary() {
+        if (this.writeStage == null) {
+            return "not started";
+        }
+        StringBuilder sb = new StringBuilder();
+        // Files are parsed on a fork join pool, so only a stream has a parse stage.
+        if (this.parseStage != null) {
+            sb.append(this.parseStage).append("; ");
+        }
+        sb.append(this.writeStage);
+        for (PipelineStage<?> stage : this.downstreamStages) {
+            sb.append("; ").append(stage);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    protected void generateProgressMessage() {
+        super.generateProgressMessage();
+        updateMessage(getStageSummary());
+    }
+}
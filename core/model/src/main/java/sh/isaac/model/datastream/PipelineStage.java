@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.datastream;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import sh.isaac.api.util.NamedThreadFactory;
+
+/**
+ * One stage of a bulk load pipeline: a bounded queue, drained by a pool of worker threads owned by the stage.
+ *
+ * When the queue is full, {@link #submit(Object)} blocks the caller, so a slow stage slows the stages that feed it
+ * rather than buffering without bound. The time callers spend blocked is recorded, so the pipeline can report which
+ * stage is holding it back.
+ *
+ * The first exception thrown by the action stops the stage from accepting more work, and is rethrown from
+ * {@link #submit(Object)} and {@link #finish()}.
+ *
+ * @param <T> the type of item handled by the stage
+ */
+public class PipelineStage<T> {
+
+    /** Queued once per worker by {@link #finish()}, to tell the workers there is nothing more to come. */
+    private static final Object END = new Object();
+
+    private final String name;
+    private final ArrayBlockingQueue<Object> queue;
+    private final Consumer<? super T> action;
+    private final Thread[] workers;
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+    private final AtomicReference<Throwable> exception = new AtomicReference<>();
+    private volatile boolean finished = false;
+
+    /**
+     * @param name the name of the stage, used for the worker threads and in progress messages
+     * @param workerCount the number of worker threads
+     * @param queueCapacity the number of items that may wait for a worker before submitters block
+     * @param action the work to perform on each item. Called concurrently from each of the workers.
+     */
+    public PipelineStage(String name, int workerCount, int queueCapacity, Consumer<? super T> action) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.action = action;
+        this.workers = new Thread[workerCount];
+        NamedThreadFactory threadFactory = new NamedThreadFactory("BulkLoad-" + name, true);
+        for (int i = 0; i < workerCount; i++) {
+            this.workers[i] = threadFactory.newThread(this::work);
+            this.workers[i].start();
+        }
+    }
+
+    /**
+     * Queue an item for the workers, blocking while the queue is full.
+     *
+     * @param item the item to process
+     * @throws Exception the exception that stopped the stage, if a previous item failed
+     */
+    public void submit(T item) throws Exception {
+        throwIfException();
+        if (this.finished) {
+            throw new IllegalStateException("Stage " + this.name + " is finished");
+        }
+        if (!this.queue.offer(item)) {
+            long start = System.nanoTime();
+            while (!this.queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                throwIfException();
+            }
+            this.blockedNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Stop accepting items, and wait for the workers to process everything that was queued.
+     *
+     * @throws Exception the first exception thrown by the action, if any
+     */
+    public void finish() throws Exception {
+        if (!this.finished) {
+            this.finished = true;
+            for (int i = 0; i < this.workers.length; i++) {
+                // Workers stop taking after an exception, so don't wait on a full queue that is no longer drained.
+                boolean queued = false;
+                while (!queued && this.exception.get() == null) {
+                    queued = this.queue.offer(END, 100, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        for (Thread worker : this.workers) {
+            while (worker.isAlive()) {
+                worker.join(100);
+                if (this.exception.get() != null) {
+                    // The failed worker cleared the queue, so the others may be waiting on an end marker that is gone.
+                    worker.interrupt();
+                }
+            }
+        }
+        throwIfException();
+    }
+
+    private void work() {
+        try {
+            while (true) {
+                Object item = this.queue.take();
+                if (item == END || this.exception.get() != null) {
+                    return;
+                }
+                @SuppressWarnings("unchecked")
+                T typedItem = (T) item;
+                this.action.accept(typedItem);
+                this.processed.increment();
+            }
+        } catch (InterruptedException e) {
+            // Stopped by finish() after another worker failed.
+        } catch (Throwable t) {
+            this.exception.compareAndSet(null, t);
+            // Let any submitter blocked on a full queue notice the exception.
+            this.queue.clear();
+        }
+    }
+
+    private void throwIfException() throws Exception {
+        if (this.exception.get() != null) {
+            throw new Exception("Exception in " + this.name + " stage", this.exception.get());
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return the number of items waiting for a worker
+     */
+    public int getQueueDepth() {
+        return this.queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return this.queue.size() + this.queue.remainingCapacity();
+    }
+
+    /**
+     * @return the number of items the action has completed
+     */
+    public long getProcessedCount() {
+        return this.processed.sum();
+    }
+
+    /**
+     * @return the total time submitters have spent waiting for space in the queue
+     */
+    public long getBlockedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.blockedNanos.sum());
+    }
+
+    /**
+     * @return a one line summary of the stage, such as "write 1024/1024 queued, 81920 done, blocked 1520 ms"
+     */
+    @Override
+    public String toString() {
+        return this.name + " " + getQueueDepth() + "/" + getQueueCapacity() + " queued, " + getProcessedCount() + " done, blocked "
+                + getBlockedMillis() + " ms";
+    }
+}
@@ -99,6 +99,22 @@ public class GraphCollectorIsolated
      */
     @Override
     public void accept(HashTreeBuilderIsolated graphBuilder, int originNid) {
+        final int[] destinationConceptNids = getParentNids(originNid);
+
+        if (destinationConceptNids != null) {
+            for (int destinationNid: destinationConceptNids) {
+                graphBuilder.add(destinationNid, originNid);
+            }
+        }
+    }
+
+    /**
+     * Gets the parents of a single concept, as they are collected into a tree by {@link #accept(HashTreeBuilderIsolated, int)}.
+     *
+     * @param originNid the origin nid
+     * @return the parent nids, or null if there is no taxonomy data for the origin
+     */
+    public int[] getParentNids(int originNid) {
         final int[] taxonomyData = this.taxonomyDataProvider.apply(originNid);
 
         if (taxonomyData == null) {
@@ -110,50 +126,20 @@ public class GraphCollectorIsolated
             }
 
             LOG.error("No taxonomy data for: {} {} with NID: {}", Get.identifierService().getUuidPrimordialForNid(originNid), sb.toString(), originNid);
+            return null;
+        }
 
-        } else {
-            TaxonomyRecordPrimitive isaacPrimitiveTaxonomyRecord = new TaxonomyRecordPrimitive(taxonomyData);
-            // For debugging.
-            if (Get.configurationService().isVerboseDebugEnabled() && this.watchList.contains(originNid)) {
-                LOG.debug("Found watch: " + isaacPrimitiveTaxonomyRecord);
-            }
-
-            final TaxonomyRecord taxonomyRecordUnpacked = isaacPrimitiveTaxonomyRecord.getTaxonomyRecordUnpacked();
-            // TODO implement getConceptNidsForType on TaxonomyRecordPrimitive
-            final int[] destinationConceptNids = taxonomyRecordUnpacked.getConceptNidsForType(this.ISA_CONCEPT_NID,
-                    this.taxonomyDataProvider, this.taxonomyFlags, this.edgeComputer,
-                    this.vertexComputer, this.sort, this.digraph);
-
-
-         if (destinationConceptNids.length == 0  &&
-                 originNid != TermAux.SOLOR_ROOT.getNid() &&
-                 isaacPrimitiveTaxonomyRecord.containsStampOfTypeWithFlags(this.ISA_CONCEPT_NID, this.taxonomyFlags) &&
-                 isaacPrimitiveTaxonomyRecord.isConceptActive(originNid, this.vertexComputer)) {
-            // again for steping through with the debugger. Remove when issues resolved.
-             //LOG.info("Found concept with no parents: " + Get.conceptDescriptionText(originNid) + " <" + originNid + ">");
-//             final int[] destinationConceptNids2 = taxonomyRecordUnpacked.getConceptNidsForType(this.ISA_CONCEPT_NID,
-//                    this.taxonomyDataProvider, this.taxonomyFlags, this.edgeComputer,
-//                    this.vertexComputer, this.sort, this.digraph);
-//             LOG.info("Second try equals: " + Arrays.equals(destinationConceptNids, destinationConceptNids2));
-//             LOG.info("Second try: " + Arrays.toString(destinationConceptNids2));
-         }
-//         int parentCount = 0;
-            for (int destinationNid: destinationConceptNids) {
-//            parentCount++;
-                graphBuilder.add(destinationNid, originNid);
-            }
-//         if (parentCount == 0) {
-//            System.out.println("No parent for: " + Get.conceptDescriptionText(originNid));
-//            System.out.println("TaxonomyRecord: " + taxonomyRecordUnpacked);
-//            StringBuilder builder = new StringBuilder("[");
-//            for (int element: taxonomyData) {
-//               builder.append(element);
-//               builder.append(", ");
-//            }
-//            builder.replace(builder.length()-1, builder.length()-1, "]");
-//            System.out.println("Source data: " + builder.toString());
-//         }
+        TaxonomyRecordPrimitive isaacPrimitiveTaxonomyRecord = new TaxonomyRecordPrimitive(taxonomyData);
+        // For debugging.
+        if (Get.configurationService().isVerboseDebugEnabled() && this.watchList.contains(originNid)) {
+            LOG.debug("Found watch: " + isaacPrimitiveTaxonomyRecord);
         }
+
+        final TaxonomyRecord taxonomyRecordUnpacked = isaacPrimitiveTaxonomyRecord.getTaxonomyRecordUnpacked();
+        // TODO implement getConceptNidsForType on TaxonomyRecordPrimitive
+        return taxonomyRecordUnpacked.getConceptNidsForType(this.ISA_CONCEPT_NID,
+                this.taxonomyDataProvider, this.taxonomyFlags, this.edgeComputer,
+                this.vertexComputer, this.sort, this.digraph);
     }
 
     /**
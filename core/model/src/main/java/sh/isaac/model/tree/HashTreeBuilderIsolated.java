@@ -14,7 +14,9 @@ import sh.isaac.api.constants.SystemPropertyConstants;
 import sh.isaac.api.coordinate.PremiseSet;
 import sh.isaac.api.coordinate.StampFilterImmutable;
 import sh.isaac.api.tree.TreeNodeVisitData;
+import sh.isaac.model.collections.IntObjectMap;
 import sh.isaac.model.collections.MergeIntArray;
+import sh.isaac.model.collections.SpinedIntIntArrayMap;
 
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -58,7 +60,8 @@ public class HashTreeBuilderIsolated extends HashTreeWithIntArraySetsIsolated {
 
     //~--- methods -------------------------------------------------------------
     /**
-     * Combine.
+     * Combine another builder into this one. Builders are thread confined partials of a parallel collect, so
+     * the other builder is consumed by the combination and must be discarded.
      *
      * @param another the another
      */
@@ -66,32 +69,16 @@ public class HashTreeBuilderIsolated extends HashTreeWithIntArraySetsIsolated {
         addToOne(this.conceptNids, another.conceptNids);
         addToOne(this.conceptNidsWithChildren, another.conceptNidsWithChildren);
         addToOne(this.conceptNidsWithParents, another.conceptNidsWithParents);
-        another.childNid_ParentNidSetArray_Map.forEach(
-                (int childSequence,
-                 int[] parentsFromAnother) -> {
-                    if (this.childNid_ParentNidSetArray_Map.containsKey(childSequence)) {
-                        int[] parentsFromThis = this.childNid_ParentNidSetArray_Map.get(childSequence);
-
-                        this.childNid_ParentNidSetArray_Map.put(
-                                childSequence,
-                                MergeIntArray.merge(parentsFromThis, parentsFromAnother));
-                    } else {
-                        this.childNid_ParentNidSetArray_Map.put(childSequence, parentsFromAnother);
-                    }
-                });
-        another.parentNid_ChildNidSetArray_Map.forEach(
-                (int parentSequence,
-                 int[] childrenFromAnother) -> {
-                    if (this.parentNid_ChildNidSetArray_Map.containsKey(parentSequence)) {
-                        int[] childrenFromThis = this.parentNid_ChildNidSetArray_Map.get(parentSequence);
-
-                        this.childNid_ParentNidSetArray_Map.put(
-                                parentSequence,
-                                MergeIntArray.merge(childrenFromThis, childrenFromAnother));
-                    } else {
-                        this.parentNid_ChildNidSetArray_Map.put(parentSequence, childrenFromAnother);
-                    }
-                });
+        combineMaps(this.childNid_ParentNidSetArray_Map, another.childNid_ParentNidSetArray_Map);
+        combineMaps(this.parentNid_ChildNidSetArray_Map, another.parentNid_ChildNidSetArray_Map);
+    }
+
+    private static void combineMaps(IntObjectMap<int[]> one, IntObjectMap<int[]> another) {
+        if (one instanceof SpinedIntIntArrayMap && another instanceof SpinedIntIntArrayMap) {
+            ((SpinedIntIntArrayMap) one).mergeFrom((SpinedIntIntArrayMap) another, MergeIntArray::merge);
+        } else {
+            another.forEach((int nid, int[] nidsFromAnother) -> one.accumulateAndGet(nid, nidsFromAnother, MergeIntArray::merge));
+        }
     }
 
     private void addToOne(OpenIntHashSet one, OpenIntHashSet another) {
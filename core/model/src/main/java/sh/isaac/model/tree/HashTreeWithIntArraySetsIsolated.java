@@ -51,20 +51,27 @@ public class HashTreeWithIntArraySetsIsolated
      */
     static final int[] EMPTY_INT_ARRAY = new int[0];
 
+    /*
+     * Once built, a tree is read without locking, while updateParents may change it. The maps replace each array
+     * as a whole, and are safe to read while they change. An OpenIntHashSet is not, so updateParents replaces the
+     * sets below with changed copies. A reader sees each array and set either before or after an update, but a
+     * reader that looks at several of them may see some before and some after it.
+     */
+
     /**
      * The concept nids with parents.
      */
-    final OpenIntHashSet conceptNidsWithParents;
+    volatile OpenIntHashSet conceptNidsWithParents;
 
     /**
      * The concept nids with children.
      */
-    final OpenIntHashSet conceptNidsWithChildren;
+    volatile OpenIntHashSet conceptNidsWithChildren;
 
     /**
      * The concept nids.
      */
-    final OpenIntHashSet conceptNids;
+    volatile OpenIntHashSet conceptNids;
 
     /**
      * map from a nid key to an array of parent nids.
@@ -76,11 +83,16 @@ public class HashTreeWithIntArraySetsIsolated
      */
     protected final IntObjectMap<int[]> parentNid_ChildNidSetArray_Map;
     protected final int                       assemblageNid;
-    protected final OpenIntHashSet roots = new OpenIntHashSet();
+    protected volatile OpenIntHashSet roots = new OpenIntHashSet();
     protected final PremiseSet premiseTypes;
     protected final String coordinateString;
     protected final StampFilterImmutable vertexFilter;
 
+    /**
+     * Optional index for descendent tests, null until built, and cleared when the tree changes.
+     */
+    protected volatile TreeReachabilityIndex reachabilityIndex;
+
     /**
      * Instantiates a new hash tree with bit sets.
      *
@@ -295,6 +307,7 @@ public class HashTreeWithIntArraySetsIsolated
      */
     @Override
     public final void removeParent(int childNid, int parentNid) {
+        this.reachabilityIndex = null;
         int[] parents       = childNid_ParentNidSetArray_Map.get(childNid);
         int[] newParents    = new int[parents.length - 1];
         int   j             = 0;
@@ -308,6 +321,94 @@ public class HashTreeWithIntArraySetsIsolated
         childNid_ParentNidSetArray_Map.put(childNid, newParents);
     }
 
+    /**
+     * Bring the parents of a single concept up to date, adding and removing only the edges that differ from
+     * those already in the tree. Cycles are checked locally, by testing if a new parent is already a descendent
+     * of the child. The child's parent array is replaced after the new parents know of the child, and before
+     * the removed parents forget it, so concurrent readers see either the old or the new parents. Sets that
+     * change are replaced by changed copies, as readers take no lock.
+     *
+     * @param childNid the concept whose parents changed
+     * @param parentNids the current parents of the concept
+     * @return false, leaving the tree unchanged, if the new parents would introduce a cycle, or would leave a
+     * concept that had parents without any. The tree must then be rebuilt.
+     */
+    public synchronized boolean updateParents(int childNid, int[] parentNids) {
+        int[] oldParents = getParentNidsNoFilter(childNid);
+        int[] newParents = IntStream.of(parentNids).distinct().sorted().toArray();
+
+        if (Arrays.equals(oldParents, newParents)) {
+            return true;
+        }
+
+        if (newParents.length == 0) {
+            // Roots and inactive orphans are sorted out by a full build.
+            return false;
+        }
+
+        for (int parentNid: newParents) {
+            if (Arrays.binarySearch(oldParents, parentNid) < 0 &&
+                    (parentNid == childNid || isDescendentOf(parentNid, childNid))) {
+                LOG.info("Edge from " + childNid + " to " + parentNid + " would introduce a cycle in " + coordinateString);
+                return false;
+            }
+        }
+
+        this.reachabilityIndex = null;
+        this.conceptNids = withKey(this.conceptNids, childNid);
+        for (int parentNid: newParents) {
+            if (Arrays.binarySearch(oldParents, parentNid) < 0) {
+                this.conceptNids = withKey(this.conceptNids, parentNid);
+                this.conceptNidsWithChildren = withKey(this.conceptNidsWithChildren, parentNid);
+                this.parentNid_ChildNidSetArray_Map.accumulateAndGet(parentNid, new int[]{childNid}, MergeIntArray::merge);
+            }
+        }
+
+        this.childNid_ParentNidSetArray_Map.put(childNid, newParents);
+        this.conceptNidsWithParents = withKey(this.conceptNidsWithParents, childNid);
+        this.roots = withoutKey(this.roots, childNid);
+
+        for (int parentNid: oldParents) {
+            if (Arrays.binarySearch(newParents, parentNid) < 0) {
+                int[] children = removeFromArray(getChildNoFilter(parentNid), childNid);
+
+                this.parentNid_ChildNidSetArray_Map.put(parentNid, children);
+                if (children.length == 0) {
+                    this.conceptNidsWithChildren = withoutKey(this.conceptNidsWithChildren, parentNid);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int[] removeFromArray(int[] array, int toRemove) {
+        return IntStream.of(array).filter((value) -> value != toRemove).toArray();
+    }
+
+    /**
+     * @return the set if it holds the key, otherwise a copy of it with the key added
+     */
+    private static OpenIntHashSet withKey(OpenIntHashSet set, int key) {
+        if (set.contains(key)) {
+            return set;
+        }
+        OpenIntHashSet copy = (OpenIntHashSet) set.clone();
+        copy.add(key);
+        return copy;
+    }
+
+    /**
+     * @return the set if it does not hold the key, otherwise a copy of it with the key removed
+     */
+    private static OpenIntHashSet withoutKey(OpenIntHashSet set, int key) {
+        if (!set.contains(key)) {
+            return set;
+        }
+        OpenIntHashSet copy = (OpenIntHashSet) set.clone();
+        copy.remove(key);
+        return copy;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -823,6 +924,10 @@ public class HashTreeWithIntArraySetsIsolated
      */
     @Override
     public final int[] getDescendentNids(int parentNid) {
+        TreeReachabilityIndex index = this.reachabilityIndex;
+        if (index != null) {
+            return index.getDescendentNids(parentNid);
+        }
         final MutableIntSet descendentNids = IntSets.mutable.empty();
         if (this.parentNid_ChildNidSetArray_Map.containsKey(parentNid)) {
             getDescendentsRecursive(parentNid, descendentNids);
@@ -837,6 +942,10 @@ public class HashTreeWithIntArraySetsIsolated
      */
     @Override
     public final boolean isDescendentOf(int childNid, int parentNid) {
+        TreeReachabilityIndex index = this.reachabilityIndex;
+        if (index != null) {
+            return index.isDescendentOf(childNid, parentNid);
+        }
         int[] parentNids = getParentNidsNoFilter(childNid);
 
         if (Arrays.binarySearch(parentNids, parentNid) >= 0) {
@@ -853,6 +962,10 @@ public class HashTreeWithIntArraySetsIsolated
     }
 
     private float descendentDepth(int childNid, int parentNid) {
+        TreeReachabilityIndex index = this.reachabilityIndex;
+        if (index != null && !index.isDescendentOf(childNid, parentNid)) {
+            return Float.NaN;
+        }
         return descendentDepth(childNid, parentNid, 1, new NidSet());
     }
 
@@ -1183,6 +1296,41 @@ public class HashTreeWithIntArraySetsIsolated
         LOG.debug("");
     }
 
+    /**
+     * Build the reachability index for descendent tests, replacing any previous index. The tree is traversed from
+     * its roots, and then from any concept not reachable from them. No index is built for a tree with a cycle.
+     * Synchronized with {@link #updateParents(int, int[])}, so an update can't be left out of the index.
+     *
+     * @return true if the index was built
+     */
+    public synchronized boolean buildReachabilityIndex() {
+        IntArrayList startNids = new IntArrayList(conceptNids.size() + roots.size());
+        startNids.addAllOf(roots.keys());
+        startNids.addAllOf(conceptNids.keys());
+        this.reachabilityIndex = TreeReachabilityIndex.build(
+                Arrays.copyOf(startNids.elements(), startNids.size()), this::getChildNoFilter);
+        if (this.reachabilityIndex == null) {
+            LOG.info("No reachability index for " + coordinateString + ", the tree has a cycle");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true if descendent tests are answered by a reachability index
+     */
+    public boolean hasReachabilityIndex() {
+        return this.reachabilityIndex != null;
+    }
+
+    /**
+     * @return the estimated heap used by the reachability index, in bytes, or 0 if there is no index
+     */
+    public long getReachabilityIndexMemoryInUse() {
+        TreeReachabilityIndex index = this.reachabilityIndex;
+        return index == null ? 0 : index.memoryInUse();
+    }
+
     @Override
     public NidSet getNodeNids() {
         NidSet nodeNids = new NidSet();
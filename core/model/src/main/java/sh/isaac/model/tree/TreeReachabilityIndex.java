@@ -0,0 +1,229 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.tree;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import org.apache.mahout.math.list.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.IntIntHashMap;
+
+/**
+ * A reachability index over the parent child edges of a tree, answering descendent tests without walking the
+ * tree. Each node is numbered in depth first pre-order, so the descendents of a node along the spanning tree of
+ * the traversal occupy a contiguous range of numbers. Descendents reached through the extra parents of multi
+ * parent concepts are recorded as additional ranges, coalesced with the spanning tree range when adjacent.
+ *
+ * A descendent test is then a search over the few ranges of the parent, and the descendents of a node are copied
+ * out of the pre-order array range by range.
+ *
+ * The index is immutable, and describes the tree as it was when built. It cannot be built for a tree that
+ * contains a cycle.
+ */
+public class TreeReachabilityIndex {
+
+    private static final int NOT_INDEXED = -1;
+
+    private final IntIntHashMap nidToPreorder;
+    private final int[] preorderToNid;
+    /** For each pre-order number, sorted and disjoint [first, last] pairs of the pre-order numbers reachable from it, itself included. */
+    private final int[][] ranges;
+
+    private TreeReachabilityIndex(IntIntHashMap nidToPreorder, int[] preorderToNid, int[][] ranges) {
+        this.nidToPreorder = nidToPreorder;
+        this.preorderToNid = preorderToNid;
+        this.ranges = ranges;
+    }
+
+    /**
+     * Build the index with a depth first traversal from each of the start nids in turn.
+     *
+     * @param startNids the nids to start traversals from, roots first. Every node of the tree must be reachable
+     * from one of them.
+     * @param childrenFunction provides the children of a node
+     * @return the index, or null if the tree contains a cycle
+     */
+    public static TreeReachabilityIndex build(int[] startNids, IntFunction<int[]> childrenFunction) {
+        IntIntHashMap nidToPreorder = new IntIntHashMap(startNids.length);
+        IntArrayList preorderToNid = new IntArrayList(startNids.length);
+        IntArrayList onStack = new IntArrayList(startNids.length);
+        IntArrayList ranges = new IntArrayList();
+        int[][] rangeArrays = new int[startNids.length][];
+        int[] stackPreorder = new int[64];
+        int[] stackChildIndex = new int[64];
+
+        for (int startNid: startNids) {
+            if (nidToPreorder.containsKey(startNid)) {
+                continue;
+            }
+            int depth = 0;
+            stackPreorder[0] = discover(startNid, nidToPreorder, preorderToNid, onStack);
+            stackChildIndex[0] = 0;
+
+            while (depth >= 0) {
+                int preorder = stackPreorder[depth];
+                int[] childNids = childrenFunction.apply(preorderToNid.getQuick(preorder));
+
+                if (childNids != null && stackChildIndex[depth] < childNids.length) {
+                    int childNid = childNids[stackChildIndex[depth]++];
+                    int childPreorder = nidToPreorder.getIfAbsent(childNid, NOT_INDEXED);
+
+                    if (childPreorder == NOT_INDEXED) {
+                        depth++;
+                        if (depth == stackPreorder.length) {
+                            stackPreorder = Arrays.copyOf(stackPreorder, depth * 2);
+                            stackChildIndex = Arrays.copyOf(stackChildIndex, depth * 2);
+                        }
+                        stackPreorder[depth] = discover(childNid, nidToPreorder, preorderToNid, onStack);
+                        stackChildIndex[depth] = 0;
+                    } else if (onStack.getQuick(childPreorder) == 1) {
+                        return null;
+                    }
+                } else {
+                    // All descendents are finished, so their ranges are complete.
+                    onStack.setQuick(preorder, 0);
+                    ranges.clear();
+                    ranges.add(preorder);
+                    ranges.add(preorderToNid.size() - 1);
+                    if (childNids != null) {
+                        // Even a child inside the spanning tree range may reach nodes outside of it.
+                        for (int childNid: childNids) {
+                            for (int rangeBound: rangeArrays[nidToPreorder.get(childNid)]) {
+                                ranges.add(rangeBound);
+                            }
+                        }
+                    }
+                    if (preorder >= rangeArrays.length) {
+                        rangeArrays = Arrays.copyOf(rangeArrays, Math.max(preorder + 1, rangeArrays.length * 2));
+                    }
+                    rangeArrays[preorder] = mergeRanges(ranges);
+                    depth--;
+                }
+            }
+        }
+        return new TreeReachabilityIndex(nidToPreorder, Arrays.copyOf(preorderToNid.elements(), preorderToNid.size()),
+                Arrays.copyOf(rangeArrays, preorderToNid.size()));
+    }
+
+    private static int discover(int nid, IntIntHashMap nidToPreorder, IntArrayList preorderToNid,
+                                IntArrayList onStack) {
+        int preorder = preorderToNid.size();
+        nidToPreorder.put(nid, preorder);
+        preorderToNid.add(nid);
+        onStack.add(1);
+        return preorder;
+    }
+
+    /**
+     * Sort and coalesce the [first, last] pairs.
+     */
+    private static int[] mergeRanges(IntArrayList ranges) {
+        if (ranges.size() == 2) {
+            return new int[] { ranges.getQuick(0), ranges.getQuick(1) };
+        }
+        int pairCount = ranges.size() / 2;
+        long[] pairs = new long[pairCount];
+        for (int i = 0; i < pairCount; i++) {
+            pairs[i] = ((long) ranges.getQuick(i * 2) << 32) | ranges.getQuick(i * 2 + 1);
+        }
+        Arrays.sort(pairs);
+        IntArrayList merged = new IntArrayList(ranges.size());
+        for (long pair: pairs) {
+            int first = (int) (pair >>> 32);
+            int last = (int) pair;
+            int size = merged.size();
+            if (size > 0 && first <= merged.getQuick(size - 1) + 1) {
+                merged.setQuick(size - 1, Math.max(last, merged.getQuick(size - 1)));
+            } else {
+                merged.add(first);
+                merged.add(last);
+            }
+        }
+        return Arrays.copyOf(merged.elements(), merged.size());
+    }
+
+    /**
+     * @param childNid the possible descendent
+     * @param parentNid the possible ancestor
+     * @return true if the child is reachable from the parent through one or more parent child edges
+     */
+    public boolean isDescendentOf(int childNid, int parentNid) {
+        int childPreorder = nidToPreorder.getIfAbsent(childNid, NOT_INDEXED);
+        int parentPreorder = nidToPreorder.getIfAbsent(parentNid, NOT_INDEXED);
+        if (childPreorder == NOT_INDEXED || parentPreorder == NOT_INDEXED || childPreorder == parentPreorder) {
+            return false;
+        }
+        int[] parentRanges = ranges[parentPreorder];
+        for (int i = 0; i < parentRanges.length; i += 2) {
+            if (parentRanges[i] <= childPreorder && childPreorder <= parentRanges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param parentNid the ancestor
+     * @return the nids of every node reachable from the parent, in pre-order within each range
+     */
+    public int[] getDescendentNids(int parentNid) {
+        int parentPreorder = nidToPreorder.getIfAbsent(parentNid, NOT_INDEXED);
+        if (parentPreorder == NOT_INDEXED) {
+            return new int[0];
+        }
+        int[] parentRanges = ranges[parentPreorder];
+        int count = 0;
+        for (int i = 0; i < parentRanges.length; i += 2) {
+            count += parentRanges[i + 1] - parentRanges[i] + 1;
+        }
+        // One of the ranges holds the parent itself, which is not one of its descendents.
+        int[] descendentNids = new int[count - 1];
+        int position = 0;
+        for (int i = 0; i < parentRanges.length; i += 2) {
+            int first = parentRanges[i];
+            int last = parentRanges[i + 1];
+            if (first <= parentPreorder && parentPreorder <= last) {
+                System.arraycopy(preorderToNid, first, descendentNids, position, parentPreorder - first);
+                position += parentPreorder - first;
+                first = parentPreorder + 1;
+            }
+            System.arraycopy(preorderToNid, first, descendentNids, position, last - first + 1);
+            position += last - first + 1;
+        }
+        return descendentNids;
+    }
+
+    /**
+     * @return true if the nid was part of the tree when the index was built
+     */
+    public boolean contains(int nid) {
+        return nidToPreorder.containsKey(nid);
+    }
+
+    /**
+     * @return an estimate of the heap used by the index, in bytes
+     */
+    public long memoryInUse() {
+        // The hash map keeps parallel key and value arrays, at up to half full.
+        long sizeInBytes = nidToPreorder.size() * 16L;
+        sizeInBytes += 16 + preorderToNid.length * 4L;
+        sizeInBytes += 16 + ranges.length * 8L; // 8 bytes = pointer to each range array
+        for (int[] nodeRanges: ranges) {
+            sizeInBytes += 16 + nodeRanges.length * 4L;
+        }
+        return sizeInBytes;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+import sh.isaac.model.collections.store.IntIntArrayNoStore;
+
+/**
+ * Checks the results of {@link SpinedIntIntArrayMap#mergeFrom(SpinedIntIntArrayMap, java.util.function.BinaryOperator)},
+ * for keys held by one or both maps, in spines held by one or both maps, and for concurrent merges into the same key.
+ * The timing of a parallel collect with these merges is reported by {@link SpinedIntIntArrayMapMergeTimingHarness}.
+ */
+public class SpinedIntIntArrayMapMergeTest {
+   private static final int SPINE_SIZE = 1024;
+   private static final int THREADS = 8;
+
+   private static SpinedIntIntArrayMap newMap() {
+      return new SpinedIntIntArrayMap(new IntIntArrayNoStore());
+   }
+
+   private static void add(SpinedIntIntArrayMap map, int key, int... values) {
+      for (int value: values) {
+         map.accumulateAndGet(key, new int[] { value }, MergeIntArray::merge);
+      }
+   }
+
+   @Test
+   public void testMergeSharedAndDisjointKeys() {
+      SpinedIntIntArrayMap map = newMap();
+      add(map, 1, 3, 1);
+      add(map, 2, 9);
+      add(map, SPINE_SIZE + 5, 4);
+
+      SpinedIntIntArrayMap another = newMap();
+      add(another, 1, 2, 3);
+      add(another, 3, 8);
+      add(another, SPINE_SIZE + 5, 4, 6);
+      add(another, 3 * SPINE_SIZE + 7, 5);
+
+      map.mergeFrom(another, MergeIntArray::merge);
+
+      assertArrayEquals(new int[] { 1, 2, 3 }, map.get(1));
+      assertArrayEquals(new int[] { 9 }, map.get(2));
+      assertArrayEquals(new int[] { 8 }, map.get(3));
+      assertArrayEquals(new int[] { 4, 6 }, map.get(SPINE_SIZE + 5));
+      // Only the other map had this spine.
+      assertArrayEquals(new int[] { 5 }, map.get(3 * SPINE_SIZE + 7));
+      assertNull(map.get(0));
+      assertNull(map.get(2 * SPINE_SIZE));
+   }
+
+   @Test
+   public void testMergeIntoEmptyMap() {
+      SpinedIntIntArrayMap another = newMap();
+      add(another, 10, 7, 3);
+      add(another, 2 * SPINE_SIZE, 1);
+
+      SpinedIntIntArrayMap map = newMap();
+      map.mergeFrom(another, MergeIntArray::merge);
+
+      assertArrayEquals(new int[] { 3, 7 }, map.get(10));
+      assertArrayEquals(new int[] { 1 }, map.get(2 * SPINE_SIZE));
+      assertNull(map.get(11));
+   }
+
+   @Test
+   public void testMergedPartialsMatchSequentialBuild() {
+      // Each key gets the values key + 1 .. key + 3, split across partials by value.
+      int keyCount = 3 * SPINE_SIZE;
+      SpinedIntIntArrayMap expected = newMap();
+      List<SpinedIntIntArrayMap> partials = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+         partials.add(newMap());
+      }
+      for (int key = 0; key < keyCount; key++) {
+         for (int i = 0; i < 3; i++) {
+            add(expected, key, key + i + 1);
+            // Leave the last spine out of the first partial, so that it is adopted from another.
+            if (i == 0 && key >= 2 * SPINE_SIZE) {
+               add(partials.get(1), key, key + i + 1);
+            } else {
+               add(partials.get(i), key, key + i + 1);
+            }
+         }
+      }
+
+      SpinedIntIntArrayMap merged = partials.get(0);
+      merged.mergeFrom(partials.get(1), MergeIntArray::merge);
+      merged.mergeFrom(partials.get(2), MergeIntArray::merge);
+
+      for (int key = 0; key < keyCount; key++) {
+         assertArrayEquals("values of " + key, expected.get(key), merged.get(key));
+      }
+   }
+
+   @Test
+   public void testConcurrentMergesIntoTheSameKey() throws Exception {
+      int sharedKey = 7;
+      int adoptedKey = 5 * SPINE_SIZE + 3;
+      for (int round = 0; round < 20; round++) {
+         SpinedIntIntArrayMap map = newMap();
+         List<SpinedIntIntArrayMap> partials = new ArrayList<>();
+         for (int thread = 0; thread < THREADS; thread++) {
+            SpinedIntIntArrayMap partial = newMap();
+            add(partial, sharedKey, thread, thread + THREADS);
+            // No map has this spine before the merges, so each merge races to adopt its own.
+            add(partial, adoptedKey, thread);
+            add(partial, SPINE_SIZE * (thread + 10), thread);
+            partials.add(partial);
+         }
+
+         ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+         try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> merges = new ArrayList<>();
+            for (SpinedIntIntArrayMap partial: partials) {
+               merges.add(executor.submit(() -> {
+                  start.await();
+                  map.mergeFrom(partial, MergeIntArray::merge);
+                  return null;
+               }));
+            }
+            start.countDown();
+            for (Future<?> merge: merges) {
+               merge.get();
+            }
+         } finally {
+            executor.shutdownNow();
+         }
+
+         assertArrayEquals(IntStream.range(0, 2 * THREADS).toArray(), map.get(sharedKey));
+         assertArrayEquals(IntStream.range(0, THREADS).toArray(), map.get(adoptedKey));
+         for (int thread = 0; thread < THREADS; thread++) {
+            assertArrayEquals(new int[] { thread }, map.get(SPINE_SIZE * (thread + 10)));
+         }
+      }
+   }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.collections;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import sh.isaac.model.collections.store.IntIntArrayNoStore;
+
+/**
+ * Times a parallel collect of parent and child arrays into thread confined spined maps, combined with
+ * {@link SpinedIntIntArrayMap#mergeFrom(SpinedIntIntArrayMap, java.util.function.BinaryOperator)}, for 1 to N cores
+ * on a generated taxonomy. The partial builders mirror the edge bookkeeping of HashTreeBuilderIsolated.
+ *
+ * Usage: SpinedIntIntArrayMapMergeTimingHarness [concept count] [runs per core count]
+ *
+ * Reports the best time for each core count, and fails if a parallel collect differs from a sequential build.
+ */
+public class SpinedIntIntArrayMapMergeTimingHarness {
+
+   private static class Partial {
+      final SpinedIntIntArrayMap childParents = new SpinedIntIntArrayMap(new IntIntArrayNoStore());
+      final SpinedIntIntArrayMap parentChildren = new SpinedIntIntArrayMap(new IntIntArrayNoStore());
+
+      void add(int child, int[][] taxonomy) {
+         for (int parent: taxonomy[child]) {
+            childParents.accumulateAndGet(child, new int[] { parent }, MergeIntArray::merge);
+            parentChildren.accumulateAndGet(parent, new int[] { child }, MergeIntArray::merge);
+         }
+      }
+
+      void combine(Partial another) {
+         childParents.mergeFrom(another.childParents, MergeIntArray::merge);
+         parentChildren.mergeFrom(another.parentChildren, MergeIntArray::merge);
+      }
+   }
+
+   /**
+    * Each concept after the root gets one to three parents among the concepts before it.
+    */
+   private static int[][] generateTaxonomy(int conceptCount) {
+      Random random = new Random(conceptCount);
+      int[][] taxonomy = new int[conceptCount][];
+      taxonomy[0] = new int[0];
+      for (int child = 1; child < conceptCount; child++) {
+         int parentCount = Math.min(child, 1 + random.nextInt(3));
+         taxonomy[child] = random.ints(0, child).distinct().limit(parentCount).toArray();
+      }
+      return taxonomy;
+   }
+
+   private static Partial collect(int[][] taxonomy, int cores) throws Exception {
+      ForkJoinPool pool = new ForkJoinPool(cores);
+      try {
+         return pool.submit(() -> IntStream.range(0, taxonomy.length).parallel()
+               .collect(Partial::new, (partial, child) -> partial.add(child, taxonomy), Partial::combine)).get();
+      } finally {
+         pool.shutdown();
+      }
+   }
+
+   public static void main(String[] args) throws Exception {
+      final int conceptCount = args.length > 0 ? Integer.parseInt(args[0]) : 300_000;
+      final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+      int[][] taxonomy = generateTaxonomy(conceptCount);
+      Partial expected = new Partial();
+      IntStream.range(0, conceptCount).forEach((child) -> expected.add(child, taxonomy));
+
+      int maxCores = Runtime.getRuntime().availableProcessors();
+      for (int cores = 1; cores <= maxCores; cores = (cores == maxCores) ? cores + 1 : Math.min(cores * 2, maxCores)) {
+         long bestNanos = Long.MAX_VALUE;
+         Partial actual = null;
+         for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            actual = collect(taxonomy, cores);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+         }
+         System.out.println("Collected " + conceptCount + " concepts with " + cores + " cores in " + (bestNanos / 1_000_000) + " ms");
+
+         for (int nid = 0; nid < conceptCount; nid++) {
+            if (!Arrays.equals(expected.childParents.get(nid), actual.childParents.get(nid))
+                  || !Arrays.equals(expected.parentChildren.get(nid), actual.parentChildren.get(nid))) {
+               throw new IllegalStateException("Parallel collect with " + cores + " cores differs at " + nid);
+            }
+         }
+      }
+   }
+}
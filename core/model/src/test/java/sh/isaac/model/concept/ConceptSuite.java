@@ -64,16 +64,23 @@ import sh.isaac.api.LookupService;
 import sh.isaac.api.Status;
 import sh.isaac.api.bootstrap.TermAux;
 import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.api.chronicle.LatestVersion;
+import sh.isaac.api.chronicle.Version;
 import sh.isaac.api.commit.ChangeCheckerMode;
 import sh.isaac.api.component.concept.ConceptChronology;
 import sh.isaac.api.component.concept.ConceptSpecification;
 import sh.isaac.api.component.semantic.SemanticChronology;
+import sh.isaac.api.constants.SystemPropertyConstants;
+import sh.isaac.api.coordinate.Coordinates;
 import sh.isaac.api.coordinate.LogicCoordinate;
 import sh.isaac.api.coordinate.LogicCoordinateImmutable;
+import sh.isaac.api.coordinate.StampFilterImmutable;
 import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+import sh.isaac.api.identity.StampedVersion;
 import sh.isaac.api.memory.HeapUseTicker;
 import sh.isaac.api.progress.ActiveTasksTicker;
 import sh.isaac.api.transaction.Transaction;
+import sh.isaac.model.ChronologyImpl;
 import sh.isaac.model.builder.ConceptBuilderImpl;
 import sh.isaac.model.semantic.SemanticChronologyImpl;
 
@@ -130,6 +137,67 @@ public class ConceptSuite {
       testConcept3.toString();
    }
 
+   /**
+    * Test that chronologies read with lazy version decoding have the same versions, latest versions and serialized
+    * data as those read eagerly, including when the latest version is decoded before the others.
+    */
+   @Test(groups = { "services" })
+   public void testLazyVersionDecodingMatchesEager() {
+      final int  authorNid = TermAux.USER.getNid();
+      final int  moduleNid = TermAux.SOLOR_MODULE.getNid();
+      final int  pathNid   = TermAux.DEVELOPMENT_PATH.getNid();
+      final long time      = System.currentTimeMillis() - 10_000;
+      final ConceptChronologyImpl concept = new ConceptChronologyImpl(UUID.randomUUID(), SOLOR_CONCEPT_ASSEMBLAGE.getNid());
+
+      // Written out of time order, with a retirement, so buffer order and time order differ.
+      concept.createMutableVersion(Get.stampService().getStampSequence(Status.ACTIVE, time + 2000, authorNid, moduleNid, pathNid));
+      concept.createMutableVersion(Get.stampService().getStampSequence(Status.ACTIVE, time, authorNid, moduleNid, pathNid));
+      concept.createMutableVersion(Get.stampService().getStampSequence(Status.INACTIVE, time + 3000, authorNid, moduleNid, pathNid));
+      concept.createMutableVersion(Get.stampService().getStampSequence(Status.ACTIVE, time + 1000, authorNid, moduleNid, pathNid));
+
+      final byte[] data = concept.getChronologyVersionDataToWrite();
+      final StampFilterImmutable filter = Coordinates.Filter.DevelopmentLatest();
+
+      try {
+         ChronologyImpl.setLazyVersionDecoding(false);
+         final ConceptChronologyImpl eager = ConceptChronologyImpl.make(new ByteArrayDataBuffer(data));
+
+         ChronologyImpl.setLazyVersionDecoding(true);
+         final ConceptChronologyImpl lazy = ConceptChronologyImpl.make(new ByteArrayDataBuffer(data));
+         final ConceptChronologyImpl lazyLatestFirst = ConceptChronologyImpl.make(new ByteArrayDataBuffer(data));
+         final ConceptChronologyImpl lazyForCalculator = ConceptChronologyImpl.make(new ByteArrayDataBuffer(data));
+
+         // Decode only the latest version, then the rest.
+         final LatestVersion<Version> eagerLatest = eager.getLatestVersion(filter);
+         Assert.assertEquals(eagerLatest.get().getStatus(), Status.INACTIVE);
+         assertSameLatest(lazyLatestFirst.getLatestVersion(filter), eagerLatest);
+         assertSameLatest(filter.getRelativePositionCalculator().getLatestVersion(lazyForCalculator), eagerLatest);
+         assertSameLatest(filter.getRelativePositionCalculator().getLatestVersion(eager), eagerLatest);
+
+         for (ConceptChronologyImpl lazyConcept : new ConceptChronologyImpl[] { lazy, lazyLatestFirst, lazyForCalculator }) {
+            Assert.assertEquals(lazyConcept.getVersionStampSequences(), eager.getVersionStampSequences());
+            Assert.assertEquals(stampsOf(lazyConcept.getVersionList()), stampsOf(eager.getVersionList()));
+            Assert.assertEquals(lazyConcept.getChronologyVersionDataToWrite(), eager.getChronologyVersionDataToWrite());
+         }
+         Assert.assertEquals(eager.getChronologyVersionDataToWrite(), data);
+      } finally {
+         ChronologyImpl.setLazyVersionDecoding(Boolean.parseBoolean(System.getProperty(SystemPropertyConstants.LAZY_VERSION_DECODING)));
+      }
+   }
+
+   private static void assertSameLatest(LatestVersion<? extends StampedVersion> actual, LatestVersion<? extends StampedVersion> expected) {
+      Assert.assertEquals(actual.isPresent(), expected.isPresent());
+      Assert.assertEquals(stampsOf(actual.versionList()), stampsOf(expected.versionList()));
+   }
+
+   private static List<Integer> stampsOf(List<? extends StampedVersion> versions) {
+      final List<Integer> stamps = new ArrayList<>(versions.size());
+      for (StampedVersion version : versions) {
+         stamps.add(version.getStampSequence());
+      }
+      return stamps;
+   }
+
    /**
     * Test serialization no versions.
     *
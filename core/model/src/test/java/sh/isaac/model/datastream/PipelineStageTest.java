@@ -0,0 +1,203 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.datastream;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Draining, exception propagation and interruption of {@link PipelineStage}. The tests time out rather than hang if
+ * a worker or submitter is left waiting.
+ */
+public class PipelineStageTest {
+
+    private static final RuntimeException FAILURE = new RuntimeException("failure");
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void assertFailure(Exception e) {
+        assertSame(FAILURE, e.getCause());
+    }
+
+    @Test(timeout = 30_000)
+    public void finishDrainsEverythingSubmitted() throws Exception {
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        PipelineStage<Integer> stage = new PipelineStage<>("drain", 4, 8, seen::add);
+        for (int i = 0; i < 10_000; i++) {
+            stage.submit(i);
+        }
+        stage.finish();
+        assertEquals(10_000, seen.size());
+        assertEquals(10_000, stage.getProcessedCount());
+        assertEquals(0, stage.getQueueDepth());
+        assertEquals(8, stage.getQueueCapacity());
+        // A second finish has nothing more to wait for.
+        stage.finish();
+    }
+
+    @Test(timeout = 30_000, expected = IllegalStateException.class)
+    public void submitAfterFinishIsRejected() throws Exception {
+        PipelineStage<Integer> stage = new PipelineStage<>("finished", 2, 8, item -> { });
+        stage.finish();
+        stage.submit(1);
+    }
+
+    @Test(timeout = 30_000)
+    public void submittersAreBlockedWhileTheQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PipelineStage<Integer> stage = new PipelineStage<>("slow", 1, 1, item -> await(release));
+        stage.submit(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // The worker holds the first item and the queue holds the second, so the third waits.
+            Future<?> blocked = executor.submit(() -> {
+                stage.submit(2);
+                stage.submit(3);
+                return null;
+            });
+            Thread.sleep(300);
+            assertFalse(blocked.isDone());
+            release.countDown();
+            blocked.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        stage.finish();
+        assertEquals(3, stage.getProcessedCount());
+        assertTrue(stage.getBlockedMillis() >= 200);
+    }
+
+    @Test(timeout = 30_000)
+    public void exceptionIsRethrownFromSubmitAndFinish() throws Exception {
+        PipelineStage<Integer> stage = new PipelineStage<>("failing", 2, 4, item -> {
+            if (item == 5) {
+                throw FAILURE;
+            }
+        });
+        try {
+            for (int i = 0; i < 1_000; i++) {
+                stage.submit(i);
+                Thread.sleep(1);
+            }
+            fail("submit went on after the stage failed");
+        } catch (Exception e) {
+            assertFailure(e);
+        }
+        try {
+            stage.finish();
+            fail("finish did not rethrow");
+        } catch (Exception e) {
+            assertFailure(e);
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void finishReturnsWhenAWorkerFailsWhileOthersWait() throws Exception {
+        // One worker fails, and clears the queue, while the others wait for items that will never come.
+        PipelineStage<Integer> stage = new PipelineStage<>("idle", 4, 4, item -> {
+            throw FAILURE;
+        });
+        stage.submit(1);
+        try {
+            stage.finish();
+            fail("finish did not rethrow");
+        } catch (Exception e) {
+            assertFailure(e);
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void blockedSubmitterIsReleasedWhenTheStageFails() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PipelineStage<Integer> stage = new PipelineStage<>("failing", 1, 1, item -> {
+            await(release);
+            throw FAILURE;
+        });
+        stage.submit(1);
+        stage.submit(2);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> blocked = executor.submit(() -> {
+                stage.submit(3);
+                return null;
+            });
+            Thread.sleep(300);
+            assertFalse(blocked.isDone());
+            release.countDown();
+            try {
+                // Either the failure is seen while waiting, or the item lands in the cleared queue and is never run.
+                blocked.get(10, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertFailure((Exception) e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        try {
+            stage.finish();
+            fail("finish did not rethrow");
+        } catch (Exception e) {
+            assertFailure(e);
+        }
+        assertEquals(0, stage.getProcessedCount());
+    }
+
+    @Test(timeout = 30_000)
+    public void interruptedSubmitterStopsWaiting() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PipelineStage<Integer> stage = new PipelineStage<>("interrupted", 1, 1, item -> await(release));
+        stage.submit(1);
+        stage.submit(2);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> blocked = executor.submit(() -> {
+                stage.submit(3);
+                return null;
+            });
+            Thread.sleep(300);
+            blocked.cancel(true);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        // The interrupted item was not queued, and the stage still drains the rest.
+        release.countDown();
+        stage.finish();
+        assertEquals(2, stage.getProcessedCount());
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.tree;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Compares the answers of {@link TreeReachabilityIndex} with a breadth first search over generated multi parent
+ * taxonomies.
+ */
+public class TreeReachabilityIndexTest {
+   private static final int CONCEPT_COUNT = 2_000;
+
+   /**
+    * Children of each node, for a taxonomy where each concept after the root has one to three parents before it.
+    * Nids are offset into the negative range, as concept nids are.
+    */
+   private static int[][] generateChildren(long seed) {
+      Random random = new Random(seed);
+      int[][] children = new int[CONCEPT_COUNT][0];
+      for (int child = 1; child < CONCEPT_COUNT; child++) {
+         int parentCount = Math.min(child, 1 + random.nextInt(3));
+         for (int parent: random.ints(0, child).distinct().limit(parentCount).toArray()) {
+            children[parent] = Arrays.copyOf(children[parent], children[parent].length + 1);
+            children[parent][children[parent].length - 1] = toNid(child);
+         }
+      }
+      return children;
+   }
+
+   private static int toNid(int index) {
+      return Integer.MIN_VALUE + 1 + index;
+   }
+
+   private static int toIndex(int nid) {
+      return nid - Integer.MIN_VALUE - 1;
+   }
+
+   private static BitSet search(int[][] children, int start) {
+      BitSet reached = new BitSet();
+      int[] queue = new int[CONCEPT_COUNT];
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = start;
+      while (head < tail) {
+         for (int childNid: children[queue[head++]]) {
+            int child = toIndex(childNid);
+            if (!reached.get(child)) {
+               reached.set(child);
+               queue[tail++] = child;
+            }
+         }
+      }
+      return reached;
+   }
+
+   @Test
+   public void testMatchesSearch() {
+      for (long seed = 1; seed <= 3; seed++) {
+         int[][] children = generateChildren(seed);
+         int[] startNids = IntStream.range(0, CONCEPT_COUNT).map(TreeReachabilityIndexTest::toNid).toArray();
+         TreeReachabilityIndex index = TreeReachabilityIndex.build(startNids, (nid) -> children[toIndex(nid)]);
+
+         assertNotNull(index);
+         for (int parent = 0; parent < CONCEPT_COUNT; parent += 7) {
+            BitSet expected = search(children, parent);
+            int[] descendentNids = index.getDescendentNids(toNid(parent));
+            int[] descendents = IntStream.of(descendentNids).map(TreeReachabilityIndexTest::toIndex).sorted().toArray();
+
+            assertArrayEquals("descendents of " + parent, expected.stream().toArray(), descendents);
+            for (int child = 0; child < CONCEPT_COUNT; child++) {
+               assertEquals(parent + " -> " + child, expected.get(child), index.isDescendentOf(toNid(child), toNid(parent)));
+            }
+         }
+      }
+   }
+
+   @Test
+   public void testCycleIsNotIndexed() {
+      int[][] children = new int[][] { { toNid(1) }, { toNid(2) }, { toNid(0) } };
+      TreeReachabilityIndex index = TreeReachabilityIndex.build(new int[] { toNid(0) }, (nid) -> children[toIndex(nid)]);
+
+      assertNull(index);
+   }
+}
@@ -59,10 +59,10 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentSkipListSet;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -97,7 +97,8 @@ import sh.isaac.api.logic.LogicalExpression;
 import sh.isaac.api.logic.LogicalExpressionBuilder;
 import sh.isaac.api.logic.NodeSemantic;
 import sh.isaac.api.logic.assertions.Assertion;
-import sh.isaac.model.datastream.BinaryDatastreamReader;
+import sh.isaac.model.datastream.BulkLoadPipeline;
+import sh.isaac.model.datastream.PipelineStage;
 import sh.isaac.model.logic.node.AbstractLogicNode;
 import sh.isaac.model.logic.node.AndNode;
 import sh.isaac.model.logic.node.external.ConceptNodeWithUuids;
@@ -240,12 +241,20 @@ public class LoadTermstore extends AbstractMojo
 
 	private boolean setDBBuildMode = true;
 
-	private int itemCount;
+	private final AtomicInteger itemCount = new AtomicInteger();
 
 	private InputStream[] inputIBDFStreams;
 
+	/**
+	 * Logic graphs whose taxonomy update could not run during the load, because their concept had not been read yet.
+	 */
 	private final Set<Integer> deferredActionNids = new ConcurrentSkipListSet<>();
 
+	/**
+	 * Updates the taxonomy for each logic graph as it is written, shared by all of the files loaded.
+	 */
+	private PipelineStage<Integer> taxonomyStage;
+
 	/**
 	 * Execute.
 	 *
@@ -355,14 +364,19 @@ public class LoadTermstore extends AbstractMojo
 			getLog().info("Identified " + temp.length + " ibdf files");
 		}
 
+		int taxonomyWorkers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		taxonomyStage = new PipelineStage<>("taxonomy", taxonomyWorkers, taxonomyWorkers * 256, nid -> updateTaxonomy(nid, true));
+
 		try
 		{
+			// Files are loaded one at a time, so the metadata is in place before anything else, but the taxonomy stage
+			// keeps working on the logic graphs of one file while the next is read.
 			for (final Path f : temp)
 			{
 				getLog().info("Loading termstore from " + f + (this.activeOnly ? " active items only" : ""));
 				FileHandler fh = new FileHandler(f.toString());
-				final BinaryDatastreamReader reader = new BinaryDatastreamReader(item -> fh.process(item), f);
-				Get.executor().submit(reader).get();
+				final BulkLoadPipeline pipeline = new BulkLoadPipeline(item -> fh.process(item), f, taxonomyStage);
+				Get.executor().submit(pipeline).get();
 				fh.summarize();
 			}
 
@@ -372,12 +386,15 @@ public class LoadTermstore extends AbstractMojo
 				{
 					getLog().info("Loading termstore inputStream " + (this.activeOnly ? " active items only" : ""));
 					FileHandler fh = new FileHandler(is.toString());
-					final BinaryDatastreamReader reader = new BinaryDatastreamReader(item -> fh.process(item), is);
-					Get.executor().submit(reader).get();
+					final BulkLoadPipeline pipeline = new BulkLoadPipeline(item -> fh.process(item), is, taxonomyStage);
+					Get.executor().submit(pipeline).get();
 					fh.summarize();
 				}
 			}
 
+			taxonomyStage.finish();
+			getLog().info("Taxonomy updates during load: " + taxonomyStage);
+
 			Get.service(VersionManagmentPathService.class).rebuildPathMap();
 
 			getLog().info("Completing processing on " + deferredActionNids.size() + " defered items");
@@ -393,25 +410,7 @@ public class LoadTermstore extends AbstractMojo
 
 					if (sc.getVersionType() == VersionType.LOGIC_GRAPH)
 					{
-						futures.add(tpe.submit(() -> 
-						{
-							try
-							{
-								Get.taxonomyService().updateTaxonomy(sc);
-							}
-							catch (Exception e)
-							{
-								Map<String, Object> args = new HashMap<>();
-								args.put(JsonWriter.PRETTY_PRINT, true);
-								ByteArrayOutputStream baos = new ByteArrayOutputStream();
-								JsonWriter json = new JsonWriter(baos, args);
-	
-								UUID primordial = sc.getPrimordialUuid();
-								json.write(sc);
-								getLog().error("Failed on taxonomy update for object with primordial UUID " + primordial.toString() + ": " + baos.toString(), e);
-								json.close();
-							}
-						}));
+						futures.add(tpe.submit(() -> updateTaxonomy(nid, false)));
 					}
 					else
 					{
@@ -434,24 +433,86 @@ public class LoadTermstore extends AbstractMojo
 				// Loading with activeOnly set to true causes a number of gaps in the concept /
 				getLog().warn("Skipped components during import.");
 			}
-			getLog().info("Final item count: " + this.itemCount + " in " + (System.currentTimeMillis() - start) + " ms");
+			getLog().info("Final item count: " + this.itemCount.get() + " in " + (System.currentTimeMillis() - start) + " ms");
 			LookupService.syncAll();
 			Get.startIndexTask().get();
 
 		}
-		catch (final ExecutionException | InterruptedException | UnsupportedOperationException ex)
+		catch (final Exception ex)
 		{
 			getLog().error("Loaded with exception");
 			throw new MojoExecutionException(ex.getLocalizedMessage(), ex);
 		}
+		finally
+		{
+			try
+			{
+				taxonomyStage.finish();
+			}
+			catch (Exception e)
+			{
+				// Already reported, if it was the cause of the failure
+			}
+		}
+	}
+
+	private void queueTaxonomyUpdate(int nid)
+	{
+		try
+		{
+			taxonomyStage.submit(nid);
+		}
+		catch (RuntimeException e)
+		{
+			throw e;
+		}
+		catch (Exception e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Update the taxonomy for a logic graph that has been written. During the load, a logic graph whose concept has not
+	 * been read yet is deferred until all of the files are loaded, as the taxonomy record is kept with the concept.
+	 *
+	 * @param nid the nid of the logic graph semantic
+	 * @param deferIfConceptMissing true while files are still being loaded
+	 */
+	private void updateTaxonomy(int nid, boolean deferIfConceptMissing)
+	{
+		final SemanticChronology sc = Get.assemblageService().getSemanticChronology(nid);
+		if (deferIfConceptMissing && !Get.identifierService().getAssemblageNid(sc.getReferencedComponentNid()).isPresent())
+		{
+			deferredActionNids.add(nid);
+			return;
+		}
+		try
+		{
+			Get.taxonomyService().updateTaxonomy(sc);
+		}
+		catch (Exception e)
+		{
+			Map<String, Object> args = new HashMap<>();
+			args.put(JsonWriter.PRETTY_PRINT, true);
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			try (JsonWriter json = new JsonWriter(baos, args))
+			{
+				UUID primordial = sc.getPrimordialUuid();
+				json.write(sc);
+				getLog().error("Failed on taxonomy update for object with primordial UUID " + primordial.toString() + ": " + baos.toString(), e);
+			}
+		}
 	}
 
 	class FileHandler
 	{
-		private int conceptCount, semanticCount, stampAliasCount, stampCommentCount, itemFailure, mergeCount;
-		int duplicateCount = 0;
+		// Updated concurrently by the write workers of the pipeline
+		private final AtomicInteger conceptCount = new AtomicInteger(), semanticCount = new AtomicInteger(), stampAliasCount = new AtomicInteger(),
+				stampCommentCount = new AtomicInteger(), itemFailure = new AtomicInteger(), mergeCount = new AtomicInteger(),
+				duplicateCount = new AtomicInteger();
 		final int statedNid = Get.identifierService().getNidForUuids(TermAux.EL_PLUS_PLUS_STATED_ASSEMBLAGE.getPrimordialUuid());
-		private final HashSet<Integer> skippedItems = new HashSet<>();
+		private final Set<Integer> skippedItems = new ConcurrentSkipListSet<>();
 		String inputIdentifier;
 
 		protected FileHandler(String fileName)
@@ -463,7 +524,7 @@ public class LoadTermstore extends AbstractMojo
 		{
 			if (object != null)
 			{
-				LoadTermstore.this.itemCount++;
+				final int itemCount = LoadTermstore.this.itemCount.incrementAndGet();
 				try
 				{
 					if (null != object.getIsaacObjectType())
@@ -476,7 +537,7 @@ public class LoadTermstore extends AbstractMojo
 									try
 									{
 										Get.conceptService().writeConcept(((ConceptChronology) object));
-										this.conceptCount++;
+										this.conceptCount.incrementAndGet();
 									}
 									catch (Exception e)
 									{
@@ -511,7 +572,7 @@ public class LoadTermstore extends AbstractMojo
 											int i = 0;
 											while (!eco.isPresent())
 											{
-												//This can happen, due to threading within the BinaryDataStreamReader.  Keep retrying until the data is present.
+												//This can happen, due to threading within the BulkLoadPipeline.  Keep retrying until the data is present.
 												try
 												{
 													Thread.sleep(1);
@@ -596,7 +657,7 @@ public class LoadTermstore extends AbstractMojo
 	
 												NecessarySet(And(assertions));
 												byte[][] data = leb.build().getData(DataTarget.INTERNAL);
-												mergeCount++;
+												mergeCount.incrementAndGet();
 	
 												int stampSequence = Get.stampService().getStampSequence(Status.ACTIVE, System.currentTimeMillis(),
 														TermAux.USER.getNid(), TermAux.SOLOR_MODULE.getNid(), TermAux.DEVELOPMENT_PATH.getNid());
@@ -609,11 +670,11 @@ public class LoadTermstore extends AbstractMojo
 												//don't merge non-metadata graphs.  Builders of IBDF files should have their own file built properly.
 												//But, if there is more than one nid, that means we have multiple stated graphs (not multiple versions of a single
 												//graph - thats an error
-												if (duplicateCount < duplicatesToPrint)
+												if (duplicateCount.get() < duplicatesToPrint)
 												{
 													getLog().warn("Multiple active stated graphs found for concept.  Not merging.  New graph: " + sc);
 												}
-												duplicateCount++;
+												duplicateCount.incrementAndGet();
 											}
 										}
 									}
@@ -627,10 +688,10 @@ public class LoadTermstore extends AbstractMojo
 										Get.assemblageService().writeSemanticChronology(sc);
 										if (sc.getVersionType() == VersionType.LOGIC_GRAPH)
 										{
-											deferredActionNids.add(sc.getNid());
+											queueTaxonomyUpdate(sc.getNid());
 										}
 
-										this.semanticCount++;
+										this.semanticCount.incrementAndGet();
 									}
 									catch (Exception e)
 									{
@@ -649,12 +710,12 @@ public class LoadTermstore extends AbstractMojo
 
 							case STAMP_ALIAS:
 								Get.commitService().addAlias(((StampAlias) object).getStampSequence(), ((StampAlias) object).getStampAlias(), null);
-								this.stampAliasCount++;
+								this.stampAliasCount.incrementAndGet();
 								break;
 
 							case STAMP_COMMENT:
 								Get.commitService().setComment(((StampComment) object).getStampSequence(), ((StampComment) object).getComment());
-								this.stampCommentCount++;
+								this.stampCommentCount.incrementAndGet();
 								break;
 
 							default :
@@ -664,7 +725,7 @@ public class LoadTermstore extends AbstractMojo
 				}
 				catch (final UnsupportedOperationException e)
 				{
-					this.itemFailure++;
+					this.itemFailure.incrementAndGet();
 					getLog().error("Failure at " + this.conceptCount + " concepts, " + this.semanticCount + " semantics, " + this.stampAliasCount
 							+ " stampAlias, " + this.stampCommentCount + " stampComments", e);
 
@@ -688,9 +749,9 @@ public class LoadTermstore extends AbstractMojo
 					}
 				}
 
-				if (LoadTermstore.this.itemCount % 50000 == 0)
+				if (itemCount % 50000 == 0)
 				{
-					getLog().info("Read " + LoadTermstore.this.itemCount + " entries, " + "Loaded " + this.conceptCount + " concepts, " + this.semanticCount
+					getLog().info("Read " + itemCount + " entries, " + "Loaded " + this.conceptCount + " concepts, " + this.semanticCount
 							+ " semantics, " + this.stampAliasCount + " stampAlias, " + this.stampCommentCount + " stampComment");
 				}
 			}
@@ -706,13 +767,13 @@ public class LoadTermstore extends AbstractMojo
 			getLog().info("Loaded " + this.conceptCount + " concepts, " + this.semanticCount + " semantics, " + this.stampAliasCount + " stampAlias, "
 					+ stampCommentCount + " stampComments, " + mergeCount + " merged semantics"
 					+ (skippedItems.size() > 0 ? ", skipped for inactive " + skippedItems.size() : "")
-					+ ((duplicateCount > 0) ? " Duplicates " + duplicateCount : "") + ((this.itemFailure > 0) ? " Failures " + this.itemFailure : "") + " from "
+					+ ((duplicateCount.get() > 0) ? " Duplicates " + duplicateCount : "") + ((this.itemFailure.get() > 0) ? " Failures " + this.itemFailure : "") + " from "
 					+ inputIdentifier);
-			getLog().info("running item count: " + LoadTermstore.this.itemCount);
-			this.conceptCount = 0;
-			this.semanticCount = 0;
-			this.stampAliasCount = 0;
-			this.stampCommentCount = 0;
+			getLog().info("running item count: " + LoadTermstore.this.itemCount.get());
+			this.conceptCount.set(0);
+			this.semanticCount.set(0);
+			this.stampAliasCount.set(0);
+			this.stampCommentCount.set(0);
 			this.skippedItems.clear();
 		}
 	}
@@ -0,0 +1,66 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.tests;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import sh.isaac.api.Get;
+import sh.isaac.api.LookupService;
+import sh.isaac.api.classifier.ClassifierResults;
+import sh.isaac.api.coordinate.Coordinates;
+import sh.isaac.api.util.time.DurationUtil;
+import sh.isaac.provider.logic.csiro.classify.ClassificationType;
+import sh.isaac.provider.logic.csiro.classify.tasks.AggregateClassifyTask;
+
+/**
+ * Times the phases of a classification of an existing database, such as one with the full SNOMED stated assemblage,
+ * which is too large to build as part of the test suites.
+ *
+ * Usage: ClassifyTimingHarness &lt;datastore folder&gt; [runs] [COMPLETE|INCREMENTAL]
+ *
+ * Reports the time to extract, load and classify the axioms, and to write the results, for each run. The first run
+ * is always complete, later runs use the given classification type, which defaults to complete.
+ */
+public class ClassifyTimingHarness {
+
+   public static void main(String[] args) throws Exception {
+      if (args.length < 1) {
+         System.err.println("Usage: ClassifyTimingHarness <datastore folder> [runs] [COMPLETE|INCREMENTAL]");
+         System.exit(1);
+      }
+      final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+      final ClassificationType classificationType = args.length > 2 ? ClassificationType.valueOf(args[2]) : ClassificationType.COMPLETE;
+
+      Get.configurationService().setDataStoreFolderPath(Paths.get(args[0]));
+      LookupService.startupIsaac();
+      try {
+         for (int run = 1; run <= runs; run++) {
+            final AggregateClassifyTask classifyTask = AggregateClassifyTask.get(
+                    Coordinates.Manifold.DevelopmentInferredRegularNameSort().toManifoldCoordinateImmutable(), false,
+                    run == 1 ? ClassificationType.COMPLETE : classificationType);
+            final ClassifierResults results = classifyTask.get();
+            System.out.println("Run " + run + ": " + results);
+            Duration total = Duration.ZERO;
+            for (Map.Entry<String, Duration> phase : classifyTask.getPhaseDurations().entrySet()) {
+               System.out.println("   " + phase.getKey() + ": " + DurationUtil.format(phase.getValue()));
+               total = total.plus(phase.getValue());
+            }
+            System.out.println("   Total: " + DurationUtil.format(total));
+         }
+      } finally {
+         LookupService.shutdownSystem();
+      }
+   }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.tests.suite1;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.testing.hk2testng.HK2;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import sh.isaac.api.Get;
+import sh.isaac.api.Status;
+import sh.isaac.api.bootstrap.TermAux;
+import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.api.datastore.ChronologySerializeable;
+import sh.isaac.api.externalizable.BinaryDataReaderService;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+import sh.isaac.api.externalizable.DataWriterService;
+import sh.isaac.api.externalizable.IsaacExternalizable;
+import sh.isaac.api.externalizable.StampAlias;
+import sh.isaac.api.externalizable.StampComment;
+import sh.isaac.api.util.RecursiveDelete;
+import sh.isaac.model.concept.ConceptChronologyImpl;
+import sh.isaac.provider.commit.ChangeSetCompactionTask;
+import sh.isaac.provider.commit.ChangeSetReplayTask;
+
+/**
+ * Compacts change set files into packs, and checks that a pack holds what replaying the files it replaced does,
+ * that a pack absorbing an earlier pack carries its manifest, and that the files of this session are left alone.
+ */
+@HK2("integration")
+@Test(suiteName="suite1")
+public class ChangeSetCompactionTest {
+	private static final Logger LOG = LogManager.getLogger();
+	private static final String PACK_PREFIX = "ChangeSetPack-";
+	private static final String FILE_A = "ChangeSet-2020-01-05_10-00-00_a.ibdf";
+	private static final String FILE_B = "ChangeSet-2020-01-10_10-00-00_b.ibdf";
+	private static final String FILE_C = "ChangeSet-2020-01-20_10-00-00_c.ibdf";
+
+	private final File folder = new File("target/suite1-changesets");
+	private final UUID[] uuids = new UUID[] {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+	private final ConceptChronologyImpl[] concepts = new ConceptChronologyImpl[uuids.length];
+	private String sessionFile;
+	private String firstPack;
+
+	@Test(groups = { "changeSetCompaction" }, dependsOnGroups = { "load" })
+	public void testPackMatchesReplayOfTheFilesItReplaces() throws Exception {
+		LOG.info("Testing change set compaction");
+		RecursiveDelete.delete(folder);
+		Files.createDirectories(folder.toPath());
+		for (int i = 0; i < uuids.length; i++) {
+			concepts[i] = new ConceptChronologyImpl(uuids[i], TermAux.SOLOR_CONCEPT_ASSEMBLAGE.getNid());
+		}
+
+		int first = stamp(Status.ACTIVE, "2020-01-05_10-00-00");
+		concepts[0].createMutableVersion(first);
+		concepts[1].createMutableVersion(first);
+		List<IsaacExternalizable> stampRecords = new ArrayList<>();
+		stampRecords.add(new StampComment("first", first));
+		write(FILE_A, concepts[0], concepts[1], stampRecords.get(0));
+
+		// The copy of the first concept in file b supersedes the copy in file a.
+		int second = stamp(Status.ACTIVE, "2020-01-10_10-00-00");
+		int alias = stamp(Status.ACTIVE, "2020-01-10_10-00-01");
+		concepts[0].createMutableVersion(second);
+		concepts[2].createMutableVersion(second);
+		stampRecords.add(new StampAlias(second, alias));
+		write(FILE_B, concepts[0], concepts[2], stampRecords.get(1));
+
+		// Written during this session, once named with its time, and once with only its modification time.
+		sessionFile = "ChangeSet-" + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date()) + "_session.ibdf";
+		write(sessionFile, new StampComment("session", first));
+		write("session.ibdf", new StampComment("session", first));
+
+		replay(FILE_A, FILE_B);
+		Map<UUID, String> replayed = describeDatastore();
+
+		List<String> replaced = compact();
+		Assert.assertEquals(new HashSet<>(replaced), new HashSet<>(Arrays.asList(FILE_A, FILE_B)));
+		firstPack = getPack();
+		Assert.assertEquals(readManifest(firstPack), Arrays.asList(FILE_A, FILE_B));
+		Assert.assertEquals(listFiles(), new HashSet<>(Arrays.asList(firstPack, manifestName(firstPack), sessionFile, "session.ibdf")));
+
+		List<IsaacExternalizable> packStampRecords = new ArrayList<>();
+		Assert.assertEquals(describePack(firstPack, packStampRecords), replayed);
+		Assert.assertEquals(packStampRecords, stampRecords);
+
+		// Replaying the pack over the replayed files changes nothing.
+		replay(firstPack);
+		Assert.assertEquals(describeDatastore(), replayed);
+		Assert.assertEquals(Get.commitService().getComment(first).get(), "first");
+		Assert.assertTrue(Arrays.stream(Get.commitService().getAliases(second)).anyMatch(stamp -> stamp == alias));
+	}
+
+	@Test(groups = { "changeSetCompaction" }, dependsOnMethods = { "testPackMatchesReplayOfTheFilesItReplaces" })
+	public void testPackAbsorbsEarlierPackAndItsManifest() throws Exception {
+		int third = stamp(Status.INACTIVE, "2020-01-20_10-00-00");
+		concepts[0].createMutableVersion(third);
+		StampComment comment = new StampComment("third", third);
+		write(FILE_C, concepts[0], comment);
+		replay(FILE_C);
+		Map<UUID, String> replayed = describeDatastore();
+
+		List<String> replaced = compact();
+		Assert.assertEquals(new HashSet<>(replaced), new HashSet<>(Arrays.asList(firstPack, manifestName(firstPack), FILE_C)));
+		String pack = getPack();
+		Assert.assertNotEquals(pack, firstPack);
+		Assert.assertEquals(new HashSet<>(readManifest(pack)), new HashSet<>(Arrays.asList(firstPack, FILE_A, FILE_B, FILE_C)));
+		Assert.assertEquals(listFiles(), new HashSet<>(Arrays.asList(pack, manifestName(pack), sessionFile, "session.ibdf")));
+
+		List<IsaacExternalizable> packStampRecords = new ArrayList<>();
+		Assert.assertEquals(describePack(pack, packStampRecords), replayed);
+		Assert.assertEquals(packStampRecords, Arrays.asList(new StampComment("first", stamp(Status.ACTIVE, "2020-01-05_10-00-00")),
+				new StampAlias(stamp(Status.ACTIVE, "2020-01-10_10-00-00"), stamp(Status.ACTIVE, "2020-01-10_10-00-01")), comment));
+
+		// Nothing is left to compact, and the files of this session are still not touched.
+		Assert.assertEquals(compact(), new ArrayList<>());
+		Assert.assertEquals(getPack(), pack);
+	}
+
+	private int stamp(Status status, String time) throws Exception {
+		return Get.stampService().getStampSequence(status, new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").parse(time).getTime(),
+				TermAux.USER.getNid(), TermAux.SOLOR_MODULE.getNid(), TermAux.DEVELOPMENT_PATH.getNid());
+	}
+
+	private void write(String name, IsaacExternalizable... objects) throws Exception {
+		try (DataWriterService writer = Get.binaryDataWriter(folder.toPath().resolve(name))) {
+			for (IsaacExternalizable object : objects) {
+				writer.put(object);
+			}
+		}
+	}
+
+	private void replay(String... names) throws Exception {
+		List<Path> files = Arrays.stream(names).map(name -> folder.toPath().resolve(name)).collect(Collectors.toList());
+		ChangeSetReplayTask replayTask = new ChangeSetReplayTask(files, null);
+		Get.executor().execute(replayTask);
+		replayTask.get();
+	}
+
+	private List<String> compact() throws Exception {
+		// Anything older than tomorrow, which still leaves out the files of this session.
+		ChangeSetCompactionTask compactionTask = new ChangeSetCompactionTask(folder.toPath(), Instant.now().plus(1, ChronoUnit.DAYS), null);
+		Get.executor().execute(compactionTask);
+		return compactionTask.get();
+	}
+
+	private HashSet<String> listFiles() throws Exception {
+		try (Stream<Path> files = Files.list(folder.toPath())) {
+			return files.map(path -> path.getFileName().toString()).collect(Collectors.toCollection(HashSet::new));
+		}
+	}
+
+	private String getPack() throws Exception {
+		List<String> packs = listFiles().stream().filter(name -> name.startsWith(PACK_PREFIX) && name.endsWith(".ibdf"))
+				.collect(Collectors.toList());
+		Assert.assertEquals(packs.size(), 1, packs.toString());
+		return packs.get(0);
+	}
+
+	private static String manifestName(String pack) {
+		return pack.substring(0, pack.length() - ".ibdf".length()) + ".manifest.txt";
+	}
+
+	private List<String> readManifest(String pack) throws Exception {
+		return Files.readAllLines(folder.toPath().resolve(manifestName(pack)));
+	}
+
+	private Map<UUID, String> describeDatastore() {
+		Map<UUID, String> described = new HashMap<>();
+		for (UUID uuid : uuids) {
+			int nid = Get.identifierService().getNidForUuids(uuid);
+			described.put(uuid, describe((ChronologySerializeable) Get.conceptService().getConceptChronology(nid)));
+		}
+		return described;
+	}
+
+	private Map<UUID, String> describePack(String pack, List<IsaacExternalizable> stampRecords) throws Exception {
+		Map<UUID, String> described = new HashMap<>();
+		try (BinaryDataReaderService reader = Get.binaryDataReader(folder.toPath().resolve(pack))) {
+			reader.getStream().forEach(object -> {
+				if (object instanceof Chronology) {
+					Assert.assertNull(described.put(((Chronology) object).getPrimordialUuid(), describe((ChronologySerializeable) object)));
+				} else {
+					stampRecords.add(object);
+				}
+			});
+		}
+		return described;
+	}
+
+	/**
+	 * The chronology data and the data of each version, by stamp, since the versions of a merged chronology may be
+	 * in another order.
+	 */
+	private static String describe(ChronologySerializeable chronology) {
+		TreeMap<Integer, String> versions = new TreeMap<>();
+		for (byte[] version : chronology.getVersionDataToWrite()) {
+			versions.put(ByteArrayDataBuffer.getInt(version, 4), Arrays.toString(version));
+		}
+		return Arrays.toString(chronology.getChronologyDataToWrite()) + " " + versions;
+	}
+}
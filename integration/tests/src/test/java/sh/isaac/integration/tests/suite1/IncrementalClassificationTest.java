@@ -0,0 +1,212 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.tests.suite1;
+
+import static sh.isaac.api.logic.LogicalExpressionBuilder.And;
+import static sh.isaac.api.logic.LogicalExpressionBuilder.ConceptAssertion;
+import static sh.isaac.api.logic.LogicalExpressionBuilder.NecessarySet;
+import static sh.isaac.api.logic.LogicalExpressionBuilder.SufficientSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.testing.hk2testng.HK2;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import sh.isaac.MetaData;
+import sh.isaac.api.DataTarget;
+import sh.isaac.api.Get;
+import sh.isaac.api.LookupService;
+import sh.isaac.api.Status;
+import sh.isaac.api.bootstrap.TermAux;
+import sh.isaac.api.chronicle.LatestVersion;
+import sh.isaac.api.classifier.ClassifierResults;
+import sh.isaac.api.commit.ChangeCheckerMode;
+import sh.isaac.api.component.concept.ConceptBuilder;
+import sh.isaac.api.component.concept.ConceptChronology;
+import sh.isaac.api.component.semantic.SemanticChronology;
+import sh.isaac.api.component.semantic.version.LogicGraphVersion;
+import sh.isaac.api.component.semantic.version.MutableLogicGraphVersion;
+import sh.isaac.api.coordinate.Coordinates;
+import sh.isaac.api.coordinate.ManifoldCoordinateImmutable;
+import sh.isaac.api.coordinate.WriteCoordinate;
+import sh.isaac.api.coordinate.WriteCoordinateImpl;
+import sh.isaac.api.logic.LogicalExpression;
+import sh.isaac.api.logic.LogicalExpressionBuilder;
+import sh.isaac.api.logic.LogicalExpressionBuilderService;
+import sh.isaac.api.logic.assertions.Assertion;
+import sh.isaac.api.transaction.Transaction;
+import sh.isaac.provider.logic.csiro.classify.ClassificationType;
+import sh.isaac.provider.logic.csiro.classify.ClassifierProvider;
+import sh.isaac.utility.Frills;
+
+/**
+ * Classifies incrementally after adding, changing and retiring definitions, and checks that a complete
+ * classification that follows finds the same inferred parents and equivalent sets, so has nothing to write. A
+ * change that removes axioms, such as a removed parent or a retirement, must fall back to a complete classification.
+ */
+@HK2("integration")
+@Test(suiteName = "suite1")
+public class IncrementalClassificationTest {
+	private static final Logger LOG = LogManager.getLogger();
+
+	private final ManifoldCoordinateImmutable manifoldCoordinate = Coordinates.Manifold.DevelopmentInferredRegularNameSort();
+	private final ClassifierProvider classifier = new ClassifierProvider(this.manifoldCoordinate);
+	private final Set<Integer> testConcepts = new HashSet<>();
+	/** The concepts of the first complete classification, which any classification that falls back covers too. */
+	private Set<Integer> completeConcepts;
+	private int primitive;
+	private int child;
+	private int otherParent;
+	private int equivalent;
+
+	@Test(groups = { "incrementalClassify" }, dependsOnGroups = { "load" })
+	public void testIncrementalClassifyOfAddedConcepts() throws Exception {
+		LOG.info("Testing incremental classification");
+		// Picks up any change made before this test, so the incremental classifications only see the changes below.
+		this.completeConcepts = new HashSet<>(classify(ClassificationType.COMPLETE).getClassificationConceptSet());
+
+		int anchor = MetaData.DESCRIPTION_TYPE_IN_SOURCE_TERMINOLOGY____SOLOR.getNid();
+		Transaction transaction = Get.commitService().newTransaction(Optional.of("Incremental classification add"), ChangeCheckerMode.INACTIVE);
+		this.primitive = newConcept(transaction, "incremental primitive", necessary(anchor));
+		this.otherParent = newConcept(transaction, "incremental other parent", necessary(anchor));
+		this.child = newConcept(transaction, "incremental child", necessary(this.primitive));
+		this.equivalent = newConcept(transaction, "incremental equivalent", sufficient(this.primitive));
+		transaction.commit("Incremental classification add").get();
+
+		ClassifierResults incremental = assertSameAsComplete(ClassificationType.INCREMENTAL, false);
+		Assert.assertEquals(inferredParents(this.child), Set.of(this.primitive, this.equivalent));
+		Assert.assertTrue(equivalentSets(incremental).contains(new TreeSet<>(Arrays.asList(this.primitive, this.equivalent))));
+	}
+
+	@Test(groups = { "incrementalClassify" }, dependsOnMethods = { "testIncrementalClassifyOfAddedConcepts" })
+	public void testIncrementalClassifyOfAddedParent() throws Exception {
+		// Only adds axioms, so is classified incrementally.
+		changeDefinition(this.child, necessary(this.primitive, this.otherParent));
+		assertSameAsComplete(ClassificationType.INCREMENTAL, false);
+		Assert.assertEquals(inferredParents(this.child), Set.of(this.primitive, this.equivalent, this.otherParent));
+	}
+
+	@Test(groups = { "incrementalClassify" }, dependsOnMethods = { "testIncrementalClassifyOfAddedParent" })
+	public void testRemovedParentFallsBackToComplete() throws Exception {
+		changeDefinition(this.child, necessary(this.otherParent));
+		assertSameAsComplete(ClassificationType.INCREMENTAL, true);
+		Assert.assertEquals(inferredParents(this.child), Set.of(this.otherParent));
+	}
+
+	@Test(groups = { "incrementalClassify" }, dependsOnMethods = { "testRemovedParentFallsBackToComplete" })
+	public void testRetirementFallsBackToComplete() throws Exception {
+		Transaction transaction = Get.commitService().newTransaction(Optional.of("Incremental classification retire"), ChangeCheckerMode.INACTIVE);
+		WriteCoordinate wc = Get.configurationService().getGlobalDatastoreConfiguration().getDefaultWriteCoordinate().get();
+		ConceptChronology retired = Get.conceptService().getConceptChronology(this.child);
+		retired.createMutableVersion(transaction, Get.stampService().getStampSequence(transaction, Status.INACTIVE, Long.MAX_VALUE,
+				wc.getAuthorNid(), wc.getModuleNid(), wc.getPathNid()));
+		Get.commitService().addUncommitted(transaction, retired).get();
+		transaction.commit("Incremental classification retire").get();
+		// The retired concept is no longer classified, and nothing else refers to it.
+		this.testConcepts.remove(this.child);
+
+		ClassifierResults fallback = assertSameAsComplete(ClassificationType.INCREMENTAL, true);
+		Assert.assertFalse(fallback.getClassificationConceptSet().contains(this.child));
+	}
+
+	/**
+	 * Classifies, then classifies completely, and checks that the second classification infers what the first did,
+	 * so writes no inferred definition for the test concepts.
+	 *
+	 * @param classificationType the type of the first classification
+	 * @param fallsBack true if the first classification must fall back to a complete one
+	 * @return the results of the first classification
+	 */
+	private ClassifierResults assertSameAsComplete(ClassificationType classificationType, boolean fallsBack) throws Exception {
+		ClassifierResults results = classify(classificationType);
+		// A complete classification covers every concept, an incremental one only those its changes affect.
+		Assert.assertEquals(results.getClassificationConceptSet().containsAll(this.completeConcepts), fallsBack);
+		Map<Integer, Set<Integer>> parents = inferredParents();
+		Set<Set<Integer>> equivalentSets = equivalentSets(results);
+
+		ClassifierResults complete = classify(ClassificationType.COMPLETE);
+		Assert.assertEquals(inferredParents(), parents);
+		Assert.assertEquals(equivalentSets(complete), equivalentSets);
+		Set<Integer> changed = new HashSet<>(complete.getConceptsWithInferredChanges());
+		changed.retainAll(this.testConcepts);
+		Assert.assertEquals(changed, new HashSet<>(), "Inferred definitions changed by the complete classification");
+		return results;
+	}
+
+	private ClassifierResults classify(ClassificationType classificationType) throws Exception {
+		ClassifierResults results = this.classifier.classify(false, classificationType).get();
+		LOG.info("{} classify results: {}", classificationType, results);
+		return results;
+	}
+
+	private int newConcept(Transaction transaction, String name, LogicalExpression definition) throws Exception {
+		ConceptBuilder cb = Get.conceptBuilderService().getDefaultConceptBuilder(name, null, definition, TermAux.SOLOR_CONCEPT_ASSEMBLAGE.getNid());
+		cb.buildAndWrite(new WriteCoordinateImpl(transaction, Get.configurationService().getGlobalDatastoreConfiguration().getDefaultWriteCoordinate().get())).get();
+		this.testConcepts.add(cb.getNid());
+		return cb.getNid();
+	}
+
+	private static void changeDefinition(int conceptNid, LogicalExpression definition) throws Exception {
+		SemanticChronology stated = Frills.getLogicGraphChronology(conceptNid, true).get();
+		Transaction transaction = Get.commitService().newTransaction(Optional.of("Incremental classification change"), ChangeCheckerMode.INACTIVE);
+		MutableLogicGraphVersion mlg = stated.createMutableVersion(new WriteCoordinateImpl(transaction,
+				Get.configurationService().getGlobalDatastoreConfiguration().getDefaultWriteCoordinate().get()));
+		mlg.setGraphData(definition.getData(DataTarget.INTERNAL));
+		Get.commitService().addUncommitted(transaction, stated).get();
+		transaction.commit("Incremental classification change").get();
+	}
+
+	private static LogicalExpression necessary(int... parents) {
+		LogicalExpressionBuilder defBuilder = LookupService.getService(LogicalExpressionBuilderService.class).getLogicalExpressionBuilder();
+		NecessarySet(And(Arrays.stream(parents).mapToObj(parent -> ConceptAssertion(parent, defBuilder)).toArray(Assertion[]::new)));
+		return defBuilder.build();
+	}
+
+	private static LogicalExpression sufficient(int parent) {
+		LogicalExpressionBuilder defBuilder = LookupService.getService(LogicalExpressionBuilderService.class).getLogicalExpressionBuilder();
+		SufficientSet(And(ConceptAssertion(parent, defBuilder)));
+		return defBuilder.build();
+	}
+
+	private Map<Integer, Set<Integer>> inferredParents() {
+		Map<Integer, Set<Integer>> parents = new HashMap<>();
+		for (int conceptNid : this.testConcepts) {
+			parents.put(conceptNid, inferredParents(conceptNid));
+		}
+		return parents;
+	}
+
+	private Set<Integer> inferredParents(int conceptNid) {
+		SemanticChronology inferred = Frills.getLogicGraphChronology(conceptNid, false).get();
+		LatestVersion<LogicGraphVersion> latest = Frills.getLogicGraphVersion(inferred, this.manifoldCoordinate.getViewStampFilter());
+		return Frills.getParentConceptNidsFromLogicGraph(latest.get().getLogicalExpression());
+	}
+
+	/**
+	 * @return the equivalent sets that hold a test concept
+	 */
+	private Set<Set<Integer>> equivalentSets(ClassifierResults results) {
+		return results.getEquivalentSets().stream()
+				.map(set -> Arrays.stream(set).boxed().collect(Collectors.toCollection(TreeSet::new)))
+				.filter(set -> set.stream().anyMatch(this.testConcepts::contains))
+				.collect(Collectors.toSet());
+	}
+}
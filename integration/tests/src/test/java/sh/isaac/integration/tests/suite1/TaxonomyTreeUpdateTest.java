@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.tests.suite1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.testing.hk2testng.HK2;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import sh.isaac.api.Get;
+import sh.isaac.api.bootstrap.TermAux;
+import sh.isaac.api.coordinate.Coordinates;
+import sh.isaac.api.coordinate.PremiseSet;
+import sh.isaac.model.tree.HashTreeWithIntArraySetsIsolated;
+
+/**
+ * Reads a taxonomy tree while {@link HashTreeWithIntArraySetsIsolated#updateParents(int, int[])} moves a concept
+ * between two parents and adds new concepts, and checks that the readers only ever see the tree before or after
+ * an update.
+ */
+@HK2("integration")
+@Test(suiteName = "suite1")
+public class TaxonomyTreeUpdateTest {
+	private static final Logger LOG = LogManager.getLogger();
+	private static final int UPDATES = 5_000;
+	private static final int READERS = 3;
+
+	@Test(groups = { "taxonomyTreeUpdate" }, dependsOnGroups = { "load" })
+	public void testReadersSeeTheTreeBeforeOrAfterEachUpdate() throws Exception {
+		LOG.info("Testing concurrent taxonomy tree reads and updates");
+		int root = newNid();
+		int first = newNid();
+		int second = newNid();
+		int moving = newNid();
+		int stays = newNid();
+		int leaf = newNid();
+		HashTreeWithIntArraySetsIsolated tree = new HashTreeWithIntArraySetsIsolated(Coordinates.Filter.DevelopmentLatest(),
+				"update test", PremiseSet.STATED_ONLY, TermAux.SOLOR_CONCEPT_ASSEMBLAGE.getNid());
+		tree.add(root, first);
+		tree.add(root, second);
+		tree.add(first, stays);
+		tree.add(first, moving);
+		tree.add(second, leaf);
+		Assert.assertTrue(tree.buildReachabilityIndex());
+
+		// The concepts added under the leaf, once their update is done.
+		List<Integer> added = new CopyOnWriteArrayList<>();
+		AtomicBoolean done = new AtomicBoolean();
+		ExecutorService executor = Executors.newFixedThreadPool(READERS);
+		List<Future<Integer>> readers = new ArrayList<>();
+		try {
+			for (int i = 0; i < READERS; i++) {
+				readers.add(executor.submit(() -> {
+					int reads = 0;
+					int size = tree.size();
+					while (!done.get()) {
+						Set<Integer> parents = toSet(tree.getTaxonomyParentConceptNids(moving));
+						Assert.assertTrue(parents.equals(Set.of(first)) || parents.equals(Set.of(second)), parents.toString());
+						Assert.assertTrue(tree.isDescendentOf(moving, root));
+						Assert.assertEquals(toSet(tree.getRootNids()), Set.of(root));
+						Set<Integer> firstChildren = toSet(tree.getTaxonomyChildConceptNids(first));
+						Assert.assertTrue(firstChildren.equals(Set.of(stays)) || firstChildren.equals(Set.of(stays, moving)), firstChildren.toString());
+						Assert.assertTrue(toSet(tree.getTaxonomyChildConceptNids(second)).contains(leaf));
+						for (int nid : added) {
+							Assert.assertTrue(tree.isChildOf(nid, leaf));
+							Assert.assertTrue(tree.isDescendentOf(nid, root));
+						}
+						// Concepts are only ever added.
+						Assert.assertTrue(tree.size() >= size);
+						size = tree.size();
+						reads++;
+					}
+					return reads;
+				}));
+			}
+
+			for (int i = 0; i < UPDATES; i++) {
+				Assert.assertTrue(tree.updateParents(moving, new int[] { i % 2 == 0 ? second : first }));
+				if (i % 50 == 0) {
+					int nid = newNid();
+					Assert.assertTrue(tree.updateParents(nid, new int[] { leaf }));
+					added.add(nid);
+				}
+				if (i % 500 == 0) {
+					Assert.assertTrue(tree.buildReachabilityIndex());
+				}
+			}
+		} finally {
+			done.set(true);
+			executor.shutdown();
+		}
+		for (Future<Integer> reader : readers) {
+			LOG.info("Reader made {} reads", reader.get());
+		}
+
+		// The last update moved the concept back under the first parent.
+		Assert.assertEquals(toSet(tree.getTaxonomyParentConceptNids(moving)), Set.of(first));
+		Assert.assertEquals(toSet(tree.getTaxonomyChildConceptNids(second)), Set.of(leaf));
+		Assert.assertEquals(toSet(tree.getTaxonomyChildConceptNids(leaf)), Set.copyOf(added));
+		Assert.assertEquals(tree.size(), 6 + added.size() + 1);
+	}
+
+	private static int newNid() {
+		return Get.identifierService().assignNid(UUID.randomUUID());
+	}
+
+	private static Set<Integer> toSet(int[] nids) {
+		return IntStream.of(nids).boxed().collect(Collectors.toSet());
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.tests.suite5;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import sh.isaac.api.Get;
+import sh.isaac.api.LookupService;
+import sh.isaac.api.bootstrap.TermAux;
+import sh.isaac.api.constants.DatabaseImplementation;
+import sh.isaac.api.constants.SystemPropertyConstants;
+import sh.isaac.api.util.RecursiveDelete;
+
+/**
+ * Writes taxonomy data into a file system datastore with the write ahead log enabled, and reads it back after the
+ * log is replayed into a copy of the datastore taken before the spines were written, as after a crash.
+ */
+@Test(suiteName = "suite5")
+public class WriteAheadLogTaxonomyTest {
+
+	private static final Logger LOG = LogManager.getLogger();
+	private final File db = new File("target/suite5");
+	private final File crashedDb = new File("target/suite5-crashed");
+
+	@BeforeClass
+	public void configure() throws Exception {
+		LOG.info("Suite 5 setup");
+		RecursiveDelete.delete(db);
+		RecursiveDelete.delete(crashedDb);
+		System.setProperty(SystemPropertyConstants.FILESYSTEM_WRITE_AHEAD_LOG, "true");
+		Get.configurationService().setDatabaseImplementation(DatabaseImplementation.FILESYSTEM);
+		Get.configurationService().setDataStoreFolderPath(db.toPath());
+		LookupService.startupPreferenceProvider();
+		LookupService.startupIsaac();
+	}
+
+	@AfterClass
+	public void shutdown() {
+		LOG.info("Suite 5 teardown");
+		LookupService.shutdownSystem();
+		System.clearProperty(SystemPropertyConstants.FILESYSTEM_WRITE_AHEAD_LOG);
+	}
+
+	@Test
+	public void testTaxonomyDataIsReplayedUnderTheConceptNid() throws Exception {
+		// An assemblage of its own, so the records don't mix with the taxonomy of the loaded metadata.
+		int assemblageNid = Get.identifierService().getNidForUuids(UUID.randomUUID());
+		int conceptNid = TermAux.USER.getNid();
+		int[] taxonomyData = new int[] {7, 11, 13};
+
+		Get.dataStore().accumulateAndGetTaxonomyData(assemblageNid, conceptNid, taxonomyData, (current, update) -> update);
+		Assert.assertEquals(Get.dataStore().getTaxonomyData(assemblageNid, conceptNid), taxonomyData);
+
+		// With the log enabled, a sync forces the log, but leaves the taxonomy spines unwritten.
+		LookupService.syncAll();
+		copy(db.toPath(), crashedDb.toPath());
+		String[] logFiles = new File(crashedDb, "writeAheadLog").list();
+		Assert.assertTrue(logFiles != null && logFiles.length > 0, "no write ahead log in the copied datastore");
+
+		LookupService.shutdownIsaac();
+		Get.configurationService().setDataStoreFolderPath(crashedDb.toPath());
+		LookupService.startupIsaac();
+
+		Assert.assertEquals(Get.dataStore().getTaxonomyData(assemblageNid, conceptNid), taxonomyData);
+	}
+
+	private static void copy(Path from, Path to) throws IOException {
+		try (Stream<Path> paths = Files.walk(from)) {
+			for (Path path : (Iterable<Path>) paths::iterator) {
+				Path target = to.resolve(from.relativize(path));
+				if (Files.isDirectory(path)) {
+					Files.createDirectories(target);
+				} else {
+					Files.copy(path, target);
+				}
+			}
+		}
+	}
+}
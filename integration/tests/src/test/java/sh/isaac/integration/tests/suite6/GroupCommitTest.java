@@ -0,0 +1,243 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.tests.suite6;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import sh.isaac.api.Get;
+import sh.isaac.api.LookupService;
+import sh.isaac.api.Status;
+import sh.isaac.api.bootstrap.TermAux;
+import sh.isaac.api.commit.ChangeCheckerMode;
+import sh.isaac.api.commit.CommitListener;
+import sh.isaac.api.commit.CommitRecord;
+import sh.isaac.api.constants.SystemPropertyConstants;
+import sh.isaac.api.transaction.Transaction;
+import sh.isaac.api.util.RecursiveDelete;
+import sh.isaac.model.concept.ConceptChronologyImpl;
+
+/**
+ * Commits transactions with group commit enabled, and checks that commits arriving together are finished in one
+ * stamp pass and one listener notification, with the commit time and record of each transaction kept. Also commits
+ * several transactions at once through {@link sh.isaac.api.commit.StampService#commit(List, long[])}.
+ */
+@Test(suiteName = "suite6")
+public class GroupCommitTest {
+
+	private static final Logger LOG = LogManager.getLogger();
+	/** Fewer than the threads of the work executor, which has at least six, so every commit runs at once. */
+	private static final int TRANSACTION_COUNT = 4;
+	private final File db = new File("target/suite6");
+
+	private final List<List<CommitRecord>> notifications = new CopyOnWriteArrayList<>();
+	private final CommitListener listener = new CommitListener() {
+		private final UUID listenerUuid = UUID.randomUUID();
+
+		@Override
+		public UUID getListenerUuid() {
+			return listenerUuid;
+		}
+
+		@Override
+		public void handleCommit(CommitRecord commitRecord) {
+			notifications.add(List.of(commitRecord));
+		}
+
+		@Override
+		public void handleCommits(List<CommitRecord> commitRecords) {
+			notifications.add(new ArrayList<>(commitRecords));
+		}
+	};
+
+	@BeforeClass
+	public void configure() throws Exception {
+		LOG.info("Suite 6 setup");
+		RecursiveDelete.delete(db);
+		// Long enough that every commit started together joins the first group.
+		System.setProperty(SystemPropertyConstants.COMMIT_GROUP_WINDOW_MILLIS, "2000");
+		Get.configurationService().setDataStoreFolderPath(db.toPath());
+		LookupService.startupPreferenceProvider();
+		LookupService.startupIsaac();
+		Get.commitService().addCommitListener(listener);
+	}
+
+	@AfterClass
+	public void shutdown() {
+		LOG.info("Suite 6 teardown");
+		Get.commitService().removeCommitListener(listener);
+		LookupService.shutdownSystem();
+		System.clearProperty(SystemPropertyConstants.COMMIT_GROUP_WINDOW_MILLIS);
+	}
+
+	@Test
+	public void testCommitsArrivingTogetherShareOneNotification() throws Exception {
+		List<Transaction> transactions = new ArrayList<>();
+		List<Set<Integer>> stampsForTransaction = new ArrayList<>();
+		for (int i = 0; i < TRANSACTION_COUNT; i++) {
+			Transaction transaction = Get.commitService().newTransaction(Optional.of("group " + i), ChangeCheckerMode.INACTIVE);
+			transactions.add(transaction);
+			stampsForTransaction.add(addConcepts(transaction, Long.MAX_VALUE));
+		}
+
+		notifications.clear();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(TRANSACTION_COUNT);
+		List<Future<Optional<CommitRecord>>> commits = new ArrayList<>();
+		try {
+			for (int i = 0; i < TRANSACTION_COUNT; i++) {
+				Transaction transaction = transactions.get(i);
+				Instant commitTime = Instant.ofEpochMilli(1_600_000_000_000L + i * 1000);
+				String comment = "comment " + i;
+				commits.add(executor.submit(() -> {
+					start.await();
+					return transaction.commit(comment, commitTime).get();
+				}));
+			}
+			start.countDown();
+			for (int i = 0; i < TRANSACTION_COUNT; i++) {
+				CommitRecord commitRecord = commits.get(i).get().get();
+				long commitTime = 1_600_000_000_000L + i * 1000;
+				Assert.assertEquals(commitRecord.getCommitTime().toEpochMilli(), commitTime);
+				Assert.assertEquals(commitRecord.getCommitComment(), "comment " + i);
+				Assert.assertEquals(toSet(commitRecord.getStampsInCommit().asArray()), stampsForTransaction.get(i));
+				for (int stamp : stampsForTransaction.get(i)) {
+					Assert.assertFalse(Get.stampService().isUncommitted(stamp));
+					Assert.assertEquals(Get.stampService().getTimeForStamp(stamp), commitTime);
+					Assert.assertEquals(Get.commitService().getComment(stamp).get(), "comment " + i);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// One notification, holding every record, so listeners saw one group.
+		Assert.assertEquals(notifications.size(), 1, notifications.toString());
+		Assert.assertEquals(notifications.get(0).size(), TRANSACTION_COUNT);
+	}
+
+	@Test
+	public void testStampServiceCommitsSeveralTransactions() throws Exception {
+		List<Transaction> transactions = new ArrayList<>();
+		List<Set<Integer>> stampsForTransaction = new ArrayList<>();
+		long[] commitTimes = new long[3];
+		for (int i = 0; i < commitTimes.length; i++) {
+			Transaction transaction = Get.commitService().newTransaction(Optional.of("stamps " + i), ChangeCheckerMode.INACTIVE);
+			transactions.add(transaction);
+			stampsForTransaction.add(addConcepts(transaction, Long.MAX_VALUE));
+			commitTimes[i] = 1_500_000_000_000L + i * 1000;
+		}
+		Transaction uncommitted = Get.commitService().newTransaction(Optional.of("left uncommitted"), ChangeCheckerMode.INACTIVE);
+		Set<Integer> uncommittedStamps = addConcepts(uncommitted, Long.MAX_VALUE);
+
+		Get.stampService().commit(transactions, commitTimes).get();
+
+		for (int i = 0; i < commitTimes.length; i++) {
+			for (int stamp : stampsForTransaction.get(i)) {
+				Assert.assertFalse(Get.stampService().isUncommitted(stamp));
+				Assert.assertEquals(Get.stampService().getTimeForStamp(stamp), commitTimes[i]);
+			}
+		}
+		for (int stamp : uncommittedStamps) {
+			Assert.assertTrue(Get.stampService().isUncommitted(stamp));
+		}
+		uncommitted.cancel().get();
+		for (int stamp : uncommittedStamps) {
+			Assert.assertFalse(Get.stampService().isNotCanceled(stamp));
+		}
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testStampServiceCommitNeedsATimeForEachTransaction() {
+		Transaction transaction = Get.commitService().newTransaction(Optional.of("mismatched"), ChangeCheckerMode.INACTIVE);
+		try {
+			Get.stampService().commit(List.of(transaction), new long[] {1L, 2L});
+		} finally {
+			transaction.cancel();
+		}
+	}
+
+	@Test
+	public void testStampsAddedConcurrentlyAreAllCommitted() throws Exception {
+		Transaction transaction = Get.commitService().newTransaction(Optional.of("concurrent"), ChangeCheckerMode.INACTIVE);
+		Set<Integer> stamps = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				long firstTime = 1_300_000_000_000L + i * 1_000_000L;
+				futures.add(executor.submit(() -> {
+					// Each version gets a stamp of its own, as the times differ.
+					for (int j = 0; j < 25; j++) {
+						stamps.addAll(addConcepts(transaction, firstTime + j));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		Assert.assertEquals(stamps.size(), 4 * 25 * 2);
+		Get.stampService().commit(List.of(transaction), new long[] {1_400_000_000_000L}).get();
+		for (int stamp : stamps) {
+			Assert.assertFalse(Get.stampService().isUncommitted(stamp), "stamp " + stamp);
+		}
+	}
+
+	/**
+	 * Adds an active and an inactive version of a new concept to the transaction.
+	 *
+	 * @param time the time of the versions, or Long.MAX_VALUE to take the commit time
+	 * @return the stamps of the versions
+	 */
+	private static Set<Integer> addConcepts(Transaction transaction, long time) {
+		Set<Integer> stamps = new HashSet<>();
+		ConceptChronologyImpl concept = new ConceptChronologyImpl(UUID.randomUUID(), TermAux.SOLOR_CONCEPT_ASSEMBLAGE.getNid());
+		for (Status status : new Status[] {Status.ACTIVE, Status.INACTIVE}) {
+			int stamp = Get.stampService().getStampSequence(transaction, status, time, TermAux.USER.getNid(),
+					TermAux.SOLOR_MODULE.getNid(), TermAux.DEVELOPMENT_PATH.getNid());
+			concept.createMutableVersion(transaction, stamp);
+			stamps.add(stamp);
+		}
+		Get.conceptService().writeConcept(concept);
+		return stamps;
+	}
+
+	private static Set<Integer> toSet(int[] values) {
+		Set<Integer> set = new HashSet<>();
+		for (int value : values) {
+			set.add(value);
+		}
+		return set;
+	}
+}
@@ -45,6 +45,7 @@ public class StackedMemoryChartData {
     private static final ObservableList<StackedAreaChart.Data<Long, Long>> ASSEMBLAGE_MEMORY_USED_DATA = FXCollections.observableArrayList();
     private static final ObservableList<StackedAreaChart.Data<Long, Long>> IDENTIFIER_MEMORY_USED_DATA = FXCollections.observableArrayList();
     private static final ObservableList<StackedAreaChart.Data<Long, Long>> LUCENE_MEMORY_USED_DATA = FXCollections.observableArrayList();
+    private static final ObservableList<StackedAreaChart.Data<Long, Long>> TAXONOMY_MEMORY_USED_DATA = FXCollections.observableArrayList();
     private static final ObservableList<StackedAreaChart.Data<Long, Long>> USED_MEMORY_DATA = FXCollections.observableArrayList();
     private static final ObservableList<StackedAreaChart.Data<Long, Long>> AVAILABLE_MEMORY_DATA = FXCollections.observableArrayList();
     private static final ObservableList<StackedAreaChart.Data<Long, Long>> COMMITTED_MEMORY_DATA = FXCollections.observableArrayList();
@@ -61,6 +62,8 @@ public class StackedMemoryChartData {
             new StackedAreaChart.Series("Identifier memory",IDENTIFIER_MEMORY_USED_DATA);
     private static final StackedAreaChart.Series<Number, Number> LUCENE_MEMORY_SERIES = 
             new StackedAreaChart.Series("Lucene memory",LUCENE_MEMORY_USED_DATA);
+    private static final StackedAreaChart.Series<Number, Number> TAXONOMY_MEMORY_SERIES = 
+            new StackedAreaChart.Series("Taxonomy index memory",TAXONOMY_MEMORY_USED_DATA);
     private static final StackedAreaChart.Series<Number, Number> USED_MEMORY_SERIES = 
             new StackedAreaChart.Series("Used memory",USED_MEMORY_DATA);
     private static final StackedAreaChart.Series<Number, Number> COMMITTED_MEMORY_SERIES = 
@@ -70,7 +73,7 @@ public class StackedMemoryChartData {
     
     private static final ObservableList<StackedAreaChart.Series<Number, Number>> MEMORY_CHART_DATA = 
             FXCollections.observableArrayList(ASSEMBLAGE_MEMORY_SERIES, IDENTIFIER_MEMORY_SERIES, 
-                    LUCENE_MEMORY_SERIES, USED_MEMORY_SERIES, COMMITTED_MEMORY_SERIES, 
+                    LUCENE_MEMORY_SERIES, TAXONOMY_MEMORY_SERIES, USED_MEMORY_SERIES, COMMITTED_MEMORY_SERIES, 
                     AVAILABLE_MEMORY_SERIES);
     
     private static final MemoryMXBean MEMORY_BEAN = ManagementFactory.getMemoryMXBean();
@@ -91,11 +94,13 @@ public class StackedMemoryChartData {
         for (IndexBuilderService indexService: Get.services(IndexBuilderService.class)) {
             luceneMemoryUsed += indexService.getIndexMemoryInUse();
         }
+        long taxonomyMemoryUsed = Get.taxonomyService().getMemoryInUse();
         MemoryUsage memoryUsage =  MEMORY_BEAN.getHeapMemoryUsage();
         ASSEMBLAGE_MEMORY_USED_DATA.add(new XYChart.Data<>(timeTick, assemblageMemoryUsed/ONE_MILLION));
         IDENTIFIER_MEMORY_USED_DATA.add(new XYChart.Data<>(timeTick, identifierMemoryUsed/ONE_MILLION));
         LUCENE_MEMORY_USED_DATA.add(new XYChart.Data<>(timeTick, luceneMemoryUsed/ONE_MILLION));
-        USED_MEMORY_DATA.add(new XYChart.Data<>(timeTick, (memoryUsage.getUsed() - assemblageMemoryUsed - identifierMemoryUsed - luceneMemoryUsed)/ONE_MILLION));
+        TAXONOMY_MEMORY_USED_DATA.add(new XYChart.Data<>(timeTick, taxonomyMemoryUsed/ONE_MILLION));
+        USED_MEMORY_DATA.add(new XYChart.Data<>(timeTick, (memoryUsage.getUsed() - assemblageMemoryUsed - identifierMemoryUsed - luceneMemoryUsed - taxonomyMemoryUsed)/ONE_MILLION));
         COMMITTED_MEMORY_DATA.add(new XYChart.Data<>(timeTick, (memoryUsage.getCommitted() - memoryUsage.getUsed())/ONE_MILLION));
         AVAILABLE_MEMORY_DATA.add(new XYChart.Data<>(timeTick, (memoryUsage.getMax() - memoryUsage.getCommitted())/ONE_MILLION));
         
@@ -103,6 +108,7 @@ public class StackedMemoryChartData {
             ASSEMBLAGE_MEMORY_USED_DATA.remove(0);
             IDENTIFIER_MEMORY_USED_DATA.remove(0);
             LUCENE_MEMORY_USED_DATA.remove(0);
+            TAXONOMY_MEMORY_USED_DATA.remove(0);
             USED_MEMORY_DATA.remove(0);
             COMMITTED_MEMORY_DATA.remove(0);
             AVAILABLE_MEMORY_DATA.remove(0);
@@ -116,6 +122,8 @@ public class StackedMemoryChartData {
                     .append(NumberUtil.formatWithGrouping(identifierMemoryUsed));
             builder.append("\nLucene memory: ")
                     .append(NumberUtil.formatWithGrouping(luceneMemoryUsed));
+            builder.append("\nTaxonomy index memory: ")
+                    .append(NumberUtil.formatWithGrouping(taxonomyMemoryUsed));
             
             LOG.info(builder.toString());
         }
@@ -0,0 +1,140 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore.chronology;
+
+import java.util.concurrent.atomic.LongAdder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.model.ChronologyCacheStatistics;
+
+/**
+ * Cache of deserialized chronologies, bounded by their estimated heap footprint rather than by count, so a large
+ * heap can hold the concepts and semantics of whole taxonomy walks instead of re-reading them from the data store.
+ *
+ * The footprint of a chronology is estimated from the length of the data it was read from. When the soft tier is
+ * enabled, chronologies evicted for size are kept behind soft references, and are only lost when the collector
+ * needs the memory.
+ */
+class ChronologyCache {
+
+    /**
+     * Heap bytes per serialized byte, allowing for the version objects, their headers and the version lists
+     * a chronology is unpacked into.
+     */
+    private static final int HEAP_BYTES_PER_SERIALIZED_BYTE = 3;
+    private static final int CHRONOLOGY_OVERHEAD_BYTES = 128;
+
+    private final long maximumWeight;
+    private final Cache<Integer, CachedChronology> cache;
+    private final Cache<Integer, CachedChronology> softCache;
+    private final LongAdder softHitCount = new LongAdder();
+
+    private static final class CachedChronology {
+        final Chronology chronology;
+        final int weight;
+
+        CachedChronology(Chronology chronology, int weight) {
+            this.chronology = chronology;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * @param maximumWeight the estimated heap bytes the cache may hold, not counting the soft tier
+     * @param softTier true to keep chronologies evicted for size behind soft references
+     */
+    ChronologyCache(long maximumWeight, boolean softTier) {
+        this.maximumWeight = maximumWeight;
+        Caffeine<Integer, CachedChronology> builder = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Integer nid, CachedChronology cached) -> cached.weight)
+                .recordStats();
+        if (softTier) {
+            this.softCache = Caffeine.newBuilder().softValues().build();
+            // The writer runs atomically with the eviction, so a concurrent invalidate cannot be outrun by the
+            // move to the soft tier, as it could with an asynchronous removal listener.
+            builder.writer(new CacheWriter<Integer, CachedChronology>() {
+                @Override
+                public void write(Integer nid, CachedChronology cached) {
+                }
+
+                @Override
+                public void delete(Integer nid, CachedChronology cached, RemovalCause cause) {
+                    if (cause == RemovalCause.SIZE && cached != null) {
+                        ChronologyCache.this.softCache.put(nid, cached);
+                    }
+                }
+            });
+        } else {
+            this.softCache = null;
+        }
+        this.cache = builder.build();
+    }
+
+    /**
+     * @return the chronology, or null if it is not cached
+     */
+    Chronology getIfPresent(int nid) {
+        CachedChronology cached = this.cache.getIfPresent(nid);
+        if (cached != null) {
+            return cached.chronology;
+        }
+        if (this.softCache != null) {
+            cached = this.softCache.getIfPresent(nid);
+            if (cached != null) {
+                this.softHitCount.increment();
+                this.softCache.invalidate(nid);
+                this.cache.put(nid, cached);
+                return cached.chronology;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param chronology the chronology to cache
+     * @param serializedLength the length of the data the chronology was read from
+     */
+    void put(Chronology chronology, int serializedLength) {
+        int weight = (int) Math.min(Integer.MAX_VALUE,
+                (long) serializedLength * HEAP_BYTES_PER_SERIALIZED_BYTE + CHRONOLOGY_OVERHEAD_BYTES);
+        this.cache.put(chronology.getNid(), new CachedChronology(chronology, weight));
+    }
+
+    void invalidate(int nid) {
+        this.cache.invalidate(nid);
+        if (this.softCache != null) {
+            this.softCache.invalidate(nid);
+        }
+    }
+
+    void invalidateAll() {
+        this.cache.invalidateAll();
+        if (this.softCache != null) {
+            this.softCache.invalidateAll();
+        }
+    }
+
+    ChronologyCacheStatistics getStatistics() {
+        CacheStats stats = this.cache.stats();
+        long softHits = this.softHitCount.sum();
+        return new ChronologyCacheStatistics(stats.hitCount(), softHits, Math.max(0, stats.missCount() - softHits),
+                stats.evictionCount(), this.cache.estimatedSize(),
+                this.cache.policy().eviction().get().weightedSize().orElse(0), this.maximumWeight);
+    }
+}
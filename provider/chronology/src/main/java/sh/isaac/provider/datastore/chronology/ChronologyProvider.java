@@ -41,29 +41,34 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.PrimitiveIterator;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.eclipse.collections.api.set.primitive.ImmutableIntSet;
 import org.eclipse.collections.api.set.primitive.MutableIntSet;
 import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
 import org.glassfish.hk2.runlevel.RunLevel;
 import org.jvnet.hk2.annotations.Service;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import sh.isaac.api.DatastoreServices.DataStoreStartState;
 import sh.isaac.api.Get;
+import sh.isaac.api.GlobalDatastoreConfiguration;
 import sh.isaac.api.IdentifierService;
 import sh.isaac.api.LookupService;
 import sh.isaac.api.MetadataService;
@@ -100,6 +105,7 @@ import sh.isaac.api.externalizable.ByteArrayDataBuffer;
 import sh.isaac.api.externalizable.IsaacObjectType;
 import sh.isaac.api.task.LabelTaskWithIndeterminateProgress;
 import sh.isaac.api.transaction.Transaction;
+import sh.isaac.model.ChronologyCacheStatistics;
 import sh.isaac.model.ChronologyImpl;
 import sh.isaac.model.ChronologyService;
 import sh.isaac.model.ModelGet;
@@ -131,8 +137,13 @@ public class ChronologyProvider
 
    private AtomicLong writeSequence = new AtomicLong();
 
-   private Cache<Integer, Chronology> nidToChronologyCache = Caffeine.newBuilder()
-           .initialCapacity(1000).maximumSize(1000).build();
+   private ChronologyCache nidToChronologyCache;
+
+    /**
+     * The number of nids streamed per call to {@link #getChronologies(int[])}, enough to share the spine lookups 
+     * of a batch, without reading a whole assemblage at once.
+     */
+    private static final int STREAM_BATCH_SIZE = 4096;
 
     //~--- methods -------------------------------------------------------------
 
@@ -142,6 +153,11 @@ public class ChronologyProvider
         return this.writeSequence.get();
     }
 
+    @Override
+    public ChronologyCacheStatistics getCacheStatistics() {
+        return this.nidToChronologyCache.getStatistics();
+    }
+
     @Override
     public void importMetadata()
             throws Exception {
@@ -280,6 +296,13 @@ public class ChronologyProvider
             if (store == null) {
                 throw new RuntimeException("Failed to get a data store!");
             }
+            GlobalDatastoreConfiguration configuration = Get.configurationService().getGlobalDatastoreConfiguration();
+            // Without a configured size, allow the cache a twentieth of the heap.
+            long cacheMaximumBytes = configuration.getChronologyCacheMaximumBytes()
+                    .orElse(Runtime.getRuntime().maxMemory() / 20);
+            boolean softCache = configuration.enableChronologySoftCache();
+            this.nidToChronologyCache = new ChronologyCache(cacheMaximumBytes, softCache);
+            LOG.info("Chronology cache maximum bytes: {}, soft tier: {}", cacheMaximumBytes, softCache);
         } finally {
             progressTask.finished();
         }
@@ -292,6 +315,10 @@ public class ChronologyProvider
     private void stopMe() {
         LOG.info("Stopping chronology provider for change to runlevel: " + LookupService.getProceedingToRunLevel());
         this.metadataLoaded.set(-1);
+        if (this.nidToChronologyCache != null) {
+            LOG.info(this.nidToChronologyCache.getStatistics());
+            this.nidToChronologyCache.invalidateAll();
+        }
         LOG.info("Stopped chronology provider for change to runlevel: " + LookupService.getProceedingToRunLevel());
     }
 
@@ -337,7 +364,7 @@ public class ChronologyProvider
                 IsaacObjectType.CONCEPT.readAndValidateHeader(byteBuffer);
                 chronology = ConceptChronologyImpl.make(byteBuffer);
                 if (!chronology.isUncommitted()) {
-                    nidToChronologyCache.put(chronology.getNid(), chronology);
+                    nidToChronologyCache.put(chronology, byteBuffer.getLimit());
                 }
 
             } else {
@@ -357,24 +384,13 @@ public class ChronologyProvider
 
     @Override
     public Stream<ConceptChronology> getConceptChronologyStream(boolean parallel) {
-      return ModelGet.identifierService().getNidStreamOfType(IsaacObjectType.CONCEPT, parallel).mapToObj((nid) -> {
-         try {
-            return (ConceptChronology) getConceptChronology(nid);
-         } catch (NoSuchElementException e) {
-            return null;  //This will happen if a nid was mapped, but the object wasn't stored.
-         }
-      }).filter(obj -> obj != null);  //remove the nulls
+      // Nids that were mapped, but whose objects weren't stored, are left out by getChronologies.
+      return getChronologyStreamInBatches(ModelGet.identifierService().getNidStreamOfType(IsaacObjectType.CONCEPT, false), parallel);
     }
 
    @Override
    public Stream<ConceptChronology> getConceptChronologyStream(int assemblageNid, boolean parallel) {
-      return Get.identifierService().getNidsForAssemblage(assemblageNid, parallel).mapToObj((nid) -> {
-         try {
-            return (ConceptChronology) getConceptChronology(nid);
-         } catch (NoSuchElementException e) {
-            return null; // This will happen if a nid was mapped, but the object wasn't stored.
-         }
-      }).filter(obj -> obj != null); // remove the nulls
+      return getChronologyStreamInBatches(Get.identifierService().getNidsForAssemblage(assemblageNid, false), parallel);
    }
 
     @Override
@@ -454,25 +470,105 @@ public class ChronologyProvider
         }
         IdentifierService identifierService = ModelGet.identifierService();
 
-        List<SemanticChronology> results = new ArrayList<>();
         ImmutableIntSet semanticNids = getSemanticNidsForComponent(componentNid);
-        semanticNids.forEach(semanticNid -> {
+        int[] descriptionNids = semanticNids.select(semanticNid -> {
             int assemblageNid = identifierService.getAssemblageNid(semanticNid).getAsInt();
-            VersionType versionType = getVersionTypeForAssemblage(assemblageNid);
-            if (versionType == VersionType.DESCRIPTION) {
-                try {
-                    SemanticChronology semanticChronology = getSemanticChronology(semanticNid);
-                    if ((semanticChronology != null)) {
-                        results.add(semanticChronology);
-                    }
-                } catch (NoSuchElementException e) {
-                    LOG.error(e);
+            return getVersionTypeForAssemblage(assemblageNid) == VersionType.DESCRIPTION;
+        }).toArray();
+        List<SemanticChronology> results = getChronologies(descriptionNids);
+        if (results.size() != descriptionNids.length) {
+            LOG.error("Missing data for {} of the descriptions of {}", descriptionNids.length - results.size(), componentNid);
+        }
+        return results;
+    }
+
+    @Override
+    public <C extends Chronology> List<C> getChronologies(int[] nids) {
+        Chronology[] chronologies = new Chronology[nids.length];
+        IntArrayList uncachedPositions = new IntArrayList();
+        for (int position = 0; position < nids.length; position++) {
+            chronologies[position] = this.nidToChronologyCache.getIfPresent(nids[position]);
+            if (chronologies[position] == null) {
+                uncachedPositions.add(position);
+            }
+        }
+        if (!uncachedPositions.isEmpty()) {
+            int[] uncachedNids = new int[uncachedPositions.size()];
+            for (int i = 0; i < uncachedNids.length; i++) {
+                uncachedNids[i] = nids[uncachedPositions.get(i)];
+            }
+            ByteArrayDataBuffer[] data = store.getChronologyVersionData(uncachedNids);
+            IntStream.range(0, data.length).parallel().forEach(i -> {
+                if (data[i] != null) {
+                    chronologies[uncachedPositions.get(i)] = makeChronology(uncachedNids[i], data[i]);
                 }
+            });
+        }
+        List<C> results = new ArrayList<>(nids.length);
+        for (Chronology chronology : chronologies) {
+            if (chronology != null) {
+                results.add((C) chronology);
             }
-        });
+        }
         return results;
     }
 
+    /**
+     * Deserialize a chronology, and cache it if it is committed.
+     */
+    private Chronology makeChronology(int nid, ByteArrayDataBuffer byteBuffer) {
+        int serializedLength = byteBuffer.getLimit();
+        Chronology chronology;
+        switch (ModelGet.identifierService().getObjectTypeForComponent(nid)) {
+            case CONCEPT:
+                IsaacObjectType.CONCEPT.readAndValidateHeader(byteBuffer);
+                chronology = ConceptChronologyImpl.make(byteBuffer);
+                break;
+            case SEMANTIC:
+                IsaacObjectType.SEMANTIC.readAndValidateHeader(byteBuffer);
+                chronology = SemanticChronologyImpl.make(byteBuffer);
+                break;
+            default:
+                throw new UnsupportedOperationException(
+                        "Can't handle: " + ModelGet.identifierService().getObjectTypeForComponent(nid));
+        }
+        if (!chronology.isUncommitted()) {
+            this.nidToChronologyCache.put(chronology, serializedLength);
+        }
+        return chronology;
+    }
+
+    /**
+     * Stream the chronologies of the nids, reading them through {@link #getChronologies(int[])} a batch at a time.
+     * The nids are pulled from the stream as each batch is filled, so only the nids of the batches in flight 
+     * are held in memory.
+     */
+    private <C extends Chronology> Stream<C> getChronologyStreamInBatches(IntStream nids, boolean parallel) {
+        final PrimitiveIterator.OfInt nidIterator = nids.iterator();
+        Iterator<int[]> batchIterator = new Iterator<int[]>() {
+            @Override
+            public boolean hasNext() {
+                return nidIterator.hasNext();
+            }
+
+            @Override
+            public int[] next() {
+                if (!nidIterator.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int[] batch = new int[STREAM_BATCH_SIZE];
+                int size = 0;
+                while (size < STREAM_BATCH_SIZE && nidIterator.hasNext()) {
+                    batch[size++] = nidIterator.nextInt();
+                }
+                return size == STREAM_BATCH_SIZE ? batch : Arrays.copyOf(batch, size);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batchIterator, Spliterator.ORDERED | Spliterator.NONNULL), parallel)
+                .flatMap(batchNids -> this.<C>getChronologies(batchNids).stream())
+                .onClose(nids::close);
+    }
+
     @Override
     public Optional<? extends Chronology> getChronology(int nid) {
         try {
@@ -548,7 +644,7 @@ public class ChronologyProvider
                 IsaacObjectType.SEMANTIC.readAndValidateHeader(byteBuffer);
                 chronology = SemanticChronologyImpl.make(byteBuffer);
                 if (!chronology.isUncommitted()) {
-                    nidToChronologyCache.put(chronology.getNid(), chronology);
+                    nidToChronologyCache.put(chronology, byteBuffer.getLimit());
                 }
             } else {
                 throw new NoSuchElementException("No element for: " + semanticId + " " + Arrays.toString(Get.identifierService().getUuidsForNid(semanticId).toArray()));
@@ -559,28 +655,13 @@ public class ChronologyProvider
 
    @Override
    public Stream<SemanticChronology> getSemanticChronologyStream(boolean parallel) {
-      return getSemanticNidStream(parallel).mapToObj((value) -> {
-         try {
-            return (SemanticChronology) getSemanticChronology(value);
-         } catch (NoSuchElementException e) {
-            return null; // This will happen if a nid was mapped, but the object wasn't stored.
-         }
-      }).filter(obj -> obj != null); // remove the nulls
+      // Nids that were mapped, but whose objects weren't stored, are left out by getChronologies.
+      return getChronologyStreamInBatches(getSemanticNidStream(false), parallel);
    }
 
     @Override
     public <C extends SemanticChronology> Stream<C> getSemanticChronologyStreamForComponent(int componentNid, boolean parallel) {
-        IntStream is = IntStream.of(store.getSemanticNidsForComponent(componentNid));
-        if (parallel) {
-            is = is.parallel();
-        }
-    	return is.mapToObj((int semanticNid) -> { 
-                try {
-                  return (C) getSemanticChronology(semanticNid);
-               } catch (NoSuchElementException e) {
-                  return null; // This will happen if a nid was assigned to a uuid, but the object wasn't stored.
-               }
-            }).filter(obj -> obj != null); // remove the nulls
+        return getChronologyStreamInBatches(Arrays.stream(store.getSemanticNidsForComponent(componentNid)), parallel);
     }
     
     @Override
@@ -592,18 +673,7 @@ public class ChronologyProvider
     public <C extends SemanticChronology> Stream<C> getSemanticChronologyStreamForComponentFromAssemblages(int componentNid,
           Set<Integer> assemblageConceptNids, boolean parallel) {
        final ImmutableIntSet semanticSequences = getSemanticNidsForComponentFromAssemblages(componentNid, assemblageConceptNids);
-
-       IntStream is = Arrays.stream(semanticSequences.toArray());
-       if (parallel) {
-           is = is.parallel();
-       }
-       return is.mapToObj((int semanticNid) -> {
-           try {
-             return (C) getSemanticChronology(semanticNid);
-          } catch (NoSuchElementException e) {
-             return null; // This will happen if a nid was mapped, but the object wasn't stored.
-          }
-       }).filter(obj -> obj != null); // remove the nulls
+       return getChronologyStreamInBatches(semanticSequences.primitiveStream(), parallel);
     }
 
     @Override
@@ -612,19 +682,7 @@ public class ChronologyProvider
             case SEMANTIC:
             {
                 final ImmutableIntSet semanticSequences = getSemanticNidsFromAssemblage(assemblageConceptNid);
-
-                IntStream is = Arrays.stream(semanticSequences.toArray());
-                if (parallel) {
-                    is = is.parallel();
-                }
-                return is.mapToObj((int semanticNid) -> 
-                        {
-                             try {
-                               return (C) getSemanticChronology(semanticNid);
-                            } catch (NoSuchElementException e) {
-                               return null; // This will happen if a nid was mapped, but the object wasn't stored.
-                            }
-                         }).filter(obj -> obj != null); // remove the nulls
+                return getChronologyStreamInBatches(semanticSequences.primitiveStream(), parallel);
             }
             case UNKNOWN:
             {
@@ -43,6 +43,8 @@ import java.util.concurrent.atomic.AtomicLong;
 import jakarta.inject.Singleton;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
 import org.jvnet.hk2.annotations.Service;
 import sh.isaac.api.Get;
 import sh.isaac.api.IdentifierService;
@@ -148,15 +150,21 @@ public class ChronologyUpdate implements StaticIsaacCache {
         }
 
 
+        // Versions already folded into the taxonomy by an earlier update are skipped, so only
+        // new versions are compared against their predecessor. 
+        final MutableIntSet foldedStamps = getFoldedStamps(
+                TAXONOMY_SERVICE.getTaxonomyData(conceptAssemblageNid, referencedComponentNid),
+                taxonomyFlags, CHILD_OF_NID);
+
         TaxonomyRecord taxonomyRecordForConcept = new TaxonomyRecord();
 
         for (Graph<LogicGraphVersion> versionGraph : versionGraphList) {
-            // this is the CPU hog...
-            // TODO: this unnecessarily processes old versions. Should check for old version with
-            // inferred/stated and stamp, and skip if it already exists. 
-            processVersionNode(referencedComponentNid, versionGraph.getRoot(), taxonomyRecordForConcept, taxonomyFlags);
+            processVersionNode(referencedComponentNid, versionGraph.getRoot(), taxonomyRecordForConcept, taxonomyFlags, foldedStamps);
         }
         int[] start = taxonomyRecordForConcept.pack();
+        if (start.length == 0) {
+            return;
+        }
         //start = start.clone();
         //TaxonomyRecord.validate(start);
         //int[] begin = origin_DestinationTaxonomyRecord_Map.get(logicGraphChronology.getReferencedComponentNid());
@@ -184,6 +192,43 @@ public class ChronologyUpdate implements StaticIsaacCache {
         }
     }
 
+    /**
+     * Gets the stamps of the logic graph versions that have already been folded into a concept's
+     * taxonomy record. These are the stamps of the records for the concept's own parents and roles,
+     * with the given taxonomy flags. Records for children are made by the logic graphs of other 
+     * concepts, which may share a stamp with a version of this concept, so they are not included. 
+     * 
+     * A version that did not change the taxonomy leaves no record, and is processed again on a 
+     * later update, which is safe since merging the same records again does not change the taxonomy.
+     *
+     * @param taxonomyData the packed taxonomy record of the concept, may be null
+     * @param taxonomyFlags the stated or inferred taxonomy flag
+     * @param childOfNid the nid of the type of the records for children
+     * @return the stamps of folded versions
+     */
+    static MutableIntSet getFoldedStamps(int[] taxonomyData, TaxonomyFlag taxonomyFlags, int childOfNid) {
+        final MutableIntSet foldedStamps = IntSets.mutable.empty();
+        if (taxonomyData == null) {
+            return foldedStamps;
+        }
+        int subRecordStart = 0;
+        while (subRecordStart + 1 < taxonomyData.length) {
+            // destination nid, followed by the length of the type, stamp, flag records (including the length)
+            final int subRecordLength = taxonomyData[subRecordStart + 1];
+            if (subRecordLength < 1) {
+                break;
+            }
+            for (int i = subRecordStart + 2; i + 2 < subRecordStart + subRecordLength + 1; i += 3) {
+                final int typeNid = taxonomyData[i];
+                if (typeNid != childOfNid && (taxonomyData[i + 2] & taxonomyFlags.bits) == taxonomyFlags.bits) {
+                    foldedStamps.add(taxonomyData[i + 1]);
+                }
+            }
+            subRecordStart = subRecordStart + subRecordLength + 1;
+        }
+        return foldedStamps;
+    }
+
     private static int[] merge(int[] existing, int[] update) {
         if (existing == null || existing.length == 0) {
             return update;
@@ -282,9 +327,12 @@ public class ChronologyUpdate implements StaticIsaacCache {
 
     private static void processVersionNode(int conceptNid, Node<? extends LogicGraphVersion> node,
             TaxonomyRecord taxonomyRecordForConcept,
-            TaxonomyFlag taxonomyFlags) {
+            TaxonomyFlag taxonomyFlags,
+            MutableIntSet foldedStamps) {
         LogicGraphVersion logicGraphVersion = node.getData();
-        if (node.getParent() == null) {
+        if (foldedStamps.contains(logicGraphVersion.getStampSequence())) {
+            // already in the taxonomy, only the children may need processing
+        } else if (node.getParent() == null) {
             processNewLogicGraph(logicGraphVersion, taxonomyRecordForConcept, taxonomyFlags);
         } else {
             try {
@@ -316,7 +364,7 @@ public class ChronologyUpdate implements StaticIsaacCache {
 
         }
         for (Node<? extends LogicGraphVersion> childNode : node.getChildren()) {
-            processVersionNode(conceptNid, childNode, taxonomyRecordForConcept, taxonomyFlags);
+            processVersionNode(conceptNid, childNode, taxonomyRecordForConcept, taxonomyFlags, foldedStamps);
         }
     }
 
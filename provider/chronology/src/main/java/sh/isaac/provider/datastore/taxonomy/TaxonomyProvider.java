@@ -39,6 +39,7 @@ package sh.isaac.provider.datastore.taxonomy;
 import java.lang.ref.WeakReference;
 import java.nio.file.Path;
 import java.util.EnumSet;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
@@ -102,6 +103,7 @@ import sh.isaac.model.ModelGet;
 import sh.isaac.model.TaxonomyDebugService;
 import sh.isaac.model.taxonomy.TaxonomyRecord;
 import sh.isaac.model.taxonomy.TaxonomyRecordPrimitive;
+import sh.isaac.model.tree.HashTreeWithIntArraySetsIsolated;
 import sh.isaac.provider.datastore.chronology.ChronologyUpdate;
 import sh.isaac.provider.datastore.navigator.NavigationAmalgam;
 
@@ -168,10 +170,18 @@ public class TaxonomyProvider
 
     @Override
     public void handleCommit(CommitRecord commitRecord) {
-        // If a logic graph changed, clear our cache.
+        // Concepts whose logic graphs changed in this commit. The update task removes the semantics from the
+        // unhandled set, so gather them first.
+        MutableIntSet changedConceptNids = IntSets.mutable.empty();
+        for (int semanticNid : this.semanticNidsForUnhandledChanges) {
+            if (commitRecord.getSemanticNidsInCommit().contains(semanticNid)) {
+                changedConceptNids.add(Get.assemblageService().getSemanticChronology(semanticNid).getReferencedComponentNid());
+            }
+        }
+
+        // If a logic graph changed, clear the snapshots without trees, they are cheap to rebuild.
         if (this.semanticNidsForUnhandledChanges.size() > 0) {
-            LOG.debug("Clearing snapshot cache due to commit");
-            this.snapshotCache.clear();
+            LOG.debug("Clearing no tree snapshot cache due to commit");
             this.noTreeSnapshotCache.clear();
         }
 
@@ -185,6 +195,37 @@ public class TaxonomyProvider
             LOG.error("Unexpected error waiting for taxonomy update after commit", e);
             throw new RuntimeException(e);
         }
+
+        if (!changedConceptNids.isEmpty()) {
+            updateCachedTrees(changedConceptNids.toArray());
+        }
+    }
+
+    /**
+     * Apply the changed parents of the given concepts to the cached trees, now that their taxonomy records are
+     * up to date. Trees that are still being built, or that cannot be updated in place, are evicted and will be
+     * rebuilt on their next request.
+     *
+     * @param changedConceptNids the concepts whose logic graphs changed
+     */
+    private void updateCachedTrees(int[] changedConceptNids) {
+        for (Map.Entry<SnapshotCacheKey, Task<Tree>> entry : this.snapshotCache.entrySet()) {
+            Task<Tree> treeTask = entry.getValue();
+            boolean updated = false;
+
+            if (treeTask instanceof TreeBuilderTask && treeTask.isDone() && !treeTask.isCancelled()) {
+                try {
+                    updated = ((TreeBuilderTask) treeTask).updateTree(changedConceptNids);
+                } catch (InterruptedException | ExecutionException | RuntimeException e) {
+                    LOG.warn("Unable to update cached tree for " + entry.getKey(), e);
+                }
+            }
+
+            if (!updated) {
+                LOG.debug("Evicting {} from snapshot cache due to commit", entry.getKey());
+                this.snapshotCache.remove(entry.getKey(), treeTask);
+            }
+        }
     }
 
     @Override
@@ -491,6 +532,24 @@ public class TaxonomyProvider
         }
     }
 
+    @Override
+    public long getMemoryInUse() {
+        long memoryInUse = 0;
+        for (Task<Tree> treeTask : this.snapshotCache.values()) {
+            if (treeTask.isDone() && !treeTask.isCancelled()) {
+                try {
+                    Tree tree = treeTask.get();
+                    if (tree instanceof HashTreeWithIntArraySetsIsolated) {
+                        memoryInUse += ((HashTreeWithIntArraySetsIsolated) tree).getReachabilityIndexMemoryInUse();
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    // A failed build holds no index.
+                }
+            }
+        }
+        return memoryInUse;
+    }
+
     public Task<Tree> getTaxonomyTree(ManifoldCoordinate mc) {
         SnapshotCacheKey snapshotCacheKey = new SnapshotCacheKey(mc);
         final Task<Tree> treeTask = this.snapshotCache.get(snapshotCacheKey);
@@ -39,13 +39,16 @@
 
 package sh.isaac.provider.datastore.taxonomy;
 
+import java.util.OptionalInt;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.function.IntFunction;
 import java.util.stream.IntStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import sh.isaac.api.Get;
 import sh.isaac.api.LookupService;
+import sh.isaac.api.constants.SystemPropertyConstants;
 import sh.isaac.api.coordinate.ManifoldCoordinate;
 import sh.isaac.api.coordinate.ManifoldCoordinateImmutable;
 import sh.isaac.api.coordinate.VertexSort;
@@ -54,6 +57,7 @@ import sh.isaac.api.task.TimedTaskWithProgressTracker;
 import sh.isaac.api.tree.Tree;
 import sh.isaac.model.taxonomy.GraphCollectorIsolated;
 import sh.isaac.model.tree.HashTreeBuilderIsolated;
+import sh.isaac.model.tree.HashTreeWithIntArraySetsIsolated;
 
 
 /**
@@ -141,7 +145,8 @@ public class TreeBuilderTask
       if (stopRequested) {
          throw new CancellationException("Stop requested during compute");
       }
-      IntStream conceptNidStream = Get.identifierService().getNidsForAssemblage(conceptAssemblageNid, false);
+      // Each split of the parallel stream collects into its own builder, the builders are then combined.
+      IntStream conceptNidStream = Get.identifierService().getNidsForAssemblage(conceptAssemblageNid, true);
 
       HashTreeBuilderIsolated graphBuilder = conceptNidStream.filter((conceptNid) -> {
                completedUnitOfWork();
@@ -154,13 +159,59 @@ public class TreeBuilderTask
 
       message = "searching for redundancies and cycles";
 
-      Tree tree = graphBuilder.getSimpleDirectedGraph(this);
+      HashTreeWithIntArraySetsIsolated tree = graphBuilder.getSimpleDirectedGraph(this);
+
+      if (!"false".equalsIgnoreCase(System.getProperty(SystemPropertyConstants.TAXONOMY_REACHABILITY_INDEX))) {
+         message = "building reachability index";
+         if (tree.buildReachabilityIndex()) {
+            LOG.debug("Reachability index for {} uses {} bytes", this.manifoldCoordinate.toUserString(),
+                    tree.getReachabilityIndexMemoryInUse());
+         }
+      }
 
       message = "complete";
       //LOG.info("Tree build completed for {}", this.digraph.toUserString());
       return tree;
    }
 
+   /**
+    * Apply the parent changes of the given concepts to the tree built by this task, rather than building the
+    * tree again. Concepts from other assemblages, and concepts whose parents under this task's coordinate did
+    * not change, leave the tree untouched.
+    *
+    * @param changedConceptNids the concepts whose logic graphs changed
+    * @return true if the tree is up to date, false if it must be rebuilt.
+    */
+   public boolean updateTree(int[] changedConceptNids) throws InterruptedException, ExecutionException {
+      Tree tree = get();
+
+      if (!(tree instanceof HashTreeWithIntArraySetsIsolated)) {
+         return false;
+      }
+
+      HashTreeWithIntArraySetsIsolated hashTree = (HashTreeWithIntArraySetsIsolated) tree;
+      boolean indexed = hashTree.hasReachabilityIndex();
+      GraphCollectorIsolated collector = new GraphCollectorIsolated(this.taxonomyDataProvider, this.manifoldCoordinate, this.vertexSort);
+
+      for (int conceptNid: changedConceptNids) {
+         OptionalInt assemblageNid = Get.identifierService().getAssemblageNid(conceptNid);
+
+         if (!assemblageNid.isPresent() || assemblageNid.getAsInt() != this.conceptAssemblageNid) {
+            continue;
+         }
+
+         int[] parentNids = collector.getParentNids(conceptNid);
+
+         if (parentNids == null || !hashTree.updateParents(conceptNid, parentNids)) {
+            return false;
+         }
+      }
+      if (indexed && !hashTree.hasReachabilityIndex()) {
+         hashTree.buildReachabilityIndex();
+      }
+      return true;
+   }
+
    /** 
     * {@inheritDoc}
     */
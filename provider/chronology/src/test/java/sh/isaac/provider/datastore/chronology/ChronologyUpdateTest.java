@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore.chronology;
+
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.junit.Test;
+import sh.isaac.api.coordinate.TaxonomyFlag;
+import sh.isaac.model.taxonomy.TaxonomyRecord;
+
+import static org.junit.Assert.*;
+
+/**
+ * The stamps that {@link ChronologyUpdate#getFoldedStamps} reads from a packed taxonomy record, which holds, for each
+ * destination, the destination nid, the length of its records including the length itself, then a type nid, stamp
+ * and flags triple per record.
+ */
+public class ChronologyUpdateTest {
+
+    private static final int CHILD_OF = -100;
+    private static final int IS_A = -101;
+    private static final int ROLE = -102;
+    private static final int STATED = TaxonomyFlag.STATED.bits;
+    private static final int INFERRED = TaxonomyFlag.INFERRED.bits;
+
+    private static int[] folded(int[] taxonomyData, TaxonomyFlag taxonomyFlags) {
+        return ChronologyUpdate.getFoldedStamps(taxonomyData, taxonomyFlags, CHILD_OF).toSortedArray();
+    }
+
+    @Test
+    public void noRecordHasNoFoldedStamps() {
+        assertArrayEquals(new int[0], folded(null, TaxonomyFlag.STATED));
+        assertArrayEquals(new int[0], folded(new int[0], TaxonomyFlag.STATED));
+    }
+
+    @Test
+    public void recordsForChildrenAreNotFolded() {
+        // Made by the logic graph of the child, which may share stamp 7 with a version of this concept.
+        int[] taxonomyData = {
+            -1, 7, IS_A, 5, STATED, CHILD_OF, 6, STATED,
+            -2, 4, CHILD_OF, 7, STATED};
+        assertArrayEquals(new int[] { 5 }, folded(taxonomyData, TaxonomyFlag.STATED));
+    }
+
+    @Test
+    public void recordsWithTheOtherFlagAreNotFolded() {
+        int[] taxonomyData = {
+            -1, 10, IS_A, 5, STATED, IS_A, 6, INFERRED, ROLE, 7, STATED | INFERRED};
+        assertArrayEquals(new int[] { 5, 7 }, folded(taxonomyData, TaxonomyFlag.STATED));
+        assertArrayEquals(new int[] { 6, 7 }, folded(taxonomyData, TaxonomyFlag.INFERRED));
+    }
+
+    @Test
+    public void recordsOfEveryDestinationAreFolded() {
+        TaxonomyRecord taxonomyRecord = new TaxonomyRecord();
+        taxonomyRecord.addStampRecord(-1, IS_A, 5, STATED);
+        taxonomyRecord.addStampRecord(-1, IS_A, 8, STATED);
+        taxonomyRecord.addStampRecord(-2, ROLE, 6, STATED);
+        taxonomyRecord.addStampRecord(-3, CHILD_OF, 9, STATED);
+        taxonomyRecord.addStampRecord(-4, IS_A, 7, INFERRED);
+        taxonomyRecord.addStampRecord(-5, IS_A, 10, STATED);
+        assertEquals(IntSets.mutable.of(5, 6, 8, 10), ChronologyUpdate.getFoldedStamps(taxonomyRecord.pack(), TaxonomyFlag.STATED, CHILD_OF));
+        assertArrayEquals(new int[] { 7 }, folded(taxonomyRecord.pack(), TaxonomyFlag.INFERRED));
+    }
+
+    @Test
+    public void truncatedRecordIsReadUpToItsEnd() {
+        // The length of the second destination's records is missing.
+        int[] taxonomyData = { -1, 4, IS_A, 5, STATED, -2 };
+        assertArrayEquals(new int[] { 5 }, folded(taxonomyData, TaxonomyFlag.STATED));
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.commit;
+
+//~--- JDK imports ------------------------------------------------------------
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sh.isaac.api.Get;
+import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.api.datastore.ChronologySerializeable;
+import sh.isaac.api.externalizable.BinaryDataReaderService;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+import sh.isaac.api.externalizable.DataWriterService;
+import sh.isaac.api.externalizable.IsaacExternalizable;
+import sh.isaac.api.externalizable.IsaacObjectType;
+import sh.isaac.api.task.TimedTaskWithProgressTracker;
+import sh.isaac.model.ChronologyImpl;
+import sh.isaac.model.concept.ConceptChronologyImpl;
+import sh.isaac.model.semantic.SemanticChronologyImpl;
+
+//~--- classes ----------------------------------------------------------------
+
+/**
+ * Compacts the change set files older than a cutoff into one pack per month. The copies of each chronology in the
+ * files of a month are merged the way the data stores merge them: the chronology data with
+ * {@link ChronologyImpl#mergeChronologyData(byte[], byte[])}, and the versions by stamp. The pack holds each
+ * chronology once, sorted by object type and primordial UUID, followed by the stamp aliases and comments.
+ *
+ * A pack is named like the change set files, with the timestamp of the newest file in it, so it replays in order.
+ * Next to it, a manifest lists the names of the files it replaces, including those replaced by any earlier pack it
+ * absorbed. A clone that has already processed every file in the manifest, such as one that pulls the pack from git,
+ * skips the pack. Only files that have been processed are compacted, and files written by this session are left
+ * alone, since the change set writer may still be appending to them.
+ */
+public class ChangeSetCompactionTask
+        extends TimedTaskWithProgressTracker<List<String>> {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * The prefix of pack file names.
+     */
+    static final String PACK_PREFIX = "ChangeSetPack-";
+
+    /**
+     * The suffix of pack manifests, which replaces the ".ibdf" suffix of the pack.
+     */
+    static final String MANIFEST_SUFFIX = ".manifest.txt";
+
+    private static final String IBDF_SUFFIX = ".ibdf";
+
+    /**
+     * The change set folder.
+     */
+    private final Path changesetPath;
+
+    /**
+     * Files with a timestamp before this are compacted.
+     */
+    private final String cutoffTimestamp;
+
+    /**
+     * The processed changesets, may be null.
+     */
+    private final ConcurrentMap<String, Boolean> processedChangesets;
+
+    //~--- constructors --------------------------------------------------------
+    /**
+     * Instantiates a new change set compaction task.
+     *
+     * @param changesetPath the change set folder
+     * @param olderThan files older than this are compacted
+     * @param processedChangesets the store of processed change set file names, may be null
+     */
+    public ChangeSetCompactionTask(Path changesetPath, Instant olderThan,
+            ConcurrentMap<String, Boolean> processedChangesets) {
+        this.changesetPath = changesetPath;
+        final long sessionStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        this.cutoffTimestamp = formatTimestamp(Math.min(olderThan.toEpochMilli(), sessionStart));
+        this.processedChangesets = processedChangesets;
+        updateTitle("Compact change sets");
+        Get.activeTasks().add(this);
+    }
+
+    //~--- methods -------------------------------------------------------------
+    /**
+     * Call.
+     *
+     * @return the names of the files that were replaced by packs, relative to the change set folder
+     * @throws Exception the exception
+     */
+    @Override
+    protected List<String> call()
+            throws Exception {
+        try {
+            final TreeMap<String, List<Path>> filesForMonth = new TreeMap<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.changesetPath, path -> path.toFile().isFile()
+                    && path.toString().endsWith(IBDF_SUFFIX)
+                    && path.toFile().length() > 0)) {
+                for (Path path : stream) {
+                    final String name = path.getFileName().toString();
+                    final String timestamp = ChangeSetReplayTask.getTimestamp(path, name);
+                    if (timestamp.compareTo(this.cutoffTimestamp) < 0
+                            && (this.processedChangesets == null || this.processedChangesets.containsKey(name))) {
+                        filesForMonth.computeIfAbsent(timestamp.substring(0, 7), month -> new ArrayList<>()).add(path);
+                    }
+                }
+            }
+            // a month that is already one pack has nothing to compact
+            filesForMonth.values().removeIf(files -> files.size() == 1 && isPack(files.get(0)));
+            addToTotalWork(filesForMonth.values().stream().mapToInt(files -> files.size() + 1).sum());
+
+            final ArrayList<String> replaced = new ArrayList<>();
+            for (Map.Entry<String, List<Path>> entry : filesForMonth.entrySet()) {
+                final List<Path> files = entry.getValue();
+                files.sort(ChangeSetReplayTask::compareByTimestamp);
+                updateMessage("Compacting " + files.size() + " change sets from " + entry.getKey());
+                replaced.addAll(compact(files));
+            }
+            LOG.info("Compacted {} change set files into {} packs", replaced.size(), filesForMonth.size());
+            return replaced;
+        } finally {
+            Get.activeTasks().remove(this);
+        }
+    }
+
+    /**
+     * Compacts the files of one month into a pack, and deletes them.
+     *
+     * @param files the files, in timestamp order
+     * @return the names of the deleted files, and of the manifests of any deleted packs
+     */
+    private List<String> compact(List<Path> files)
+            throws IOException {
+        final HashMap<Integer, PackedChronology> chronologies = new HashMap<>();
+        final ArrayList<IsaacExternalizable> stampRecords = new ArrayList<>();
+        final LinkedHashSet<String> manifest = new LinkedHashSet<>();
+
+        for (Path path : files) {
+            manifest.add(path.getFileName().toString());
+            manifest.addAll(readManifest(path));
+            try (BinaryDataReaderService reader = Get.binaryDataReader(path)) {
+                reader.getStream().forEach(
+                        o -> {
+                            switch (o.getIsaacObjectType()) {
+                                case CONCEPT:
+                                case SEMANTIC:
+                                    chronologies.computeIfAbsent(((Chronology) o).getNid(),
+                                            nid -> new PackedChronology(o.getIsaacObjectType(), ((Chronology) o).getPrimordialUuid()))
+                                            .add((ChronologySerializeable) o);
+                                    break;
+                                default:
+                                    stampRecords.add(o);
+                            }
+                        });
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+            completedUnitOfWork();
+        }
+
+        final Path lastFile = files.get(files.size() - 1);
+        final String packName = PACK_PREFIX + ChangeSetReplayTask.getTimestamp(lastFile, lastFile.getFileName().toString())
+                + "_" + UUID.randomUUID().toString() + IBDF_SUFFIX;
+        final Path packPath = this.changesetPath.resolve(packName);
+        final ArrayList<PackedChronology> sorted = new ArrayList<>(chronologies.values());
+        // chronologies with only canceled versions have nothing to replay
+        sorted.removeIf(packed -> packed.versionData.isEmpty());
+        sorted.sort(Comparator.comparing((PackedChronology packed) -> packed.objectType)
+                .thenComparing(packed -> packed.primordialUuid));
+
+        final DataWriterService writer = Get.binaryDataWriter(packPath);
+        try {
+            for (PackedChronology packed : sorted) {
+                writer.put(packed.make());
+            }
+            for (IsaacExternalizable stampRecord : stampRecords) {
+                writer.put(stampRecord);
+            }
+        } catch (RuntimeException e) {
+            writer.close();
+            Files.deleteIfExists(packPath);
+            throw e;
+        }
+        writer.close();
+        Files.write(getManifestPath(packPath), manifest);
+        if (this.processedChangesets != null) {
+            this.processedChangesets.put(packName, true);
+        }
+        completedUnitOfWork();
+
+        final ArrayList<String> deleted = new ArrayList<>();
+        for (Path path : files) {
+            Files.delete(path);
+            deleted.add(path.getFileName().toString());
+            if (Files.deleteIfExists(getManifestPath(path))) {
+                deleted.add(getManifestPath(path).getFileName().toString());
+            }
+        }
+        LOG.info("Compacted {} change set files, with {} chronologies, into {}", files.size(), sorted.size(), packName);
+        return deleted;
+    }
+
+    /**
+     * @param path a change set file
+     * @return true if the file is a pack
+     */
+    static boolean isPack(Path path) {
+        return path.getFileName().toString().startsWith(PACK_PREFIX);
+    }
+
+    /**
+     * @param path a change set file
+     * @param processedChangesets the names of the processed change set files
+     * @return true if the file is a pack, and every file in its manifest has been processed, so replaying it would
+     * add nothing
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    static boolean isPackOfProcessedFiles(Path path, Map<String, Boolean> processedChangesets)
+            throws IOException {
+        final List<String> manifest = readManifest(path);
+        return !manifest.isEmpty() && manifest.stream().allMatch(processedChangesets::containsKey);
+    }
+
+    /**
+     * Reads the names of the files that a pack replaced.
+     *
+     * @param path a change set file
+     * @return the names of the files the pack replaced, or an empty list if the file is not a pack, or has no manifest
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    static List<String> readManifest(Path path)
+            throws IOException {
+        final Path manifestPath = getManifestPath(path);
+        if (!isPack(path) || !manifestPath.toFile().isFile()) {
+            return Collections.emptyList();
+        }
+        final ArrayList<String> names = new ArrayList<>();
+        for (String line : Files.readAllLines(manifestPath)) {
+            if (!line.isBlank()) {
+                names.add(line.trim());
+            }
+        }
+        return names;
+    }
+
+    private static Path getManifestPath(Path packPath) {
+        final String name = packPath.getFileName().toString();
+        return packPath.resolveSibling(name.substring(0, name.length() - IBDF_SUFFIX.length()) + MANIFEST_SUFFIX);
+    }
+
+    private static String formatTimestamp(long epochMillis) {
+        return new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date(epochMillis));
+    }
+
+    //~--- inner classes -------------------------------------------------------
+    /**
+     * The merged copies of one chronology, in the form the data stores keep them.
+     */
+    private static class PackedChronology {
+
+        final IsaacObjectType objectType;
+        final UUID primordialUuid;
+        byte[] chronologyData;
+
+        /**
+         * key = stamp sequence, value = version data.
+         */
+        final LinkedHashMap<Integer, byte[]> versionData = new LinkedHashMap<>();
+
+        PackedChronology(IsaacObjectType objectType, UUID primordialUuid) {
+            this.objectType = objectType;
+            this.primordialUuid = primordialUuid;
+        }
+
+        void add(ChronologySerializeable copy) {
+            final byte[] copyData = copy.getChronologyDataToWrite();
+            this.chronologyData = this.chronologyData == null ? copyData
+                    : ChronologyImpl.mergeChronologyData(this.chronologyData, copyData);
+            for (byte[] version : copy.getVersionDataToWrite()) {
+                // the length of the version, followed by its stamp sequence
+                this.versionData.putIfAbsent(ByteArrayDataBuffer.getInt(version, 4), version);
+            }
+        }
+
+        IsaacExternalizable make() {
+            final ByteArrayDataBuffer data = new ByteArrayDataBuffer(this.chronologyData.length
+                    + this.versionData.values().stream().mapToInt(version -> version.length).sum());
+            data.put(this.chronologyData);
+            this.versionData.values().forEach(data::put);
+            data.trimToSize();
+            data.flip();
+            this.objectType.readAndValidateHeader(data);
+            if (this.objectType == IsaacObjectType.CONCEPT) {
+                return ConceptChronologyImpl.make(data);
+            }
+            return SemanticChronologyImpl.make(data);
+        }
+    }
+}
@@ -44,7 +44,6 @@ import sh.isaac.api.*;
 import sh.isaac.api.bootstrap.TermAux;
 import sh.isaac.api.chronicle.LatestVersion;
 import sh.isaac.api.chronicle.Version;
-import sh.isaac.api.commit.CommitService;
 import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.component.semantic.version.StringVersion;
 import sh.isaac.api.coordinate.Coordinates;
@@ -53,15 +52,17 @@ import sh.isaac.api.util.metainf.MetaInfReader;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -127,19 +128,17 @@ public class ChangeSetLoadProvider
      * @throws IOException Signals that an I/O exception has occurred.
      */
     @Override
-    public int readChangesetFiles()
+    public synchronized int readChangesetFiles()
             throws IOException {
         final AtomicInteger loaded = new AtomicInteger();
         final AtomicInteger skipped = new AtomicInteger();
 
         LOG.debug("Looking for .ibdf file in {}.", this.changesetPath.toAbsolutePath());
 
-        final CommitService commitService = Get.commitService();
-
         final CancelUncommittedStamps stampProvider = (CancelUncommittedStamps) Get.stampService();
         stampProvider.setCancelUncommittedStamps(true);
 
-        ArrayList<String> files = new ArrayList<>();
+        ArrayList<Path> files = new ArrayList<>();
 
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.changesetPath, path -> path.toFile().isFile()
                 && path.toString().endsWith(".ibdf")
@@ -147,42 +146,38 @@ public class ChangeSetLoadProvider
             stream.forEach(
                     path -> {
                         LOG.debug("File {}", path.toAbsolutePath());
-                        files.add(path.toString());
-                        try {
-                            if ((this.processedChangesets != null)
-                            && this.processedChangesets.containsKey(path.getFileName().toString())) {
-                                skipped.incrementAndGet();
-                                LOG.debug("Skipping already processed changeset file");
-                            } else {
-                                loaded.incrementAndGet();
-                                LOG.debug("Importing changeset file");
-                                Get.binaryDataReader(path)
-                                        .getStream()
-                                        .forEach(
-                                                o -> {
-                                                    try {
-                                                        commitService.importNoChecks(o);
-                                                    } catch (Throwable e) {
-                                                        LOG.error("Error importing: "
-                                                                + path.toAbsolutePath() + "\n" + o + "\n", e);
-                                                    }
-                                                });
-                                if (this.processedChangesets != null) {
-                                    this.processedChangesets.put(path.getFileName()
-                                            .toString(), true);
-                                }
-                            }
-                        } catch (final FileNotFoundException e) {
-                            LOG.error("Change Set Load Provider failed to load file {}", path.toAbsolutePath());
-                            throw new RuntimeException(e);
+                        if ((this.processedChangesets != null)
+                                && this.processedChangesets.containsKey(path.getFileName().toString())) {
+                            skipped.incrementAndGet();
+                            LOG.debug("Skipping already processed changeset file");
+                        } else if (isPackOfProcessedFiles(path)) {
+                            this.processedChangesets.put(path.getFileName().toString(), true);
+                            skipped.incrementAndGet();
+                            LOG.debug("Skipping changeset pack of already processed files");
+                        } else {
+                            loaded.incrementAndGet();
+                            files.add(path);
                         }
                     });
+        }
+
+        if (!files.isEmpty()) {
+            final ChangeSetReplayTask replayTask = new ChangeSetReplayTask(files, this.processedChangesets);
+            Get.executor().execute(replayTask);
             try {
-                commitService.postProcessImportNoChecks();
-            } catch (Throwable e) {
-                LOG.error("Error post processing: " + files, e);
+                replayTask.get();
+            } catch (InterruptedException | ExecutionException e) {
+                LOG.error("Error replaying: " + files, e);
+                throw new RuntimeException(e);
+            }
+            if (this.processedChangesets != null) {
+                // so a later pack that absorbs these packs is recognized as processed
+                for (Path path : files) {
+                    for (String name : ChangeSetCompactionTask.readManifest(path)) {
+                        this.processedChangesets.put(name, true);
+                    }
+                }
             }
-
         }
 
         stampProvider.setCancelUncommittedStamps(false);
@@ -193,6 +188,41 @@ public class ChangeSetLoadProvider
         return loaded.get();
     }
 
+    /**
+     * Checks if a changeset file is a pack whose manifest lists only files that were already processed.
+     *
+     * @param path the changeset file
+     * @return true, if the file is a pack of processed files
+     */
+    private boolean isPackOfProcessedFiles(Path path) {
+        if (this.processedChangesets == null) {
+            return false;
+        }
+        try {
+            return ChangeSetCompactionTask.isPackOfProcessedFiles(path, this.processedChangesets);
+        } catch (IOException e) {
+            LOG.warn("Unable to read the manifest of changeset pack " + path.toAbsolutePath(), e);
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<String> compactChangesetFiles(Instant olderThan)
+            throws IOException {
+        final ChangeSetCompactionTask compactionTask = new ChangeSetCompactionTask(this.changesetPath, olderThan,
+                this.processedChangesets);
+        Get.executor().execute(compactionTask);
+        try {
+            return compactionTask.get();
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.error("Error compacting changesets in " + this.changesetPath.toAbsolutePath(), e);
+            throw new IOException(e);
+        }
+    }
+
     /**
      * Start me.
      */
@@ -0,0 +1,252 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.commit;
+
+//~--- JDK imports ------------------------------------------------------------
+import java.io.FileNotFoundException;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+import sh.isaac.api.Get;
+import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.api.commit.CommitService;
+import sh.isaac.api.externalizable.BinaryDataReaderService;
+import sh.isaac.api.externalizable.IsaacExternalizable;
+import sh.isaac.api.task.TimedTaskWithProgressTracker;
+
+//~--- classes ----------------------------------------------------------------
+
+/**
+ * Replays change set files into the datastore. The files are read in the order of their timestamps, and the copies
+ * of each chronology are collected across files. A copy whose stamps are all in a later copy of the same chronology
+ * is dropped, since change sets hold the whole chronology as of each commit. Once the copies held reach
+ * {@link #MAX_HELD_COPIES}, at the end of a file, they are imported in parallel, with the copies of any one
+ * chronology imported in order, and collection starts again with the next file. The deferred import work is done
+ * once, at the end.
+ *
+ * Stamp aliases and stamp comments are imported as they are read.
+ */
+public class ChangeSetReplayTask
+        extends TimedTaskWithProgressTracker<Integer> {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * The date and time that {@link sh.isaac.api.externalizable.MultipleDataWriterService} puts in the names of the
+     * files it writes, which sorts in time order.
+     */
+    private static final Pattern FILE_NAME_TIMESTAMP = Pattern.compile("\\d{4}-\\d{2}-\\d{2}_\\d{2}-\\d{2}-\\d{2}");
+
+    /**
+     * The number of chronology copies collected before they are imported, which bounds the memory a replay of a
+     * large change set history holds. Copies superseded across the import are not dropped, only imported in order.
+     */
+    static final int MAX_HELD_COPIES = 250_000;
+
+    /**
+     * The files to replay, in timestamp order.
+     */
+    private final List<Path> files;
+
+    /**
+     * The processed changesets, may be null.
+     */
+    private final ConcurrentMap<String, Boolean> processedChangesets;
+
+    //~--- constructors --------------------------------------------------------
+    /**
+     * Instantiates a new change set replay task.
+     *
+     * @param files the change set files to replay
+     * @param processedChangesets the store of processed change set file names, which the files are added to once
+     * they are replayed, may be null
+     */
+    public ChangeSetReplayTask(Collection<Path> files, ConcurrentMap<String, Boolean> processedChangesets) {
+        this.files = new ArrayList<>(files);
+        this.files.sort(ChangeSetReplayTask::compareByTimestamp);
+        this.processedChangesets = processedChangesets;
+        updateTitle("Replay change sets");
+        addToTotalWork(this.files.size() + 2);
+        Get.activeTasks().add(this);
+    }
+
+    //~--- methods -------------------------------------------------------------
+    /**
+     * Call.
+     *
+     * @return the number of files replayed
+     * @throws Exception the exception
+     */
+    @Override
+    protected Integer call()
+            throws Exception {
+        try {
+            final CommitService commitService = Get.commitService();
+            final MutableIntObjectMap<List<Chronology>> copiesForNid = IntObjectMaps.mutable.empty();
+            final AtomicInteger held = new AtomicInteger();
+            final AtomicInteger dropped = new AtomicInteger();
+            int imported = 0;
+
+            for (Path path : this.files) {
+                updateMessage("Reading " + path.getFileName());
+                LOG.debug("Reading changeset file {}", path.toAbsolutePath());
+                try (BinaryDataReaderService reader = Get.binaryDataReader(path)) {
+                    reader.getStream().forEach(
+                            o -> {
+                                try {
+                                    switch (o.getIsaacObjectType()) {
+                                        case CONCEPT:
+                                        case SEMANTIC:
+                                            final int droppedCopies = addCopy(copiesForNid, (Chronology) o);
+                                            dropped.addAndGet(droppedCopies);
+                                            held.addAndGet(1 - droppedCopies);
+                                            break;
+                                        default:
+                                            commitService.importNoChecks(o);
+                                    }
+                                } catch (Throwable e) {
+                                    LOG.error("Error importing: "
+                                            + path.toAbsolutePath() + "\n" + o + "\n", e);
+                                }
+                            });
+                } catch (final FileNotFoundException e) {
+                    LOG.error("Change Set Load Provider failed to load file {}", path.toAbsolutePath());
+                    throw new RuntimeException(e);
+                }
+                if (held.get() >= MAX_HELD_COPIES) {
+                    imported += importCopies(commitService, copiesForNid, held.get());
+                    copiesForNid.clear();
+                    held.set(0);
+                }
+                completedUnitOfWork();
+            }
+
+            imported += importCopies(commitService, copiesForNid, held.get());
+            copiesForNid.clear();
+            LOG.info("Imported {} chronology copies from {} changeset files, dropped {} superseded copies",
+                    imported, this.files.size(), dropped.get());
+            completedUnitOfWork();
+
+            if (this.processedChangesets != null) {
+                for (Path path : this.files) {
+                    this.processedChangesets.put(path.getFileName().toString(), true);
+                }
+            }
+
+            updateMessage("Post processing import");
+            try {
+                commitService.postProcessImportNoChecks();
+            } catch (Throwable e) {
+                LOG.error("Error post processing: " + this.files, e);
+            }
+            completedUnitOfWork();
+            return this.files.size();
+        } finally {
+            Get.activeTasks().remove(this);
+        }
+    }
+
+    /**
+     * Imports the collected copies of each chronology in parallel, with the copies of any one chronology imported in
+     * order.
+     *
+     * @param commitService the commit service
+     * @param copiesForNid the copies of each chronology, in file order
+     * @param heldCopies the number of copies held
+     * @return the number of copies imported
+     */
+    private int importCopies(CommitService commitService, MutableIntObjectMap<List<Chronology>> copiesForNid,
+            int heldCopies) {
+        updateMessage("Importing " + copiesForNid.size() + " chronologies");
+        LOG.debug("Importing {} copies of {} chronologies", heldCopies, copiesForNid.size());
+        copiesForNid.values().parallelStream().forEach(
+                copies -> {
+                    for (Chronology copy : copies) {
+                        try {
+                            commitService.importNoChecks((IsaacExternalizable) copy);
+                        } catch (Throwable e) {
+                            LOG.error("Error importing: " + copy + "\n", e);
+                        }
+                    }
+                });
+        return heldCopies;
+    }
+
+    /**
+     * Adds a copy of a chronology, read from a later file than the copies already added, dropping the earlier copies
+     * whose stamps are all in the new copy.
+     *
+     * @param copiesForNid the copies of each chronology, in file order
+     * @param copy the copy to add
+     * @return the number of earlier copies dropped
+     */
+    static int addCopy(MutableIntObjectMap<List<Chronology>> copiesForNid, Chronology copy) {
+        final List<Chronology> copies = copiesForNid.getIfAbsentPut(copy.getNid(), () -> new ArrayList<>(1));
+        int dropped = 0;
+        if (!copies.isEmpty()) {
+            final MutableIntSet stamps = IntSets.mutable.of(copy.getVersionStampSequences());
+            final int before = copies.size();
+            copies.removeIf(earlier -> stamps.containsAll(earlier.getVersionStampSequences()));
+            dropped = before - copies.size();
+        }
+        copies.add(copy);
+        return dropped;
+    }
+
+    /**
+     * Orders change set files by the timestamp in their names, or by their last modified time if their names do not
+     * have one, and then by name.
+     */
+    static int compareByTimestamp(Path one, Path two) {
+        final String oneName = one.getFileName().toString();
+        final String twoName = two.getFileName().toString();
+        final String oneTimestamp = getTimestamp(one, oneName);
+        final String twoTimestamp = getTimestamp(two, twoName);
+        final int comparison = oneTimestamp.compareTo(twoTimestamp);
+        if (comparison != 0) {
+            return comparison;
+        }
+        return oneName.compareTo(twoName);
+    }
+
+    /**
+     * Gets the timestamp of a change set file, in the "yyyy-MM-dd_HH-mm-ss" form that sorts in time order.
+     */
+    static String getTimestamp(Path path, String name) {
+        final Matcher matcher = FILE_NAME_TIMESTAMP.matcher(name);
+        if (matcher.find()) {
+            return matcher.group();
+        }
+        return new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date(path.toFile().lastModified()));
+    }
+}
@@ -53,6 +53,7 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -70,6 +71,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.glassfish.hk2.runlevel.RunLevel;
@@ -105,6 +107,7 @@ import sh.isaac.api.component.concept.ConceptChronology;
 import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.component.semantic.version.DescriptionVersion;
 import sh.isaac.api.constants.DatabaseImplementation;
+import sh.isaac.api.constants.SystemPropertyConstants;
 import sh.isaac.api.datastore.ExtendedStore;
 import sh.isaac.api.datastore.ExtendedStoreData;
 import sh.isaac.api.externalizable.IsaacExternalizable;
@@ -251,6 +254,11 @@ public class CommitProvider
 
     private Set<Task<?>> pendingCommitTasks = ConcurrentHashMap.newKeySet();
 
+    /**
+     * Present when group commit is enabled through {@link SystemPropertyConstants#COMMIT_GROUP_WINDOW_MILLIS}.
+     */
+    private Optional<GroupCommit> groupCommit = Optional.empty();
+
     /**
      * The database validity.
      */
@@ -394,6 +402,37 @@ public class CommitProvider
         return write(transaction, sc, this.writePermitReference.get());
     }
 
+    @Override
+    public Task<Void> addUncommittedNoChecks(Transaction transaction, Collection<? extends Chronology> chronologies) {
+        final List<Chronology> unwrapped = new ArrayList<>(chronologies.size());
+        for (Chronology chronology : chronologies) {
+            if (chronology instanceof ObservableChronologyImpl) {
+                chronology = ((ObservableChronologyImpl) chronology).getWrappedChronology();
+            }
+            checkComponentInTransaction((TransactionImpl) transaction, chronology);
+            unwrapped.add(chronology);
+        }
+        final Semaphore writeSemaphore = this.writePermitReference.get();
+        writeSemaphore.acquireUninterruptibly();
+
+        try {
+            final WriteChronologyBatch task = new WriteChronologyBatch(unwrapped,
+                    writeSemaphore,
+                    this.changeListeners,
+                    (semanticOrConceptChronicle,
+                     changeCheckerActive) -> handleUncommittedNidSet(
+                            semanticOrConceptChronicle,
+                            changeCheckerActive));
+
+            this.writeCompletionService.submit(task);
+            return task;
+        } catch (Exception e) {
+            //release semaphore, if we didn't successfully submit the task
+            writeSemaphore.release();
+            throw e;
+        }
+    }
+
     /**
      * Cancel.
      *
@@ -763,6 +802,32 @@ public class CommitProvider
         });
     }
 
+    /**
+     * Notify each listener once of commits that were completed together.
+     *
+     * @param commitRecords the commit records, in commit order
+     */
+    public void handleCommitNotification(List<CommitRecord> commitRecords) {
+        this.changeListeners.forEach((listenerRef) -> {
+            final ChronologyChangeListener listener = listenerRef.get();
+
+            if (listener == null) {
+                this.changeListeners.remove(listenerRef);
+            } else {
+                listener.handleCommits(commitRecords);
+            }
+        });
+        this.commitListeners.forEach((listenerRef) -> {
+            final CommitListener listener = listenerRef.get();
+
+            if (listener == null) {
+                this.commitListeners.remove(listenerRef);
+            } else {
+                listener.handleCommits(commitRecords);
+            }
+        });
+    }
+
     /**
      * Handle change notification.
      *
@@ -966,6 +1031,10 @@ public class CommitProvider
             this.uncommittedSemanticsNoChecksNidSet.clear();
             this.pendingCommitTasks.clear();
 
+            long groupCommitWindowMillis = readGroupCommitWindowProperty();
+            this.groupCommit = groupCommitWindowMillis > 0 ? Optional.of(new GroupCommit(this, groupCommitWindowMillis)) : Optional.empty();
+            LOG.info("Group commit window: {} ms", groupCommitWindowMillis);
+
             this.writeCompletionService.start();
 
             if (dataStore == null) {
@@ -1328,6 +1397,22 @@ public class CommitProvider
         return pendingCommitTasks;
     }
 
+    Optional<GroupCommit> getGroupCommit() {
+        return groupCommit;
+    }
+
+    private static long readGroupCommitWindowProperty() {
+        String temp = System.getProperty(SystemPropertyConstants.COMMIT_GROUP_WINDOW_MILLIS);
+        if (StringUtils.isNotBlank(temp)) {
+            try {
+                return Long.parseLong(temp.trim());
+            } catch (NumberFormatException e) {
+                LOG.warn("Ignoring invalid value '{}' for system property '{}'", temp, SystemPropertyConstants.COMMIT_GROUP_WINDOW_MILLIS);
+            }
+        }
+        return 0;
+    }
+
     @Override
     public Stream<StampComment> getStampCommentStream(boolean parallel) {
         return this.stampCommentMap.getStampCommentStream(parallel);
@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.commit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sh.isaac.api.Get;
+import sh.isaac.api.commit.CommitRecord;
+import sh.isaac.api.transaction.Transaction;
+
+/**
+ * Groups the transaction commits that arrive within a short window, so they share one pass over their uncommitted
+ * stamps in the stamp service, and one notification of the commit listeners.
+ *
+ * The first commit to arrive while no group is open leads the group: it waits out the window, then finishes the
+ * stamps and notifies the listeners for every commit that joined. The other members wait for the leader. Each
+ * commit keeps its own commit time, comment and commit record, so listeners see the same records as without
+ * grouping, only delivered together through {@link sh.isaac.api.commit.CommitListener#handleCommits(List)}.
+ *
+ * Change checks are run by each commit before it joins a group, so a commit that fails its checks never holds up
+ * the others.
+ */
+class GroupCommit {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    private final CommitProvider commitProvider;
+    private final long windowMillis;
+    private final Object lock = new Object();
+    private List<Member> openGroup = new ArrayList<>();
+
+    private static class Member {
+        final TransactionCommitTask task;
+        final CompletableFuture<Optional<CommitRecord>> result = new CompletableFuture<>();
+
+        Member(TransactionCommitTask task) {
+            this.task = task;
+        }
+    }
+
+    /**
+     * @param commitProvider the provider to notify the listeners of
+     * @param windowMillis how long the leader of a group waits for other commits to join
+     */
+    GroupCommit(CommitProvider commitProvider, long windowMillis) {
+        this.commitProvider = commitProvider;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Join the open group, or lead a new one, and wait for the group to finish.
+     *
+     * @param task a commit task whose transaction has passed its change checks
+     * @return the commit record of the task, or empty if there was nothing to commit
+     * @throws Exception if the group failed to commit
+     */
+    Optional<CommitRecord> commit(TransactionCommitTask task) throws Exception {
+        Member member = new Member(task);
+        boolean leader;
+        synchronized (lock) {
+            leader = openGroup.isEmpty();
+            openGroup.add(member);
+        }
+        if (leader) {
+            boolean interrupted = false;
+            try {
+                Thread.sleep(windowMillis);
+            } catch (InterruptedException e) {
+                // Commit whoever has joined so far, rather than leave them waiting.
+                interrupted = true;
+            }
+            List<Member> group;
+            synchronized (lock) {
+                group = openGroup;
+                openGroup = new ArrayList<>();
+            }
+            try {
+                finish(group);
+            } catch (Throwable t) {
+                for (Member groupMember : group) {
+                    groupMember.result.completeExceptionally(t);
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            return member.result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void finish(List<Member> group) throws Exception {
+        List<Transaction> transactions = new ArrayList<>(group.size());
+        long[] commitTimes = new long[group.size()];
+        for (int i = 0; i < group.size(); i++) {
+            transactions.add(group.get(i).task.getTransaction());
+            commitTimes[i] = group.get(i).task.getCommitTime().toEpochMilli();
+        }
+        Get.stampService().commit(transactions, commitTimes).get();
+
+        List<CommitRecord> commitRecords = new ArrayList<>(group.size());
+        List<Optional<CommitRecord>> results = new ArrayList<>(group.size());
+        for (Member member : group) {
+            Optional<CommitRecord> commitRecord = member.task.makeCommitRecord();
+            commitRecord.ifPresent(commitRecords::add);
+            results.add(commitRecord);
+        }
+        if (!commitRecords.isEmpty()) {
+            this.commitProvider.handleCommitNotification(commitRecords);
+        }
+        LOG.debug("Group commit of {} transactions", group.size());
+        for (int i = 0; i < group.size(); i++) {
+            group.get(i).result.complete(results.get(i));
+        }
+    }
+}
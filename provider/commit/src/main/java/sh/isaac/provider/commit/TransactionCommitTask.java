@@ -76,29 +76,16 @@ public class TransactionCommitTask extends CommitTask {
             if (!this.transaction.readyToCommit(this.checkers, this.alertCollection, this)) {
                 return Optional.empty();
             }
+            Optional<GroupCommit> groupCommit = this.commitProvider.getGroupCommit();
+            if (groupCommit.isPresent()) {
+                return groupCommit.get().commit(this);
+            }
             Task<Void> stampCommitTask = Get.stampService().commit(this.transaction, commitTime.toEpochMilli());
             stampCommitTask.get();
 
-
-            if (!transaction.getStampsForTransaction().isEmpty()) {
-                if (StringUtils.isNotBlank(this.commitComment)) {
-                    transaction.getStampsForTransaction().stream().forEach((stamp) -> commitProvider.addComment(stamp, this.commitComment));
-                }
-                final CommitRecord commitRecord = new CommitRecord(commitTime,
-                        StampSequenceSet.of(transaction.getStampsForTransaction()),
-                        new OpenIntIntHashMap(),
-                        transaction.getComponentNidsForTransaction(),
-                        this.commitComment, 
-                        transaction);
-
-                this.commitProvider.handleCommitNotification(commitRecord);
-                return Optional.of(commitRecord);
-            }
-            else{
-                this.alertCollection.add(new AlertObject("nothing to commit", "Nothing was found to commit", AlertType.INFORMATION, AlertCategory.COMMIT));
-                LOG.warn("Nothing to commit in transaction {} : {}", transaction, this.commitComment);
-                return Optional.empty();
-            }
+            Optional<CommitRecord> commitRecord = makeCommitRecord();
+            commitRecord.ifPresent(this.commitProvider::handleCommitNotification);
+            return commitRecord;
         } catch (final Exception e1) {
             LOG.error("Unexpected commit failure", e1);
             throw new RuntimeException("Commit Failure of commit with message " + this.commitComment, e1);
@@ -110,6 +97,38 @@ public class TransactionCommitTask extends CommitTask {
         }
     }
 
+    /**
+     * Record the commit comment and build the commit record, once the stamps of the transaction are committed.
+     *
+     * @return the commit record, or empty if the transaction had nothing to commit
+     */
+    Optional<CommitRecord> makeCommitRecord() {
+        if (!transaction.getStampsForTransaction().isEmpty()) {
+            if (StringUtils.isNotBlank(this.commitComment)) {
+                transaction.getStampsForTransaction().stream().forEach((stamp) -> commitProvider.addComment(stamp, this.commitComment));
+            }
+            return Optional.of(new CommitRecord(commitTime,
+                    StampSequenceSet.of(transaction.getStampsForTransaction()),
+                    new OpenIntIntHashMap(),
+                    transaction.getComponentNidsForTransaction(),
+                    this.commitComment, 
+                    transaction));
+        }
+        else{
+            this.alertCollection.add(new AlertObject("nothing to commit", "Nothing was found to commit", AlertType.INFORMATION, AlertCategory.COMMIT));
+            LOG.warn("Nothing to commit in transaction {} : {}", transaction, this.commitComment);
+            return Optional.empty();
+        }
+    }
+
+    TransactionImpl getTransaction() {
+        return transaction;
+    }
+
+    Instant getCommitTime() {
+        return commitTime;
+    }
+
     /**
      * Construct a task to perform a global commit.  The task is already executed / running when this method returns.
      *
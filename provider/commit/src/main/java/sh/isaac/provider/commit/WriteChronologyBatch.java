@@ -0,0 +1,142 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.commit;
+
+//~--- JDK imports ------------------------------------------------------------
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import javafx.concurrent.Task;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sh.isaac.api.Get;
+import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.api.commit.ChronologyChangeListener;
+
+//~--- classes ----------------------------------------------------------------
+
+/**
+ * Writes a batch of uncommitted chronologies, without change checks, as one task. Bulk changes, such as the results
+ * of a classification, would otherwise make a task, and take a write permit, for every chronology.
+ *
+ * The chronologies are written one after the other on the thread of the task, so batches should be large enough to
+ * amortize the task, and small enough that several batches can be written in parallel.
+ *
+ * A change listener that throws does not stop the batch, or the other listeners, but the task fails once the batch is
+ * written, so the caller learns that its changes were not fully handled.
+ */
+public class WriteChronologyBatch
+        extends Task<Void> {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    /**
+     * The chronologies to write.
+     */
+    private final List<Chronology> chronologies;
+
+    /**
+     * The write semaphore.
+     */
+    private final Semaphore writeSemaphore;
+
+    /**
+     * The change listeners.
+     */
+    private final ConcurrentSkipListSet<WeakReference<ChronologyChangeListener>> changeListeners;
+
+    /**
+     * The uncommitted tracking.
+     */
+    private final BiConsumer<Chronology, Boolean> uncommittedTracking;
+
+    //~--- constructors --------------------------------------------------------
+    /**
+     * Instantiates a new write chronology batch.
+     *
+     * @param chronologies the chronologies to write
+     * @param writeSemaphore the write semaphore, a permit for which must be acquired before the task is submitted,
+     * and is released when the task completes
+     * @param changeListeners the change listeners
+     * @param uncommittedTracking A handle to call back to the caller to notify
+     * it that a chronology has been written. Parameter 1
+     * is the chronology, Parameter two is true to indicate that the change checker
+     * is active for this implementation.
+     */
+    public WriteChronologyBatch(Collection<? extends Chronology> chronologies,
+            Semaphore writeSemaphore,
+            ConcurrentSkipListSet<WeakReference<ChronologyChangeListener>> changeListeners,
+            BiConsumer<Chronology, Boolean> uncommittedTracking) {
+        this.chronologies = new ArrayList<>(chronologies);
+        this.writeSemaphore = writeSemaphore;
+        this.changeListeners = changeListeners;
+        this.uncommittedTracking = uncommittedTracking;
+        updateTitle("Write and notify chronology batch");
+        updateMessage("write: " + this.chronologies.size() + " chronologies");
+    }
+
+    //~--- methods -------------------------------------------------------------
+    /**
+     * Call.
+     *
+     * @return the void
+     * @throws Exception the exception, including the first exception thrown by a change listener
+     */
+    @Override
+    public Void call()
+            throws Exception {
+        final AtomicReference<Throwable> listenerFailure = new AtomicReference<>();
+        try {
+            for (int i = 0; i < this.chronologies.size(); i++) {
+                Get.identifiedObjectService().putChronologyData(this.chronologies.get(i));
+                // get any updates that may have occured during merge write...
+                final Chronology written = Get.identifiedObjectService().getChronology(this.chronologies.get(i).getNid()).get();
+                this.uncommittedTracking.accept(written, false);
+                this.changeListeners.forEach((listenerRef) -> {
+                    try {
+                        final ChronologyChangeListener listener = listenerRef.get();
+                        if (listener == null) {
+                            this.changeListeners.remove(listenerRef);
+                        } else {
+                            listener.handleChange(written);
+                        }
+                    } catch (Throwable e) {
+                        LOG.error("Change listener failed to handle " + written, e);
+                        listenerFailure.compareAndSet(null, e);
+                    }
+                });
+                updateProgress(i + 1, this.chronologies.size());
+            }
+            if (listenerFailure.get() != null) {
+                throw new IllegalStateException("Change listener failed while writing a batch of "
+                        + this.chronologies.size() + " chronologies", listenerFailure.get());
+            }
+            updateMessage("complete: " + this.chronologies.size() + " chronologies");
+            return null;
+        } finally {
+            this.writeSemaphore.release();
+        }
+    }
+}
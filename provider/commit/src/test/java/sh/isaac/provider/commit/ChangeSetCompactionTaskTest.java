@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.commit;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * The manifests of change set packs, and which packs a clone skips. The packs themselves are written and replayed
+ * in the integration tests.
+ */
+public class ChangeSetCompactionTaskTest {
+
+    private static final String PACK_NAME = ChangeSetCompactionTask.PACK_PREFIX + "2020-01-31_10-00-00_pack";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path pack(String... manifest) throws Exception {
+        Path pack = Files.write(this.temporaryFolder.getRoot().toPath().resolve(PACK_NAME + ".ibdf"), new byte[] { 1 });
+        Files.write(pack.resolveSibling(PACK_NAME + ChangeSetCompactionTask.MANIFEST_SUFFIX), Arrays.asList(manifest));
+        return pack;
+    }
+
+    private static Map<String, Boolean> processed(String... names) {
+        Map<String, Boolean> processed = new HashMap<>();
+        for (String name : names) {
+            processed.put(name, true);
+        }
+        return processed;
+    }
+
+    @Test
+    public void manifestIsReadWithoutBlankLines() throws Exception {
+        Path pack = pack("a.ibdf", "", "  b.ibdf  ", "c.ibdf");
+        assertTrue(ChangeSetCompactionTask.isPack(pack));
+        assertEquals(Arrays.asList("a.ibdf", "b.ibdf", "c.ibdf"), ChangeSetCompactionTask.readManifest(pack));
+    }
+
+    @Test
+    public void onlyPacksHaveManifests() throws Exception {
+        Path changeSet = Files.write(this.temporaryFolder.getRoot().toPath().resolve("ChangeSet-2020-01-31_10-00-00.ibdf"),
+                new byte[] { 1 });
+        Files.write(changeSet.resolveSibling("ChangeSet-2020-01-31_10-00-00" + ChangeSetCompactionTask.MANIFEST_SUFFIX),
+                Arrays.asList("a.ibdf"));
+        assertFalse(ChangeSetCompactionTask.isPack(changeSet));
+        assertEquals(Collections.emptyList(), ChangeSetCompactionTask.readManifest(changeSet));
+        assertFalse(ChangeSetCompactionTask.isPackOfProcessedFiles(changeSet, processed("a.ibdf")));
+    }
+
+    @Test
+    public void packIsSkippedOnlyWhenEveryFileInItsManifestWasProcessed() throws Exception {
+        // The files of an earlier pack that this one absorbed are in its manifest too.
+        Path pack = pack("a.ibdf", ChangeSetCompactionTask.PACK_PREFIX + "2020-01-15_10-00-00_earlier.ibdf", "b.ibdf");
+        assertTrue(ChangeSetCompactionTask.isPackOfProcessedFiles(pack,
+                processed("a.ibdf", ChangeSetCompactionTask.PACK_PREFIX + "2020-01-15_10-00-00_earlier.ibdf", "b.ibdf", "c.ibdf")));
+        assertFalse(ChangeSetCompactionTask.isPackOfProcessedFiles(pack,
+                processed("a.ibdf", "b.ibdf")));
+        assertFalse(ChangeSetCompactionTask.isPackOfProcessedFiles(pack, processed()));
+    }
+
+    @Test
+    public void packWithoutAManifestIsNotSkipped() throws Exception {
+        Path pack = pack();
+        assertFalse(ChangeSetCompactionTask.isPackOfProcessedFiles(pack, processed("a.ibdf")));
+        Files.delete(pack.resolveSibling(PACK_NAME + ChangeSetCompactionTask.MANIFEST_SUFFIX));
+        assertEquals(Collections.emptyList(), ChangeSetCompactionTask.readManifest(pack));
+        assertFalse(ChangeSetCompactionTask.isPackOfProcessedFiles(pack, processed("a.ibdf")));
+    }
+}
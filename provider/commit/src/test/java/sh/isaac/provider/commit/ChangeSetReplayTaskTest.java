@@ -0,0 +1,136 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.commit;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import sh.isaac.api.chronicle.Chronology;
+
+import static org.junit.Assert.*;
+
+/**
+ * The file order and the dropping of superseded copies of {@link ChangeSetReplayTask}.
+ */
+public class ChangeSetReplayTaskTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * A chronology that only answers its nid and stamps, which is all that {@link ChangeSetReplayTask#addCopy}
+     * looks at.
+     */
+    private static Chronology copy(int nid, int... stampSequences) {
+        return (Chronology) Proxy.newProxyInstance(Chronology.class.getClassLoader(), new Class<?>[] { Chronology.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getNid":
+                            return nid;
+                        case "getVersionStampSequences":
+                            return stampSequences.clone();
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return nid + " " + Arrays.toString(stampSequences);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private Path file(String name, long lastModified) throws Exception {
+        File file = temporaryFolder.newFile(name);
+        assertTrue(file.setLastModified(lastModified));
+        return file.toPath();
+    }
+
+    private static List<Path> sorted(Path... paths) {
+        List<Path> sorted = new ArrayList<>(Arrays.asList(paths));
+        sorted.sort(ChangeSetReplayTask::compareByTimestamp);
+        return sorted;
+    }
+
+    @Test
+    public void filesAreOrderedByTheTimestampInTheirNames() throws Exception {
+        // The modification times are the reverse of the name order, and are ignored.
+        Path first = file("2019-12-31_23-59-59_a.ibdf", 3_000_000_000_000L);
+        Path second = file("2020-01-01_00-00-00_b.ibdf", 2_000_000_000_000L);
+        Path third = file("x_2020-01-01_00-00-01.ibdf", 1_000_000_000_000L);
+        assertEquals(Arrays.asList(first, second, third), sorted(third, first, second));
+    }
+
+    @Test
+    public void filesWithTheSameTimestampAreOrderedByName() throws Exception {
+        Path first = file("2020-01-01_00-00-00_a.ibdf", 0);
+        Path second = file("2020-01-01_00-00-00_b.ibdf", 0);
+        assertEquals(Arrays.asList(first, second), sorted(second, first));
+    }
+
+    @Test
+    public void filesWithoutATimestampAreOrderedByTheirModificationTime() throws Exception {
+        long named = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").parse("2020-06-01_12-00-00").getTime();
+        Path earlier = file("z.ibdf", named - 60_000);
+        Path namedFile = file("2020-06-01_12-00-00.ibdf", 0);
+        Path later = file("a.ibdf", named + 60_000);
+        assertEquals(Arrays.asList(earlier, namedFile, later), sorted(later, namedFile, earlier));
+        assertEquals("2020-06-01_11-59-00", ChangeSetReplayTask.getTimestamp(earlier, "z.ibdf"));
+    }
+
+    @Test
+    public void aCopyWithAllTheStampsOfAnEarlierOneSupersedesIt() {
+        MutableIntObjectMap<List<Chronology>> copiesForNid = IntObjectMaps.mutable.empty();
+        Chronology first = copy(1, 10);
+        Chronology second = copy(1, 10, 11);
+        Chronology third = copy(1, 11, 10, 12);
+        assertEquals(0, ChangeSetReplayTask.addCopy(copiesForNid, first));
+        assertEquals(1, ChangeSetReplayTask.addCopy(copiesForNid, second));
+        assertEquals(Arrays.asList(second), copiesForNid.get(1));
+        assertEquals(1, ChangeSetReplayTask.addCopy(copiesForNid, third));
+        assertEquals(Arrays.asList(third), copiesForNid.get(1));
+    }
+
+    @Test
+    public void copiesWithStampsOfTheirOwnAreKeptInOrder() {
+        MutableIntObjectMap<List<Chronology>> copiesForNid = IntObjectMaps.mutable.empty();
+        Chronology first = copy(1, 10, 11);
+        // Another branch of the history, missing stamp 11, so neither supersedes the other.
+        Chronology second = copy(1, 10, 12);
+        Chronology other = copy(2, 10, 11, 12);
+        assertEquals(0, ChangeSetReplayTask.addCopy(copiesForNid, first));
+        assertEquals(0, ChangeSetReplayTask.addCopy(copiesForNid, second));
+        assertEquals(0, ChangeSetReplayTask.addCopy(copiesForNid, other));
+        assertEquals(Arrays.asList(first, second), copiesForNid.get(1));
+        assertEquals(Arrays.asList(other), copiesForNid.get(2));
+
+        // Supersedes both.
+        Chronology third = copy(1, 10, 11, 12);
+        assertEquals(2, ChangeSetReplayTask.addCopy(copiesForNid, third));
+        assertEquals(Arrays.asList(third), copiesForNid.get(1));
+    }
+}
@@ -234,6 +234,15 @@ public class DatastoreLocator implements SequenceStore, ExtendedStore, MasterDat
 		return dataStore.getChronologyVersionData(nid);
 	}
 
+	/** 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ByteArrayDataBuffer[] getChronologyVersionData(int[] nids)
+	{
+		return dataStore.getChronologyVersionData(nids);
+	}
+
 	/** 
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,41 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore;
+
+import sh.isaac.api.LookupService;
+import sh.isaac.model.collections.store.ByteArrayArrayStoreProvider;
+
+/**
+ * The on disk layout used by the {@link FileSystemDataStore} for chronology spines. The format is chosen when a
+ * datastore is created, and is recorded in the datastore properties so that an existing datastore is always
+ * reopened with the format it was written in.
+ */
+public enum ChronologyStoreFormat {
+    /** One file per spine, read and written with data streams. */
+    SPINE_FILES,
+    /** Spines packed into append only, memory mapped segment files with an offset index. */
+    MAPPED_SEGMENTS;
+
+    public ByteArrayArrayStoreProvider getStoreProvider() {
+        switch (this) {
+            case MAPPED_SEGMENTS:
+                return LookupService.getService(ByteArrayArrayStoreProvider.class, name());
+            default:
+                return LookupService.getService(ByteArrayArrayStoreProvider.class);
+        }
+    }
+}
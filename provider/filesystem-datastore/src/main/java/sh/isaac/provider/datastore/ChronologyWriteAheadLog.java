@@ -0,0 +1,307 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * An append only log of the chronology and taxonomy writes made to the {@link FileSystemDataStore} since the spines
+ * were last written to disk. Appends are buffered in memory, and written and forced to disk in batches by
+ * {@link #flush()}, so the cost of making a change durable tracks the size of the change rather than the size of the
+ * spines it lands in.
+ *
+ * The log is kept as a sequence of generation files. {@link #rotate()} starts a new generation, and returns the
+ * older ones so they can be removed once the spines that hold their records have been written.
+ *
+ * Each record is framed as an int payload length, an int CRC32 of the payload, and the payload itself. Replay stops
+ * at the first record of a generation that is truncated or fails its checksum, which is where a crash interrupted
+ * the last batch.
+ */
+public class ChronologyWriteAheadLog {
+
+    private static final Logger LOG = LogManager.getLogger();
+    public static final String LOG_PREFIX = "wal-";
+    private static final byte CHRONOLOGY_RECORD = 1;
+    /** Taxonomy records that also carried the element sequence of the concept, which isn't needed to replay them. */
+    private static final byte TAXONOMY_WITH_SEQUENCE_RECORD = 2;
+    private static final byte TAXONOMY_RECORD = 3;
+    private static final int FLUSH_THRESHOLD = 1024 * 1024;
+
+    /**
+     * Receives the records of the log during {@link #replay(ReplayHandler)}.
+     */
+    public interface ReplayHandler {
+
+        void chronology(int assemblageNid, int nid, int elementSequence, int referencedComponentNid, byte[][] data);
+
+        void taxonomy(int assemblageNid, int conceptNid, int[] data);
+    }
+
+    private final File directory;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private FileChannel channel;
+    private int generation;
+    private long bytesWritten;
+
+    public ChronologyWriteAheadLog(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Apply every record of every generation to the handler, oldest first.
+     *
+     * @return the number of records replayed
+     */
+    public int replay(ReplayHandler handler) throws IOException {
+        int recordCount = 0;
+        for (File logFile : getLogFiles()) {
+            try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(logFile)))) {
+                long remaining = logFile.length();
+                while (remaining >= 8) {
+                    int payloadLength = dis.readInt();
+                    int checksum = dis.readInt();
+                    remaining -= 8;
+                    if (payloadLength <= 0 || payloadLength > remaining) {
+                        LOG.warn("Truncated write ahead log record in " + logFile.getName());
+                        break;
+                    }
+                    byte[] payload = new byte[payloadLength];
+                    dis.readFully(payload);
+                    remaining -= payloadLength;
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != checksum) {
+                        LOG.warn("Corrupt write ahead log record in " + logFile.getName());
+                        break;
+                    }
+                    replayRecord(ByteBuffer.wrap(payload), handler);
+                    recordCount++;
+                }
+            }
+        }
+        return recordCount;
+    }
+
+    private static void replayRecord(ByteBuffer payload, ReplayHandler handler) {
+        byte recordType = payload.get();
+        int assemblageNid = payload.getInt();
+        int nid = payload.getInt();
+        switch (recordType) {
+            case CHRONOLOGY_RECORD:
+                int elementSequence = payload.getInt();
+                int referencedComponentNid = payload.getInt();
+                byte[][] data = new byte[payload.getInt()][];
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = new byte[payload.getInt()];
+                    payload.get(data[i]);
+                }
+                handler.chronology(assemblageNid, nid, elementSequence, referencedComponentNid, data);
+                break;
+            case TAXONOMY_WITH_SEQUENCE_RECORD:
+                payload.getInt();
+                // fall through
+            case TAXONOMY_RECORD:
+                int[] taxonomyData = new int[payload.getInt()];
+                for (int i = 0; i < taxonomyData.length; i++) {
+                    taxonomyData[i] = payload.getInt();
+                }
+                handler.taxonomy(assemblageNid, nid, taxonomyData);
+                break;
+            default:
+                throw new IllegalStateException("Unknown write ahead log record type: " + recordType);
+        }
+    }
+
+    /**
+     * Start a new generation following any generations already on disk.
+     */
+    public void open() throws IOException {
+        writeLock.lock();
+        try {
+            directory.mkdirs();
+            List<File> logFiles = getLogFiles();
+            this.generation = logFiles.isEmpty() ? 0 : getGeneration(logFiles.get(logFiles.size() - 1)) + 1;
+            this.channel = openGeneration(generation);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void appendChronology(int assemblageNid, int nid, int elementSequence, int referencedComponentNid, List<byte[]> dataList) {
+        int payloadLength = 21;
+        for (byte[] data : dataList) {
+            payloadLength += 4 + data.length;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+        payload.put(CHRONOLOGY_RECORD);
+        payload.putInt(assemblageNid);
+        payload.putInt(nid);
+        payload.putInt(elementSequence);
+        payload.putInt(referencedComponentNid);
+        payload.putInt(dataList.size());
+        for (byte[] data : dataList) {
+            payload.putInt(data.length);
+            payload.put(data);
+        }
+        append(payload.array());
+    }
+
+    /**
+     * Taxonomy records are keyed by concept nid, as the taxonomy spines are.
+     */
+    public void appendTaxonomy(int assemblageNid, int conceptNid, int[] taxonomyData) {
+        ByteBuffer payload = ByteBuffer.allocate(13 + (taxonomyData.length * 4));
+        payload.put(TAXONOMY_RECORD);
+        payload.putInt(assemblageNid);
+        payload.putInt(conceptNid);
+        payload.putInt(taxonomyData.length);
+        for (int value : taxonomyData) {
+            payload.putInt(value);
+        }
+        append(payload.array());
+    }
+
+    private void append(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        boolean flushNow;
+        synchronized (this) {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            header.putInt(payload.length);
+            header.putInt((int) crc.getValue());
+            pending.write(header.array(), 0, 8);
+            pending.write(payload, 0, payload.length);
+            flushNow = pending.size() > FLUSH_THRESHOLD;
+        }
+        if (flushNow) {
+            try {
+                flush();
+            } catch (IOException ex) {
+                LOG.error("Unable to flush write ahead log", ex);
+            }
+        }
+    }
+
+    /**
+     * Write the pending records to the current generation, and force them to disk.
+     */
+    public void flush() throws IOException {
+        writeLock.lock();
+        try {
+            byte[] batch;
+            synchronized (this) {
+                if (pending.size() == 0) {
+                    return;
+                }
+                batch = pending.toByteArray();
+                pending = new ByteArrayOutputStream();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(batch);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            bytesWritten += batch.length;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Flush the current generation, and start a new one.
+     *
+     * @return the log files of the generations that preceded the new one
+     */
+    public List<File> rotate() throws IOException {
+        writeLock.lock();
+        try {
+            flush();
+            List<File> previousGenerations = getLogFiles();
+            channel.close();
+            generation++;
+            channel = openGeneration(generation);
+            bytesWritten = 0;
+            return previousGenerations;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of bytes written to the log since it was last rotated.
+     */
+    public long size() {
+        writeLock.lock();
+        try {
+            return bytesWritten;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void delete(List<File> logFiles) {
+        for (File logFile : logFiles) {
+            if (!logFile.delete()) {
+                LOG.warn("Unable to delete write ahead log file: " + logFile.getAbsolutePath());
+            }
+        }
+    }
+
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (channel != null) {
+                flush();
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private FileChannel openGeneration(int generation) throws IOException {
+        File logFile = new File(directory, LOG_PREFIX + generation);
+        return FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    public List<File> getLogFiles() {
+        File[] logFiles = directory.listFiles((pathname) -> pathname.getName().startsWith(LOG_PREFIX));
+        if (logFiles == null) {
+            return new ArrayList<>();
+        }
+        Arrays.sort(logFiles, Comparator.comparingInt(ChronologyWriteAheadLog::getGeneration));
+        return new ArrayList<>(Arrays.asList(logFiles));
+    }
+
+    private static int getGeneration(File logFile) {
+        return Integer.parseInt(logFile.getName().substring(LOG_PREFIX.length()));
+    }
+}
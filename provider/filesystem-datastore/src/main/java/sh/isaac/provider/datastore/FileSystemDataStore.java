@@ -62,6 +62,7 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -71,8 +72,11 @@ import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 import jakarta.inject.Singleton;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
 import org.glassfish.hk2.api.Rank;
 import org.jvnet.hk2.annotations.Service;
 import javafx.concurrent.Task;
@@ -84,6 +88,7 @@ import sh.isaac.api.bootstrap.TermAux;
 import sh.isaac.api.chronicle.VersionType;
 import sh.isaac.api.collections.NidSet;
 import sh.isaac.api.constants.DatabaseImplementation;
+import sh.isaac.api.constants.SystemPropertyConstants;
 import sh.isaac.api.datastore.ChronologySerializeable;
 import sh.isaac.api.datastore.ExtendedStore;
 import sh.isaac.api.datastore.ExtendedStoreData;
@@ -125,6 +130,10 @@ public class FileSystemDataStore
         implements DataStoreSubService, SequenceStore, ExtendedStore {
 
     private static final Logger LOG = LogManager.getLogger();
+    private static final String CHRONOLOGY_FORMAT_PROPERTY = "chronologyStoreFormat";
+    private static final long WRITE_AHEAD_LOG_FLUSH_MILLIS = 200;
+    private static final long WRITE_AHEAD_LOG_FOLD_SIZE = 64L * 1024 * 1024;
+    private static final int TAXONOMY_LOCK_STRIPES = 256;
     private Optional<UUID> dataStoreId = Optional.empty();
 
     //~--- fields --------------------------------------------------------------
@@ -149,6 +158,12 @@ public class FileSystemDataStore
     private final Semaphore pendingSync = new Semaphore(1);
     private final SpinedNidIntMap nidToAssemblageNidMap = new SpinedNidIntMap();
     private final SpinedNidIntMap nidToElementSequenceMap = new SpinedNidIntMap();
+    private ChronologyStoreFormat chronologyStoreFormat = ChronologyStoreFormat.SPINE_FILES;
+    private ByteArrayArrayStoreProvider chronologyStoreProvider;
+    private ChronologyWriteAheadLog writeAheadLog;
+    private boolean writeAheadLogEnabled = false;
+    private ScheduledFuture<?> writeAheadLogFlusher;
+    private final Object[] taxonomyLogLocks = new Object[TAXONOMY_LOCK_STRIPES];
     private File isaacDbDirectory;
     private File componentToSemanticMapDirectory;
     private File assemblageNid_ElementSequenceToNid_MapDirectory;
@@ -170,6 +185,9 @@ public class FileSystemDataStore
 
     private FileSystemDataStore() {
         //Private for HK2 construction only
+        for (int i = 0; i < taxonomyLogLocks.length; i++) {
+            taxonomyLogLocks[i] = new Object();
+        }
     }
 
     @Override
@@ -184,10 +202,11 @@ public class FileSystemDataStore
     public void putChronologyData(ChronologySerializeable chronology) {
         try {
             int assemblageNid = chronology.getAssemblageNid();
+            int referencedComponentNid = Integer.MAX_VALUE;
  
             if (chronology instanceof SemanticChronologyImpl) {
                 SemanticChronologyImpl semanticChronology = (SemanticChronologyImpl) chronology;
-                int referencedComponentNid = semanticChronology.getReferencedComponentNid();
+                referencedComponentNid = semanticChronology.getReferencedComponentNid();
 
                 //We could optionally check and see if this chronology is already listed for this nid, but its likely cheaper to just let it merge internally
                 componentToSemanticNidsMap.add(referencedComponentNid, semanticChronology.getNid());
@@ -195,8 +214,13 @@ public class FileSystemDataStore
 
             SpinedByteArrayArrayMap spinedByteArrayArrayMap = getChronologySpinedMap(assemblageNid);
             int elementSequence = getElementSequenceForNid(chronology.getNid(), assemblageNid);
+            List<byte[]> dataList = getDataList(chronology);
 
-            spinedByteArrayArrayMap.put(elementSequence, getDataList(chronology));
+            spinedByteArrayArrayMap.put(elementSequence, dataList);
+            if (writeAheadLogEnabled) {
+                //Logged after the put, so a record in a rotated generation is always in the spines that fold it
+                writeAheadLog.appendChronology(assemblageNid, chronology.getNid(), elementSequence, referencedComponentNid, dataList);
+            }
             
             for (DataWriteListener dwl : writeListeners) {
                dwl.writeData(chronology);
@@ -229,10 +253,14 @@ public class FileSystemDataStore
         return ChronologyImpl.getDataList(chronology);
     }
 
+    /**
+     * When the write ahead log is enabled, a sync forces the log to disk, and writes the small maps, but leaves the 
+     * chronology and taxonomy spines to be written when the log is folded.
+     */
     @Override
     public Future<?> sync() {
         if (pendingSync.tryAcquire()) {
-            lastSyncTask = new SyncTask(false);
+            lastSyncTask = new SyncTask(false, !writeAheadLogEnabled);
             lastSyncFuture = Get.executor()
                     .submit(lastSyncTask);
             return lastSyncFuture;
@@ -241,6 +269,56 @@ public class FileSystemDataStore
         return lastSyncFuture;
     }
 
+    private void flushWriteAheadLog() {
+        try {
+            writeAheadLog.flush();
+            if (writeAheadLog.size() > WRITE_AHEAD_LOG_FOLD_SIZE && pendingSync.tryAcquire()) {
+                LOG.info("Folding write ahead log into spines");
+                lastSyncTask = new SyncTask(false, true);
+                lastSyncFuture = Get.executor()
+                        .submit(lastSyncTask);
+            }
+        } catch (Throwable e) {
+            LOG.error("Unexpected error flushing write ahead log", e);
+        }
+    }
+
+    private void replayWriteAheadLog() throws IOException {
+        int recordCount = writeAheadLog.replay(new ChronologyWriteAheadLog.ReplayHandler() {
+            @Override
+            public void chronology(int assemblageNid, int nid, int elementSequence, int referencedComponentNid, byte[][] data) {
+                restoreElementSequence(nid, assemblageNid, elementSequence);
+                if (referencedComponentNid != Integer.MAX_VALUE) {
+                    componentToSemanticNidsMap.add(referencedComponentNid, nid);
+                }
+                getChronologySpinedMap(assemblageNid).put(elementSequence, data);
+            }
+
+            @Override
+            public void taxonomy(int assemblageNid, int conceptNid, int[] data) {
+                getTaxonomyMap(assemblageNid).put(conceptNid, data);
+            }
+        });
+        if (recordCount > 0) {
+            LOG.info("Replayed " + recordCount + " write ahead log records");
+        }
+    }
+
+    private void restoreElementSequence(int nid, int assemblageNid, int elementSequence) {
+        if (nidToAssemblageNidMap.get(nid) == Integer.MAX_VALUE) {
+            nidToAssemblageNidMap.put(nid, assemblageNid);
+        }
+        nidToElementSequenceMap.put(nid, elementSequence);
+        getAssemblageNid_ElementSequenceToNid_Map(assemblageNid).put(elementSequence, nid);
+        getSequenceGeneratorMap().computeIfAbsent(assemblageNid, (key) -> new AtomicInteger(1))
+                .accumulateAndGet(elementSequence + 1, Math::max);
+    }
+
+    private static boolean readWriteAheadLogProperty() {
+        String temp = System.getProperty(SystemPropertyConstants.FILESYSTEM_WRITE_AHEAD_LOG);
+        return StringUtils.isNotBlank(temp) && Boolean.parseBoolean(temp.trim());
+    }
+
     private void readAssemblageToObjectTypeFile()
             throws IOException {
         if (assemblageToObjectTypeFile.exists()) {
@@ -327,11 +405,18 @@ public class FileSystemDataStore
                     this.properties.load(reader);
                 }
                 this.datastoreStartState = DataStoreStartState.EXISTING_DATASTORE;
+                //Datastores written before the format was recorded are always spine files
+                this.chronologyStoreFormat = ChronologyStoreFormat.valueOf(
+                        this.properties.getProperty(CHRONOLOGY_FORMAT_PROPERTY, ChronologyStoreFormat.SPINE_FILES.name()));
             } else {
                 this.isaacDbDirectory.mkdirs();
                 this.componentToSemanticMapDirectory.mkdirs();
                 this.datastoreStartState = DataStoreStartState.NO_DATASTORE;
+                this.chronologyStoreFormat = readChronologyStoreFormatProperty();
             }
+            this.properties.setProperty(CHRONOLOGY_FORMAT_PROPERTY, this.chronologyStoreFormat.name());
+            this.chronologyStoreProvider = this.chronologyStoreFormat.getStoreProvider();
+            LOG.info("Chronology store format: " + this.chronologyStoreFormat);
 
             //If the DBID is missing, we better be in NO_DATASTORE state.
             if (!new File(isaacDbDirectory, DATASTORE_ID_FILE).isFile()) {
@@ -365,6 +450,17 @@ public class FileSystemDataStore
             readExtendedLongMapFile();
             //extended storage is read on demand
 
+            //Replay regardless of the current mode, any records here have not yet been folded into the spines
+            this.writeAheadLog = new ChronologyWriteAheadLog(new File(isaacDbDirectory, "writeAheadLog"));
+            replayWriteAheadLog();
+            this.writeAheadLogEnabled = readWriteAheadLogProperty();
+            if (this.writeAheadLogEnabled) {
+                LOG.info("Write ahead log enabled");
+                this.writeAheadLog.open();
+                this.writeAheadLogFlusher = Get.scheduledExecutor().scheduleWithFixedDelay(this::flushWriteAheadLog,
+                        WRITE_AHEAD_LOG_FLUSH_MILLIS, WRITE_AHEAD_LOG_FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+            }
+
             // assemblage_ElementToNid_Map is lazily loaded
         } catch (IOException ex) {
             LOG.error("Error starting FileSystemDataStore", ex);
@@ -374,6 +470,25 @@ public class FileSystemDataStore
         }
     }
 
+    private static ChronologyStoreFormat readChronologyStoreFormatProperty() {
+        String temp = System.getProperty(SystemPropertyConstants.FILESYSTEM_CHRONOLOGY_FORMAT);
+        if (StringUtils.isNotBlank(temp)) {
+            try {
+                return ChronologyStoreFormat.valueOf(temp.trim());
+            } catch (IllegalArgumentException e) {
+                LOG.warn("Ignoring invalid value '{}' for system property '{}'", temp, SystemPropertyConstants.FILESYSTEM_CHRONOLOGY_FORMAT);
+            }
+        }
+        return ChronologyStoreFormat.SPINE_FILES;
+    }
+
+    /**
+     * @return the on disk format used for chronology spines by this datastore.
+     */
+    public ChronologyStoreFormat getChronologyStoreFormat() {
+        return chronologyStoreFormat;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -413,10 +528,17 @@ public class FileSystemDataStore
 
                 executor.allowCoreThreadTimeOut(true);
 
-                Task<Void> syncTask = new SyncTask(true);
+                if (writeAheadLogFlusher != null) {
+                    writeAheadLogFlusher.cancel(false);
+                    writeAheadLogFlusher = null;
+                }
+                Task<Void> syncTask = new SyncTask(true, true);
 
                 pendingSync.acquire();
                 executor.submit(syncTask).get();
+                if (writeAheadLogEnabled) {
+                    writeAheadLog.close();
+                }
                 completedUnitOfWork();
                 this.updateMessage("Clearing caches");
                 FileSystemDataStore.this.datastoreStartState = DataStoreStartState.NOT_YET_CHECKED;
@@ -435,6 +557,9 @@ public class FileSystemDataStore
                 FileSystemDataStore.this.lastSyncTask = null;
                 FileSystemDataStore.this.lastSyncFuture = null;
                 FileSystemDataStore.this.writeListeners.clear();
+                FileSystemDataStore.this.chronologyStoreProvider = null;
+                FileSystemDataStore.this.writeAheadLog = null;
+                FileSystemDataStore.this.writeAheadLogEnabled = false;
                 completedUnitOfWork();
                 return null;
             } finally {
@@ -619,6 +744,31 @@ public class FileSystemDataStore
         return Optional.of(ByteArrayDataBuffer.dataArrayToBuffer(data));
     }
 
+    @Override
+    public ByteArrayDataBuffer[] getChronologyVersionData(int[] nids) {
+        ByteArrayDataBuffer[] results = new ByteArrayDataBuffer[nids.length];
+        IntObjectHashMap<IntArrayList> positionsByAssemblage = new IntObjectHashMap<>();
+        for (int position = 0; position < nids.length; position++) {
+            OptionalInt assemblageNidOptional = ModelGet.identifierService().getAssemblageNid(nids[position]);
+            if (assemblageNidOptional.isPresent()) {
+                positionsByAssemblage.getIfAbsentPut(assemblageNidOptional.getAsInt(), IntArrayList::new).add(position);
+            }
+        }
+        positionsByAssemblage.forEachKeyValue((assemblageNid, positions) -> {
+            int[] elementSequences = new int[positions.size()];
+            for (int i = 0; i < elementSequences.length; i++) {
+                elementSequences[i] = getElementSequenceForNid(nids[positions.get(i)], assemblageNid);
+            }
+            byte[][][] data = getChronologySpinedMap(assemblageNid).getAll(elementSequences);
+            for (int i = 0; i < data.length; i++) {
+                if (data[i] != null) {
+                    results[positions.get(i)] = ByteArrayDataBuffer.dataArrayToBuffer(data[i]);
+                }
+            }
+        });
+        return results;
+    }
+
     @Override
     public int getAssemblageMemoryInUse(int assemblageNid) {
         return getChronologySpinedMap(assemblageNid).memoryInUse();
@@ -633,7 +783,7 @@ public class FileSystemDataStore
         SpinedByteArrayArrayMap spinedMap = spinedChronologyMapMap.computeIfAbsent(
                 assemblageNid,
                 (dbKey) -> {
-                    SpinedByteArrayArrayMap spinedByteArrayArrayMap = new SpinedByteArrayArrayMap(Get.service(ByteArrayArrayStoreProvider.class).get(assemblageNid));
+                    SpinedByteArrayArrayMap spinedByteArrayArrayMap = new SpinedByteArrayArrayMap(chronologyStoreProvider.get(assemblageNid));
                     return spinedByteArrayArrayMap;
                 });
 
@@ -698,7 +848,15 @@ public class FileSystemDataStore
        if (conceptNid == TermAux.SOLOR_ROOT.getNid() && Get.configurationService().isVerboseDebugEnabled()) {
            LOG.info(" root update watch");
        }
-      return getTaxonomyMap(assemblageId).accumulateAndGet(conceptNid, newData, accumulatorFunction);
+      if (!writeAheadLogEnabled) {
+         return getTaxonomyMap(assemblageId).accumulateAndGet(conceptNid, newData, accumulatorFunction);
+      }
+      //The log records the accumulated result, so the append must be ordered with the update for the same concept
+      synchronized (taxonomyLogLocks[Math.floorMod(conceptNid, TAXONOMY_LOCK_STRIPES)]) {
+         int[] result = getTaxonomyMap(assemblageId).accumulateAndGet(conceptNid, newData, accumulatorFunction);
+         writeAheadLog.appendTaxonomy(assemblageId, conceptNid, result);
+         return result;
+      }
    }
 
    /**
@@ -726,12 +884,15 @@ public class FileSystemDataStore
             extends TimedTaskWithProgressTracker<Void> {
 
         boolean shutdownSync;
+        boolean writeSpines;
         
         /**
          * Pass true, if syncing for a shutdown, false, if just syncing during normal ops
+         * Pass true for writeSpines to write the chronology and taxonomy spines, and fold the write ahead log into them.
          */
-        public SyncTask(boolean shutdownSync) {
+        public SyncTask(boolean shutdownSync, boolean writeSpines) {
             this.shutdownSync = shutdownSync;
+            this.writeSpines = writeSpines;
             updateTitle("Writing data to disk");
         }
 
@@ -752,7 +913,20 @@ public class FileSystemDataStore
                     completedUnitOfWork();
                     FileSystemDataStore.LOG.info("Skipping write secondary to BuildMode.IBDF");
                 } else {
-                    addToTotalWork(11);
+                    addToTotalWork(writeSpines ? 11 : 5);
+                    List<File> foldedLogFiles = new ArrayList<>();
+                    // The log isn't created until startup has read the stored maps, so it is null if startup failed before then.
+                    if (writeAheadLog != null) {
+                        if (writeAheadLogEnabled) {
+                            if (writeSpines) {
+                                foldedLogFiles = writeAheadLog.rotate();
+                            } else {
+                                writeAheadLog.flush();
+                            }
+                        } else if (writeSpines) {
+                            foldedLogFiles = writeAheadLog.getLogFiles();
+                        }
+                    }
                     updateMessage("Writing sequence generator map...");
                     writeSequenceGeneratorMapFile();
 
@@ -761,60 +935,61 @@ public class FileSystemDataStore
                     writeAssemblageToObjectTypeFile();
                     writeAssemblageToVersionTypeFile();
                     completedUnitOfWork();  // 2
-                    updateMessage("Writing component to semantics map...");
-
-                    if (componentToSemanticNidsMap.write(componentToSemanticMapDirectory)) {
-                        FileSystemDataStore.LOG.info("Synchronized component to semantics map changes.");
-                    }
+                    if (writeSpines) {
+                        updateMessage("Writing component to semantics map...");
 
-                    completedUnitOfWork();  // 3
-                    updateMessage("Writing chronology spines...");
-                    spinedChronologyMapMap.forEach(
-                            (assemblageNid, spinedMap) -> {
-                                File directory = SpineFileUtil.getSpineDirectory(chronologySpinesDirectory, assemblageNid);
-
-                                addInfoFile(directory, assemblageNid);
+                        if (componentToSemanticNidsMap.write(componentToSemanticMapDirectory)) {
+                            FileSystemDataStore.LOG.info("Synchronized component to semantics map changes.");
+                        }
 
-                                if (spinedMap.write()) {
-                                    String assemblageDescription = properties.getProperty(Integer.toUnsignedString(assemblageNid));
-                                    FileSystemDataStore.LOG.trace("Synchronized chronologies: " + assemblageNid
-                                            + " " + assemblageDescription + " to " + directory.getAbsolutePath());
-                                }
-                            });
-                    completedUnitOfWork();  // 4
-                    updateMessage("Writing taxonomy spines...");
-                    spinedTaxonomyMapMap.forEach(
-                            (assemblageNid, spinedMap) -> {
-                                File directory = SpineFileUtil.getSpineDirectory(taxonomyMapDirectory, assemblageNid);
-
-                                addInfoFile(directory, assemblageNid);
-
-                                if (spinedMap.write()) {
-                                    String assemblageDescription = properties.getProperty(Integer.toUnsignedString(assemblageNid));
-                                    FileSystemDataStore.LOG.info("Syncronizing taxonomies: " + assemblageNid
-                                            + " " + assemblageDescription);
-                                }
-                            });
-                    completedUnitOfWork();  // 5
-                    updateMessage("Writing component to assemblage map...");
-                    nidToAssemblageNidMap.write(nidToAssemblageNidMapDirectory);
-                    completedUnitOfWork();  // 6
-                    updateMessage("Writing component to assemblage element map...");
-                    nidToElementSequenceMap.write(nidToElementSequenceMapDirectory);
-                    completedUnitOfWork();  // 7
-
-                    // assemblage_ElementToNid_Map
-                    updateMessage("Writing assemblage element to component map...");
-
-                    for (Map.Entry<Integer, SpinedIntIntMap> entry : assemblage_ElementToNid_Map.entrySet()) {
-                        File directory = SpineFileUtil.getSpineDirectory(assemblageNid_ElementSequenceToNid_MapDirectory, entry.getKey());
-
-                        addInfoFile(directory, entry.getKey());
-                        entry.getValue()
-                                .write(directory);
+                        completedUnitOfWork();  // 3
+                        updateMessage("Writing chronology spines...");
+                        spinedChronologyMapMap.forEach(
+                                (assemblageNid, spinedMap) -> {
+                                    File directory = SpineFileUtil.getSpineDirectory(chronologySpinesDirectory, assemblageNid);
+
+                                    addInfoFile(directory, assemblageNid);
+
+                                    if (spinedMap.write()) {
+                                        String assemblageDescription = properties.getProperty(Integer.toUnsignedString(assemblageNid));
+                                        FileSystemDataStore.LOG.trace("Synchronized chronologies: " + assemblageNid
+                                                + " " + assemblageDescription + " to " + directory.getAbsolutePath());
+                                    }
+                                });
+                        completedUnitOfWork();  // 4
+                        updateMessage("Writing taxonomy spines...");
+                        spinedTaxonomyMapMap.forEach(
+                                (assemblageNid, spinedMap) -> {
+                                    File directory = SpineFileUtil.getSpineDirectory(taxonomyMapDirectory, assemblageNid);
+
+                                    addInfoFile(directory, assemblageNid);
+
+                                    if (spinedMap.write()) {
+                                        String assemblageDescription = properties.getProperty(Integer.toUnsignedString(assemblageNid));
+                                        FileSystemDataStore.LOG.info("Syncronizing taxonomies: " + assemblageNid
+                                                + " " + assemblageDescription);
+                                    }
+                                });
+                        completedUnitOfWork();  // 5
+                        updateMessage("Writing component to assemblage map...");
+                        nidToAssemblageNidMap.write(nidToAssemblageNidMapDirectory);
+                        completedUnitOfWork();  // 6
+                        updateMessage("Writing component to assemblage element map...");
+                        nidToElementSequenceMap.write(nidToElementSequenceMapDirectory);
+                        completedUnitOfWork();  // 7
+
+                        // assemblage_ElementToNid_Map
+                        updateMessage("Writing assemblage element to component map...");
+
+                        for (Map.Entry<Integer, SpinedIntIntMap> entry : assemblage_ElementToNid_Map.entrySet()) {
+                            File directory = SpineFileUtil.getSpineDirectory(assemblageNid_ElementSequenceToNid_MapDirectory, entry.getKey());
+
+                            addInfoFile(directory, entry.getKey());
+                            entry.getValue()
+                                    .write(directory);
+                        }
+                        completedUnitOfWork();  // 8
                     }
-
-                    completedUnitOfWork();  // 8
                     updateMessage("Writing properties...");
 
                     try (FileWriter writer = new FileWriter(propertiesFile, Charset.forName(StandardCharsets.UTF_8.name()))) {
@@ -840,6 +1015,9 @@ public class FileSystemDataStore
                     completedUnitOfWork();  // 11
                     
                     writeListeners.forEach(listener -> listener.sync());
+                    if (writeAheadLog != null) {
+                        writeAheadLog.delete(foldedLogFiles);
+                    }
                 }
                 updateMessage("Write complete");
                 FileSystemDataStore.LOG.info("FileSystemDataStore sync complete.");
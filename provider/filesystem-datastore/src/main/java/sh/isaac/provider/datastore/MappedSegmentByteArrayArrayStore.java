@@ -0,0 +1,369 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore;
+
+import sh.isaac.model.collections.store.ByteArrayArrayStore;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static sh.isaac.model.collections.SpineFileUtil.SPINE_PREFIX;
+
+/**
+ * A {@link ByteArrayArrayStore} that packs all spines of an assemblage into append only segment files,
+ * and locates them through a small offset index. Segments are memory mapped for reading, so paging a spine in
+ * is a bulk copy out of the page cache rather than a stream of read syscalls.
+ *
+ * A rewritten spine is appended to the current segment, and an entry pointing at the new record is appended to the
+ * index, so a later entry for a spine supersedes an earlier one. The index is rewritten whole when it holds too many
+ * superseded entries. When the superseded records outweigh the live ones, the live records are copied into fresh
+ * segments and the old segments are removed, once no reader is using them.
+ *
+ * Segment and index files carry the {@link sh.isaac.model.collections.SpineFileUtil#SPINE_PREFIX} so that
+ * {@link #sizeOnDisk()} accounts for them.
+ */
+public class MappedSegmentByteArrayArrayStore extends SpinedArrayFileStore implements ByteArrayArrayStore {
+
+    public static final String SEGMENT_PREFIX = SPINE_PREFIX + "segment-";
+    public static final String SEGMENT_INDEX_FILE = SPINE_PREFIX + "segmentIndex";
+    private static final long MAX_SEGMENT_SIZE = 256L * 1024 * 1024;
+    private static final long MIN_COMPACTION_SIZE = 16L * 1024 * 1024;
+    private static final int INDEX_MAGIC = 0x53474958;
+    private static final int INDEX_ENTRY_BYTES = 20;
+    private static final int MAX_SUPERSEDED_INDEX_ENTRIES = 4096;
+
+    private final ConcurrentHashMap<Integer, SegmentLocation> spineLocations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, MappedByteBuffer> segmentMappings = new ConcurrentHashMap<>();
+    private int currentSegment = 0;
+    private long currentSegmentSize = 0;
+    private long bytesInSegments = 0;
+    private int indexEntries = 0;
+    private boolean rewriteIndex = false;
+    /** Held to read from the segment mappings, and exclusively to remove compacted segments. */
+    private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+
+    public MappedSegmentByteArrayArrayStore(File directory) {
+        super(directory);
+        readIndex();
+    }
+
+    public MappedSegmentByteArrayArrayStore(File directory, Semaphore diskSemaphore) {
+        super(directory, diskSemaphore);
+        readIndex();
+    }
+
+    @Override
+    public Optional<AtomicReferenceArray<byte[][]>> get(int spineIndex) {
+        segmentLock.readLock().lock();
+        try {
+            SegmentLocation location = spineLocations.get(spineIndex);
+            if (location == null) {
+                return Optional.empty();
+            }
+            ByteBuffer buffer = getMapping(location).duplicate();
+            buffer.position((int) location.offset);
+            int arraySize = buffer.getInt();
+            byte[][][] spineArray = new byte[arraySize][][];
+            for (int i = 0; i < arraySize; i++) {
+                int valueSize = buffer.getInt();
+                if (valueSize != 0) {
+                    byte[][] value = new byte[valueSize][];
+                    for (int j = 0; j < valueSize; j++) {
+                        byte[] valuePart = new byte[buffer.getInt()];
+                        buffer.get(valuePart);
+                        value[j] = valuePart;
+                    }
+                    spineArray[i] = value;
+                }
+            }
+            return Optional.of(new AtomicReferenceArray<>(spineArray));
+        } catch (IOException ex) {
+            // Not empty, the spine exists, and reporting it missing would let the next write replace it.
+            throw new UncheckedIOException("Unable to read spine " + spineIndex + " in " + directory.getAbsolutePath(), ex);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(int spineIndex, AtomicReferenceArray<byte[][]> spine) {
+        diskSemaphore.acquireUninterruptibly();
+        try {
+            ByteBuffer record = encode(spine);
+            // A superseded record stays in its segment until the next compaction.
+            SegmentLocation location = append(record);
+            spineLocations.put(spineIndex, location);
+            if (rewriteIndex || indexEntries - spineLocations.size() > MAX_SUPERSEDED_INDEX_ENTRIES) {
+                writeIndex();
+            } else {
+                appendIndexEntry(spineIndex, location);
+            }
+            if (bytesInSegments > MIN_COMPACTION_SIZE && bytesInSegments > 2 * liveBytes()) {
+                compact();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to write spine " + spineIndex + " in " + directory.getAbsolutePath(), ex);
+        } finally {
+            diskSemaphore.release();
+        }
+    }
+
+    private static ByteBuffer encode(AtomicReferenceArray<byte[][]> spine) {
+        long recordSize = 4;
+        for (int i = 0; i < spine.length(); i++) {
+            recordSize += 4;
+            byte[][] value = spine.get(i);
+            if (value != null) {
+                for (byte[] valuePart : value) {
+                    recordSize += 4 + valuePart.length;
+                }
+            }
+        }
+        if (recordSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Spine record too large for a segment: " + recordSize);
+        }
+        ByteBuffer record = ByteBuffer.allocate((int) recordSize);
+        record.putInt(spine.length());
+        for (int i = 0; i < spine.length(); i++) {
+            byte[][] value = spine.get(i);
+            if (value == null) {
+                record.putInt(0);
+            } else {
+                record.putInt(value.length);
+                for (byte[] valuePart : value) {
+                    record.putInt(valuePart.length);
+                    record.put(valuePart);
+                }
+            }
+        }
+        record.flip();
+        return record;
+    }
+
+    private SegmentLocation append(ByteBuffer record) throws IOException {
+        int length = record.remaining();
+        if (currentSegmentSize > 0 && currentSegmentSize + length > MAX_SEGMENT_SIZE) {
+            currentSegment++;
+            currentSegmentSize = 0;
+        }
+        File segmentFile = new File(directory, SEGMENT_PREFIX + currentSegment);
+        try (FileChannel channel = FileChannel.open(segmentFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long offset = channel.size();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            // Make the record durable before the index refers to it.
+            channel.force(false);
+            currentSegmentSize = offset + length;
+            bytesInSegments += length;
+            return new SegmentLocation(currentSegment, offset, length);
+        }
+    }
+
+    private MappedByteBuffer getMapping(SegmentLocation location) throws IOException {
+        MappedByteBuffer mapping = segmentMappings.get(location.segment);
+        if (mapping == null || mapping.capacity() < location.offset + location.length) {
+            File segmentFile = new File(directory, SEGMENT_PREFIX + location.segment);
+            try (FileChannel channel = FileChannel.open(segmentFile.toPath(), StandardOpenOption.READ)) {
+                mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            segmentMappings.put(location.segment, mapping);
+        }
+        return mapping;
+    }
+
+    private long liveBytes() {
+        long live = 0;
+        for (SegmentLocation location : spineLocations.values()) {
+            live += location.length;
+        }
+        return live;
+    }
+
+    /**
+     * Copy the live spine records into new segments, and remove the segments that only hold superseded records.
+     * Caller must hold the disk semaphore. Readers may use the old segments until the index points at the copies.
+     */
+    private void compact() throws IOException {
+        int firstOldSegment = lowestSegment();
+        int lastOldSegment = currentSegment;
+        currentSegment++;
+        currentSegmentSize = 0;
+        bytesInSegments = 0;
+        for (Map.Entry<Integer, SegmentLocation> entry : spineLocations.entrySet()) {
+            SegmentLocation location = entry.getValue();
+            ByteBuffer record = getMapping(location).duplicate();
+            record.position((int) location.offset);
+            record.limit((int) (location.offset + location.length));
+            entry.setValue(append(record));
+        }
+        writeIndex();
+        segmentLock.writeLock().lock();
+        try {
+            for (int segment = firstOldSegment; segment <= lastOldSegment; segment++) {
+                segmentMappings.remove(segment);
+                File oldSegment = new File(directory, SEGMENT_PREFIX + segment);
+                if (oldSegment.exists() && !oldSegment.delete()) {
+                    // Mapped files may not be deletable on some platforms, unreferenced segments are removed on the next open.
+                    LOG.warn("Unable to delete compacted segment: " + oldSegment.getAbsolutePath());
+                }
+            }
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+    }
+
+    private int lowestSegment() {
+        int lowest = currentSegment;
+        for (SegmentLocation location : spineLocations.values()) {
+            lowest = Math.min(lowest, location.segment);
+        }
+        return lowest;
+    }
+
+    private void writeIndex() throws IOException {
+        File indexFile = new File(directory, SEGMENT_INDEX_FILE);
+        File tempFile = new File(directory, SEGMENT_INDEX_FILE + ".tmp");
+        int entries = 0;
+        try (FileOutputStream fos = new FileOutputStream(tempFile);
+                DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos))) {
+            dos.writeInt(INDEX_MAGIC);
+            for (Map.Entry<Integer, SegmentLocation> entry : spineLocations.entrySet()) {
+                dos.writeInt(entry.getKey());
+                dos.writeInt(entry.getValue().segment);
+                dos.writeLong(entry.getValue().offset);
+                dos.writeInt(entry.getValue().length);
+                entries++;
+            }
+            // The new index must be on disk before it replaces the old one, or a crash could leave an empty index.
+            dos.flush();
+            fos.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        indexEntries = entries;
+        rewriteIndex = false;
+    }
+
+    /**
+     * Point the index at the new record of a spine, without rewriting the entries of the other spines.
+     */
+    private void appendIndexEntry(int spineIndex, SegmentLocation location) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+        entry.putInt(spineIndex);
+        entry.putInt(location.segment);
+        entry.putLong(location.offset);
+        entry.putInt(location.length);
+        entry.flip();
+        try (FileChannel channel = FileChannel.open(new File(directory, SEGMENT_INDEX_FILE).toPath(),
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (entry.hasRemaining()) {
+                channel.write(entry);
+            }
+            channel.force(false);
+        }
+        indexEntries++;
+    }
+
+    /**
+     * Make the rename of the index durable. Not all platforms can open a directory to force it, which only
+     * costs durability of the last rename there.
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOG.debug("Unable to sync directory: " + directory.getAbsolutePath(), e);
+        }
+    }
+
+    private void readIndex() {
+        File indexFile = new File(directory, SEGMENT_INDEX_FILE);
+        if (indexFile.exists()) {
+            try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+                long remaining = indexFile.length() - 4;
+                int first = dis.readInt();
+                if (first == INDEX_MAGIC) {
+                    while (remaining >= INDEX_ENTRY_BYTES) {
+                        readIndexEntry(dis);
+                        remaining -= INDEX_ENTRY_BYTES;
+                        indexEntries++;
+                    }
+                    // A partial entry was cut off by a crash, appending after it would misalign the entries that follow.
+                    rewriteIndex = remaining != 0;
+                } else {
+                    // Written whole, with the entry count first, before entries were appended.
+                    for (int i = 0; i < first; i++) {
+                        readIndexEntry(dis);
+                    }
+                    rewriteIndex = true;
+                }
+            } catch (IOException ex) {
+                // Opening without the index would remove the segments it points into.
+                throw new UncheckedIOException("Unable to read segment index in " + directory.getAbsolutePath(), ex);
+            }
+        } else {
+            rewriteIndex = true;
+        }
+        File[] segmentFiles = directory.listFiles((pathname) -> pathname.getName().startsWith(SEGMENT_PREFIX));
+        if (segmentFiles != null) {
+            for (File segmentFile : segmentFiles) {
+                int segment = Integer.parseInt(segmentFile.getName().substring(SEGMENT_PREFIX.length()));
+                if (segment > currentSegment || segment < lowestSegment()) {
+                    // Written after the last index update, or left behind by an interrupted compaction.
+                    segmentFile.delete();
+                } else {
+                    bytesInSegments += segmentFile.length();
+                    if (segment == currentSegment) {
+                        currentSegmentSize = segmentFile.length();
+                    }
+                }
+            }
+        }
+    }
+
+    private void readIndexEntry(DataInputStream dis) throws IOException {
+        int spineIndex = dis.readInt();
+        SegmentLocation location = new SegmentLocation(dis.readInt(), dis.readLong(), dis.readInt());
+        spineLocations.put(spineIndex, location);
+        currentSegment = Math.max(currentSegment, location.segment);
+    }
+
+    private static class SegmentLocation {
+        final int segment;
+        final long offset;
+        final int length;
+
+        SegmentLocation(int segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore;
+
+import org.glassfish.hk2.api.Rank;
+import org.jvnet.hk2.annotations.Service;
+import sh.isaac.api.Get;
+import sh.isaac.model.collections.SpineFileUtil;
+import sh.isaac.model.collections.store.ByteArrayArrayStore;
+import sh.isaac.model.collections.store.ByteArrayArrayStoreProvider;
+
+import jakarta.inject.Singleton;
+import java.io.File;
+import java.nio.file.Path;
+
+/** Align this with {@link ChronologyStoreFormat#MAPPED_SEGMENTS} */
+@Service(name = "MAPPED_SEGMENTS")
+@Singleton
+@Rank(value = -10)
+public class MappedSegmentByteArrayArrayStoreProvider implements ByteArrayArrayStoreProvider {
+
+    @Override
+    public ByteArrayArrayStore get(int assemblageNid) {
+        Path folderPath = Get.configurationService().getDataStoreFolderPath();
+        MappedSegmentByteArrayArrayStore mappedSegmentStore = new MappedSegmentByteArrayArrayStore(
+                SpineFileUtil.getSpineDirectory(new File(folderPath.toFile(), "chronologies"), assemblageNid));
+        return mappedSegmentStore;
+    }
+}
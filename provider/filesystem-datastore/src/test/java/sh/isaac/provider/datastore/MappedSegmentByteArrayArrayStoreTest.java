@@ -0,0 +1,202 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Round trips, reopening and compaction of {@link MappedSegmentByteArrayArrayStore}.
+ */
+public class MappedSegmentByteArrayArrayStoreTest {
+
+    private static final int SPINE_SIZE = 16;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * A spine whose values are made from the seed, with every third element left empty.
+     */
+    private static AtomicReferenceArray<byte[][]> spine(int seed, int valueBytes) {
+        AtomicReferenceArray<byte[][]> spine = new AtomicReferenceArray<>(SPINE_SIZE);
+        for (int i = 0; i < SPINE_SIZE; i++) {
+            if (i % 3 != 0) {
+                byte[] first = new byte[valueBytes];
+                Arrays.fill(first, (byte) (seed + i));
+                spine.set(i, new byte[][] { first, new byte[] { (byte) seed, (byte) i } });
+            }
+        }
+        return spine;
+    }
+
+    private static void assertSpine(AtomicReferenceArray<byte[][]> expected, Optional<AtomicReferenceArray<byte[][]>> actual) {
+        assertTrue(actual.isPresent());
+        assertEquals(expected.length(), actual.get().length());
+        for (int i = 0; i < expected.length(); i++) {
+            byte[][] expectedValue = expected.get(i);
+            byte[][] actualValue = actual.get().get(i);
+            if (expectedValue == null) {
+                assertNull(actualValue);
+            } else {
+                assertEquals(expectedValue.length, actualValue.length);
+                for (int j = 0; j < expectedValue.length; j++) {
+                    assertArrayEquals(expectedValue[j], actualValue[j]);
+                }
+            }
+        }
+    }
+
+    private static int segmentCount(File directory) {
+        return directory.list((dir, name) -> name.startsWith(MappedSegmentByteArrayArrayStore.SEGMENT_PREFIX)).length;
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        MappedSegmentByteArrayArrayStore store = new MappedSegmentByteArrayArrayStore(temporaryFolder.getRoot());
+        assertFalse(store.get(0).isPresent());
+        for (int spineIndex = 0; spineIndex < 10; spineIndex++) {
+            store.put(spineIndex, spine(spineIndex, 100));
+        }
+        store.put(4, spine(40, 50));
+        for (int spineIndex = 0; spineIndex < 10; spineIndex++) {
+            assertSpine(spine(spineIndex == 4 ? 40 : spineIndex, spineIndex == 4 ? 50 : 100), store.get(spineIndex));
+        }
+        assertFalse(store.get(10).isPresent());
+    }
+
+    @Test
+    public void reopen() throws Exception {
+        File directory = temporaryFolder.getRoot();
+        MappedSegmentByteArrayArrayStore store = new MappedSegmentByteArrayArrayStore(directory);
+        for (int round = 0; round < 3; round++) {
+            for (int spineIndex = 0; spineIndex < 10; spineIndex++) {
+                store.put(spineIndex, spine(round * 10 + spineIndex, 100));
+            }
+        }
+
+        MappedSegmentByteArrayArrayStore reopened = new MappedSegmentByteArrayArrayStore(directory);
+        for (int spineIndex = 0; spineIndex < 10; spineIndex++) {
+            assertSpine(spine(20 + spineIndex, 100), reopened.get(spineIndex));
+        }
+        // Appends to the index of the reopened store are read by the next open.
+        reopened.put(3, spine(99, 10));
+        assertSpine(spine(99, 10), new MappedSegmentByteArrayArrayStore(directory).get(3));
+    }
+
+    @Test
+    public void reopenAfterPartialIndexEntry() throws Exception {
+        File directory = temporaryFolder.getRoot();
+        MappedSegmentByteArrayArrayStore store = new MappedSegmentByteArrayArrayStore(directory);
+        store.put(0, spine(1, 100));
+        store.put(1, spine(2, 100));
+        // As if a crash cut off the entry of a third put.
+        try (FileOutputStream fos = new FileOutputStream(new File(directory, MappedSegmentByteArrayArrayStore.SEGMENT_INDEX_FILE), true)) {
+            fos.write(new byte[] { 0, 0, 0, 2, 0, 0, 0 });
+        }
+
+        MappedSegmentByteArrayArrayStore reopened = new MappedSegmentByteArrayArrayStore(directory);
+        assertSpine(spine(1, 100), reopened.get(0));
+        assertSpine(spine(2, 100), reopened.get(1));
+        assertFalse(reopened.get(2).isPresent());
+        reopened.put(2, spine(3, 100));
+
+        MappedSegmentByteArrayArrayStore again = new MappedSegmentByteArrayArrayStore(directory);
+        assertSpine(spine(1, 100), again.get(0));
+        assertSpine(spine(2, 100), again.get(1));
+        assertSpine(spine(3, 100), again.get(2));
+    }
+
+    @Test
+    public void compaction() throws Exception {
+        File directory = temporaryFolder.getRoot();
+        MappedSegmentByteArrayArrayStore store = new MappedSegmentByteArrayArrayStore(directory);
+        store.put(0, spine(0, 64));
+        // Each rewrite supersedes about a megabyte, enough to compact more than once.
+        for (int round = 1; round <= 60; round++) {
+            store.put(1, spine(round, 64 * 1024));
+        }
+        assertSpine(spine(0, 64), store.get(0));
+        assertSpine(spine(60, 64 * 1024), store.get(1));
+        // The live records were copied to a later segment, and the superseded ones are gone.
+        assertFalse(new File(directory, MappedSegmentByteArrayArrayStore.SEGMENT_PREFIX + 0).exists());
+        assertEquals(1, segmentCount(directory));
+        assertTrue(store.sizeOnDisk() < 20 * 1024 * 1024);
+
+        MappedSegmentByteArrayArrayStore reopened = new MappedSegmentByteArrayArrayStore(directory);
+        assertSpine(spine(0, 64), reopened.get(0));
+        assertSpine(spine(60, 64 * 1024), reopened.get(1));
+    }
+
+    @Test
+    public void readsDuringCompaction() throws Exception {
+        MappedSegmentByteArrayArrayStore store = new MappedSegmentByteArrayArrayStore(temporaryFolder.getRoot());
+        store.put(0, spine(0, 1024));
+        store.put(1, spine(1, 64 * 1024));
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(executor.submit(() -> {
+                    int reads = 0;
+                    while (writing.get() || reads == 0) {
+                        assertSpine(spine(0, 1024), store.get(0));
+                        assertTrue(store.get(1).isPresent());
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+            for (int round = 2; round < 100; round++) {
+                store.put(1, spine(round, 64 * 1024));
+            }
+            writing.set(false);
+            for (Future<Integer> reader : readers) {
+                assertTrue(reader.get() > 0);
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+        assertSpine(spine(99, 64 * 1024), store.get(1));
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void unreadableSpineIsAnErrorNotMissing() throws Exception {
+        File directory = temporaryFolder.getRoot();
+        new MappedSegmentByteArrayArrayStore(directory).put(0, spine(1, 100));
+        MappedSegmentByteArrayArrayStore reopened = new MappedSegmentByteArrayArrayStore(directory);
+        assertTrue(new File(directory, MappedSegmentByteArrayArrayStore.SEGMENT_PREFIX + 0).delete());
+        reopened.get(0);
+    }
+}
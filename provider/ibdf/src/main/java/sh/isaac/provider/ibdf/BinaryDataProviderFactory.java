@@ -83,6 +83,15 @@ public class BinaryDataProviderFactory
       return new BinaryDataReaderProvider(inputStream);
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public BinaryDataReaderService getMappedReader(Path dataPath, boolean useIndexSidecar)
+            throws IOException {
+      return new MappedBinaryDataReaderProvider(dataPath, useIndexSidecar);
+   }
+
    /**
     * {@inheritDoc}
     */
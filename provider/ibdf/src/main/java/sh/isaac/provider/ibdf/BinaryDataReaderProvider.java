@@ -42,6 +42,7 @@ package sh.isaac.provider.ibdf;
 //~--- JDK imports ------------------------------------------------------------
 
 import sh.isaac.model.datastream.IsaacExternalizableUnparsed;
+import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.FileInputStream;
@@ -96,7 +97,7 @@ public class BinaryDataReaderProvider
     */
    public BinaryDataReaderProvider(Path dataPath)
             throws FileNotFoundException {
-      this.input    = new DataInputStream(new FileInputStream(dataPath.toFile()));
+      this.input    = new DataInputStream(new BufferedInputStream(new FileInputStream(dataPath.toFile())));
 
       try {
          this.streamBytes = this.input.available();
@@ -107,7 +108,7 @@ public class BinaryDataReaderProvider
    }
    public BinaryDataReaderProvider(InputStream inputStream)
             throws FileNotFoundException {
-      this.input    = new DataInputStream(inputStream);
+      this.input    = new DataInputStream(new BufferedInputStream(inputStream));
 
       try {
          this.streamBytes = this.input.available();
@@ -0,0 +1,210 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.ibdf;
+
+//~--- JDK imports ------------------------------------------------------------
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.collections.impl.list.mutable.primitive.ByteArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
+//~--- classes ----------------------------------------------------------------
+
+/**
+ * The offset and object type token of every record in an IBDF file. A record is an int length, followed by that
+ * many bytes of object data, the first of which is the {@link sh.isaac.api.externalizable.IsaacObjectType} token.
+ *
+ * The index is built by scanning the record lengths through a memory map of the file, and may be cached in a
+ * ".idx" sidecar next to the file, which is used for as long as the size and modification time of the file match.
+ */
+public class IbdfRecordIndex {
+   private static final Logger LOG = LogManager.getLogger();
+
+   private static final int SIDECAR_MAGIC = 0x49424458; // IBDX
+   private static final int SIDECAR_VERSION = 1;
+   private static final long SCAN_WINDOW_BYTES = 256L * 1024 * 1024;
+
+   private final long fileSize;
+   private final long[] offsets;
+   private final byte[] typeTokens;
+
+   //~--- constructors --------------------------------------------------------
+
+   private IbdfRecordIndex(long fileSize, long[] offsets, byte[] typeTokens) {
+      this.fileSize = fileSize;
+      this.offsets = offsets;
+      this.typeTokens = typeTokens;
+   }
+
+   //~--- methods -------------------------------------------------------------
+
+   /**
+    * Get the index of a file, from its sidecar if present and current, otherwise by scanning the file.
+    *
+    * @param dataPath the IBDF file
+    * @param useSidecar true to read a current sidecar, and to write one after a scan
+    * @return the index
+    * @throws IOException if the file cannot be read, or a record runs past the end of the file
+    */
+   public static IbdfRecordIndex get(Path dataPath, boolean useSidecar)
+            throws IOException {
+      return get(dataPath, useSidecar, SCAN_WINDOW_BYTES);
+   }
+
+   /**
+    * @param scanWindowBytes the most bytes mapped at once by a scan
+    */
+   static IbdfRecordIndex get(Path dataPath, boolean useSidecar, long scanWindowBytes)
+            throws IOException {
+      Path sidecarPath = getSidecarPath(dataPath);
+      long fileSize = Files.size(dataPath);
+      long lastModified = Files.getLastModifiedTime(dataPath).toMillis();
+
+      if (useSidecar && Files.isRegularFile(sidecarPath)) {
+         try {
+            IbdfRecordIndex index = readSidecar(sidecarPath, fileSize, lastModified);
+            if (index != null) {
+               return index;
+            }
+         } catch (IOException e) {
+            LOG.warn("Ignoring unreadable record index " + sidecarPath, e);
+         }
+      }
+
+      IbdfRecordIndex index = scan(dataPath, fileSize, scanWindowBytes);
+      if (useSidecar) {
+         try {
+            index.writeSidecar(sidecarPath, lastModified);
+         } catch (IOException e) {
+            LOG.warn("Could not write record index " + sidecarPath, e);
+         }
+      }
+      return index;
+   }
+
+   public static Path getSidecarPath(Path dataPath) {
+      return dataPath.resolveSibling(dataPath.getFileName().toString() + ".idx");
+   }
+
+   private static IbdfRecordIndex scan(Path dataPath, long fileSize, long scanWindowBytes)
+            throws IOException {
+      LongArrayList offsets = new LongArrayList();
+      ByteArrayList typeTokens = new ByteArrayList();
+
+      try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+         long windowStart = 0;
+         MappedByteBuffer window = null;
+         long offset = 0;
+
+         while (offset < fileSize) {
+            if (offset + 5 > fileSize) {
+               throw new IOException("Truncated record header at " + offset + " in " + dataPath);
+            }
+            if (window == null || offset + 5 > windowStart + window.capacity()) {
+               windowStart = offset;
+               window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(scanWindowBytes, fileSize - windowStart));
+            }
+            int positionInWindow = (int) (offset - windowStart);
+            int recordSizeInBytes = window.getInt(positionInWindow);
+            if (recordSizeInBytes < 1 || offset + 4 + recordSizeInBytes > fileSize) {
+               throw new IOException("Invalid record length " + recordSizeInBytes + " at " + offset + " in " + dataPath);
+            }
+            offsets.add(offset);
+            typeTokens.add(window.get(positionInWindow + 4));
+            offset += 4L + recordSizeInBytes;
+         }
+      }
+      LOG.info("Indexed {} records in {}", offsets.size(), dataPath);
+      return new IbdfRecordIndex(fileSize, offsets.toArray(), typeTokens.toArray());
+   }
+
+   private static IbdfRecordIndex readSidecar(Path sidecarPath, long fileSize, long lastModified)
+            throws IOException {
+      try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecarPath)))) {
+         if (input.readInt() != SIDECAR_MAGIC || input.readInt() != SIDECAR_VERSION
+               || input.readLong() != fileSize || input.readLong() != lastModified) {
+            return null;
+         }
+         int recordCount = input.readInt();
+         long[] offsets = new long[recordCount];
+         for (int i = 0; i < recordCount; i++) {
+            offsets[i] = input.readLong();
+         }
+         byte[] typeTokens = new byte[recordCount];
+         input.readFully(typeTokens);
+         return new IbdfRecordIndex(fileSize, offsets, typeTokens);
+      }
+   }
+
+   private void writeSidecar(Path sidecarPath, long lastModified)
+            throws IOException {
+      Path tempPath = sidecarPath.resolveSibling(sidecarPath.getFileName().toString() + ".tmp");
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+         output.writeInt(SIDECAR_MAGIC);
+         output.writeInt(SIDECAR_VERSION);
+         output.writeLong(this.fileSize);
+         output.writeLong(lastModified);
+         output.writeInt(this.offsets.length);
+         for (long offset: this.offsets) {
+            output.writeLong(offset);
+         }
+         output.write(this.typeTokens);
+      }
+      Files.move(tempPath, sidecarPath, StandardCopyOption.REPLACE_EXISTING);
+   }
+
+   //~--- get methods ---------------------------------------------------------
+
+   public int getRecordCount() {
+      return this.offsets.length;
+   }
+
+   /**
+    * @return the file offset of the length that starts the record
+    */
+   public long getOffset(int record) {
+      return this.offsets[record];
+   }
+
+   /**
+    * @return the number of object data bytes in the record, not counting its length
+    */
+   public int getRecordSize(int record) {
+      long end = (record + 1 < this.offsets.length) ? this.offsets[record + 1] : this.fileSize;
+      return (int) (end - this.offsets[record] - 4);
+   }
+
+   public byte getTypeToken(int record) {
+      return this.typeTokens[record];
+   }
+
+   public long getFileSize() {
+      return this.fileSize;
+   }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.ibdf;
+
+//~--- JDK imports ------------------------------------------------------------
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import sh.isaac.api.externalizable.BinaryDataReaderService;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+import sh.isaac.api.externalizable.IsaacExternalizable;
+import sh.isaac.api.externalizable.IsaacObjectType;
+import sh.isaac.api.task.TimedTaskWithProgressTracker;
+import sh.isaac.model.datastream.IsaacExternalizableUnparsed;
+
+//~--- classes ----------------------------------------------------------------
+
+/**
+ * Reads an IBDF file through memory maps, using an {@link IbdfRecordIndex} to hand out splits of the records, so
+ * the records of a parallel stream are copied out and parsed on the fork join pool, rather than on the one thread
+ * reading the file.
+ *
+ * {@link #getStream()} is in file order unless made parallel. {@link #forEachInPhases(Consumer)} passes the stamp
+ * records in file order first, and then parses the concepts and semantics in parallel.
+ */
+public class MappedBinaryDataReaderProvider
+        extends TimedTaskWithProgressTracker<Integer>
+         implements BinaryDataReaderService {
+   /** The most bytes mapped by one region. Regions start and end on record boundaries. */
+   private static final long MAX_REGION_BYTES = 1L << 30;
+
+   private final IbdfRecordIndex index;
+   private final FileChannel channel;
+   private final long[] regionStarts;
+   private final MappedByteBuffer[] regions;
+   private final AtomicInteger objects = new AtomicInteger();
+   private final CountDownLatch complete = new CountDownLatch(1);
+
+   //~--- constructors --------------------------------------------------------
+
+   /**
+    * @param dataPath the IBDF file
+    * @param useIndexSidecar true to read and write the record index from a ".idx" file next to the data
+    * @throws IOException if the file cannot be indexed or mapped
+    */
+   public MappedBinaryDataReaderProvider(Path dataPath, boolean useIndexSidecar)
+            throws IOException {
+      this.index = IbdfRecordIndex.get(dataPath, useIndexSidecar);
+      this.channel = FileChannel.open(dataPath, StandardOpenOption.READ);
+
+      List<Long> starts = new ArrayList<>();
+      List<MappedByteBuffer> mapped = new ArrayList<>();
+      int record = 0;
+      while (record < this.index.getRecordCount()) {
+         long regionStart = this.index.getOffset(record);
+         long regionEnd;
+         do {
+            regionEnd = this.index.getOffset(record) + 4 + this.index.getRecordSize(record);
+            record++;
+         } while (record < this.index.getRecordCount()
+               && this.index.getOffset(record) + 4 + this.index.getRecordSize(record) - regionStart <= MAX_REGION_BYTES);
+         starts.add(regionStart);
+         mapped.add(this.channel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionEnd - regionStart));
+      }
+      this.regionStarts = starts.stream().mapToLong(Long::longValue).toArray();
+      this.regions = mapped.toArray(new MappedByteBuffer[mapped.size()]);
+      addToTotalWork(this.index.getFileSize());
+      if (this.index.getRecordCount() == 0) {
+         done();
+         this.complete.countDown();
+      }
+   }
+
+   //~--- methods -------------------------------------------------------------
+
+   /**
+    * Close.
+    */
+   @Override
+   public void close() {
+      try {
+         this.channel.close();
+         done();
+         this.complete.countDown();
+      } catch (final IOException ex) {
+         throw new RuntimeException(ex);
+      }
+   }
+
+   /**
+    * Pass the stamp, stamp alias and stamp comment records to the action in file order, and then the concepts and
+    * semantics, parsed in parallel on the fork join pool.
+    *
+    * @param action the action, which must be thread safe
+    */
+   @Override
+   public void forEachInPhases(Consumer<? super IsaacExternalizable> action) {
+      running();
+      int[] metadataRecords = IntStream.range(0, this.index.getRecordCount())
+            .filter(record -> isMetadata(this.index.getTypeToken(record))).toArray();
+      int[] bulkRecords = IntStream.range(0, this.index.getRecordCount())
+            .filter(record -> !isMetadata(this.index.getTypeToken(record))).toArray();
+      StreamSupport.stream(new RecordSpliterator(metadataRecords, 0, metadataRecords.length), false).forEach(action);
+      StreamSupport.stream(new RecordSpliterator(bulkRecords, 0, bulkRecords.length), true).forEach(action);
+   }
+
+   private static boolean isMetadata(byte typeToken) {
+      IsaacObjectType type = IsaacObjectType.fromToken(typeToken);
+      return type == IsaacObjectType.STAMP || type == IsaacObjectType.STAMP_ALIAS || type == IsaacObjectType.STAMP_COMMENT;
+   }
+
+   private IsaacExternalizable read(int record) {
+      long offset = this.index.getOffset(record);
+      int regionIndex = Arrays.binarySearch(this.regionStarts, offset);
+      if (regionIndex < 0) {
+         regionIndex = -regionIndex - 2;
+      }
+      ByteBuffer region = this.regions[regionIndex].duplicate();
+      final byte[] objectData = new byte[this.index.getRecordSize(record)];
+      region.position((int) (offset - this.regionStarts[regionIndex]) + 4);
+      region.get(objectData);
+
+      ByteArrayDataBuffer byteArrayDataBuffer = new ByteArrayDataBuffer(objectData);
+      byteArrayDataBuffer.setExternalData(true);
+      IsaacExternalizable object = new IsaacExternalizableUnparsed(byteArrayDataBuffer).parse();
+
+      completedUnitsOfWork(4 + objectData.length);
+      if (this.objects.incrementAndGet() == this.index.getRecordCount()) {
+         done();
+         this.complete.countDown();
+      }
+      return object;
+   }
+
+   /**
+    * Call.
+    *
+    * @return the number of objects read.
+    */
+   @Override
+   protected Integer call() {
+      try {
+         this.complete.await();
+      } catch (final InterruptedException ex) {
+         throw new RuntimeException(ex);
+      }
+
+      return this.objects.get();
+   }
+
+   //~--- get methods ---------------------------------------------------------
+
+   /**
+    * Gets the stream, which is in file order unless made parallel.
+    *
+    * @return the stream
+    */
+   @Override
+   public Stream<IsaacExternalizable> getStream() {
+      running();
+      return StreamSupport.stream(new RecordSpliterator(null, 0, this.index.getRecordCount()), false);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public int getObjectCount() {
+      return this.index.getRecordCount();
+   }
+
+   //~--- inner classes -------------------------------------------------------
+
+   /**
+    * Splits a range of positions, which are either record numbers, or indexes into an array of record numbers.
+    */
+   private class RecordSpliterator implements Spliterator<IsaacExternalizable> {
+      private final int[] records;
+      private int position;
+      private final int end;
+
+      RecordSpliterator(int[] records, int position, int end) {
+         this.records = records;
+         this.position = position;
+         this.end = end;
+      }
+
+      @Override
+      public boolean tryAdvance(Consumer<? super IsaacExternalizable> action) {
+         if (this.position >= this.end) {
+            return false;
+         }
+         int record = (this.records == null) ? this.position : this.records[this.position];
+         this.position++;
+         action.accept(read(record));
+         return true;
+      }
+
+      @Override
+      public Spliterator<IsaacExternalizable> trySplit() {
+         int middle = (this.position + this.end) >>> 1;
+         if (middle <= this.position) {
+            return null;
+         }
+         RecordSpliterator prefix = new RecordSpliterator(this.records, this.position, middle);
+         this.position = middle;
+         return prefix;
+      }
+
+      @Override
+      public long estimateSize() {
+         return this.end - this.position;
+      }
+
+      @Override
+      public int characteristics() {
+         return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+      }
+   }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.ibdf;
+
+//~--- JDK imports ------------------------------------------------------------
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+//~--- classes ----------------------------------------------------------------
+
+/**
+ * Scans of {@link IbdfRecordIndex} with windows much smaller than the records, so records start and end on every
+ * side of a window boundary, and the reuse and invalidation of the ".idx" sidecar.
+ */
+public class IbdfRecordIndexTest {
+   @Rule
+   public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   /**
+    * Record i has i % 23 + 1 bytes of data, the first of which is the token, i % 7.
+    */
+   private static byte[] records(int recordCount, int tokenOffset) {
+      int fileSize = 0;
+      for (int i = 0; i < recordCount; i++) {
+         fileSize += 4 + recordSize(i);
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(fileSize);
+      for (int i = 0; i < recordCount; i++) {
+         buffer.putInt(recordSize(i));
+         buffer.put((byte) (i % 7 + tokenOffset));
+         buffer.put(new byte[recordSize(i) - 1]);
+      }
+      return buffer.array();
+   }
+
+   private static int recordSize(int record) {
+      return record % 23 + 1;
+   }
+
+   private static void assertRecords(int recordCount, int tokenOffset, IbdfRecordIndex index) {
+      assertEquals(recordCount, index.getRecordCount());
+      long offset = 0;
+      for (int i = 0; i < recordCount; i++) {
+         assertEquals("offset of " + i, offset, index.getOffset(i));
+         assertEquals("size of " + i, recordSize(i), index.getRecordSize(i));
+         assertEquals("token of " + i, (byte) (i % 7 + tokenOffset), index.getTypeToken(i));
+         offset += 4 + recordSize(i);
+      }
+      assertEquals(offset, index.getFileSize());
+   }
+
+   private Path write(byte[] data) throws IOException {
+      Path dataPath = this.temporaryFolder.getRoot().toPath().resolve("test.ibdf");
+      Files.write(dataPath, data);
+      return dataPath;
+   }
+
+   @Test
+   public void testScanAcrossWindowBoundaries() throws Exception {
+      Path dataPath = write(records(500, 0));
+      // The windows are smaller than the larger records, and split the lengths and tokens of others.
+      for (long windowBytes: new long[] { 5, 6, 8, 13, 64, 4096 }) {
+         assertRecords(500, 0, IbdfRecordIndex.get(dataPath, false, windowBytes));
+      }
+      assertFalse(Files.exists(IbdfRecordIndex.getSidecarPath(dataPath)));
+   }
+
+   @Test
+   public void testEmptyFile() throws Exception {
+      assertRecords(0, 0, IbdfRecordIndex.get(write(new byte[0]), false, 8));
+   }
+
+   @Test(expected = IOException.class)
+   public void testTruncatedRecord() throws Exception {
+      byte[] data = records(10, 0);
+      IbdfRecordIndex.get(write(Arrays.copyOf(data, data.length - 1)), false, 8);
+   }
+
+   @Test
+   public void testSidecarIsUsedWhileSizeAndModificationTimeMatch() throws Exception {
+      Path dataPath = write(records(100, 0));
+      FileTime modified = Files.getLastModifiedTime(dataPath);
+      assertRecords(100, 0, IbdfRecordIndex.get(dataPath, true, 64));
+      assertTrue(Files.exists(IbdfRecordIndex.getSidecarPath(dataPath)));
+
+      // Different tokens, with the same size and time, so only a read of the sidecar still has the old tokens.
+      Files.write(dataPath, records(100, 10));
+      Files.setLastModifiedTime(dataPath, modified);
+      assertRecords(100, 0, IbdfRecordIndex.get(dataPath, true, 64));
+      // Without the sidecar, the file is scanned.
+      assertRecords(100, 10, IbdfRecordIndex.get(dataPath, false, 64));
+   }
+
+   @Test
+   public void testSidecarIsReplacedWhenTheSizeChanges() throws Exception {
+      Path dataPath = write(records(100, 0));
+      FileTime modified = Files.getLastModifiedTime(dataPath);
+      IbdfRecordIndex.get(dataPath, true, 64);
+
+      Files.write(dataPath, records(120, 0));
+      Files.setLastModifiedTime(dataPath, modified);
+      assertRecords(120, 0, IbdfRecordIndex.get(dataPath, true, 64));
+      // The rescan was written back to the sidecar.
+      Files.write(dataPath, records(120, 10));
+      Files.setLastModifiedTime(dataPath, modified);
+      assertRecords(120, 0, IbdfRecordIndex.get(dataPath, true, 64));
+   }
+
+   @Test
+   public void testSidecarIsReplacedWhenTheModificationTimeChanges() throws Exception {
+      Path dataPath = write(records(100, 0));
+      FileTime modified = Files.getLastModifiedTime(dataPath);
+      IbdfRecordIndex.get(dataPath, true, 64);
+
+      Files.write(dataPath, records(100, 10));
+      Files.setLastModifiedTime(dataPath, FileTime.fromMillis(modified.toMillis() + 2000));
+      assertRecords(100, 10, IbdfRecordIndex.get(dataPath, true, 64));
+   }
+
+   @Test
+   public void testUnreadableSidecarIsIgnored() throws Exception {
+      Path dataPath = write(records(100, 0));
+      Files.write(IbdfRecordIndex.getSidecarPath(dataPath), new byte[] { 1, 2, 3 });
+      assertRecords(100, 0, IbdfRecordIndex.get(dataPath, true, 64));
+   }
+}
@@ -65,9 +65,11 @@ import sh.isaac.api.chronicle.VersionType;
 import sh.isaac.api.collections.NidSet;
 import sh.isaac.api.collections.UuidIntMapMapFileBased;
 import sh.isaac.api.collections.uuidnidmap.DataStoreUuidToIntMap;
+import sh.isaac.api.collections.uuidnidmap.MappedUuidToIntMap;
 import sh.isaac.api.collections.uuidnidmap.UuidToIntMap;
 import sh.isaac.api.component.concept.ConceptSpecification;
 import sh.isaac.api.constants.DatabaseImplementation;
+import sh.isaac.api.constants.SystemPropertyConstants;
 import sh.isaac.api.datastore.DataStore;
 import sh.isaac.api.datastore.ExtendedStore;
 import sh.isaac.api.externalizable.IsaacObjectType;
@@ -87,6 +89,7 @@ public class IdentifierProvider
 
     private transient DataStore store;
     private UuidToIntMap uuidIntMapMap;
+    private NidToUuidIndex nidToUuidIndex;
 
     private File uuidNidMapDirectory;
 
@@ -100,7 +103,9 @@ public class IdentifierProvider
         if (old.isPresent() && old.getAsInt() != nid) {
             throw new IllegalArgumentException("Reassignment of nid for " + uuid + " from " + old + " to " + nid);
         }
-        this.uuidIntMapMap.put(uuid, nid);
+        if (this.uuidIntMapMap.put(uuid, nid)) {
+            this.nidToUuidIndex.add(nid, uuid);
+        }
     }
 
     /**
@@ -119,19 +124,39 @@ public class IdentifierProvider
             //now supports extended APIs for performance reasons
             if (this.store.implementsExtendedStoreAPI() && Get.dataStore().getDataStoreType() != DatabaseImplementation.FILESYSTEM) {
                 uuidIntMapMap = new DataStoreUuidToIntMap((ExtendedStore) this.store);
+            } else if (useMappedUuidToIntMap()) {
+                this.uuidIntMapMap = MappedUuidToIntMap.create(uuidNidMapDirectory);
             } else {
                 this.uuidIntMapMap = UuidIntMapMapFileBased.create(uuidNidMapDirectory);
             }
+            this.nidToUuidIndex = NidToUuidIndex.open(uuidNidMapDirectory, this.uuidIntMapMap.getMaxNid() + 1);
 
             //bootstrap our nids for core metadata concepts.
             for (ConceptSpecification cs : TermAux.getAllSpecs()) {
                 assignNid(cs.getUuids());
             }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to open the nid to UUID index", e);
         } finally {
             progressTask.finished();
         }
     }
 
+    /**
+     * An existing map reopens in the format it was written in, a new one takes the format from
+     * {@link SystemPropertyConstants#UUID_NID_MAP_FORMAT}.
+     */
+    private boolean useMappedUuidToIntMap() {
+        if (MappedUuidToIntMap.existsIn(uuidNidMapDirectory)) {
+            return true;
+        }
+        if (new File(uuidNidMapDirectory, "map.params").isFile()) {
+            return false;
+        }
+        String format = System.getProperty(SystemPropertyConstants.UUID_NID_MAP_FORMAT);
+        return format != null && format.trim().equalsIgnoreCase("MAPPED");
+    }
+
     /**
      * Stop me.
      */
@@ -142,6 +167,8 @@ public class IdentifierProvider
             this.sync().get();
             uuidIntMapMap.shutdown();
             uuidIntMapMap = null;
+            nidToUuidIndex.close();
+            nidToUuidIndex = null;
             store = null;
         } catch (Throwable ex) {
             LOG.error("Unexpected error while stopping identifier provider", ex);
@@ -237,10 +264,18 @@ public class IdentifierProvider
             }
             return lastFoundNid;
         }
+        //Nids are generated in increasing order, so a nid above the max from before the call was generated by it,
+        //either for this call or for a racing assignment of the same UUID.
+        final int maxNidBefore = this.uuidIntMapMap.getMaxNid();
         final int nid = this.uuidIntMapMap.getWithGeneration(uuids[0]);
+        if (nid > maxNidBefore) {
+            this.nidToUuidIndex.add(nid, uuids[0]);
+        }
 
         for (int i = 1; i < uuids.length; i++) {
-            this.uuidIntMapMap.put(uuids[i], nid);
+            if (this.uuidIntMapMap.put(uuids[i], nid)) {
+                this.nidToUuidIndex.add(nid, uuids[i]);
+            }
         }
         return nid;
     }
@@ -284,7 +319,14 @@ public class IdentifierProvider
             return Arrays.asList(this.uuidIntMapMap.getKeysForValue(nid));
         }
 
-        //If the LRU cache doesn't have it, see if the identified object service knows about it (as that is a hashed lookup)
+        //The index has the UUIDs in the order they were assigned, and assignNid generates the nid for the primordial
+        //UUID, so this answers for any nid assigned since the index was created, without decoding a chronology.
+        final UUID[] indexed = this.nidToUuidIndex.get(nid);
+        if (indexed.length > 0) {
+            return Arrays.asList(indexed);
+        }
+
+        //Not indexed, see if the identified object service knows about it (as that is a hashed lookup)
         final Optional<? extends Chronology> optionalObj
                 = Get.identifiedObjectService().getChronology(nid);
 
@@ -292,7 +334,7 @@ public class IdentifierProvider
             return optionalObj.get().getUuidList();
         }
 
-        //Not in the datastore... do the scan lookup.
+        //Not in the datastore either... do the scan lookup.
         final UUID[] uuids = this.uuidIntMapMap.getKeysForValue(nid);
         if (uuids.length > 0) {
             return Arrays.asList(uuids);
@@ -366,7 +408,10 @@ public class IdentifierProvider
                 LOG.info("writing uuid-nid-map.");
                 if (this.uuidIntMapMap instanceof UuidIntMapMapFileBased) {
                     ((UuidIntMapMapFileBased) this.uuidIntMapMap).write();
+                } else if (this.uuidIntMapMap instanceof MappedUuidToIntMap) {
+                    ((MappedUuidToIntMap) this.uuidIntMapMap).write();
                 }
+                this.nidToUuidIndex.write();
                 //Don't sync the data store here, and we don't need to do anything if it is an extended store based storage
             } catch (IOException ex) {
                 LOG.error("error syncing identifier provider", ex);
@@ -387,6 +432,9 @@ public class IdentifierProvider
 
     @Override
     public void optimizeForOutOfOrderLoading() {
-        uuidIntMapMap.enableInverseCache();
+        //The index already answers nid to UUID lookups without a scan, for every nid it covers.
+        if (!this.nidToUuidIndex.covers(IdentifierService.FIRST_NID)) {
+            uuidIntMapMap.enableInverseCache();
+        }
     }
 }
@@ -0,0 +1,328 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.identifier;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A nid indexed reverse of the UUID to nid map, so the UUIDs of a nid can be found without scanning the shards of
+ * the UUID to nid map, and without an unbounded cache of UUID arrays.
+ *
+ * Nids are assigned densely, so the primordial UUID of each nid is kept as a pair of longs at the position of the
+ * nid, in spines of {@link #SPINE_SIZE} nids. Additional UUIDs of a nid are rare, and are kept in an overflow table.
+ * The pairs are written to a file alongside the UUID to nid map, which is memory mapped at startup rather than read
+ * onto the heap. Only the spines written since startup are held on the heap.
+ *
+ * The index only covers nids assigned after it was created, so opening it over a database that predates it records
+ * the first nid it can answer for. Lookups of earlier nids return nothing, and the caller falls back to the scan.
+ */
+class NidToUuidIndex {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    private static final int SPINE_SIZE = 1024;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 16;
+    private static final UUID[] NO_UUIDS = new UUID[0];
+
+    private final File indexFile;
+    private final File overflowFile;
+
+    /** The nid at position 0 of the index. */
+    private final int firstIndexedNid;
+
+    /** The entries in the file at startup, or null if there were none. */
+    private final MappedByteBuffer mapped;
+    private final int mappedEntries;
+    private final FileChannel channel;
+
+    private final ConcurrentHashMap<Integer, AtomicLongArray> spines = new ConcurrentHashMap<>();
+    private final Set<Integer> unwrittenSpines = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Integer, UUID[]> overflow = new ConcurrentHashMap<>();
+    private volatile boolean overflowUnwritten = false;
+
+    private NidToUuidIndex(File indexFile, File overflowFile, int firstIndexedNid, FileChannel channel, MappedByteBuffer mapped,
+            int mappedEntries) {
+        this.indexFile = indexFile;
+        this.overflowFile = overflowFile;
+        this.firstIndexedNid = firstIndexedNid;
+        this.channel = channel;
+        this.mapped = mapped;
+        this.mappedEntries = mappedEntries;
+    }
+
+    /**
+     * Open the index in the folder, creating it if it doesn't exist.
+     *
+     * @param folder the folder of the UUID to nid map
+     * @param nextNid the nid that will be assigned next, which is the first nid a new index can answer for
+     * @return the index
+     * @throws IOException if the index can't be read
+     */
+    static NidToUuidIndex open(File folder, int nextNid) throws IOException {
+        folder.mkdirs();
+        File indexFile = new File(folder, "nid-uuid.index");
+        File overflowFile = new File(folder, "nid-uuid-overflow.index");
+        boolean exists = indexFile.isFile() && indexFile.length() >= HEADER_BYTES;
+        FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (!exists) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(FORMAT_VERSION).putInt(nextNid).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            LOG.info("Created nid to UUID index starting at nid {}", nextNid);
+            return new NidToUuidIndex(indexFile, overflowFile, nextNid, channel, null, 0);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        header.flip();
+        int version = header.getInt();
+        if (version != FORMAT_VERSION) {
+            channel.close();
+            throw new IOException("Unsupported nid to UUID index version " + version + " in " + indexFile);
+        }
+        int firstIndexedNid = header.getInt();
+        // A mapping is limited to 2GB. Nids past that are still written, but are read as misses until a later version
+        // maps the file in pieces.
+        int mappedEntries = (int) Math.min((channel.size() - HEADER_BYTES) / ENTRY_BYTES, Integer.MAX_VALUE / ENTRY_BYTES);
+        MappedByteBuffer mapped = mappedEntries == 0 ? null
+                : channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, (long) mappedEntries * ENTRY_BYTES);
+
+        NidToUuidIndex index = new NidToUuidIndex(indexFile, overflowFile, firstIndexedNid, channel, mapped, mappedEntries);
+        if (overflowFile.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(overflowFile)))) {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    int nid = in.readInt();
+                    UUID[] uuids = new UUID[in.readInt()];
+                    for (int j = 0; j < uuids.length; j++) {
+                        uuids[j] = new UUID(in.readLong(), in.readLong());
+                    }
+                    index.overflow.put(nid, uuids);
+                }
+            }
+        }
+        LOG.info("Opened nid to UUID index with {} nids from nid {}, and {} nids with additional UUIDs", mappedEntries, firstIndexedNid,
+                index.overflow.size());
+        return index;
+    }
+
+    /**
+     * @return the position of the nid in the index, or -1 if the index doesn't cover it
+     */
+    private long positionOf(int nid) {
+        long position = (long) nid - this.firstIndexedNid;
+        return position < 0 || position >= Integer.MAX_VALUE ? -1 : position;
+    }
+
+    /**
+     * @param nid a nid
+     * @return true if UUIDs recorded for the nid are kept by this index
+     */
+    boolean covers(int nid) {
+        return positionOf(nid) >= 0;
+    }
+
+    /**
+     * Record a UUID of a nid. The first UUID recorded for a nid is its primordial UUID.
+     *
+     * @param nid the nid
+     * @param uuid the UUID
+     */
+    void add(int nid, UUID uuid) {
+        long position = positionOf(nid);
+        if (position < 0) {
+            return;
+        }
+        int spineIndex = (int) (position / SPINE_SIZE);
+        int offset = (int) (position % SPINE_SIZE) * 2;
+        AtomicLongArray spine = this.spines.computeIfAbsent(spineIndex, this::loadSpine);
+        synchronized (spine) {
+            long msb = spine.get(offset);
+            long lsb = spine.get(offset + 1);
+            if (msb == 0 && lsb == 0) {
+                // Readers check the most significant bits first, so write them last.
+                spine.set(offset + 1, uuid.getLeastSignificantBits());
+                spine.set(offset, uuid.getMostSignificantBits());
+                this.unwrittenSpines.add(spineIndex);
+                return;
+            }
+            if (msb == uuid.getMostSignificantBits() && lsb == uuid.getLeastSignificantBits()) {
+                return;
+            }
+        }
+        this.overflow.compute(nid, (key, uuids) -> {
+            if (uuids == null) {
+                return new UUID[] { uuid };
+            }
+            for (UUID existing : uuids) {
+                if (existing.equals(uuid)) {
+                    return uuids;
+                }
+            }
+            UUID[] newUuids = Arrays.copyOf(uuids, uuids.length + 1);
+            newUuids[uuids.length] = uuid;
+            return newUuids;
+        });
+        this.overflowUnwritten = true;
+    }
+
+    /**
+     * A spine is created on the first write to it. If part of it was written before startup, start from that.
+     */
+    private AtomicLongArray loadSpine(int spineIndex) {
+        AtomicLongArray spine = new AtomicLongArray(SPINE_SIZE * 2);
+        ByteBuffer buffer = ByteBuffer.allocate(SPINE_SIZE * ENTRY_BYTES);
+        long filePosition = HEADER_BYTES + ((long) spineIndex * SPINE_SIZE * ENTRY_BYTES);
+        try {
+            while (buffer.hasRemaining()) {
+                int read = this.channel.read(buffer, filePosition + buffer.position());
+                if (read < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read spine " + spineIndex + " of " + this.indexFile, e);
+        }
+        buffer.flip();
+        for (int i = 0; buffer.remaining() >= 8; i++) {
+            spine.set(i, buffer.getLong());
+        }
+        return spine;
+    }
+
+    /**
+     * @param nid the nid
+     * @return the UUIDs of the nid, primordial first, or an empty array if the index has none for the nid
+     */
+    UUID[] get(int nid) {
+        long position = positionOf(nid);
+        if (position < 0) {
+            return NO_UUIDS;
+        }
+        long msb;
+        long lsb;
+        AtomicLongArray spine = this.spines.get((int) (position / SPINE_SIZE));
+        if (spine != null) {
+            int offset = (int) (position % SPINE_SIZE) * 2;
+            do {
+                // Retry if a write to the empty entry landed between the two reads.
+                msb = spine.get(offset);
+                lsb = spine.get(offset + 1);
+            } while (msb != spine.get(offset));
+        } else if (position < this.mappedEntries) {
+            int byteOffset = (int) (position * ENTRY_BYTES);
+            msb = this.mapped.getLong(byteOffset);
+            lsb = this.mapped.getLong(byteOffset + 8);
+        } else {
+            return NO_UUIDS;
+        }
+        if (msb == 0 && lsb == 0) {
+            return NO_UUIDS;
+        }
+        UUID primordial = new UUID(msb, lsb);
+        UUID[] additional = this.overflow.get(nid);
+        if (additional == null) {
+            return new UUID[] { primordial };
+        }
+        UUID[] uuids = new UUID[additional.length + 1];
+        uuids[0] = primordial;
+        System.arraycopy(additional, 0, uuids, 1, additional.length);
+        return uuids;
+    }
+
+    /**
+     * Write the spines and overflow entries added since the last write.
+     *
+     * @throws IOException if the write fails
+     */
+    synchronized void write() throws IOException {
+        for (Integer spineIndex : this.unwrittenSpines.toArray(new Integer[0])) {
+            this.unwrittenSpines.remove(spineIndex);
+            AtomicLongArray spine = this.spines.get(spineIndex);
+            ByteBuffer buffer = ByteBuffer.allocate(SPINE_SIZE * ENTRY_BYTES);
+            synchronized (spine) {
+                for (int i = 0; i < spine.length(); i++) {
+                    buffer.putLong(spine.get(i));
+                }
+            }
+            buffer.flip();
+            long filePosition = HEADER_BYTES + ((long) spineIndex * SPINE_SIZE * ENTRY_BYTES);
+            while (buffer.hasRemaining()) {
+                filePosition += this.channel.write(buffer, filePosition);
+            }
+        }
+        this.channel.force(false);
+
+        if (this.overflowUnwritten) {
+            this.overflowUnwritten = false;
+            File tempFile = new File(this.overflowFile.getParentFile(), this.overflowFile.getName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                Map<Integer, UUID[]> snapshot = new ConcurrentHashMap<>(this.overflow);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<Integer, UUID[]> entry : snapshot.entrySet()) {
+                    out.writeInt(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    for (UUID uuid : entry.getValue()) {
+                        out.writeLong(uuid.getMostSignificantBits());
+                        out.writeLong(uuid.getLeastSignificantBits());
+                    }
+                }
+            }
+            Files.move(tempFile.toPath(), this.overflowFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Release the file. The index can't be used after this.
+     *
+     * @throws IOException if the file can't be closed
+     */
+    void close() throws IOException {
+        this.channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "NidToUuidIndex{" + this.indexFile + ", from nid " + this.firstIndexedNid + ", " + this.mappedEntries + " mapped, "
+                + this.spines.size() + " spines on heap}";
+    }
+}
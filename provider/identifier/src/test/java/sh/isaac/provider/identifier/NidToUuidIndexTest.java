@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.identifier;
+
+import java.io.File;
+import java.util.UUID;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the order in which {@link NidToUuidIndex} returns the UUIDs of a nid, before and after a reopen.
+ */
+public class NidToUuidIndexTest {
+
+    private static final int FIRST_NID = Integer.MIN_VALUE + 1;
+
+    private static final UUID PRIMORDIAL = UUID.fromString("8a6a3f52-6c1a-4f0c-9d3e-6b7f1c2e4a01");
+    private static final UUID ADDITIONAL_1 = UUID.fromString("8a6a3f52-6c1a-4f0c-9d3e-6b7f1c2e4a02");
+    private static final UUID ADDITIONAL_2 = UUID.fromString("8a6a3f52-6c1a-4f0c-9d3e-6b7f1c2e4a03");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void primordialFirstThenAdditionalInOrder() throws Exception {
+        NidToUuidIndex index = NidToUuidIndex.open(temporaryFolder.getRoot(), FIRST_NID);
+        index.add(FIRST_NID, PRIMORDIAL);
+        index.add(FIRST_NID, ADDITIONAL_1);
+        index.add(FIRST_NID, ADDITIONAL_2);
+        // Adding a UUID the nid already has changes nothing.
+        index.add(FIRST_NID, PRIMORDIAL);
+        index.add(FIRST_NID, ADDITIONAL_1);
+
+        assertArrayEquals(new UUID[] { PRIMORDIAL, ADDITIONAL_1, ADDITIONAL_2 }, index.get(FIRST_NID));
+        assertArrayEquals(new UUID[0], index.get(FIRST_NID + 1));
+        index.close();
+    }
+
+    @Test
+    public void firstRegisteredIsReportedAsPrimordial() throws Exception {
+        // The index can't tell which UUID the chronology will call primordial, only which was registered first, so
+        // the identifier provider asks the chronology before the index.
+        NidToUuidIndex index = NidToUuidIndex.open(temporaryFolder.getRoot(), FIRST_NID);
+        index.add(FIRST_NID, ADDITIONAL_1);
+        index.add(FIRST_NID, PRIMORDIAL);
+
+        assertArrayEquals(new UUID[] { ADDITIONAL_1, PRIMORDIAL }, index.get(FIRST_NID));
+        index.close();
+    }
+
+    @Test
+    public void orderIsKeptAcrossReopen() throws Exception {
+        File folder = temporaryFolder.getRoot();
+        NidToUuidIndex index = NidToUuidIndex.open(folder, FIRST_NID);
+        index.add(FIRST_NID, PRIMORDIAL);
+        index.add(FIRST_NID, ADDITIONAL_1);
+        // A nid in a later spine.
+        index.add(FIRST_NID + 5000, ADDITIONAL_2);
+        index.write();
+        index.close();
+
+        NidToUuidIndex reopened = NidToUuidIndex.open(folder, FIRST_NID + 10000);
+        assertArrayEquals(new UUID[] { PRIMORDIAL, ADDITIONAL_1 }, reopened.get(FIRST_NID));
+        assertArrayEquals(new UUID[] { ADDITIONAL_2 }, reopened.get(FIRST_NID + 5000));
+
+        // An additional UUID added after the reopen goes after those already written.
+        reopened.add(FIRST_NID, ADDITIONAL_2);
+        assertArrayEquals(new UUID[] { PRIMORDIAL, ADDITIONAL_1, ADDITIONAL_2 }, reopened.get(FIRST_NID));
+        reopened.close();
+    }
+
+    @Test
+    public void nidsBeforeTheIndexAreNotCovered() throws Exception {
+        NidToUuidIndex index = NidToUuidIndex.open(temporaryFolder.getRoot(), FIRST_NID + 100);
+        assertFalse(index.covers(FIRST_NID));
+        assertTrue(index.covers(FIRST_NID + 100));
+
+        index.add(FIRST_NID, PRIMORDIAL);
+        assertArrayEquals(new UUID[0], index.get(FIRST_NID));
+        index.close();
+    }
+}
@@ -47,6 +47,7 @@ package sh.isaac.provider.logic.csiro.axioms;
 //~--- JDK imports ------------------------------------------------------------
 
 import java.util.Calendar;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -83,7 +84,7 @@ import sh.isaac.model.logic.node.internal.RoleNodeSomeWithNids;
 public class GraphToAxiomTranslator {
    private static final Logger LOG = LogManager.getLogger();
    /** The axioms. */
-   Set<Axiom> axioms = new ConcurrentSkipListSet<>();
+   Set<Axiom> axioms = ConcurrentHashMap.newKeySet();
 
    /** The nid logic concept map. */
    IntObjectMap<Concept> nidLogicConceptMap;
@@ -102,6 +103,46 @@ public class GraphToAxiomTranslator {
       nidLogicConceptMap = ModelGet.dataStore().implementsSequenceStore() ? new SpinedIntObjectMap<>() : new IntObjectMapImpl<>();
    }
 
+   /**
+    * Instantiates a partial translator, which shares the concepts, roles and features of the translator, with its
+    * own unsynchronized set of axioms.
+    *
+    * @param shared the translator to share the concepts, roles and features of
+    */
+   private GraphToAxiomTranslator(GraphToAxiomTranslator shared) {
+      this.axioms = new HashSet<>();
+      this.nidLogicConceptMap = shared.nidLogicConceptMap;
+      this.nidLogicRoleMap = shared.nidLogicRoleMap;
+      this.nidLogicFeatureMap = shared.nidLogicFeatureMap;
+   }
+
+   /**
+    * Creates a translator for one thread of a parallel translation. The partial translator shares the concepts,
+    * roles and features of this translator, which are safe to create concurrently, but collects its axioms in its own
+    * set, so threads don't contend on one set. Must only be used by one thread at a time; partial translators are
+    * merged with {@link #addAll(GraphToAxiomTranslator)}, as supplier, accumulator and combiner of
+    * {@link java.util.stream.Stream#collect(java.util.function.Supplier, java.util.function.BiConsumer, java.util.function.BiConsumer)}.
+    *
+    * @return the partial translator
+    */
+   public GraphToAxiomTranslator newPartialTranslator() {
+      return new GraphToAxiomTranslator(this);
+   }
+
+   /**
+    * Adds the axioms and loaded concepts of a partial translator to this translator.
+    *
+    * @param partialTranslator the partial translator
+    */
+   public void addAll(GraphToAxiomTranslator partialTranslator) {
+      if (this.axioms instanceof HashSet) {
+         this.axioms.addAll(partialTranslator.axioms);
+      } else {
+         partialTranslator.axioms.parallelStream().forEach(this.axioms::add);
+      }
+      this.loadedConceptNids.addAll(partialTranslator.loadedConceptNids);
+   }
+
    /**
     * Clear.
     */
@@ -131,6 +172,34 @@ public class GraphToAxiomTranslator {
       generateAxioms(logicGraph.getRoot(), logicGraphSemantic.getReferencedComponentNid(), logicGraph);
    }
 
+   /**
+    * Translates the logicGraphSemantic into a set of axioms, without adding them to the internal set of axioms, so
+    * the axioms of two versions of a graph can be compared. The concepts, roles and features of the translator are
+    * reused. Not safe to call concurrently with the other conversion methods.
+    *
+    * @param logicGraphSemantic the logic graph semantic
+    * @return the axioms of the graph
+    */
+   public synchronized Set<Axiom> convertToAxioms(LogicGraphVersion logicGraphSemantic) {
+      final Set<Axiom> internalAxioms = this.axioms;
+      this.axioms = new HashSet<>();
+      try {
+         convertToAxiomsAndAdd(logicGraphSemantic);
+         return this.axioms;
+      } finally {
+         this.axioms = internalAxioms;
+      }
+   }
+
+   /**
+    * Clear the axioms and loaded concepts, keeping the concepts, roles and features already created, for a translator
+    * that outlives one classification.
+    */
+   public void clearAxioms() {
+      this.axioms.clear();
+      this.loadedConceptNids.clear();
+   }
+
    /**
     * To string.
     *
@@ -519,9 +588,9 @@ public class GraphToAxiomTranslator {
       if (optionalConcept.isPresent()) {
          return optionalConcept.get();
       }
-      Concept concept = Factory.createNamedConcept(Integer.toString(name));
-      this.nidLogicConceptMap.put(name, concept);
-      return concept;
+      // Partial translators may create the concept concurrently, keep the first one created.
+      return this.nidLogicConceptMap.accumulateAndGet(name, Factory.createNamedConcept(Integer.toString(name)),
+            (existing, created) -> (existing != null) ? existing : created);
    }
 
    /**
@@ -45,10 +45,13 @@ package sh.isaac.provider.logic.csiro.classify;
  * @author kec
  */
 public enum ClassificationType {
-   /** The complete. */
+   /** Load every active stated definition into a new reasoner. */
    COMPLETE,
 
-   /** The incremental. */
+   /**
+    * Add the axioms of the stated definitions changed since the last classification to its reasoner. Falls back
+    * to {@link #COMPLETE} when there is no last classification, or the changes remove axioms.
+    */
    INCREMENTAL;
 }
 
@@ -39,11 +39,11 @@ package sh.isaac.provider.logic.csiro.classify;
 import au.csiro.ontology.Node;
 import au.csiro.ontology.Ontology;
 import au.csiro.ontology.classification.IReasoner;
+import au.csiro.ontology.model.Axiom;
 import au.csiro.snorocket.core.SnorocketReasoner;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import sh.isaac.api.Get;
-import sh.isaac.api.chronicle.LatestVersion;
 import sh.isaac.api.commit.ChronologyChangeListener;
 import sh.isaac.api.commit.CommitRecord;
 import sh.isaac.api.component.concept.ConceptChronology;
@@ -64,6 +64,12 @@ import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The Class ClassifierData.
+ * 
+ * Holds the reasoner between classifications, so a classification of type {@link ClassificationType#INCREMENTAL}
+ * only has to load the axioms added since the last classification with the same coordinate. The stated logic
+ * graphs and concepts written since then are collected by listening for changes, and sorted out by
+ * {@link sh.isaac.provider.logic.csiro.classify.tasks.ExtractAxioms}, which falls back to a complete
+ * classification when a change removes axioms, as the reasoner can only add them.
  *
  * @author kec
  */
@@ -86,9 +92,9 @@ public class ClassifierData
     private final UUID listenerUuid = UUID.randomUUID();
 
     /**
-     * The incremental allowed.
+     * True once the reasoner holds a classification that later axioms can be added to.
      */
-    private boolean incrementalAllowed = false;
+    private volatile boolean incrementalAllowed = false;
 
     /**
      * The all graphs to axiom translator.
@@ -96,19 +102,36 @@ public class ClassifierData
     GraphToAxiomTranslator allGraphsToAxiomTranslator = new GraphToAxiomTranslator();
 
     /**
-     * The incremental to axiom translator.
+     * Translates the changed graphs of incremental classifications. Kept between classifications, so the concepts,
+     * roles and features it creates are reused.
      */
     GraphToAxiomTranslator incrementalToAxiomTranslator = new GraphToAxiomTranslator();
 
+    /**
+     * The axioms to add to the reasoner in this incremental classification.
+     */
+    private final Set<Axiom> incrementalAxioms = new ConcurrentSkipListSet<>();
+
+    /**
+     * The concepts whose definitions changed in this incremental classification.
+     */
+    private final Set<Integer> incrementalConcepts = new ConcurrentSkipListSet<>();
+
+    /**
+     * The stated logic graph semantics and concepts written since they were last extracted.
+     */
+    private final Set<Integer> changedSemanticNids = new ConcurrentSkipListSet<>();
+    private final Set<Integer> changedConceptNids = new ConcurrentSkipListSet<>();
+
     /**
      * The reasoner.
      */
     IReasoner reasoner = new SnorocketReasoner();
 
     /**
-     * The loaded concepts.
+     * The concepts with a definition in the reasoner.
      */
-    Set<Integer> loadedConcepts;
+    Set<Integer> loadedConcepts = new ConcurrentSkipListSet<>();
 
     /**
      * The last classify instant.
@@ -118,39 +141,64 @@ public class ClassifierData
     /**
      * The last classify type.
      */
-//    ClassificationType lastClassifyType;
+    ClassificationType lastClassifyType;
 
+    /**
+     * The coordinate of the current classification, positioned at its classify time.
+     */
     ManifoldCoordinateImmutable manifoldCoordinate;
 
+    /**
+     * The coordinate without its position, so classifications at different times share the reasoner.
+     */
+    private final ManifoldCoordinateImmutable unpositionedCoordinate;
+
     private ClassifierData(ManifoldCoordinate manifoldCoordinate) {
         this.manifoldCoordinate = manifoldCoordinate.toManifoldCoordinateImmutable();
+        this.unpositionedCoordinate = unpositioned(manifoldCoordinate);
+    }
+
+    private static ManifoldCoordinateImmutable unpositioned(ManifoldCoordinate manifoldCoordinate) {
+        return manifoldCoordinate.toManifoldCoordinateImmutable().makeCoordinateAnalog(Long.MAX_VALUE);
     }
 
     //~--- methods -------------------------------------------------------------
+
+    /**
+     * Start a complete classification: discard the reasoner, and the axioms of any earlier classification.
+     */
+    public void startCompleteClassification() {
+        this.lastClassifyType = ClassificationType.COMPLETE;
+        this.incrementalAllowed = false;
+        this.reasoner = new SnorocketReasoner();
+        this.loadedConcepts = new ConcurrentSkipListSet<>();
+        clearAxioms();
+    }
+
+    /**
+     * Start an incremental classification, which adds to the classification already in the reasoner.
+     */
+    public void startIncrementalClassification() {
+        if (!this.incrementalAllowed) {
+            throw new IllegalStateException("No classification to add to");
+        }
+        this.lastClassifyType = ClassificationType.INCREMENTAL;
+        this.incrementalAxioms.clear();
+        this.incrementalConcepts.clear();
+        this.incrementalToAxiomTranslator.clearAxioms();
+    }
+
     /**
      * Classify.
      *
      * @return the i reasoner
      */
     public IReasoner classify() {
-        this.loadedConcepts = 
-                new ConcurrentSkipListSet<>(this.allGraphsToAxiomTranslator.getLoadedConcepts());
         this.allGraphsToAxiomTranslator.clear();
-        this.lastClassifyInstant = Instant.now();
-
-//        if (this.lastClassifyType == null) {
-//            this.lastClassifyType = ClassificationType.COMPLETE;
-//            this.incrementalAllowed = true;
-//        } else {
-//            if (this.incrementalAllowed) {
-//                this.lastClassifyType = ClassificationType.INCREMENTAL;
-//                this.incrementalToAxiomTranslator.clear();
-//            } else {
-//                this.lastClassifyType = ClassificationType.COMPLETE;
-//            }
-//        }
-
-        return this.reasoner.classify();
+        this.lastClassifyInstant = this.manifoldCoordinate.getViewStampFilter().getTimeAsInstant();
+        IReasoner result = this.reasoner.classify();
+        this.incrementalAllowed = true;
+        return result;
     }
 
     /**
@@ -159,6 +207,8 @@ public class ClassifierData
     public void clearAxioms() {
         this.allGraphsToAxiomTranslator.clear();
         this.incrementalToAxiomTranslator.clear();
+        this.incrementalAxioms.clear();
+        this.incrementalConcepts.clear();
     }
 
     /**
@@ -168,7 +218,8 @@ public class ClassifierData
      */
     @Override
     public void handleChange(ConceptChronology cc) {
-        // Nothing to do... Only concerned about changes to logic graph.
+        // A retired concept must be removed from the classification, a reactivated one added.
+        this.changedConceptNids.add(cc.getNid());
     }
 
     /**
@@ -179,51 +230,8 @@ public class ClassifierData
     @Override
     public void handleChange(SemanticChronology sc) {
         if (sc.getAssemblageNid() == this.manifoldCoordinate.getLogicCoordinate().getStatedAssemblageNid()) {
-            LOG.info("Stated form change on: {}" + sc.getNid());  //DO NOT call toString on the chronology here, in a builder pattern, descriptions may not be built yet.
-
-            // only process if incremental is a possibility.
-//            if (this.incrementalAllowed) {
-//                final LatestVersion<LogicGraphVersionImpl> optionalLatest
-//                        = sc.getLatestVersion(this.manifoldCoordinate.getViewStampFilter());
-//
-//                if (optionalLatest.isPresent()) {
-//                    final LatestVersion<LogicGraphVersionImpl> latest = optionalLatest;
-//
-//                    // get stampCoordinate for last classify.
-//                    final StampFilter stampToCompare
-//                            = this.manifoldCoordinate.getViewStampFilter().makeCoordinateAnalog(this.lastClassifyInstant.toEpochMilli());
-//
-//                    // See if there is a change in the optionalLatest vs the last classify.
-//                    final LatestVersion<LogicGraphVersionImpl> optionalPrevious
-//                            = sc.getLatestVersion(stampToCompare);
-//
-//                    if (optionalPrevious.isPresent()) {
-//                        // See if the change has deletions, if so then incremental is not allowed.
-//                        final LatestVersion<LogicGraphVersionImpl> previous = optionalPrevious;
-//                        boolean deletions = false;
-//
-//                        if (latest.get()
-//                                .getGraphData().length <= previous.get().getGraphData().length) {
-//                            // If nodes where deleted, or an existing node was changed but the size remains the same assume deletions
-//                            deletions = true;
-//
-//                            // TODO use a real subtree isomorphism algorithm.
-//                        }
-//
-//                        if (deletions) {
-//                            this.incrementalAllowed = false;
-//                            this.incrementalToAxiomTranslator.clear();
-//                            this.reasoner = new SnorocketReasoner();
-//                        } else {
-//                            // Otherwise add axioms...
-//                            this.incrementalToAxiomTranslator.convertToAxiomsAndAdd(latest.get());
-//                        }
-//                    } else {
-//                        // Otherwise add axioms...
-//                        this.incrementalToAxiomTranslator.convertToAxiomsAndAdd(latest.get());
-//                    }
-//                }
-//            }
+            LOG.info("Stated form change on: {}", sc.getNid());  //DO NOT call toString on the chronology here, in a builder pattern, descriptions may not be built yet.
+            this.changedSemanticNids.add(sc.getNid());
         }
     }
 
@@ -232,20 +240,78 @@ public class ClassifierData
         // already handled with the handle change above.
     }
 
+    /**
+     * Take the stated logic graph semantics written since the last call. A change that isn't visible to this
+     * classification yet must be handed back with {@link #retainChangedSemanticNid(int)}.
+     *
+     * @return the nids of the changed semantics
+     */
+    public Set<Integer> takeChangedSemanticNids() {
+        return take(this.changedSemanticNids);
+    }
+
+    /**
+     * Take the concepts written since the last call. A change that isn't visible to this classification yet must be
+     * handed back with {@link #retainChangedConceptNid(int)}.
+     *
+     * @return the nids of the changed concepts
+     */
+    public Set<Integer> takeChangedConceptNids() {
+        return take(this.changedConceptNids);
+    }
+
+    private static Set<Integer> take(Set<Integer> changed) {
+        Set<Integer> taken = new ConcurrentSkipListSet<>();
+        for (Integer nid : changed) {
+            if (changed.remove(nid)) {
+                taken.add(nid);
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Hand back a changed semantic, for the next classification.
+     *
+     * @param nid the nid of the semantic
+     */
+    public void retainChangedSemanticNid(int nid) {
+        this.changedSemanticNids.add(nid);
+    }
+
+    /**
+     * Hand back a changed concept, for the next classification.
+     *
+     * @param nid the nid of the concept
+     */
+    public void retainChangedConceptNid(int nid) {
+        this.changedConceptNids.add(nid);
+    }
+
+    /**
+     * Add axioms of a changed definition to the incremental classification.
+     *
+     * @param conceptNid the concept whose definition changed
+     * @param axioms the axioms the changed definition adds
+     */
+    public void addIncrementalAxioms(int conceptNid, Set<Axiom> axioms) {
+        this.incrementalAxioms.addAll(axioms);
+        this.incrementalConcepts.add(conceptNid);
+    }
+
     /**
      * Load axioms.
      */
     public void loadAxioms() {
-//        if (this.incrementalAllowed) {
-//            this.reasoner.loadAxioms(this.incrementalToAxiomTranslator.getAxioms());
-//            this.loadedConcepts = this.incrementalToAxiomTranslator.getLoadedConcepts();
-//            LOG.info("Incremental load of " + this.incrementalToAxiomTranslator.getAxioms().size() + " axioms. ");
-//        } else {
+        if (this.lastClassifyType == ClassificationType.INCREMENTAL) {
+            this.reasoner.loadAxioms(this.incrementalAxioms);
+            this.loadedConcepts.addAll(this.incrementalConcepts);
+            LOG.info("Incremental load of " + this.incrementalAxioms.size() + " axioms for " + this.incrementalConcepts.size() + " concepts. ");
+        } else {
             this.reasoner.loadAxioms(this.allGraphsToAxiomTranslator.getAxioms());
-            this.loadedConcepts = this.allGraphsToAxiomTranslator.getLoadedConcepts();
+            this.loadedConcepts = new ConcurrentSkipListSet<>(this.allGraphsToAxiomTranslator.getLoadedConcepts());
             LOG.info("Complete load of " + this.allGraphsToAxiomTranslator.getAxioms().size() + " axioms. ");
-//        }
-
+        }
     }
 
     @Override
@@ -253,7 +319,7 @@ public class ClassifierData
         return "ClassifierData{" + "graphToAxiomTranslator=" + this.allGraphsToAxiomTranslator
                 + ",\n incrementalToAxiomTranslator=" + this.incrementalToAxiomTranslator + ",\n reasoner="
                 + this.reasoner + ",\n lastClassifyInstant=" + this.lastClassifyInstant 
-//                + ",\n lastClassifyType=" + this.lastClassifyType 
+                + ",\n lastClassifyType=" + this.lastClassifyType 
                 + ",\n manifoldCoordinate=" + this.manifoldCoordinate + '}';
     }
 
@@ -268,30 +334,32 @@ public class ClassifierData
 
     //~--- get methods ---------------------------------------------------------
     /**
-     * Gets the affected concept nid set.
+     * Gets the affected concept nid set.  Complete classifications affect every loaded concept, incremental ones
+     * the concepts whose definitions changed, and those the reasoner reports as affected by them.
      *
      * @return the affected concept nid set
      */
     public Set<Integer> getAffectedConceptNidSet() {
+        if (this.lastClassifyType != ClassificationType.INCREMENTAL) {
+            return new ConcurrentSkipListSet<>(this.loadedConcepts);
+        }
+
+        final Set<Integer> affectedConceptNids = new ConcurrentSkipListSet<>(this.incrementalConcepts);
+
+        for (Node node : this.reasoner.getClassifiedOntology().getAffectedNodes()) {
+            if (node != null) {
+                // TODO why does the classifier include null in the affected node set.
+                for (String equivalent : node.getEquivalentConcepts()) {
+                    try {
+                        affectedConceptNids.add(Integer.parseInt(equivalent));
+                    } catch (NumberFormatException e) {
+                        // _TOP_ or _BOTTOM_
+                    }
+                }
+            }
+        }
 
-//        if (this.lastClassifyType == ClassificationType.COMPLETE) {
-            return this.loadedConcepts;
-//        }
-//
-//        final Set<Integer> affectedConceptNids = new ConcurrentSkipListSet<>();
-//
-//
-//        for (Node node : this.reasoner.getClassifiedOntology().getAffectedNodes()) {
-//            if (node != null) {
-//                // TODO why does the classifier include null in the affected node set.
-//                for (String equivalent : node.getEquivalentConcepts()) {
-//                    int nid = Integer.parseInt(equivalent);
-//                    affectedConceptNids.add(nid);
-//                }
-//            }
-//        }
-//
-//        return affectedConceptNids;
+        return affectedConceptNids;
     }
 
     /**
@@ -313,17 +381,20 @@ public class ClassifierData
     }
 
     /**
-     * Gets the.
+     * Gets the classifier data for the coordinate. Classifications whose coordinates differ only in their position
+     * share the classifier data, so an incremental classification can add to the last one.
      *
+     * @param manifoldCoordinate the coordinate of the classification, positioned at its classify time
      * @return the classifier data
      */
     public static ClassifierData get(ManifoldCoordinate manifoldCoordinate) {
+        final ManifoldCoordinateImmutable unpositionedCoordinate = unpositioned(manifoldCoordinate);
         if (SINGLETON.get() == null) {
             SINGLETON.compareAndSet(null, new ClassifierData(manifoldCoordinate));
         } else {
             ClassifierData classifierData = SINGLETON.get();
 
-            while (!classifierData.manifoldCoordinate.equals(manifoldCoordinate)) {
+            while (!classifierData.unpositionedCoordinate.equals(unpositionedCoordinate)) {
                 Get.commitService()
                         .removeChangeListener(classifierData);
 
@@ -334,15 +405,17 @@ public class ClassifierData
             }
         }
 
+        final ClassifierData classifierData = SINGLETON.get();
+        classifierData.manifoldCoordinate = manifoldCoordinate.toManifoldCoordinateImmutable();
         Get.commitService()
-                .addChangeListener(SINGLETON.get());
-        return SINGLETON.get();
+                .addChangeListener(classifierData);
+        return classifierData;
     }
 
     /**
      * Checks if incremental allowed.
      *
-     * @return true, if incremental allowed
+     * @return true, if the reasoner holds a classification with the same coordinate that axioms can be added to
      */
     public boolean isIncrementalAllowed() {
         return this.incrementalAllowed;
@@ -357,6 +430,20 @@ public class ClassifierData
         return this.lastClassifyInstant;
     }
 
+    /**
+     * @return the translator for all graphs of a complete classification
+     */
+    public GraphToAxiomTranslator getAllGraphsToAxiomTranslator() {
+        return this.allGraphsToAxiomTranslator;
+    }
+
+    /**
+     * @return the translator for the changed graphs of an incremental classification
+     */
+    public GraphToAxiomTranslator getIncrementalToAxiomTranslator() {
+        return this.incrementalToAxiomTranslator;
+    }
+
     @Override
     public UUID getListenerUuid() {
         return this.listenerUuid;
@@ -369,4 +456,4 @@ public class ClassifierData
     public StampFilter getStampFilter() {
         return this.manifoldCoordinate.getViewStampFilter();
     }
-}
\ No newline at end of file
+}
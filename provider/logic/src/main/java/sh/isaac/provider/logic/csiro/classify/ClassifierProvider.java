@@ -72,6 +72,18 @@ public class ClassifierProvider
       return AggregateClassifyTask.get(this.manifoldCoordinate, cycleCheck);
    }
 
+   /**
+    * Classify.
+    *
+    * @param cycleCheck true, to do a cycle check on the stated taxonomy prior to classify
+    * @param classificationType the classification type.  An incremental classification only loads the definitions
+    * changed since the last classification with this coordinate, and falls back to a complete one when needed.
+    * @return the classify task, already submitted to an executor
+    */
+   public TimedTask<ClassifierResults> classify(boolean cycleCheck, ClassificationType classificationType) {
+      return AggregateClassifyTask.get(this.manifoldCoordinate, cycleCheck, classificationType);
+   }
+
    /**
     * Gets the concept nid for expression.
     *
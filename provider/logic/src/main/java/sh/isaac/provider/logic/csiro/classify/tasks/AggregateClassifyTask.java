@@ -39,7 +39,10 @@
 
 package sh.isaac.provider.logic.csiro.classify.tasks;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Semaphore;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -52,8 +55,11 @@ import sh.isaac.api.coordinate.StatusSet;
 import sh.isaac.api.observable.coordinate.ObservableManifoldCoordinate;
 import sh.isaac.api.progress.PersistTaskResult;
 import sh.isaac.api.task.SequentialAggregateTask;
+import sh.isaac.api.task.TimedTask;
+import sh.isaac.api.util.time.DurationUtil;
 import sh.isaac.model.observable.coordinate.ObservableManifoldCoordinateImpl;
 import sh.isaac.provider.logic.LogicProvider;
+import sh.isaac.provider.logic.csiro.classify.ClassificationType;
 
 /**
  * The Class AggregateClassifyTask.
@@ -72,10 +78,11 @@ public class AggregateClassifyTask
    /**
     * Instantiates a new aggregate classify task.
     * @param manifoldCoordinate the logic coordinate
+    * @param classificationType the classification type
     */
-   private AggregateClassifyTask(ManifoldCoordinate manifoldCoordinate, boolean cycleCheckFirst) {
+   private AggregateClassifyTask(ManifoldCoordinate manifoldCoordinate, boolean cycleCheckFirst, ClassificationType classificationType) {
       super("Classify",
-            new Task[] { new ExtractAxioms(manifoldCoordinate), new LoadAxioms(), new ClassifyAxioms(),
+            new Task[] { new ExtractAxioms(manifoldCoordinate, classificationType), new LoadAxioms(), new ClassifyAxioms(),
                     new ProcessClassificationResults(manifoldCoordinate)});
       if (cycleCheckFirst) {
          cc = new CycleCheck(manifoldCoordinate);
@@ -102,6 +109,7 @@ public class AggregateClassifyTask
             cr.addOrphans(cc.getOrphans());
          }
          log.info("Classification task finished - summary: {}", cr.toString());
+         log.info("Classification phases: {}", formatPhaseDurations());
          return cr;
       } finally {
          concurrentRunPrevent.release();
@@ -110,6 +118,31 @@ public class AggregateClassifyTask
       }
    }
 
+   /**
+    * Gets the durations of the phases of the classification: extracting, loading and classifying the axioms, and 
+    * writing the results.  Phases that haven't run yet have a zero duration. 
+    *
+    * @return the duration of each phase, by title, in the order they run
+    */
+   public Map<String, Duration> getPhaseDurations() {
+      final Map<String, Duration> phaseDurations = new LinkedHashMap<>();
+      for (Task<?> subTask : getSubTasks()) {
+         phaseDurations.put(subTask.getTitle(), ((TimedTask<?>) subTask).getDuration());
+      }
+      return phaseDurations;
+   }
+
+   private String formatPhaseDurations() {
+      final StringBuilder sb = new StringBuilder();
+      getPhaseDurations().forEach((phase, duration) -> {
+         if (sb.length() > 0) {
+            sb.append(", ");
+         }
+         sb.append(phase).append(" ").append(DurationUtil.format(duration));
+      });
+      return sb.toString();
+   }
+
     /**
      * When this method returns, the task is already executing, or will be shortly, if another classifier execution is already running.  
      * You do not need to execute the task.
@@ -119,12 +152,27 @@ public class AggregateClassifyTask
      * @return an {@code AggregateClassifyTask} already submitted to an executor.
      */
     public static AggregateClassifyTask get(ManifoldCoordinateImmutable manifoldCoordinate, boolean cycleCheckFirst) {
+       return get(manifoldCoordinate, cycleCheckFirst, ClassificationType.COMPLETE);
+    }
+
+    /**
+     * When this method returns, the task is already executing, or will be shortly, if another classifier execution is already running.  
+     * You do not need to execute the task.
+     *
+     * @param manifoldCoordinate the stamp coordinate
+     * @param cycleCheckFirst true, to do a cycle check on the stated taxonomy prior to classify.  Will abort classify if a cycle is detected.
+     * @param classificationType the classification type.  An incremental classification falls back to a complete one, 
+     * if there is no earlier classification with the same coordinate to add to, or the changes since then remove axioms.
+     * @return an {@code AggregateClassifyTask} already submitted to an executor.
+     */
+    public static AggregateClassifyTask get(ManifoldCoordinateImmutable manifoldCoordinate, boolean cycleCheckFirst, 
+            ClassificationType classificationType) {
        Instant classifyCommitTime = Get.commitService().getTimeForCommit();
        ObservableManifoldCoordinate observableManifoldCoordinate = new ObservableManifoldCoordinateImpl(manifoldCoordinate);
        observableManifoldCoordinate.setAllowedStates(StatusSet.ACTIVE_ONLY);
 
        manifoldCoordinate = observableManifoldCoordinate.getValue().makeCoordinateAnalog(classifyCommitTime.toEpochMilli());
-       final AggregateClassifyTask classifyTask = new AggregateClassifyTask(manifoldCoordinate, cycleCheckFirst);
+       final AggregateClassifyTask classifyTask = new AggregateClassifyTask(manifoldCoordinate, cycleCheckFirst, classificationType);
         Get.workExecutors()
                 .getExecutor()
                 .execute(classifyTask);
@@ -39,15 +39,23 @@
 
 package sh.isaac.provider.logic.csiro.classify.tasks;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import au.csiro.ontology.model.Axiom;
 import sh.isaac.api.Get;
+import sh.isaac.api.chronicle.Chronology;
 import sh.isaac.api.chronicle.LatestVersion;
+import sh.isaac.api.chronicle.Version;
+import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.component.semantic.SemanticSnapshotService;
 import sh.isaac.api.coordinate.ManifoldCoordinate;
 import sh.isaac.api.coordinate.StampFilterImmutable;
 import sh.isaac.api.task.TimedTaskWithProgressTracker;
 import sh.isaac.model.semantic.version.LogicGraphVersionImpl;
+import sh.isaac.provider.logic.csiro.axioms.GraphToAxiomTranslator;
+import sh.isaac.provider.logic.csiro.classify.ClassificationType;
 import sh.isaac.provider.logic.csiro.classify.ClassifierData;
 
 
@@ -62,13 +70,27 @@ public class ExtractAxioms
 
     ManifoldCoordinate manifoldCoordinate;
 
+    ClassificationType classificationType;
+
    /**
-    * Instantiates a new extract axioms.
+    * Instantiates a new extract axioms, for a complete classification.
     * @param manifoldCoordinate the stamp coordinate
     *
     */
    public ExtractAxioms(ManifoldCoordinate manifoldCoordinate) {
+      this(manifoldCoordinate, ClassificationType.COMPLETE);
+   }
+
+   /**
+    * Instantiates a new extract axioms.
+    * @param manifoldCoordinate the stamp coordinate
+    * @param classificationType the classification type. An incremental classification falls back to a complete
+    * one, if there is no classification to add to, or the changes remove axioms.
+    *
+    */
+   public ExtractAxioms(ManifoldCoordinate manifoldCoordinate, ClassificationType classificationType) {
       this.manifoldCoordinate = manifoldCoordinate;
+      this.classificationType = classificationType;
       updateTitle("Extract axioms");
       
    }
@@ -82,12 +104,23 @@ public class ExtractAxioms
            LOG.info("Extract Axioms running");
            final AtomicInteger logicGraphMembers = new AtomicInteger();
            final ClassifierData cd = ClassifierData.get(this.manifoldCoordinate);
-           
-           if (cd.isIncrementalAllowed()) {
-               // axioms are already extracted.
+           final Set<Integer> changedSemanticNids = cd.takeChangedSemanticNids();
+           final Set<Integer> changedConceptNids = cd.takeChangedConceptNids();
+
+           if (this.classificationType == ClassificationType.INCREMENTAL && cd.isIncrementalAllowed()
+                   && processChangedStatedAxioms(cd, changedSemanticNids, changedConceptNids)) {
+               LOG.info("Incremental classification of " + changedSemanticNids.size() + " changed logical definitions");
            } else {
-               cd.clearAxioms();
+               cd.startCompleteClassification();
                processAllStatedAxioms(this.manifoldCoordinate, cd, logicGraphMembers);
+               // Changes after the classify time are for the next classification.
+               final long classifyTime = this.manifoldCoordinate.getViewStampFilter().getTime();
+               changedSemanticNids.stream()
+                       .filter(nid -> hasVersionAfter(Get.assemblageService().getSemanticChronology(nid), classifyTime))
+                       .forEach(cd::retainChangedSemanticNid);
+               changedConceptNids.stream()
+                       .filter(nid -> hasVersionAfter(Get.conceptService().getConceptChronology(nid), classifyTime))
+                       .forEach(cd::retainChangedConceptNid);
            }
            return cd;
        } finally {
@@ -96,6 +129,95 @@ public class ExtractAxioms
        }
    }
 
+   /**
+    * Extract the axioms added by the logic graphs and concepts changed since the last classification. The reasoner
+    * can only add axioms, so a change that removes any, such as a retirement or an edited definition, needs a
+    * complete classification.
+    * @param cd the cd
+    * @param changedSemanticNids the stated logic graph semantics changed since the last classification
+    * @param changedConceptNids the concepts changed since the last classification
+    * @return true if the changes only add axioms, false if a complete classification is required
+    */
+   protected boolean processChangedStatedAxioms(ClassifierData cd,
+                                                Set<Integer> changedSemanticNids,
+                                                Set<Integer> changedConceptNids) {
+      final StampFilterImmutable viewFilter = this.manifoldCoordinate.getViewStampFilter().toStampFilterImmutable();
+      final StampFilterImmutable lastFilter = viewFilter.makeCoordinateAnalog(cd.getLastClassifyInstant().toEpochMilli());
+      final long classifyTime = viewFilter.getTime();
+      final int statedAssemblageNid = this.manifoldCoordinate.getLogicCoordinate().getStatedAssemblageNid();
+      final Set<Integer> candidateSemanticNids = new ConcurrentSkipListSet<>(changedSemanticNids);
+      final Set<Integer> retainedSemanticNids = new ConcurrentSkipListSet<>();
+      final Set<Integer> retainedConceptNids = new ConcurrentSkipListSet<>();
+
+      cd.startIncrementalClassification();
+
+      for (int conceptNid : changedConceptNids) {
+         if (hasVersionAfter(Get.conceptService().getConceptChronology(conceptNid), classifyTime)) {
+            retainedConceptNids.add(conceptNid);
+         }
+         final boolean wasActive = Get.conceptService().isConceptActive(conceptNid, lastFilter);
+         final boolean isActive = Get.conceptService().isConceptActive(conceptNid, viewFilter);
+         if (wasActive && !isActive) {
+            LOG.info("Concept retired since the last classification, falling back to a complete classification");
+            return false;
+         }
+         if (isActive && !wasActive) {
+            Get.assemblageService().getSemanticNidsForComponentFromAssemblage(conceptNid, statedAssemblageNid)
+                    .forEach(candidateSemanticNids::add);
+         }
+      }
+
+      final GraphToAxiomTranslator translator = cd.getIncrementalToAxiomTranslator();
+
+      for (int semanticNid : candidateSemanticNids) {
+         final SemanticChronology chronology = Get.assemblageService().getSemanticChronology(semanticNid);
+         if (hasVersionAfter(chronology, classifyTime)) {
+            retainedSemanticNids.add(semanticNid);
+         }
+         final LatestVersion<LogicGraphVersionImpl> current = chronology.getLatestVersion(viewFilter);
+         final LatestVersion<LogicGraphVersionImpl> previous = chronology.getLatestVersion(lastFilter);
+         final int conceptNid = chronology.getReferencedComponentNid();
+         final boolean wasActive = previous.isPresent() && Get.conceptService().isConceptActive(conceptNid, lastFilter);
+         final boolean isActive = current.isPresent() && Get.conceptService().isConceptActive(conceptNid, viewFilter);
+
+         if (!isActive) {
+            if (wasActive) {
+               LOG.info("Logical definition retired since the last classification, falling back to a complete classification");
+               return false;
+            }
+            continue;
+         }
+
+         final Set<Axiom> currentAxioms = translator.convertToAxioms(current.get());
+         if (wasActive) {
+            final Set<Axiom> previousAxioms = translator.convertToAxioms(previous.get());
+            if (!currentAxioms.containsAll(previousAxioms)) {
+               LOG.info("Logical definition changed since the last classification, falling back to a complete classification");
+               return false;
+            }
+            currentAxioms.removeAll(previousAxioms);
+         }
+         cd.addIncrementalAxioms(conceptNid, currentAxioms);
+      }
+
+      retainedSemanticNids.forEach(cd::retainChangedSemanticNid);
+      retainedConceptNids.forEach(cd::retainChangedConceptNid);
+      return true;
+   }
+
+   /**
+    * @return true if the chronology has a version after the classify time, including uncommitted versions, which
+    * must be looked at again by the next classification
+    */
+   private static boolean hasVersionAfter(Chronology chronology, long classifyTime) {
+      for (Version version : chronology.getVersionList()) {
+         if (version.getTime() > classifyTime) {
+            return true;
+         }
+      }
+      return false;
+   }
+
    /**
     * Process all stated axioms.
     * @param manifoldCoordinate the stamp coordinate
@@ -113,19 +235,26 @@ public class ExtractAxioms
 
        StampFilterImmutable viewFilter = manifoldCoordinate.getViewStampFilter().toStampFilterImmutable();
 
-      semanticSnapshot.getLatestSemanticVersionsFromAssemblage(manifoldCoordinate.getLogicCoordinate().getStatedAssemblageNid(), this)
-                    .forEach((LatestVersion<LogicGraphVersionImpl> latest) -> {
-                                final LogicGraphVersionImpl lgs = latest.get();
-                                final int conceptNid = lgs.getReferencedComponentNid();
-
+      // Each thread of the parallel stream translates into its own partial translator, the partial axiom sets are
+      // merged as the threads finish.
+      final GraphToAxiomTranslator allGraphsToAxiomTranslator = cd.getAllGraphsToAxiomTranslator();
+      final GraphToAxiomTranslator translated = semanticSnapshot
+              .getLatestSemanticVersionsFromAssemblage(manifoldCoordinate.getLogicCoordinate().getStatedAssemblageNid(), this)
+              .parallel()
+              .map((LatestVersion<LogicGraphVersionImpl> latest) -> latest.get())
+              .filter((LogicGraphVersionImpl lgs) -> {
                                 if (Get.conceptService()
-                                       .isConceptActive(conceptNid, viewFilter)) {
-                                   cd.translate(lgs);
+                                       .isConceptActive(lgs.getReferencedComponentNid(), viewFilter)) {
                                    logicGraphMembers.incrementAndGet();
-                                } else {
-                                    inactiveConcepts.incrementAndGet();
+                                   return true;
                                 }
-                             });
+                                inactiveConcepts.incrementAndGet();
+                                return false;
+                             })
+              .collect(allGraphsToAxiomTranslator::newPartialTranslator,
+                       GraphToAxiomTranslator::convertToAxiomsAndAdd,
+                       GraphToAxiomTranslator::addAll);
+      allGraphsToAxiomTranslator.addAll(translated);
 
        StringBuilder sb = new StringBuilder();
        sb.append("Extracted ");
@@ -41,13 +41,13 @@ import static sh.isaac.api.logic.LogicalExpressionBuilder.And;
 import static sh.isaac.api.logic.LogicalExpressionBuilder.NecessarySet;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.mahout.math.list.IntArrayList;
@@ -60,6 +60,7 @@ import sh.isaac.api.DataTarget;
 import sh.isaac.api.Get;
 import sh.isaac.api.Status;
 import sh.isaac.api.bootstrap.TestConcept;
+import sh.isaac.api.chronicle.Chronology;
 import sh.isaac.api.chronicle.LatestVersion;
 import sh.isaac.api.classifier.ClassifierResults;
 import sh.isaac.api.commit.ChangeCheckerMode;
@@ -79,7 +80,6 @@ import sh.isaac.api.logic.LogicalExpressionBuilderService;
 import sh.isaac.api.logic.NodeSemantic;
 import sh.isaac.api.logic.assertions.ConceptAssertion;
 import sh.isaac.api.task.AggregateTaskInput;
-import sh.isaac.api.task.OptionalWaitTask;
 import sh.isaac.api.task.TimedTaskWithProgressTracker;
 import sh.isaac.api.transaction.Transaction;
 import sh.isaac.api.util.time.DateTimeUtil;
@@ -97,6 +97,12 @@ public class ProcessClassificationResults
     ClassifierData inputData;
     Logger log = LogManager.getLogger();
 
+    /**
+     * The number of changed inferred definitions written per write task. Large enough to amortize the task, small
+     * enough that several batches are written in parallel.
+     */
+    private static final int WRITE_BATCH_SIZE = 1000;
+
     int classificationDuplicateCount = -1;
     int classificationCountDuplicatesToNote = 10;
     private final ManifoldCoordinate manifoldCoordinate;
@@ -165,7 +171,7 @@ public class ProcessClassificationResults
      * @return the classifier results
      */
     private ClassifierResults collectResults(WriteCoordinate wc, Ontology classifiedResult, Set<Integer> affectedConcepts) {
-        final HashSet<IntArrayList> equivalentSets = new HashSet<>();
+        final Set<IntArrayList> equivalentSets = ConcurrentHashMap.newKeySet();
         LOG.debug("collect results begins for {} concepts", affectedConcepts.size());
         affectedConcepts.parallelStream().forEach((conceptNid) -> {
             completedUnitOfWork();
@@ -272,153 +278,42 @@ public class ProcessClassificationResults
     }
 
     /**
-     * Write back inferred.
+     * Write back inferred. The changed inferred definitions are prepared in parallel, without writing them, then
+     * written in batches, rather than with a write task per concept, and committed together.
      *
      * @param inferredAxioms the inferred axioms
      * @param affectedConcepts the affected concepts
      * @return the optional
      */
     private Optional<CommitRecord> writeBackInferred(WriteCoordinate wc, Ontology inferredAxioms, Set<Integer> affectedConcepts) {
-        final AssemblageService assemblageService = Get.assemblageService();
         final AtomicInteger sufficientSets = new AtomicInteger();
-        final LogicalExpressionBuilderService logicalExpressionBuilderService = Get.logicalExpressionBuilderService();
-        final SemanticBuilderService<? extends SemanticChronology> semanticBuilderService = Get.semanticBuilderService();
         final CommitService commitService = Get.commitService();
 
         LOG.debug("write back inferred begins with {} axioms", inferredAxioms.getInferredAxioms().size());
-        // TODO Dan notes, for reasons not yet understood, this parallelStream call isn't working.  
-        // JVisualVM tells me that all of this work is occurring on a single thread.  Need to figure out why...
-        ConcurrentHashMap<OptionalWaitTask<?>, Boolean> submitted = new ConcurrentHashMap<>();
-        affectedConcepts.parallelStream().forEach((conceptNid) -> {
-            try {
-                final ImmutableIntSet inferredSemanticNids
-                        = assemblageService.getSemanticNidsForComponentFromAssemblage(conceptNid,
-                                this.inputData.getLogicCoordinate().getInferredAssemblageNid());
-                final ImmutableIntSet statedSemanticNids
-                        = assemblageService.getSemanticNidsForComponentFromAssemblage(conceptNid,
-                                this.inputData.getLogicCoordinate().getStatedAssemblageNid());
-
-                testForProperSetSize(inferredSemanticNids,
-                        conceptNid,
-                        statedSemanticNids,
-                        assemblageService);
-
-                // SemanticChronology<LogicGraphSemantic> statedChronology = (SemanticChronology<LogicGraphSemantic>) 
-                // assemblageService.getSemanticChronology(statedSemanticNids.stream().findFirst().getAsInt());
-                if (!statedSemanticNids.isEmpty()) {
-
-                    final SemanticChronology rawStatedChronology
-                            = assemblageService.getSemanticChronology(statedSemanticNids.intIterator().next());
-                    final LatestVersion<LogicGraphVersion> latestStatedDefinitionOptional
-                            = ((SemanticChronology) rawStatedChronology).getLatestVersion(this.inputData.getStampFilter());
-
-                    if (latestStatedDefinitionOptional.isPresent()) {
-                        final LogicalExpressionBuilder inferredBuilder
-                                = logicalExpressionBuilderService.getLogicalExpressionBuilder();
-                        final LatestVersion<LogicGraphVersion> latestStatedDefinition
-                                = latestStatedDefinitionOptional;
-                        final LogicalExpression statedDefinition = latestStatedDefinition.get()
-                                .getLogicalExpression();
-
-                        if (statedDefinition.contains(NodeSemantic.SUFFICIENT_SET)) {
-                            sufficientSets.incrementAndGet();
-
-                            // Sufficient sets are copied exactly to the inferred form.
-                            statedDefinition.getNodesOfType(NodeSemantic.SUFFICIENT_SET).forEach((sufficientSetNode) -> {
-                                inferredBuilder.cloneSubTree(sufficientSetNode);
-                            });
-                        }
-
-                        // Need to construct the necessary set from classifier results.
-                        final Node inferredNode
-                                = inferredAxioms.getNode(Integer.toString(conceptNid));
-                        final List<ConceptAssertion> parentList = new ArrayList<>();
-                        if (inferredNode != null) {
-                            inferredNode.getParents().forEach((parent) -> {
-                                parent.getEquivalentConcepts().forEach((parentString) -> {
-                                    try {
-                                        int parentNid = Integer.parseInt(parentString);
-
-                                        parentList.add(
-                                                inferredBuilder.conceptAssertion(parentNid));
-                                    } catch (final NumberFormatException numberFormatException) {
-                                        if (parentString.equals("_BOTTOM_") || parentString.equals("_TOP_")) {
-                                            // do nothing.
-                                        } else {
-                                            throw numberFormatException;
-                                        }
-                                    }
-                                });
-                            });
-                        }
-
-                        if (!parentList.isEmpty()) {
-                            NecessarySet(
-                                    And(parentList.toArray(new ConceptAssertion[parentList.size()])));
-
-                            final LogicalExpression inferredExpression = inferredBuilder.build();
-
-                            if (inferredSemanticNids.isEmpty()) {
-                                final SemanticBuilder<? extends SemanticChronology> builder
-                                        = semanticBuilderService.getLogicalExpressionBuilder(inferredExpression,
-                                                conceptNid,
-                                                this.inputData.getLogicCoordinate().getInferredAssemblageNid());
-
-                                // get classifier edit coordinate...
-                                submitted.put(builder.buildAndWrite(wc), true);
-                                
-                                if (Get.configurationService().isVerboseDebugEnabled() && TestConcept.CARBOHYDRATE_OBSERVATION.getNid() == conceptNid) {
-                                    log.info("ADDING INFERRED NID FOR: " + TestConcept.CARBOHYDRATE_OBSERVATION);
-                                    TestConcept.WATCH_NID_SET.add(builder.getNid());
-                                }
-                            } else {
-                                final SemanticChronology inferredChronology
-                                        = assemblageService.getSemanticChronology(inferredSemanticNids.intIterator().next());
-
-                                // check to see if changed from old...
-                                final LatestVersion<LogicGraphVersion> latestDefinitionOptional
-                                        = inferredChronology.getLatestVersion(this.inputData.getStampFilter());
-
-                                if (latestDefinitionOptional.isPresent()) {
-                                    if (!latestDefinitionOptional.get()
-                                            .getLogicalExpression()
-                                            .equals(inferredExpression)) {
-                                        final MutableLogicGraphVersion newVersion
-                                                = ((SemanticChronology) inferredChronology).createMutableVersion(new WriteCoordinateImpl(wc,Status.ACTIVE));
-
-                                        newVersion.setGraphData(
-                                                inferredExpression.getData(DataTarget.INTERNAL));
-                                        submitted.put(new OptionalWaitTask<Void>(commitService.addUncommitted(wc.getTransaction().get(), newVersion), null, null), true);
-                                    }
-                                }
-                            }
-                        }
-                    } else {
-                        throw new IllegalStateException(
-                                "Empty latest version for stated definition. " + rawStatedChronology);
-                    }
-                } else {
-                    LogManager.getLogger()
-                            .error("No statedSemanticNid - skipping concept: " + Get.conceptDescriptionText(conceptNid));
-                }
+        // Preparing the definitions only reads, so it runs in parallel. Writing a task per concept serialized the
+        // work on the write permits, leaving the parallel stream on a single thread.
+        final List<Chronology> changedChronologies = affectedConcepts.parallelStream()
+                .flatMap((conceptNid) -> prepareInferred(wc, inferredAxioms, conceptNid, sufficientSets).stream())
+                .collect(Collectors.toList());
+
+        LOG.debug("Writing {} inferred definitions", changedChronologies.size());
+        final List<Task<Void>> writeTasks = new ArrayList<>();
+        for (int start = 0; start < changedChronologies.size(); start += WRITE_BATCH_SIZE) {
+            writeTasks.add(commitService.addUncommittedNoChecks(wc.getTransaction().get(),
+                    changedChronologies.subList(start, Math.min(start + WRITE_BATCH_SIZE, changedChronologies.size()))));
+        }
 
-            } catch (final IllegalStateException e) {
-                LogManager.getLogger()
-                        .error("Error during writeback - skipping concept ", e);
-            }
-        });
-        
         //Wait until all writes are done:
         LOG.debug("Ensuring all writes are complete");
-        submitted.forEachKey(50, task -> {
+        for (Task<Void> writeTask : writeTasks) {
             try {
-                task.get();
+                writeTask.get();
             }
             catch (InterruptedException | ExecutionException e1) {
                 throw new RuntimeException("Failure writing logic graphs for classification", e1);
             }
-        });
-        LOG.debug("Comitting {} semantics", submitted.size());
+        }
+        LOG.debug("Comitting {} semantics", changedChronologies.size());
         final Task<Optional<CommitRecord>> commitTask = wc.getTransaction().get().commit( "classifier run", this.effectiveCommitTime);
 
         try {
@@ -441,4 +336,137 @@ public class ProcessClassificationResults
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Prepare the inferred definition of a concept from the classifier results, without writing it.
+     *
+     * @param wc the write coordinate
+     * @param inferredAxioms the inferred axioms
+     * @param conceptNid the concept nid
+     * @param sufficientSets the count of sufficient sets
+     * @return the chronologies with a new or changed inferred definition, empty if the definition is unchanged
+     */
+    private List<Chronology> prepareInferred(WriteCoordinate wc, Ontology inferredAxioms, int conceptNid, AtomicInteger sufficientSets) {
+        final AssemblageService assemblageService = Get.assemblageService();
+        final LogicalExpressionBuilderService logicalExpressionBuilderService = Get.logicalExpressionBuilderService();
+        final SemanticBuilderService<? extends SemanticChronology> semanticBuilderService = Get.semanticBuilderService();
+        final List<Chronology> changedChronologies = new ArrayList<>();
+        try {
+            final ImmutableIntSet inferredSemanticNids
+                    = assemblageService.getSemanticNidsForComponentFromAssemblage(conceptNid,
+                            this.inputData.getLogicCoordinate().getInferredAssemblageNid());
+            final ImmutableIntSet statedSemanticNids
+                    = assemblageService.getSemanticNidsForComponentFromAssemblage(conceptNid,
+                            this.inputData.getLogicCoordinate().getStatedAssemblageNid());
+
+            testForProperSetSize(inferredSemanticNids,
+                    conceptNid,
+                    statedSemanticNids,
+                    assemblageService);
+
+            // SemanticChronology<LogicGraphSemantic> statedChronology = (SemanticChronology<LogicGraphSemantic>) 
+            // assemblageService.getSemanticChronology(statedSemanticNids.stream().findFirst().getAsInt());
+            if (!statedSemanticNids.isEmpty()) {
+
+                final SemanticChronology rawStatedChronology
+                        = assemblageService.getSemanticChronology(statedSemanticNids.intIterator().next());
+                final LatestVersion<LogicGraphVersion> latestStatedDefinitionOptional
+                        = ((SemanticChronology) rawStatedChronology).getLatestVersion(this.inputData.getStampFilter());
+
+                if (latestStatedDefinitionOptional.isPresent()) {
+                    final LogicalExpressionBuilder inferredBuilder
+                            = logicalExpressionBuilderService.getLogicalExpressionBuilder();
+                    final LatestVersion<LogicGraphVersion> latestStatedDefinition
+                            = latestStatedDefinitionOptional;
+                    final LogicalExpression statedDefinition = latestStatedDefinition.get()
+                            .getLogicalExpression();
+
+                    if (statedDefinition.contains(NodeSemantic.SUFFICIENT_SET)) {
+                        sufficientSets.incrementAndGet();
+
+                        // Sufficient sets are copied exactly to the inferred form.
+                        statedDefinition.getNodesOfType(NodeSemantic.SUFFICIENT_SET).forEach((sufficientSetNode) -> {
+                            inferredBuilder.cloneSubTree(sufficientSetNode);
+                        });
+                    }
+
+                    // Need to construct the necessary set from classifier results.
+                    final Node inferredNode
+                            = inferredAxioms.getNode(Integer.toString(conceptNid));
+                    final List<ConceptAssertion> parentList = new ArrayList<>();
+                    if (inferredNode != null) {
+                        inferredNode.getParents().forEach((parent) -> {
+                            parent.getEquivalentConcepts().forEach((parentString) -> {
+                                try {
+                                    int parentNid = Integer.parseInt(parentString);
+
+                                    parentList.add(
+                                            inferredBuilder.conceptAssertion(parentNid));
+                                } catch (final NumberFormatException numberFormatException) {
+                                    if (parentString.equals("_BOTTOM_") || parentString.equals("_TOP_")) {
+                                        // do nothing.
+                                    } else {
+                                        throw numberFormatException;
+                                    }
+                                }
+                            });
+                        });
+                    }
+
+                    if (!parentList.isEmpty()) {
+                        NecessarySet(
+                                And(parentList.toArray(new ConceptAssertion[parentList.size()])));
+
+                        final LogicalExpression inferredExpression = inferredBuilder.build();
+
+                        if (inferredSemanticNids.isEmpty()) {
+                            final SemanticBuilder<? extends SemanticChronology> builder
+                                    = semanticBuilderService.getLogicalExpressionBuilder(inferredExpression,
+                                            conceptNid,
+                                            this.inputData.getLogicCoordinate().getInferredAssemblageNid());
+
+                            // get classifier edit coordinate...
+                            builder.build(wc, changedChronologies);
+                            
+                            if (Get.configurationService().isVerboseDebugEnabled() && TestConcept.CARBOHYDRATE_OBSERVATION.getNid() == conceptNid) {
+                                log.info("ADDING INFERRED NID FOR: " + TestConcept.CARBOHYDRATE_OBSERVATION);
+                                TestConcept.WATCH_NID_SET.add(builder.getNid());
+                            }
+                        } else {
+                            final SemanticChronology inferredChronology
+                                    = assemblageService.getSemanticChronology(inferredSemanticNids.intIterator().next());
+
+                            // check to see if changed from old...
+                            final LatestVersion<LogicGraphVersion> latestDefinitionOptional
+                                    = inferredChronology.getLatestVersion(this.inputData.getStampFilter());
+
+                            if (latestDefinitionOptional.isPresent()) {
+                                if (!latestDefinitionOptional.get()
+                                        .getLogicalExpression()
+                                        .equals(inferredExpression)) {
+                                    final MutableLogicGraphVersion newVersion
+                                            = ((SemanticChronology) inferredChronology).createMutableVersion(new WriteCoordinateImpl(wc,Status.ACTIVE));
+
+                                    newVersion.setGraphData(
+                                            inferredExpression.getData(DataTarget.INTERNAL));
+                                    changedChronologies.add(inferredChronology);
+                                }
+                            }
+                        }
+                    }
+                } else {
+                    throw new IllegalStateException(
+                            "Empty latest version for stated definition. " + rawStatedChronology);
+                }
+            } else {
+                LogManager.getLogger()
+                        .error("No statedSemanticNid - skipping concept: " + Get.conceptDescriptionText(conceptNid));
+            }
+
+        } catch (final IllegalStateException e) {
+            LogManager.getLogger()
+                    .error("Error during writeback - skipping concept ", e);
+        }
+        return changedChronologies;
+    }
 }
@@ -0,0 +1,240 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.mvStore;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import org.h2.mvstore.MVMap;
+
+/**
+ * The semantic nids of each referenced component, kept so that adding a semantic costs amortized O(1), no matter
+ * how many semantics the component already has.
+ *
+ * A component with fewer than {@link #CHUNK_SIZE} semantics keeps them in one sorted array in the base map, as the
+ * index always did. Past that, new semantics are appended to fixed size chunks in the delta map, so an add copies
+ * at most one chunk. When the delta grows to a quarter of the base, it is merged into the base, so the cost of the
+ * merge is spread over the adds that filled the delta.
+ *
+ * Readers are not locked out. A merge writes the new base before it removes the delta, and reads collect the delta
+ * before the base, so a read during a merge sees each semantic at least once, and duplicates are removed.
+ */
+class ComponentToSemanticNidsIndex
+{
+	/** The number of semantic nids in a full delta chunk, and the size of base array at which the delta is used. */
+	static final int CHUNK_SIZE = 256;
+
+	private static final int LOCK_STRIPES = 64;
+	private static final int[] EMPTY = new int[0];
+
+	private final MVMap<Integer, int[]> baseMap;
+
+	/** Keyed by the component nid in the high 32 bits, and the chunk index in the low 32 bits. */
+	private final MVMap<Long, int[]> deltaMap;
+
+	/** Adds and merges for a component are serialized by the stripe of its nid. */
+	private final Object[] locks = new Object[LOCK_STRIPES];
+
+	/**
+	 * @param baseMap the sorted semantic nids of each component. Existing data in this format is read as is.
+	 * @param deltaMap the chunks of semantic nids not yet merged into the base
+	 */
+	ComponentToSemanticNidsIndex(MVMap<Integer, int[]> baseMap, MVMap<Long, int[]> deltaMap)
+	{
+		this.baseMap = baseMap;
+		this.deltaMap = deltaMap;
+		for (int i = 0; i < LOCK_STRIPES; i++)
+		{
+			locks[i] = new Object();
+		}
+	}
+
+	private static long deltaKey(int componentNid, int chunkIndex)
+	{
+		return ((long) componentNid << 32) | (chunkIndex & 0xFFFFFFFFL);
+	}
+
+	private static int componentNidOf(long deltaKey)
+	{
+		return (int) (deltaKey >> 32);
+	}
+
+	private static int chunkIndexOf(long deltaKey)
+	{
+		return (int) deltaKey;
+	}
+
+	/**
+	 * Add a semantic to the index of a component. The caller should only add a semantic the first time it is written,
+	 * as an add does not look through the existing semantics of the component for it. Adding it again is harmless, as
+	 * the duplicate is dropped when the delta is read or merged.
+	 *
+	 * @param componentNid the referenced component
+	 * @param semanticNid the new semantic
+	 */
+	void add(int componentNid, int semanticNid)
+	{
+		synchronized (locks[Math.floorMod(componentNid, LOCK_STRIPES)])
+		{
+			int[] base = baseMap.get(componentNid);
+			if (base == null || base.length < CHUNK_SIZE)
+			{
+				// Small enough that inserting into the sorted base is as cheap as appending to a chunk, and a small base
+				// never has a delta, as a merge always leaves at least CHUNK_SIZE semantics in the base.
+				baseMap.put(componentNid, insertSorted(base, semanticNid));
+				return;
+			}
+
+			Long lastKey = deltaMap.floorKey(deltaKey(componentNid, -1));
+			int chunkIndex;
+			int[] chunk;
+			if (lastKey == null || componentNidOf(lastKey) != componentNid)
+			{
+				chunkIndex = 0;
+				chunk = new int[] {semanticNid};
+			}
+			else
+			{
+				int[] lastChunk = deltaMap.get(lastKey);
+				if (lastChunk.length < CHUNK_SIZE)
+				{
+					chunkIndex = chunkIndexOf(lastKey);
+					chunk = Arrays.copyOf(lastChunk, lastChunk.length + 1);
+					chunk[lastChunk.length] = semanticNid;
+				}
+				else
+				{
+					chunkIndex = chunkIndexOf(lastKey) + 1;
+					chunk = new int[] {semanticNid};
+				}
+			}
+			deltaMap.put(deltaKey(componentNid, chunkIndex), chunk);
+
+			int deltaSize = chunkIndex * CHUNK_SIZE + chunk.length;
+			if (deltaSize >= Math.max(CHUNK_SIZE, base.length / 4))
+			{
+				merge(componentNid, base, chunkIndex);
+			}
+		}
+	}
+
+	private static int[] insertSorted(int[] base, int semanticNid)
+	{
+		if (base == null)
+		{
+			return new int[] {semanticNid};
+		}
+		int insertionPoint = Arrays.binarySearch(base, semanticNid);
+		if (insertionPoint >= 0)
+		{
+			return base;
+		}
+		insertionPoint = -insertionPoint - 1;
+		int[] newBase = new int[base.length + 1];
+		System.arraycopy(base, 0, newBase, 0, insertionPoint);
+		newBase[insertionPoint] = semanticNid;
+		System.arraycopy(base, insertionPoint, newBase, insertionPoint + 1, base.length - insertionPoint);
+		return newBase;
+	}
+
+	private void merge(int componentNid, int[] base, int lastChunkIndex)
+	{
+		baseMap.put(componentNid, mergeSorted(base, collectDelta(componentNid)));
+		for (int chunkIndex = 0; chunkIndex <= lastChunkIndex; chunkIndex++)
+		{
+			deltaMap.remove(deltaKey(componentNid, chunkIndex));
+		}
+	}
+
+	/**
+	 * @return the semantic nids in the delta chunks of the component, sorted, possibly with duplicates
+	 */
+	private int[] collectDelta(int componentNid)
+	{
+		long firstKey = deltaKey(componentNid, 0);
+		Iterator<Long> keys = deltaMap.keyIterator(firstKey);
+		int[] delta = EMPTY;
+		int size = 0;
+		while (keys.hasNext())
+		{
+			Long key = keys.next();
+			if (componentNidOf(key) != componentNid)
+			{
+				break;
+			}
+			int[] chunk = deltaMap.get(key);
+			if (chunk == null)
+			{
+				// Removed by a concurrent merge, which has already put it in the base
+				continue;
+			}
+			if (size + chunk.length > delta.length)
+			{
+				delta = Arrays.copyOf(delta, Math.max(size + chunk.length, delta.length * 2));
+			}
+			System.arraycopy(chunk, 0, delta, size, chunk.length);
+			size += chunk.length;
+		}
+		delta = size == delta.length ? delta : Arrays.copyOf(delta, size);
+		Arrays.sort(delta);
+		return delta;
+	}
+
+	/**
+	 * Merge two sorted arrays, dropping duplicates.
+	 */
+	private static int[] mergeSorted(int[] first, int[] second)
+	{
+		if (second.length == 0)
+		{
+			return first;
+		}
+		int[] merged = new int[first.length + second.length];
+		int i = 0;
+		int j = 0;
+		int size = 0;
+		while (i < first.length || j < second.length)
+		{
+			int next;
+			if (j == second.length || (i < first.length && first[i] <= second[j]))
+			{
+				next = first[i++];
+			}
+			else
+			{
+				next = second[j++];
+			}
+			if (size == 0 || merged[size - 1] != next)
+			{
+				merged[size++] = next;
+			}
+		}
+		return size == merged.length ? merged : Arrays.copyOf(merged, size);
+	}
+
+	/**
+	 * @param componentNid the referenced component
+	 * @return the sorted semantic nids of the component
+	 */
+	int[] get(int componentNid)
+	{
+		// The delta must be read before the base - see the class comment.
+		int[] delta = collectDelta(componentNid);
+		int[] base = baseMap.get(componentNid);
+		if (base == null)
+		{
+			return delta.length == 0 ? EMPTY : mergeSorted(EMPTY, delta);
+		}
+		return mergeSorted(base, delta);
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.mvStore;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import org.h2.mvstore.MVMap;
+
+/**
+ * A spliterator over the keys of an MV map within a key range, which splits by key range rather than by handing out
+ * batches from a shared iterator.
+ *
+ * A split finds the key at the middle of the range by position, which the MV map answers from the key counts kept
+ * in its pages, without reading the keys in between. Each spliterator then reads its own range with its own cursor,
+ * so parallel scans share nothing, and splitting costs O(log n) rather than a pass over the keys.
+ *
+ * The ranges of the splits never overlap, so each key is reported at most once, even while the map is being written.
+ * Keys added or removed during the scan may or may not be reported, as with the iterators of the map.
+ */
+class KeyRangeSpliterator implements Spliterator.OfInt
+{
+	/** Ranges smaller than this are not split further, as the split would cost more than it saves. */
+	static final int MIN_SPLIT_SIZE = 1024;
+
+	static final int CHARACTERISTICS = Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.ORDERED | Spliterator.CONCURRENT;
+
+	private final MVMap<Integer, ?> map;
+
+	/** The first key of the range, inclusive, or null for the start of the map. */
+	private Integer fromKey;
+
+	/** The end of the range, exclusive, or null for the end of the map. */
+	private final Integer toKey;
+
+	private Iterator<Integer> cursor;
+	private boolean exhausted = false;
+
+	/**
+	 * @param map the map to scan
+	 * @param fromKey the first key of the range, inclusive, or null for the start of the map
+	 * @param toKey the end of the range, exclusive, or null for the end of the map
+	 */
+	KeyRangeSpliterator(MVMap<Integer, ?> map, Integer fromKey, Integer toKey)
+	{
+		this.map = map;
+		this.fromKey = fromKey;
+		this.toKey = toKey;
+	}
+
+	/**
+	 * @return the position of the key in the map, or of where it would be inserted, if not present
+	 */
+	private long positionOf(Integer key, long ifNull)
+	{
+		if (key == null)
+		{
+			return ifNull;
+		}
+		long index = map.getKeyIndex(key);
+		return index < 0 ? -index - 1 : index;
+	}
+
+	@Override
+	public OfInt trySplit()
+	{
+		if (cursor != null || exhausted)
+		{
+			// Already being read, so the start of the range has moved past fromKey.
+			return null;
+		}
+		long start = positionOf(fromKey, 0);
+		long end = positionOf(toKey, map.sizeAsLong());
+		if (end - start < MIN_SPLIT_SIZE)
+		{
+			return null;
+		}
+		Integer middleKey = map.getKey(start + ((end - start) / 2));
+		if (middleKey == null || (fromKey != null && middleKey <= fromKey) || (toKey != null && middleKey >= toKey))
+		{
+			// The map changed under us
+			return null;
+		}
+		KeyRangeSpliterator prefix = new KeyRangeSpliterator(map, fromKey, middleKey);
+		fromKey = middleKey;
+		return prefix;
+	}
+
+	@Override
+	public boolean tryAdvance(IntConsumer action)
+	{
+		if (exhausted)
+		{
+			return false;
+		}
+		if (cursor == null)
+		{
+			cursor = map.keyIterator(fromKey);
+		}
+		if (cursor.hasNext())
+		{
+			int key = cursor.next();
+			if (toKey == null || key < toKey)
+			{
+				action.accept(key);
+				return true;
+			}
+		}
+		exhausted = true;
+		return false;
+	}
+
+	@Override
+	public long estimateSize()
+	{
+		if (exhausted)
+		{
+			return 0;
+		}
+		return Math.max(0, positionOf(toKey, map.sizeAsLong()) - positionOf(fromKey, 0));
+	}
+
+	@Override
+	public int characteristics()
+	{
+		return CHARACTERISTICS;
+	}
+}
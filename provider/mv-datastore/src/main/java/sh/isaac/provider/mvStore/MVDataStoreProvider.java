@@ -24,22 +24,18 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.Spliterator;
-import java.util.Spliterator.OfInt;
-import java.util.Spliterators;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
-import java.util.function.IntConsumer;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
 import java.util.stream.StreamSupport;
@@ -95,6 +91,7 @@ public class MVDataStoreProvider implements DataStoreSubService, ExtendedStore
 	private ArrayList<DataWriteListener> writeListeners = new ArrayList<>();
 
 	private final String COMPONENT_TO_SEMANTIC_NIDS_MAP = "componentToSemanticNidsMap";
+	private final String COMPONENT_TO_SEMANTIC_NIDS_DELTA_MAP = "componentToSemanticNidsDeltaMap";
 	private final String NID_TO_ASSEMBLAGE_NID_MAP = "nidToAssemblageNidMap";
 	private final String ASSEMBLAGE_TO_ISAAC_OBJECT_TYPE_MAP = "assemblageToIsaacObjectTypeMap";
 	private final String ASSEMBLAGE_TO_VERSION_TYPE_MAP = "assemblageToVersionTypeMap";
@@ -103,6 +100,8 @@ public class MVDataStoreProvider implements DataStoreSubService, ExtendedStore
 	private final String VERSION = "version";
 	
 	MVMap<Integer, int[]> componentToSemanticNidsMap;
+	MVMap<Long, int[]> componentToSemanticNidsDeltaMap;
+	ComponentToSemanticNidsIndex componentToSemanticNidsIndex;
 	MVMap<Integer, Integer> nidToAssemblageNidMap;
 	MVMap<Integer, Integer> assemblageToIsaacObjectTypeMap;
 	MVMap<Integer, Integer> assemblageToVersionTypeMap;
@@ -163,6 +162,8 @@ public class MVDataStoreProvider implements DataStoreSubService, ExtendedStore
 			//doesn't shrink as quickly as it should.
 			
 			componentToSemanticNidsMap = this.store.<Integer, int[]>openMap(COMPONENT_TO_SEMANTIC_NIDS_MAP);
+			componentToSemanticNidsDeltaMap = this.store.<Long, int[]>openMap(COMPONENT_TO_SEMANTIC_NIDS_DELTA_MAP);
+			componentToSemanticNidsIndex = new ComponentToSemanticNidsIndex(componentToSemanticNidsMap, componentToSemanticNidsDeltaMap);
 			nidToAssemblageNidMap = this.store.<Integer, Integer>openMap(NID_TO_ASSEMBLAGE_NID_MAP);
 			assemblageToIsaacObjectTypeMap = this.store.<Integer, Integer>openMap(ASSEMBLAGE_TO_ISAAC_OBJECT_TYPE_MAP);
 			assemblageToVersionTypeMap = this.store.<Integer, Integer>openMap(ASSEMBLAGE_TO_VERSION_TYPE_MAP);
@@ -198,6 +199,8 @@ public class MVDataStoreProvider implements DataStoreSubService, ExtendedStore
 			writeListeners.clear();
 			
 			componentToSemanticNidsMap = null;
+			componentToSemanticNidsDeltaMap = null;
+			componentToSemanticNidsIndex = null;
 			nidToAssemblageNidMap = null;
 			assemblageToIsaacObjectTypeMap = null;
 			assemblageToVersionTypeMap = null;
@@ -369,38 +372,17 @@ public class MVDataStoreProvider implements DataStoreSubService, ExtendedStore
 		{
 			final int assemblageNid = chronology.getAssemblageNid();
 
-			if (chronology instanceof SemanticChronology)
-			{
-				final SemanticChronology semanticChronology = (SemanticChronology) chronology;
-				final int referencedComponentNid = semanticChronology.getReferencedComponentNid();
+			MVMap<Integer, byte[]> chronicleData = getChronicleMap(assemblageNid);
 
-				componentToSemanticNidsMap.compute(referencedComponentNid, (key, oldValue) ->
-				{
-					if (oldValue == null)
-					{
-						return new int[] {semanticChronology.getNid()};
-					}
-					else
-					{
-						if (Arrays.binarySearch(oldValue, semanticChronology.getNid()) < 0)
-						{
-							//Not in the array
-							int[] newValue = new int[oldValue.length + 1];
-							System.arraycopy(oldValue, 0, newValue, 0, oldValue.length);
-							newValue[oldValue.length] = semanticChronology.getNid();
-							Arrays.sort(newValue);
-							return newValue;
-						}
-						else
-						{
-							//already there
-							return oldValue;
-						}
-					}
-				});
+			//Only a semantic written for the first time can be missing from the index, so the index doesn't need to search
+			//the (possibly very long) list of existing semantics of the component on every write.  The index is updated
+			//before the chronicle, so a store commit between the two can't leave a semantic that is never indexed.  Two
+			//concurrent first writes of a semantic may both add it, which the index tolerates, as it drops duplicates.
+			if (chronology instanceof SemanticChronology && !chronicleData.containsKey(chronology.getNid()))
+			{
+				componentToSemanticNidsIndex.add(((SemanticChronology) chronology).getReferencedComponentNid(), chronology.getNid());
 			}
 
-			MVMap<Integer, byte[]> chronicleData = getChronicleMap(assemblageNid);
 			chronicleData.compute(chronology.getNid(), (key, oldData) ->
 			{
 				if (oldData == null)
@@ -414,41 +396,12 @@ public class MVDataStoreProvider implements DataStoreSubService, ExtendedStore
 			});
 			
 			MVMap<Integer, byte[][]> versionData = getVersionMap(assemblageNid);
-			versionData.compute(chronology.getNid(), (key, oldValue) ->
+			final List<byte[]> versionsToWrite = chronology.getVersionDataToWrite();
+			byte[][] existing = versionData.get(chronology.getNid());
+			if (existing == null || existing.length >= VERSION_HASH_THRESHOLD || !containsAll(existing, versionsToWrite))
 			{
-				HashSet<ByteBuffer> existingVersions = new HashSet<>(oldValue == null ? 0 : oldValue.length);
-				if (oldValue != null)
-				{
-					for (byte[] byteArray : oldValue)
-					{
-						existingVersions.add(ByteBuffer.wrap(byteArray));
-					}
-				}
-				
-				ArrayList<ByteBuffer> versionsToAdd = new ArrayList<>(2);
-				for (byte[] v : chronology.getVersionDataToWrite())
-				{
-					ByteBuffer bb = ByteBuffer.wrap(v);
-					if (!existingVersions.contains(bb))
-					{
-						versionsToAdd.add(bb);
-					}
-				}
-				
-				byte[][] newValue = new byte[existingVersions.size() + versionsToAdd.size()][];
-				
-				int i = 0;
-				for (ByteBuffer bb : existingVersions)
-				{
-					newValue[i++] = bb.array();
-				}
-				for (ByteBuffer bb : versionsToAdd)
-				{
-					newValue[i++] = bb.array();
-				}
-				
-				return newValue;
-			});
+				versionData.compute(chronology.getNid(), (key, oldValue) -> addVersions(oldValue, versionsToWrite));
+			}
 
 			for (DataWriteListener dwl : writeListeners)
 			{
@@ -462,6 +415,76 @@ public class MVDataStoreProvider implements DataStoreSubService, ExtendedStore
 		}
 	}
 
+	/**
+	 * Versions are only ever appended, in the order they are first written.  Below this many existing versions, a 
+	 * linear search for each new version is cheaper than hashing all of the existing ones.
+	 */
+	private static final int VERSION_HASH_THRESHOLD = 16;
+
+	private static boolean containsAll(byte[][] existingVersions, List<byte[]> versions)
+	{
+		for (byte[] version : versions)
+		{
+			if (!containsVersion(existingVersions, version))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean containsVersion(byte[][] existingVersions, byte[] version)
+	{
+		for (byte[] existing : existingVersions)
+		{
+			if (Arrays.equals(existing, version))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static byte[][] addVersions(byte[][] oldValue, List<byte[]> versionsToWrite)
+	{
+		if (oldValue == null)
+		{
+			return versionsToWrite.toArray(new byte[versionsToWrite.size()][]);
+		}
+		
+		HashSet<ByteBuffer> existingVersions = null;
+		if (oldValue.length >= VERSION_HASH_THRESHOLD)
+		{
+			existingVersions = new HashSet<>(oldValue.length * 2);
+			for (byte[] byteArray : oldValue)
+			{
+				existingVersions.add(ByteBuffer.wrap(byteArray));
+			}
+		}
+		
+		ArrayList<byte[]> versionsToAdd = new ArrayList<>(2);
+		for (byte[] v : versionsToWrite)
+		{
+			boolean exists = existingVersions == null ? containsVersion(oldValue, v) : existingVersions.contains(ByteBuffer.wrap(v));
+			if (!exists)
+			{
+				versionsToAdd.add(v);
+			}
+		}
+		
+		if (versionsToAdd.isEmpty())
+		{
+			return oldValue;
+		}
+		byte[][] newValue = Arrays.copyOf(oldValue, oldValue.length + versionsToAdd.size());
+		int i = oldValue.length;
+		for (byte[] v : versionsToAdd)
+		{
+			newValue[i++] = v;
+		}
+		return newValue;
+	}
+
 	@Override
 	public int[] getAssemblageConceptNids()
 	{
@@ -537,8 +560,7 @@ public class MVDataStoreProvider implements DataStoreSubService, ExtendedStore
 	@Override
 	public int[] getSemanticNidsForComponent(final int componentNid)
 	{
-		int[] temp = componentToSemanticNidsMap.get(componentNid);
-		return temp == null ? new int[0] : temp;
+		return componentToSemanticNidsIndex.get(componentNid);
 	}
 
 	@Override
@@ -618,78 +640,9 @@ public class MVDataStoreProvider implements DataStoreSubService, ExtendedStore
 			//Our normal get behavior adds if missing, don't want to do that, if it isn't actually in use as an assemblage.
 			return IntStream.empty();
 		}
-		final Supplier<? extends Spliterator.OfInt> streamSupplier = new Supplier<OfInt>()
-		{
-			MVMap<Integer, byte[]> data = getChronicleMap(assemblageNid);
-			final long size = data.sizeAsLong();
-			Iterator<Integer> it = data.keyIterator(data.firstKey());
-			AtomicLong traversed = new AtomicLong(0);
-			
-			@Override
-			public OfInt get()
-			{
-				return new OfInt()
-				{
-					@Override
-					public long estimateSize()
-					{
-						return size - traversed.get();
-					}
-
-					@Override
-					public int characteristics()
-					{
-						return Spliterator.DISTINCT | Spliterator.CONCURRENT | Spliterator.NONNULL | Spliterator.ORDERED;
-					}
-
-					@Override
-					public OfInt trySplit()
-					{
-						if ((size - traversed.get()) > 1024)
-						{
-							int[] split = new int[1024];
-							int lastEntry = 0;
-							for (int i = 0; i < 1024; i++)
-							{
-								if (it.hasNext()) 
-								{
-									split[i] = it.next();
-									traversed.getAndIncrement();
-									lastEntry = i++;
-								}
-								else
-								{
-									break;
-								}
-							}
-							return Spliterators.spliterator(split, 0, lastEntry, 
-									Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.ORDERED | Spliterator.SUBSIZED);
-						}
-						else
-						{
-							return null;
-						}
-					}
-
-					@Override
-					public boolean tryAdvance(IntConsumer action)
-					{
-						if (it.hasNext())
-						{
-							action.accept(it.next());
-							traversed.getAndIncrement();
-							return true;
-						}
-						else
-						{
-							return false;
-						}
-					}
-				};
-			}
-		};
-		
-		return StreamSupport.intStream(streamSupplier, Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.SIZED, parallel);
+		//Each split scans its own key range with its own cursor, so parallel streams don't contend on a shared iterator.
+		final Supplier<? extends Spliterator.OfInt> streamSupplier = () -> new KeyRangeSpliterator(getChronicleMap(assemblageNid), null, null);
+		return StreamSupport.intStream(streamSupplier, KeyRangeSpliterator.CHARACTERISTICS, parallel);
 	}
 
 	/** 
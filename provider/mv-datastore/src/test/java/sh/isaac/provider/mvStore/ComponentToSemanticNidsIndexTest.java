@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.mvStore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.junit.Test;
+
+/**
+ * Loads a refset with one million members, all referencing one component, through {@link ComponentToSemanticNidsIndex}
+ * into an in memory MV store, and checks the indexed semantics. The time taken is reported by
+ * {@link ComponentToSemanticNidsIndexTimingHarness}.
+ */
+public class ComponentToSemanticNidsIndexTest
+{
+	private static final int MEMBER_COUNT = 1_000_000;
+	private static final int REFERENCED_COMPONENT_NID = Integer.MIN_VALUE + 1;
+
+	/**
+	 * Semantic nids in load order. IBDF loads don't write in nid order, so shuffle them.
+	 */
+	private static int[] generateMemberNids(int count)
+	{
+		int[] nids = IntStream.range(0, count).map(i -> Integer.MIN_VALUE + 1_000 + i).toArray();
+		Random random = new Random(count);
+		for (int i = nids.length - 1; i > 0; i--)
+		{
+			int j = random.nextInt(i + 1);
+			int temp = nids[i];
+			nids[i] = nids[j];
+			nids[j] = temp;
+		}
+		return nids;
+	}
+
+	@Test
+	public void testMillionMemberRefset()
+	{
+		MVStore store = new MVStore.Builder().open();
+		try
+		{
+			MVMap<Integer, int[]> baseMap = store.openMap("componentToSemanticNidsMap");
+			MVMap<Long, int[]> deltaMap = store.openMap("componentToSemanticNidsDeltaMap");
+			ComponentToSemanticNidsIndex index = new ComponentToSemanticNidsIndex(baseMap, deltaMap);
+			int[] memberNids = generateMemberNids(MEMBER_COUNT);
+
+			for (int memberNid : memberNids)
+			{
+				index.add(REFERENCED_COMPONENT_NID, memberNid);
+			}
+
+			int[] indexed = index.get(REFERENCED_COMPONENT_NID);
+
+			int[] expected = memberNids.clone();
+			Arrays.sort(expected);
+			assertArrayEquals(expected, indexed);
+			assertEquals(0, index.get(REFERENCED_COMPONENT_NID + 1).length);
+		}
+		finally
+		{
+			store.close();
+		}
+	}
+
+	@Test
+	public void testRepeatedAddsAreDropped()
+	{
+		MVStore store = new MVStore.Builder().open();
+		try
+		{
+			ComponentToSemanticNidsIndex index = new ComponentToSemanticNidsIndex(store.openMap("base"), store.openMap("delta"));
+			// Past CHUNK_SIZE, so the repeats land in the delta as well as the base.
+			int[] memberNids = generateMemberNids(4 * ComponentToSemanticNidsIndex.CHUNK_SIZE);
+			for (int memberNid : memberNids)
+			{
+				index.add(REFERENCED_COMPONENT_NID, memberNid);
+				index.add(REFERENCED_COMPONENT_NID, memberNid);
+			}
+			for (int i = 0; i < memberNids.length; i += 3)
+			{
+				index.add(REFERENCED_COMPONENT_NID, memberNids[i]);
+			}
+
+			int[] expected = memberNids.clone();
+			Arrays.sort(expected);
+			assertArrayEquals(expected, index.get(REFERENCED_COMPONENT_NID));
+		}
+		finally
+		{
+			store.close();
+		}
+	}
+
+	@Test
+	public void testConcurrentAddsToManyComponents() throws Exception
+	{
+		MVStore store = new MVStore.Builder().open();
+		try
+		{
+			ComponentToSemanticNidsIndex index = new ComponentToSemanticNidsIndex(store.openMap("base"), store.openMap("delta"));
+			int componentCount = 8;
+			int[] memberNids = generateMemberNids(50_000);
+
+			IntStream.range(0, memberNids.length).parallel().forEach(i -> index.add(REFERENCED_COMPONENT_NID + (i % componentCount), memberNids[i]));
+
+			for (int component = 0; component < componentCount; component++)
+			{
+				final int c = component;
+				int[] expected = IntStream.range(0, memberNids.length).filter(i -> i % componentCount == c).map(i -> memberNids[i]).sorted().toArray();
+				assertArrayEquals("component " + component, expected, index.get(REFERENCED_COMPONENT_NID + component));
+			}
+		}
+		finally
+		{
+			store.close();
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.mvStore;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+
+/**
+ * Times loading a refset whose members all reference one component through {@link ComponentToSemanticNidsIndex},
+ * into an in memory MV store, and reading the members back.
+ *
+ * Usage: ComponentToSemanticNidsIndexTimingHarness [member count] [runs]
+ *
+ * Reports the best time for the adds and the read, and fails if the read differs from the members added.
+ */
+public class ComponentToSemanticNidsIndexTimingHarness
+{
+	private static final int REFERENCED_COMPONENT_NID = Integer.MIN_VALUE + 1;
+
+	/**
+	 * Semantic nids in load order. IBDF loads don't write in nid order, so shuffle them.
+	 */
+	private static int[] generateMemberNids(int count)
+	{
+		int[] nids = IntStream.range(0, count).map(i -> Integer.MIN_VALUE + 1_000 + i).toArray();
+		Random random = new Random(count);
+		for (int i = nids.length - 1; i > 0; i--)
+		{
+			int j = random.nextInt(i + 1);
+			int temp = nids[i];
+			nids[i] = nids[j];
+			nids[j] = temp;
+		}
+		return nids;
+	}
+
+	public static void main(String[] args)
+	{
+		final int memberCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+		int[] memberNids = generateMemberNids(memberCount);
+		int[] expected = memberNids.clone();
+		Arrays.sort(expected);
+
+		long bestAddNanos = Long.MAX_VALUE;
+		long bestReadNanos = Long.MAX_VALUE;
+		for (int run = 0; run < runs; run++)
+		{
+			MVStore store = new MVStore.Builder().open();
+			try
+			{
+				MVMap<Integer, int[]> baseMap = store.openMap("componentToSemanticNidsMap");
+				MVMap<Long, int[]> deltaMap = store.openMap("componentToSemanticNidsDeltaMap");
+				ComponentToSemanticNidsIndex index = new ComponentToSemanticNidsIndex(baseMap, deltaMap);
+
+				long start = System.nanoTime();
+				for (int memberNid : memberNids)
+				{
+					index.add(REFERENCED_COMPONENT_NID, memberNid);
+				}
+				bestAddNanos = Math.min(bestAddNanos, System.nanoTime() - start);
+
+				start = System.nanoTime();
+				int[] indexed = index.get(REFERENCED_COMPONENT_NID);
+				bestReadNanos = Math.min(bestReadNanos, System.nanoTime() - start);
+
+				if (!Arrays.equals(expected, indexed))
+				{
+					throw new IllegalStateException("Read " + indexed.length + " members, not the " + memberCount + " added");
+				}
+				if (run == runs - 1)
+				{
+					System.out.println(deltaMap.size() + " unmerged chunks after the last run");
+				}
+			}
+			finally
+			{
+				store.close();
+			}
+		}
+		System.out.println("Indexed " + memberCount + " members in " + (bestAddNanos / 1_000_000) + " ms");
+		System.out.println("Read " + memberCount + " members in " + (bestReadNanos / 1_000_000) + " ms");
+	}
+}
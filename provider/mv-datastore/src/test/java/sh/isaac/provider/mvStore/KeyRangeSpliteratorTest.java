@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.mvStore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.junit.Test;
+
+/**
+ * Checks that parallel scans through {@link KeyRangeSpliterator} report every key of a large map exactly once.
+ */
+public class KeyRangeSpliteratorTest
+{
+	private static final int KEY_COUNT = 500_000;
+
+	@Test
+	public void testParallelScan()
+	{
+		MVStore store = new MVStore.Builder().open();
+		try
+		{
+			MVMap<Integer, byte[]> map = store.openMap("chronicle");
+			// Nids are negative, and every third one is in this assemblage
+			int[] expected = IntStream.range(0, KEY_COUNT).map(i -> Integer.MIN_VALUE + 1 + (i * 3)).toArray();
+			for (int nid : expected)
+			{
+				map.put(nid, new byte[0]);
+			}
+
+			for (boolean parallel : new boolean[] {false, true})
+			{
+				int[] scanned = StreamSupport.intStream(() -> new KeyRangeSpliterator(map, null, null), KeyRangeSpliterator.CHARACTERISTICS, parallel)
+						.toArray();
+				assertArrayEquals(expected, scanned);
+			}
+
+			KeyRangeSpliterator range = new KeyRangeSpliterator(map, expected[10], expected[20]);
+			assertEquals(10, range.estimateSize());
+			assertArrayEquals(IntStream.range(10, 20).map(i -> expected[i]).toArray(), StreamSupport.intStream(range, false).toArray());
+		}
+		finally
+		{
+			store.close();
+		}
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributions from 2013-2017 where performed either by US government
+ * employees, or under US Veterans Health Administration contracts.
+ *
+ * US Veterans Health Administration contributions by government employees
+ * are work of the U.S. Government and are not subject to copyright
+ * protection in the United States. Portions contributed by government
+ * employees are USGovWork (17USC §105). Not subject to copyright.
+ *
+ * Contribution by contractors to the US Veterans Health Administration
+ * during this period are contractually contributed under the
+ * Apache License, Version 2.0.
+ *
+ * See: https://www.usa.gov/government-works
+ *
+ * Contributions prior to 2013:
+ *
+ * Copyright (C) International Health Terminology Standards Development Organisation.
+ * Licensed under the Apache License, Version 2.0.
+ *
+ */
+
+
+package sh.isaac.provider.stamp;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
+import sh.isaac.api.Status;
+import sh.isaac.api.commit.Stamp;
+
+/**
+ * A dense, stamp sequence indexed cache of every stamp known to the {@link StampProvider}, held as parallel primitive
+ * columns for status, time, author, module and path. Reads take no lock, and never deserialize a {@link Stamp}.
+ *
+ * Writes are serialized. The status column is written last with release semantics, and read first with acquire
+ * semantics, so a reader that finds a stamp present also sees the rest of its columns.
+ */
+public class StampColumns {
+    private static final VarHandle STATUS_HANDLE = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final Status[] STATUS_VALUES = Status.values();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The status column holds the status ordinal + 1, so that 0 marks a sequence with no stamp.
+     */
+    private static final class Columns {
+        final byte[] status;
+        final long[] time;
+        final int[] authorNid;
+        final int[] moduleNid;
+        final int[] pathNid;
+
+        Columns(int capacity) {
+            this.status = new byte[capacity];
+            this.time = new long[capacity];
+            this.authorNid = new int[capacity];
+            this.moduleNid = new int[capacity];
+            this.pathNid = new int[capacity];
+        }
+
+        Columns(Columns columns, int capacity) {
+            this.status = Arrays.copyOf(columns.status, capacity);
+            this.time = Arrays.copyOf(columns.time, capacity);
+            this.authorNid = Arrays.copyOf(columns.authorNid, capacity);
+            this.moduleNid = Arrays.copyOf(columns.moduleNid, capacity);
+            this.pathNid = Arrays.copyOf(columns.pathNid, capacity);
+        }
+    }
+
+    private volatile Columns columns = new Columns(INITIAL_CAPACITY);
+    private volatile int upperBound = 0;
+
+    public synchronized void put(int stampSequence, Stamp stamp) {
+        Columns current = this.columns;
+        boolean grown = false;
+        if (stampSequence >= current.status.length) {
+            current = new Columns(current, Math.max(stampSequence + 1, current.status.length * 2));
+            grown = true;
+        }
+        current.time[stampSequence] = stamp.getTime();
+        current.authorNid[stampSequence] = stamp.getAuthorNid();
+        current.moduleNid[stampSequence] = stamp.getModuleNid();
+        current.pathNid[stampSequence] = stamp.getPathNid();
+        STATUS_HANDLE.setRelease(current.status, stampSequence, (byte) (stamp.getStatus().ordinal() + 1));
+        if (grown) {
+            this.columns = current;
+        }
+        if (stampSequence >= this.upperBound) {
+            this.upperBound = stampSequence + 1;
+        }
+    }
+
+    public synchronized void clear() {
+        this.columns = new Columns(INITIAL_CAPACITY);
+        this.upperBound = 0;
+    }
+
+    /**
+     * @param stampSequence the stamp sequence
+     * @return the columns holding the stamp, or null if the stamp is not present
+     */
+    private Columns columnsFor(int stampSequence) {
+        Columns current = this.columns;
+        if (stampSequence < current.status.length && (byte) STATUS_HANDLE.getAcquire(current.status, stampSequence) != 0) {
+            return current;
+        }
+        return null;
+    }
+
+    public boolean contains(int stampSequence) {
+        return columnsFor(stampSequence) != null;
+    }
+
+    /**
+     * @param stampSequence the stamp sequence
+     * @return the status, or null if the stamp is not present
+     */
+    public Status getStatus(int stampSequence) {
+        Columns current = this.columns;
+        if (stampSequence < current.status.length) {
+            byte status = (byte) STATUS_HANDLE.getAcquire(current.status, stampSequence);
+            if (status != 0) {
+                return STATUS_VALUES[status - 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The accessors below assume the caller has checked {@link #contains(int)}.
+     */
+    public long getTime(int stampSequence) {
+        return columnsFor(stampSequence).time[stampSequence];
+    }
+
+    public int getAuthorNid(int stampSequence) {
+        return columnsFor(stampSequence).authorNid[stampSequence];
+    }
+
+    public int getModuleNid(int stampSequence) {
+        return columnsFor(stampSequence).moduleNid[stampSequence];
+    }
+
+    public int getPathNid(int stampSequence) {
+        return columnsFor(stampSequence).pathNid[stampSequence];
+    }
+
+    public MutableIntSet getAuthorNids() {
+        Columns current = this.columns;
+        return collect(current, current.authorNid);
+    }
+
+    public MutableIntSet getModuleNids() {
+        Columns current = this.columns;
+        return collect(current, current.moduleNid);
+    }
+
+    public MutableIntSet getPathNids() {
+        Columns current = this.columns;
+        return collect(current, current.pathNid);
+    }
+
+    public MutableLongSet getTimes() {
+        Columns current = this.columns;
+        int bound = Math.min(this.upperBound, current.status.length);
+        MutableLongSet times = LongSets.mutable.empty();
+        for (int i = 0; i < bound; i++) {
+            if ((byte) STATUS_HANDLE.getAcquire(current.status, i) != 0) {
+                times.add(current.time[i]);
+            }
+        }
+        return times;
+    }
+
+    private MutableIntSet collect(Columns current, int[] column) {
+        int bound = Math.min(this.upperBound, current.status.length);
+        MutableIntSet values = IntSets.mutable.empty();
+        for (int i = 0; i < bound; i++) {
+            if ((byte) STATUS_HANDLE.getAcquire(current.status, i) != 0) {
+                values.add(column[i]);
+            }
+        }
+        return values;
+    }
+}
@@ -47,10 +47,13 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
@@ -63,9 +66,6 @@ import org.apache.logging.log4j.Logger;
 import org.eclipse.collections.api.list.primitive.ImmutableLongList;
 import org.eclipse.collections.api.set.primitive.ImmutableIntSet;
 import org.eclipse.collections.api.set.primitive.MutableIntSet;
-import org.eclipse.collections.api.set.primitive.MutableLongSet;
-import org.eclipse.collections.impl.factory.primitive.IntSets;
-import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.glassfish.hk2.runlevel.RunLevel;
 import org.jvnet.hk2.annotations.Service;
 import jakarta.annotation.PostConstruct;
@@ -125,15 +125,21 @@ public class StampProvider
     private transient final ConcurrentHashMap<Stamp, int[]> stampMap = new ConcurrentHashMap<>();
 
     /**
-     * The stamp sequence path nid map - performance cache only
+     * Columnar copy of inverseStampMap, indexed by stamp sequence - performance cache only
      */
-    private transient final ConcurrentHashMap<Integer, Integer> stampSequence_PathNid_Map = new ConcurrentHashMap<>();
+    private transient final StampColumns stampColumns = new StampColumns();
     
     /**
      * Inverse of sequenceToUncommittedStamp - does not need to be serialized
      */
     private transient final ConcurrentHashMap<UncommittedStamp, Integer> uncommittedStampIntegerConcurrentHashMap = new ConcurrentHashMap<>();
 
+    /**
+     * The keys of uncommittedStampIntegerConcurrentHashMap, grouped by transaction id, so a commit or cancel only visits
+     * the stamps of its own transaction - does not need to be serialized
+     */
+    private transient final ConcurrentHashMap<UUID, Set<UncommittedStamp>> uncommittedStampsByTransactionId = new ConcurrentHashMap<>();
+
     private DataStore dataStore = null;
     private ExtendedStoreData<Integer, Stamp> inverseStampMap = null;
     private ExtendedStoreData<Integer, UncommittedStamp> sequenceToUncommittedStamp = null;
@@ -159,6 +165,7 @@ public class StampProvider
     public void addStamp(Stamp stamp, int stampSequence) {
         this.stampMap.merge(stamp, new int[]{stampSequence}, this::mergeSequences);
         this.inverseStampMap.put(stampSequence, stamp);
+        this.stampColumns.put(stampSequence, stamp);
          LOG.trace("Added stamp {}", stamp);
     }
 
@@ -177,30 +184,55 @@ public class StampProvider
      * @return the task
      */
     @Override
-    public synchronized TimedTask<Void> cancel(Transaction transaction) {
-        CancelTask task = new CancelTask(transaction);
+    public TimedTask<Void> cancel(Transaction transaction) {
+        CancelTask task = new CancelTask(List.of(transaction));
         Get.workExecutors().getExecutor().execute(task);
         return task;
     }
 
     @Override
-    public synchronized TimedTask<Void> commit(Transaction transaction, long commitTime) {
-        CommitTask task = new CommitTask(transaction, commitTime);
+    public TimedTask<Void> commit(Transaction transaction, long commitTime) {
+        CommitTask task = new CommitTask(List.of(transaction), new long[] {commitTime});
+        Get.workExecutors().getForkJoinPoolExecutor().execute(task);
+        return task;
+    }
+
+    @Override
+    public TimedTask<Void> commit(List<? extends Transaction> transactions, long[] commitTimes) {
+        if (transactions.size() != commitTimes.length) {
+            throw new IllegalArgumentException("Expecting a commit time for each of " + transactions.size() + " transactions, found " + commitTimes.length);
+        }
+        CommitTask task = new CommitTask(transactions, commitTimes);
         Get.workExecutors().getForkJoinPoolExecutor().execute(task);
         return task;
     }
 
+    private void indexUncommittedStamp(UncommittedStamp uncommittedStamp) {
+        // Add within compute, so a commit or cancel that removes the set of the transaction at the same time can't
+        // take the set before the stamp is in it.
+        this.uncommittedStampsByTransactionId.compute(uncommittedStamp.getTransactionId(), (transactionId, uncommittedStamps) -> {
+            if (uncommittedStamps == null) {
+                uncommittedStamps = ConcurrentHashMap.newKeySet();
+            }
+            uncommittedStamps.add(uncommittedStamp);
+            return uncommittedStamps;
+        });
+    }
+
     private class CancelTask extends TimedTaskWithProgressTracker<Void> {
-        final Transaction transaction;
+        final List<? extends Transaction> transactions;
 
-        public CancelTask(Transaction transaction) {
-            updateTitle(getTitleString() + transaction.getTransactionId());
-            this.transaction = transaction;
+        public CancelTask(List<? extends Transaction> transactions) {
+            this.transactions = transactions;
+            if (transactions.size() == 1) {
+                updateTitle(getTitleString() + transactions.get(0).getTransactionId());
+            } else {
+                updateTitle(getTitleString() + transactions.size() + " transactions");
+            }
             Get.activeTasks().add(this);
-            addToTotalWork(uncommittedStampIntegerConcurrentHashMap.size());
         }
 
-        protected long getTime() {
+        protected long getTime(int transactionIndex) {
             return Long.MIN_VALUE;
         }
 
@@ -215,15 +247,22 @@ public class StampProvider
         @Override
         protected Void call() throws Exception {
             try {
-                uncommittedStampIntegerConcurrentHashMap.forEach(
-                        (uncommittedStamp, stampSequence) -> {
-                            try {
-                                processTransaction(uncommittedStamp, stampSequence, (TransactionImpl) transaction);
-                            } catch (Exception e) {
-                                LOG.error(e.getLocalizedMessage(), e);
-                                throw e;
+                // A single pass over the uncommitted stamps of every transaction in the task, found through the
+                // transaction id index rather than by visiting every uncommitted stamp.
+                for (int i = 0; i < transactions.size(); i++) {
+                    TransactionImpl transaction = (TransactionImpl) transactions.get(i);
+                    List<TransactionImpl> transactionAndChildren = new ArrayList<>();
+                    collectTransactions(transaction, transactionAndChildren);
+                    for (TransactionImpl transactionForStamps : transactionAndChildren) {
+                        Set<UncommittedStamp> uncommittedStamps = uncommittedStampsByTransactionId.remove(transactionForStamps.getTransactionId());
+                        if (uncommittedStamps != null) {
+                            addToTotalWork(uncommittedStamps.size());
+                            for (UncommittedStamp uncommittedStamp : uncommittedStamps) {
+                                processStamp(uncommittedStamp, transaction, i);
                             }
-                        });
+                        }
+                    }
+                }
                 return null;
             } catch (Throwable t) {
                 LOG.error(t.getLocalizedMessage(), t);
@@ -233,11 +272,18 @@ public class StampProvider
             }
         }
 
-        private void processTransaction(UncommittedStamp uncommittedStamp, Integer stampSequence, TransactionImpl transaction) {
-            // for each uncommitted stamp matching the transaction, remove the uncommitted stamp
-            // and replace with a stamp with a proper time indicating canceled...
-            if (transaction.getTransactionId().equals(uncommittedStamp.getTransactionId())) {
-                long time = getTime();
+        private void collectTransactions(TransactionImpl transaction, List<TransactionImpl> transactionAndChildren) {
+            transactionAndChildren.add(transaction);
+            for (TransactionImpl childTransaction : transaction.getChildren()) {
+                collectTransactions(childTransaction, transactionAndChildren);
+            }
+        }
+
+        private void processStamp(UncommittedStamp uncommittedStamp, TransactionImpl transaction, int transactionIndex) {
+            // remove the uncommitted stamp and replace with a stamp with a proper time, or one indicating canceled...
+            Integer stampSequence = uncommittedStampIntegerConcurrentHashMap.get(uncommittedStamp);
+            if (stampSequence != null) {
+                long time = getTime(transactionIndex);
                 if (time != Long.MIN_VALUE) { // Long.MIN_VALUE ==  canceled...
                     if (uncommittedStamp.getTime() != Long.MAX_VALUE) {
                         time = uncommittedStamp.getTime();
@@ -258,23 +304,21 @@ public class StampProvider
                 sequenceToUncommittedStamp.remove(stampSequence);
             }
             completedUnitOfWork();
-            for (TransactionImpl childTransaction : transaction.getChildren()) {
-                processTransaction(uncommittedStamp, stampSequence, childTransaction);
-            }
         }
     }
 
 
     private class CommitTask extends CancelTask {
-        final long commitTime;
+        final long[] commitTimes;
 
-        public CommitTask(Transaction transaction, long commitTime) {
-            super(transaction);
-            this.commitTime = commitTime;
+        public CommitTask(List<? extends Transaction> transactions, long[] commitTimes) {
+            super(transactions);
+            this.commitTimes = commitTimes;
         }
 
-        protected long getTime() {
-            return this.commitTime;
+        @Override
+        protected long getTime(int transactionIndex) {
+            return this.commitTimes[transactionIndex];
         }
         protected Status getStatus(Status uncommittedStatus) {
             return uncommittedStatus;
@@ -516,12 +560,14 @@ public class StampProvider
             LOG.debug("Looking for data store based stamp data");
             this.nextStampSequence.set(FIRST_STAMP_SEQUENCE);
             this.stampMap.clear();
-            this.stampSequence_PathNid_Map.clear();
+            this.stampColumns.clear();
             this.uncommittedStampIntegerConcurrentHashMap.clear();
+            this.uncommittedStampsByTransactionId.clear();
             
             inverseStampMap.getStream(false).forEach(stampPair ->
             {
                 this.stampMap.merge(stampPair.getValue(), new int[]{stampPair.getKey()}, this::mergeSequences);
+                this.stampColumns.put(stampPair.getKey(), stampPair.getValue());
                 if (stampPair.getKey() >= nextStampSequence.get()) {
                     nextStampSequence.set(stampPair.getKey() + 1);
                 }
@@ -530,6 +576,7 @@ public class StampProvider
             sequenceToUncommittedStamp.getStream(true).forEach(stampPair ->
             {
                 this.uncommittedStampIntegerConcurrentHashMap.put(stampPair.getValue(), stampPair.getKey());
+                indexUncommittedStamp(stampPair.getValue());
             });
 
         }
@@ -553,9 +600,10 @@ public class StampProvider
             ((ExtendedStore)dataStore).closeStore(SEQUENCE_TO_UNCOMITTED_STAMP_STORAGE_NAME);
         }
         uncommittedStampIntegerConcurrentHashMap.clear();
+        uncommittedStampsByTransactionId.clear();
         this.nextStampSequence.set(FIRST_STAMP_SEQUENCE);
         this.stampMap.clear();
-        this.stampSequence_PathNid_Map.clear();
+        this.stampColumns.clear();
         this.sequenceToUncommittedStamp = null;
         this.inverseStampMap = null;
         this.dataStore = null;
@@ -588,9 +636,8 @@ public class StampProvider
             return TermAux.USER.getNid();
         }
 
-        if (this.inverseStampMap.containsKey(stampSequence)) {
-            return this.inverseStampMap.get(stampSequence)
-                    .getAuthorNid();
+        if (this.stampColumns.contains(stampSequence)) {
+            return this.stampColumns.getAuthorNid(stampSequence);
         }
         UncommittedStamp us = sequenceToUncommittedStamp.get(stampSequence);
         if (us != null) {
@@ -637,9 +684,8 @@ public class StampProvider
             return TermAux.UNSPECIFIED_MODULE.getNid();
         }
 
-        if (this.inverseStampMap.containsKey(stampSequence)) {
-            return this.inverseStampMap.get(stampSequence)
-                    .getModuleNid();
+        if (this.stampColumns.contains(stampSequence)) {
+            return this.stampColumns.getModuleNid(stampSequence);
         }
         UncommittedStamp us = sequenceToUncommittedStamp.get(stampSequence);
         if (us != null) {
@@ -680,14 +726,8 @@ public class StampProvider
             return TermAux.DEVELOPMENT_PATH.getNid();
         }
 
-        if (this.stampSequence_PathNid_Map.containsKey(stampSequence)) {
-            return this.stampSequence_PathNid_Map.get(stampSequence);
-        }
-
-        if (this.inverseStampMap.containsKey(stampSequence)) {
-            this.stampSequence_PathNid_Map.put(stampSequence, this.inverseStampMap.get(stampSequence)
-                    .getPathNid());
-            return this.stampSequence_PathNid_Map.get(stampSequence);
+        if (this.stampColumns.contains(stampSequence)) {
+            return this.stampColumns.getPathNid(stampSequence);
         }
         UncommittedStamp us = sequenceToUncommittedStamp.get(stampSequence);
         if (us != null) {
@@ -766,8 +806,10 @@ public class StampProvider
                     }
                     LOG.trace("Putting {}, {} into uncommitted stamp to sequence map", () -> usp.toString(), () -> stampSequence);
                     this.uncommittedStampIntegerConcurrentHashMap.put(usp, stampSequence);
+                    indexUncommittedStamp(usp);
                     this.sequenceToUncommittedStamp.put(stampSequence, usp);
                     this.inverseStampMap.put(stampSequence, stampKey);
+                    this.stampColumns.put(stampSequence, stampKey);
                     return stampSequence;
                 } finally {
                     this.stampLock.unlock();
@@ -787,6 +829,7 @@ public class StampProvider
                     OptionalInt stampValue = OptionalInt.of(this.nextStampSequence.getAndIncrement());
 
                     this.inverseStampMap.put(stampValue.getAsInt(), stampKey);
+                    this.stampColumns.put(stampValue.getAsInt(), stampKey);
                     this.stampMap.merge(stampKey, new int[]{stampValue.getAsInt()}, this::mergeSequences);
                 }
             } finally {
@@ -805,7 +848,7 @@ public class StampProvider
     @Override
     public IntStream getStampSequences() {
         return IntStream.rangeClosed(FIRST_STAMP_SEQUENCE, this.nextStampSequence.get())
-                .filter((stampSequence) -> this.inverseStampMap.containsKey(stampSequence));
+                .filter((stampSequence) -> this.stampColumns.contains(stampSequence));
     }
 
     /**
@@ -820,9 +863,9 @@ public class StampProvider
             return Status.CANCELED;
         }
 
-        if (this.inverseStampMap.containsKey(stampSequence)) {
-            return this.inverseStampMap.get(stampSequence)
-                    .getStatus();
+        final Status status = this.stampColumns.getStatus(stampSequence);
+        if (status != null) {
+            return status;
         }
         UncommittedStamp us = sequenceToUncommittedStamp.get(stampSequence);
         if (us != null) {
@@ -847,9 +890,8 @@ public class StampProvider
             return Long.MIN_VALUE;
         }
 
-        if (this.inverseStampMap.containsKey(stampSequence)) {
-            return this.inverseStampMap.get(stampSequence)
-                    .getTime();
+        if (this.stampColumns.contains(stampSequence)) {
+            return this.stampColumns.getTime(stampSequence);
         }
         UncommittedStamp us = sequenceToUncommittedStamp.get(stampSequence);
         if (us != null) {
@@ -909,41 +951,28 @@ public class StampProvider
 
     @Override
     public ImmutableIntSet getPathsInUse() {
-        MutableIntSet pathsInUse = IntSets.mutable.empty();
-        stampSequence_PathNid_Map.values().forEach(pathNid -> pathsInUse.add(pathNid));
-        return pathsInUse.toImmutable();
+        return stampColumns.getPathNids().toImmutable();
     }
 
     @Override
     public ImmutableIntSet getModulesInUse() {
-        MutableIntSet modulesInUse = IntSets.mutable.empty();
-        for (Entry<Integer, Stamp> stamp: inverseStampMap.getEntrySet()) {
-            if (!Get.conceptService().hasConcept(stamp.getValue().getModuleNid())) {
-                LOG.error("Have a stamp with a module that doesn't exist?!: {}, {}", stamp.getValue(), Get.identifierService().getUuidPrimordialStringForNid(stamp.getValue().getModuleNid()));
+        MutableIntSet modulesInUse = stampColumns.getModuleNids().reject(moduleNid -> {
+            if (!Get.conceptService().hasConcept(moduleNid)) {
+                LOG.error("Have a stamp with a module that doesn't exist?!: {}, {}", moduleNid, Get.identifierService().getUuidPrimordialStringForNid(moduleNid));
+                return true;
             }
-            else {
-                modulesInUse.add(stamp.getValue().getModuleNid());
-            }
-        }
+            return false;
+        });
         return modulesInUse.toImmutable();
     }
 
     @Override
     public ImmutableIntSet getAuthorsInUse() {
-        MutableIntSet authorsInUse = IntSets.mutable.empty();
-        for (Entry<Integer, Stamp> stamp: inverseStampMap.getEntrySet()) {
-            authorsInUse.add(stamp.getValue().getAuthorNid());
-        }
-        return authorsInUse.toImmutable();
+        return stampColumns.getAuthorNids().toImmutable();
     }
 
     @Override
     public ImmutableLongList getTimesInUse() {
-        MutableLongSet timesInUse = LongSets.mutable.empty();
-        for (Entry<Integer, Stamp> stamp: inverseStampMap.getEntrySet()) {
-            timesInUse.add(stamp.getValue().getTime());
-        }
-        return timesInUse.toSortedList().toImmutable();
+        return stampColumns.getTimes().toSortedList().toImmutable();
     }
 }
-
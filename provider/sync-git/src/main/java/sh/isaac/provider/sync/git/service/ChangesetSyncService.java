@@ -41,6 +41,9 @@ package sh.isaac.provider.sync.git.service;
 
 //~--- JDK imports ------------------------------------------------------------
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
@@ -89,6 +92,12 @@ public class ChangesetSyncService {
    /** The sync JSON files. */
    public static boolean syncJSONFiles = false;
 
+   /** 
+    * If set, changeset files older than this are compacted into monthly packs before each sync, so the repository 
+    * holds one pack per month rather than one file per session. 
+    */
+   public static Duration compactChangesetsOlderThan = null;
+
    //~--- fields --------------------------------------------------------------
 
    /** The scheduled check. */
@@ -220,6 +229,20 @@ public class ChangesetSyncService {
                         LookupService.get()
                                      .getService(ChangeSetWriterService.class)
                                      .pause();
+
+                        if (compactChangesetsOlderThan != null) {
+                           LOG.debug("Compacting changesets older than {}", compactChangesetsOlderThan);
+
+                           final List<String> replacedFiles = LookupService.get()
+                                                                          .getService(ChangeSetLoadService.class)
+                                                                          .compactChangesetFiles(Instant.now()
+                                                                                .minus(compactChangesetsOlderThan));
+
+                           if (!replacedFiles.isEmpty()) {
+                              this.ssg.removeFiles(replacedFiles.toArray(new String[replacedFiles.size()]));
+                           }
+                        }
+
                         LOG.debug("Adding untracked local files");
                         this.ssg.addUntrackedFiles();
                         LOG.debug("Committing and Syncing");
@@ -25,8 +25,11 @@ import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class RF2DirectExporter extends TimedTaskWithProgressTracker<Void> implements PersistTaskResult {
@@ -36,6 +39,9 @@ public class RF2DirectExporter extends TimedTaskWithProgressTracker<Void> implem
     private final String exportMessage;
     private final LocalDateTime localDateTimeNow;
     private List<RF2Configuration> exportConfigurations;
+    private final List<List<RF2Configuration>> exportConfigurationGroups;
+    private final EnumSet<RF2ReleaseType> rf2ReleaseTypes;
+    private final long deltaChangedAfter;
     // TODO consider replacing readSemaphore with TaskCountManager
     private static final int READ_PERMITS = Runtime.getRuntime().availableProcessors() * 2;
     private final Semaphore readSemaphore = new Semaphore(READ_PERMITS);
@@ -44,12 +50,26 @@ public class RF2DirectExporter extends TimedTaskWithProgressTracker<Void> implem
     private boolean isDescriptorAssemblagePresent;
 
     public RF2DirectExporter(ManifoldCoordinate manifold, File exportDirectory, String exportMessage){
+        this(manifold, exportDirectory, exportMessage, Optional.empty());
+    }
+
+    /**
+     * Exports the Full and Snapshot releases, and the Delta release if deltaChangedAfter is present. Each exporter
+     * reads its chronologies once, and writes the rows of every release to its files.
+     *
+     * @param deltaChangedAfter - Timestamp to use as the start time for calculating the delta.
+     */
+    public RF2DirectExporter(ManifoldCoordinate manifold, File exportDirectory, String exportMessage, Optional<Long> deltaChangedAfter){
         this.manifold = manifold;
         this.exportDirectory = exportDirectory;
         this.exportMessage = exportMessage;
         this.localDateTimeNow = LocalDateTime.now();
         this.rf2ExportHelper = new RF2ExportHelper(this.manifold);
         this.exportConfigurations = new ArrayList<>();
+        this.exportConfigurationGroups = new ArrayList<>();
+        this.rf2ReleaseTypes = deltaChangedAfter.isPresent()
+                ? EnumSet.allOf(RF2ReleaseType.class) : EnumSet.of(RF2ReleaseType.FULL, RF2ReleaseType.SNAPSHOT);
+        this.deltaChangedAfter = deltaChangedAfter.orElse(Long.MIN_VALUE);
         this.preExportUtility = new PreExportUtility(this.manifold);
 
         isDescriptorAssemblagePresent = Get.identifierService().hasUuid(UuidT3Generator.fromSNOMED("900000000000456007"));
@@ -70,40 +90,37 @@ public class RF2DirectExporter extends TimedTaskWithProgressTracker<Void> implem
         versionTypeIgnoreList.add(VersionType.LOGIC_GRAPH);
         versionTypeIgnoreList.add(VersionType.RF2_RELATIONSHIP);
 
-        for(RF2ReleaseType rf2ReleaseType : RF2ReleaseType.values()){
-
-            this.exportConfigurations.add(new RF2Configuration(RF2FileType.CONCEPT, rf2ReleaseType, this.localDateTimeNow, this.exportDirectory, noTreeTaxonomy, this.rf2ExportHelper));
-            this.exportConfigurations.add(new RF2Configuration(RF2FileType.DESCRIPTION, rf2ReleaseType, this.localDateTimeNow, this.exportDirectory, noTreeTaxonomy, this.rf2ExportHelper));
-            this.exportConfigurations.add(new RF2Configuration(RF2FileType.RELATIONSHIP, rf2ReleaseType, this.localDateTimeNow, this.exportDirectory, noTreeTaxonomy, this.rf2ExportHelper));
-            this.exportConfigurations.add(new RF2Configuration(RF2FileType.STATED_RELATIONSHIP, rf2ReleaseType, this.localDateTimeNow, this.exportDirectory, noTreeTaxonomy, this.rf2ExportHelper));
-            this.exportConfigurations.add(new RF2Configuration(RF2FileType.IDENTIFIER, rf2ReleaseType, this.localDateTimeNow, this.exportDirectory, noTreeTaxonomy, this.rf2ExportHelper));
-
-            Arrays.stream(
-                    noTreeTaxonomy
-                            .getTaxonomyChildConceptNids(MetaData.LANGUAGE____SOLOR.getNid()))
-                    .filter(langAssemblageNid -> currentAssemblageNids.contains(langAssemblageNid))
-                    .forEach(languageNid ->{
-                        exportConfigurations.add(
-                                new RF2Configuration(RF2FileType.LANGUAGE_REFSET, rf2ReleaseType,
-                                        this.localDateTimeNow, languageNid, this.exportDirectory,
-                                        this.preExportUtility, this.isDescriptorAssemblagePresent, noTreeTaxonomy, this.rf2ExportHelper));
-                    });
-
-            Arrays.stream(
-                    Get.assemblageService().getAssemblageConceptNids())
-                    .filter(nid -> !versionTypeIgnoreList.contains(Get.assemblageService().getVersionTypeForAssemblage(nid)))
-                    .filter(nid -> descriptorAssemblageNid != nid)
-                    .forEach(assemblageNid -> {
-                        exportConfigurations.add(
-                                new RF2Configuration(RF2FileType.REFSET, rf2ReleaseType, this.localDateTimeNow, assemblageNid,
-                                        Get.concept(assemblageNid).getFullyQualifiedName(),
-                                        Get.assemblageService().getVersionTypeForAssemblage(assemblageNid),
-                                        this.exportDirectory, this.preExportUtility, this.isDescriptorAssemblagePresent, noTreeTaxonomy, this.rf2ExportHelper));
-                    });
-        }
+        addConfigurations(rf2ReleaseType -> new RF2Configuration(RF2FileType.CONCEPT, rf2ReleaseType, this.localDateTimeNow, this.exportDirectory, noTreeTaxonomy, this.rf2ExportHelper));
+        addConfigurations(rf2ReleaseType -> new RF2Configuration(RF2FileType.DESCRIPTION, rf2ReleaseType, this.localDateTimeNow, this.exportDirectory, noTreeTaxonomy, this.rf2ExportHelper));
+        addConfigurations(rf2ReleaseType -> new RF2Configuration(RF2FileType.RELATIONSHIP, rf2ReleaseType, this.localDateTimeNow, this.exportDirectory, noTreeTaxonomy, this.rf2ExportHelper));
+        addConfigurations(rf2ReleaseType -> new RF2Configuration(RF2FileType.STATED_RELATIONSHIP, rf2ReleaseType, this.localDateTimeNow, this.exportDirectory, noTreeTaxonomy, this.rf2ExportHelper));
+        addConfigurations(rf2ReleaseType -> new RF2Configuration(RF2FileType.IDENTIFIER, rf2ReleaseType, this.localDateTimeNow, this.exportDirectory, noTreeTaxonomy, this.rf2ExportHelper));
+
+        Arrays.stream(
+                noTreeTaxonomy
+                        .getTaxonomyChildConceptNids(MetaData.LANGUAGE____SOLOR.getNid()))
+                .filter(langAssemblageNid -> currentAssemblageNids.contains(langAssemblageNid))
+                .forEach(languageNid ->{
+                    addConfigurations(rf2ReleaseType ->
+                            new RF2Configuration(RF2FileType.LANGUAGE_REFSET, rf2ReleaseType,
+                                    this.localDateTimeNow, languageNid, this.exportDirectory,
+                                    this.preExportUtility, this.isDescriptorAssemblagePresent, noTreeTaxonomy, this.rf2ExportHelper));
+                });
+
+        Arrays.stream(
+                Get.assemblageService().getAssemblageConceptNids())
+                .filter(nid -> !versionTypeIgnoreList.contains(Get.assemblageService().getVersionTypeForAssemblage(nid)))
+                .filter(nid -> descriptorAssemblageNid != nid)
+                .forEach(assemblageNid -> {
+                    addConfigurations(rf2ReleaseType ->
+                            new RF2Configuration(RF2FileType.REFSET, rf2ReleaseType, this.localDateTimeNow, assemblageNid,
+                                    Get.concept(assemblageNid).getFullyQualifiedName(),
+                                    Get.assemblageService().getVersionTypeForAssemblage(assemblageNid),
+                                    this.exportDirectory, this.preExportUtility, this.isDescriptorAssemblagePresent, noTreeTaxonomy, this.rf2ExportHelper));
+                });
 
         updateTitle("Export " + this.exportMessage);
-        addToTotalWork(exportConfigurations.size() + 4);
+        addToTotalWork(exportConfigurationGroups.size() + 4);
 
         Get.activeTasks().addListener((SetChangeListener<? super Task<?>>) change -> {
             if(change.wasRemoved()) {
@@ -113,71 +130,63 @@ public class RF2DirectExporter extends TimedTaskWithProgressTracker<Void> implem
 
         try {
 
-            RF2Configuration fullDescriptorAssemblageConfiguration = null;
-            RF2Configuration snapshotDescriptorAssemblageConfiguration = null;
+            List<RF2Configuration> descriptorAssemblageConfigurations = null;
 
             if (isDescriptorAssemblagePresent) {
-                fullDescriptorAssemblageConfiguration = new RF2Configuration(RF2FileType.REFSET, RF2ReleaseType.FULL, this.localDateTimeNow,
-                        descriptorAssemblageNid, Get.concept(descriptorAssemblageNid).getFullyQualifiedName(),
-                        Get.assemblageService().getVersionTypeForAssemblage(descriptorAssemblageNid),
-                        this.exportDirectory, this.preExportUtility, this.isDescriptorAssemblagePresent, noTreeTaxonomy, this.rf2ExportHelper);
-
-                snapshotDescriptorAssemblageConfiguration = new RF2Configuration(RF2FileType.REFSET, RF2ReleaseType.SNAPSHOT, this.localDateTimeNow,
+                descriptorAssemblageConfigurations = makeConfigurations(rf2ReleaseType ->
+                        new RF2Configuration(RF2FileType.REFSET, rf2ReleaseType, this.localDateTimeNow,
                         descriptorAssemblageNid, Get.concept(descriptorAssemblageNid).getFullyQualifiedName(),
                         Get.assemblageService().getVersionTypeForAssemblage(descriptorAssemblageNid),
-                        this.exportDirectory, this.preExportUtility, this.isDescriptorAssemblagePresent, noTreeTaxonomy, this.rf2ExportHelper);
-
+                        this.exportDirectory, this.preExportUtility, this.isDescriptorAssemblagePresent, noTreeTaxonomy, this.rf2ExportHelper));
             }
 
-            for (RF2Configuration rf2Configuration : this.exportConfigurations) {
+            for (List<RF2Configuration> rf2Configurations : this.exportConfigurationGroups) {
+
+                RF2Configuration rf2Configuration = rf2Configurations.get(0);
 
                 switch (rf2Configuration.getRf2FileType()){
                     case CONCEPT:
 
                         Get.executor().submit(
-                                new RF2ConceptExporter(rf2Configuration, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
+                                new RF2ConceptExporter(rf2Configurations, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
                         break;
                     case DESCRIPTION:
 
                         Get.executor().submit(
-                                new RF2DescriptionExporter(rf2Configuration, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
+                                new RF2DescriptionExporter(rf2Configurations, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
                         break;
                     case RELATIONSHIP:
                     case STATED_RELATIONSHIP:
 
                         Get.executor().submit(
-                                new RF2RelationshipExporter(rf2Configuration, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
+                                new RF2RelationshipExporter(rf2Configurations, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
                         break;
                     case IDENTIFIER:
 
                         Get.executor().submit(
-                                new RF2IdentifierExporter(rf2Configuration, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
+                                new RF2IdentifierExporter(rf2Configurations, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
                         break;
                     case LANGUAGE_REFSET:
 
                         Get.executor().submit(
-                                new RF2LanguageRefsetExporter(rf2Configuration, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
+                                new RF2LanguageRefsetExporter(rf2Configurations, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
                         break;
                     case REFSET:
 
                         Get.executor().submit(
-                                new RF2RefsetExporter(rf2Configuration, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
+                                new RF2RefsetExporter(rf2Configurations, rf2ExportHelper, rf2Configuration.getIntStream(), readSemaphore));
                         break;
                 }
                 if(isDescriptorAssemblagePresent && rf2Configuration.getRefsetDescriptorDefinitions().size() > 0) {
-                    fullDescriptorAssemblageConfiguration.getRefsetDescriptorDefinitions().addAll(rf2Configuration.getRefsetDescriptorDefinitions());
-                    snapshotDescriptorAssemblageConfiguration.getRefsetDescriptorDefinitions().addAll(rf2Configuration.getRefsetDescriptorDefinitions());
-
+                    descriptorAssemblageConfigurations.forEach(descriptorAssemblageConfiguration ->
+                            descriptorAssemblageConfiguration.getRefsetDescriptorDefinitions().addAll(rf2Configuration.getRefsetDescriptorDefinitions()));
                 }
             }
 
             if(isDescriptorAssemblagePresent) {
                 Get.executor().submit(
-                        new RF2RefsetExporter(fullDescriptorAssemblageConfiguration, rf2ExportHelper,
-                                fullDescriptorAssemblageConfiguration.getIntStream(), readSemaphore));
-                Get.executor().submit(
-                        new RF2RefsetExporter(snapshotDescriptorAssemblageConfiguration, rf2ExportHelper,
-                                fullDescriptorAssemblageConfiguration.getIntStream(), readSemaphore));
+                        new RF2RefsetExporter(descriptorAssemblageConfigurations, rf2ExportHelper,
+                                descriptorAssemblageConfigurations.get(0).getIntStream(), readSemaphore));
             }
 
             completedUnitOfWork();
@@ -198,4 +207,24 @@ public class RF2DirectExporter extends TimedTaskWithProgressTracker<Void> implem
 
         return null;
     }
+
+    /**
+     * Makes a configuration for each release type of one file type or assemblage, and adds them to the export as a
+     * group, which one exporter writes.
+     */
+    private void addConfigurations(Function<RF2ReleaseType, RF2Configuration> configurationFactory){
+        List<RF2Configuration> rf2Configurations = makeConfigurations(configurationFactory);
+        this.exportConfigurations.addAll(rf2Configurations);
+        this.exportConfigurationGroups.add(rf2Configurations);
+    }
+
+    private List<RF2Configuration> makeConfigurations(Function<RF2ReleaseType, RF2Configuration> configurationFactory){
+        List<RF2Configuration> rf2Configurations = new ArrayList<>();
+        for(RF2ReleaseType rf2ReleaseType : this.rf2ReleaseTypes){
+            RF2Configuration rf2Configuration = configurationFactory.apply(rf2ReleaseType);
+            rf2Configuration.setDeltaChangedAfter(this.deltaChangedAfter);
+            rf2Configurations.add(rf2Configuration);
+        }
+        return rf2Configurations;
+    }
 }
@@ -47,6 +47,7 @@ public class RF2Configuration {
     private final TaxonomySnapshot noTreeTaxonomySnapshot;
     private final RF2ReleaseType rf2ReleaseType;
     private final RF2ExportHelper rf2ExportHelper;
+    private long deltaChangedAfter = Long.MIN_VALUE;
     
     
     /**
@@ -425,4 +426,15 @@ public class RF2Configuration {
     public RF2ReleaseType getRf2ReleaseType() {
         return rf2ReleaseType;
     }
+
+    /**
+     * @return the time after which a version is written to a {@link RF2ReleaseType#DELTA} file
+     */
+    public long getDeltaChangedAfter() {
+        return deltaChangedAfter;
+    }
+
+    public void setDeltaChangedAfter(long deltaChangedAfter) {
+        this.deltaChangedAfter = deltaChangedAfter;
+    }
 }
@@ -4,8 +4,7 @@ public enum RF2ReleaseType {
 
     FULL("Full"),
     SNAPSHOT("Snapshot"),
-//    DELTA("Delta");
-    ;
+    DELTA("Delta");
 
     private String releaseTypeName;
 
@@ -2,44 +2,104 @@ package sh.isaac.solor.rf2.exporters;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import sh.isaac.api.chronicle.LatestVersion;
+import sh.isaac.api.chronicle.Version;
 import sh.isaac.api.task.TimedTaskWithProgressTracker;
 import sh.isaac.solor.rf2.config.RF2Configuration;
+import sh.isaac.solor.rf2.config.RF2ReleaseType;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 
 /**
  * 2019-01-23
  * aks8m - https://github.com/aks8m
+ *
+ * Exports one file type, or one assemblage, to a file for each of the given configurations, which differ only in
+ * their release type. Each chronology is read once, and its rows are written to the output of each release type.
  */
 public abstract class RF2AbstractExporter extends TimedTaskWithProgressTracker<Void> {
 
     protected static final Logger LOG = LogManager.getLogger();
-    private final RF2Configuration rf2Configuration;
+    private final EnumMap<RF2ReleaseType, RF2Configuration> rf2Configurations = new EnumMap<>(RF2ReleaseType.class);
+    private final EnumMap<RF2ReleaseType, StringBuilder> outputsToWrite = new EnumMap<>(RF2ReleaseType.class);
     private final int progressStep = 10000;
     private int progressCount =  0;
-    protected final StringBuilder outputToWrite;
 
-    public RF2AbstractExporter(RF2Configuration rf2Configuration) {
-        this.rf2Configuration = rf2Configuration;
-        this.outputToWrite = new StringBuilder();
+    public RF2AbstractExporter(List<RF2Configuration> rf2Configurations) {
 
-        initDirectoryAndFile();
-        this.clearLineOutput();
-        this.outputToWrite.append(rf2Configuration.getFileHeader());
+        for (RF2Configuration rf2Configuration : rf2Configurations) {
+            this.rf2Configurations.put(rf2Configuration.getRf2ReleaseType(), rf2Configuration);
+            this.outputsToWrite.put(rf2Configuration.getRf2ReleaseType(), new StringBuilder());
+
+            initDirectoryAndFile(rf2Configuration);
+            this.getOutput(rf2Configuration.getRf2ReleaseType()).append(rf2Configuration.getFileHeader());
+        }
         this.writeToFile();
         this.clearLineOutput();
 
-        updateTitle("Exporting " + rf2Configuration.getMessage() + " " + rf2Configuration.getRf2ReleaseType());
+        RF2Configuration rf2Configuration = rf2Configurations.get(0);
+        updateTitle("Exporting " + rf2Configuration.getMessage() + " " + rf2Configurations.stream()
+                .map(configuration -> configuration.getRf2ReleaseType().toString())
+                .collect(Collectors.joining("/")));
         updateMessage(rf2Configuration.getFilePath().getFileName().toString());
-        addToTotalWork(this.rf2Configuration.getExportCount() / progressStep);
+        addToTotalWork(rf2Configuration.getExportCount() / progressStep);
+    }
+
+    /**
+     * @param rf2ReleaseType a release type this exporter writes
+     * @return the rows to write to the file of the release type
+     */
+    protected StringBuilder getOutput(RF2ReleaseType rf2ReleaseType){
+        return this.outputsToWrite.get(rf2ReleaseType);
+    }
+
+    /**
+     * Writes rows for the versions of one chronology: all of them to the FULL output, the latest to the SNAPSHOT
+     * output, and those with a time after the delta time of the configuration to the DELTA output.
+     *
+     * @param versions the versions of the chronology
+     * @param latestVersion the latest version of the chronology
+     * @param rowWriter appends the rows for a version to the output of a release type
+     */
+    protected <V extends Version> void writeVersions(List<V> versions, LatestVersion<V> latestVersion,
+                                                     BiConsumer<RF2ReleaseType, V> rowWriter){
+
+        for (RF2Configuration rf2Configuration : this.rf2Configurations.values()) {
+
+            final RF2ReleaseType rf2ReleaseType = rf2Configuration.getRf2ReleaseType();
+
+            switch (rf2ReleaseType){
+                case FULL:
+                    versions.forEach(version -> rowWriter.accept(rf2ReleaseType, version));
+                    break;
+                case SNAPSHOT:
+                    latestVersion.ifPresent(version -> rowWriter.accept(rf2ReleaseType, version));
+                    break;
+                case DELTA:
+                    versions.stream()
+                            .filter(version -> version.getTime() > rf2Configuration.getDeltaChangedAfter())
+                            .forEach(version -> rowWriter.accept(rf2ReleaseType, version));
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Appends the same rows to the output of each release type.
+     */
+    protected void appendToAllOutputs(CharSequence rows){
+        this.outputsToWrite.values().forEach(output -> output.append(rows));
     }
 
     protected void clearLineOutput(){
-        this.outputToWrite.setLength(0);
+        this.outputsToWrite.values().forEach(output -> output.setLength(0));
     }
 
     protected void incrementProgressCount(){
@@ -52,26 +112,29 @@ public abstract class RF2AbstractExporter extends TimedTaskWithProgressTracker<V
         }
     }
 
-    private void initDirectoryAndFile(){
+    private void initDirectoryAndFile(RF2Configuration rf2Configuration){
         try {
             Files.createDirectories(rf2Configuration.getFilePath().getParent());
             Files.createFile(rf2Configuration.getFilePath());
         }catch (IOException ioE){
             ioE.printStackTrace();
-            LOG.warn("Can't init directory and file: " + this.rf2Configuration.getFilePath());
+            LOG.warn("Can't init directory and file: " + rf2Configuration.getFilePath());
         }
     }
 
     protected void writeToFile(){
 
-        if(this.outputToWrite != null) {
-            try {
-                Files.write(rf2Configuration.getFilePath(), this.outputToWrite.toString().getBytes(Charset.forName("UTF-8")), StandardOpenOption.APPEND);
-            } catch (Exception ioE) {
-                ioE.printStackTrace();
+        for (RF2Configuration rf2Configuration : this.rf2Configurations.values()) {
+
+            StringBuilder output = this.getOutput(rf2Configuration.getRf2ReleaseType());
+
+            if (output.length() > 0) {
+                try {
+                    Files.write(rf2Configuration.getFilePath(), output.toString().getBytes(Charset.forName("UTF-8")), StandardOpenOption.APPEND);
+                } catch (Exception ioE) {
+                    ioE.printStackTrace();
+                }
             }
-        }else{
-            LOG.warn("Can't write NULL string to file: " + this.rf2Configuration.getFilePath());
         }
     }
 
@@ -80,11 +143,11 @@ public abstract class RF2AbstractExporter extends TimedTaskWithProgressTracker<V
             strings.stream()
                     .forEach(string -> {
                         this.clearLineOutput();
-                        this.outputToWrite.append(string);
+                        this.appendToAllOutputs(string);
                         this.writeToFile();
                     });
         }else {
-            LOG.warn("Can't write NULL List<String> to file: " + this.rf2Configuration.getFilePath());
+            LOG.warn("Can't write NULL List<String> to file: " + this.rf2Configurations.values().iterator().next().getFilePath());
         }
     }
 }
@@ -1,12 +1,13 @@
 package sh.isaac.solor.rf2.exporters.core;
 
 import sh.isaac.api.Get;
+import sh.isaac.api.component.concept.ConceptChronology;
 import sh.isaac.api.component.concept.ConceptVersion;
-import sh.isaac.api.task.TimedTaskWithProgressTracker;
 import sh.isaac.solor.rf2.config.RF2Configuration;
 import sh.isaac.solor.rf2.exporters.RF2AbstractExporter;
 import sh.isaac.solor.rf2.utility.RF2ExportHelper;
 
+import java.util.List;
 import java.util.concurrent.Semaphore;
 import java.util.stream.IntStream;
 
@@ -15,12 +16,10 @@ public class RF2ConceptExporter extends RF2AbstractExporter {
     private final RF2ExportHelper rf2ExportHelper;
     private final IntStream intStream;
     private final Semaphore readSemaphore;
-    private final RF2Configuration rf2Configuration;
 
-    public RF2ConceptExporter(RF2Configuration rf2Configuration, RF2ExportHelper rf2ExportHelper,
+    public RF2ConceptExporter(List<RF2Configuration> rf2Configurations, RF2ExportHelper rf2ExportHelper,
                               IntStream intStream, Semaphore readSemaphore) {
-        super(rf2Configuration);
-        this.rf2Configuration = rf2Configuration;
+        super(rf2Configurations);
         this.rf2ExportHelper = rf2ExportHelper;
         this.intStream = intStream;
         this.readSemaphore = readSemaphore;
@@ -39,33 +38,18 @@ public class RF2ConceptExporter extends RF2AbstractExporter {
                         super.clearLineOutput();
                         super.incrementProgressCount();
 
-                        switch (this.rf2Configuration.getRf2ReleaseType()){
-                            case FULL:
-
-                                Get.concept(nid).getVersionList().stream()
-                                        .forEach(version ->
-                                                super.outputToWrite
+                        ConceptChronology conceptChronology = Get.concept(nid);
+                        super.writeVersions(conceptChronology.getVersionList(),
+                                conceptChronology.getLatestVersion(this.rf2ExportHelper.getManifoldCoordinate().getVertexStampFilter()),
+                                (rf2ReleaseType, version) ->
+                                        super.getOutput(rf2ReleaseType)
                                                 .append(this.rf2ExportHelper.getIdString(version) + "\t")
                                                 .append(this.rf2ExportHelper.getTimeString(version) + "\t")
                                                 .append(this.rf2ExportHelper.getActiveString(version) + "\t")
                                                 .append(this.rf2ExportHelper.getIdString(version.getModuleNid()) + "\t")
                                                 .append(this.rf2ExportHelper.getConceptPrimitiveOrSufficientDefinedSCTID((ConceptVersion)version))
                                                 .append("\r\n")
-                                        );
-
-                                break;
-                            case SNAPSHOT:
-
-                                super.outputToWrite
-                                        .append(this.rf2ExportHelper.getIdString(nid) + "\t")
-                                        .append(this.rf2ExportHelper.getTimeString(nid) + "\t")
-                                        .append(this.rf2ExportHelper.getActiveString(nid) + "\t")
-                                        .append(this.rf2ExportHelper.getIdString(this.rf2ExportHelper.getModuleNid(nid)) + "\t")
-                                        .append(this.rf2ExportHelper.getConceptPrimitiveOrSufficientDefinedSCTID(nid))
-                                        .append("\r\n");
-
-                                break;
-                        }
+                        );
 
                         super.writeToFile();
                         super.tryAndUpdateProgressTracker();
@@ -4,7 +4,6 @@ import sh.isaac.MetaData;
 import sh.isaac.api.ConceptProxy;
 import sh.isaac.api.Get;
 import sh.isaac.api.bootstrap.TermAux;
-import sh.isaac.api.chronicle.Version;
 import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.component.semantic.version.LogicGraphVersion;
 import sh.isaac.api.logic.LogicNode;
@@ -15,6 +14,7 @@ import sh.isaac.model.logic.node.internal.ConceptNodeWithNids;
 import sh.isaac.model.logic.node.internal.RoleNodeAllWithNids;
 import sh.isaac.model.logic.node.internal.RoleNodeSomeWithNids;
 import sh.isaac.solor.rf2.config.RF2Configuration;
+import sh.isaac.solor.rf2.config.RF2ReleaseType;
 import sh.isaac.solor.rf2.exporters.RF2AbstractExporter;
 import sh.isaac.solor.rf2.utility.RF2ExportHelper;
 
@@ -24,6 +24,8 @@ import java.time.temporal.ChronoField;
 import java.time.temporal.TemporalAccessor;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -31,18 +33,21 @@ import java.util.stream.IntStream;
 
 public class RF2RelationshipExporter extends RF2AbstractExporter {
 
+    private static final String MODIFIER_ID = "900000000000451002"; //Existential restriction modifier (core metadata concept)
     private final RF2ExportHelper rf2ExportHelper;
     private final IntStream intStream;
     private final Semaphore readSemaphore;
     private final RF2Configuration rf2Configuration;
+    private final EnumMap<RF2ReleaseType, AtomicInteger> roleGroups = new EnumMap<>(RF2ReleaseType.class);
 
-    public RF2RelationshipExporter(RF2Configuration rf2Configuration, RF2ExportHelper rf2ExportHelper, IntStream intStream, Semaphore readSemaphore) {
-        super(rf2Configuration);
-        this.rf2Configuration = rf2Configuration;
+    public RF2RelationshipExporter(List<RF2Configuration> rf2Configurations, RF2ExportHelper rf2ExportHelper, IntStream intStream, Semaphore readSemaphore) {
+        super(rf2Configurations);
+        this.rf2Configuration = rf2Configurations.get(0);
         this.rf2ExportHelper = rf2ExportHelper;
         this.intStream = intStream;
         this.readSemaphore = readSemaphore;
 
+        rf2Configurations.forEach(configuration -> this.roleGroups.put(configuration.getRf2ReleaseType(), new AtomicInteger(0)));
         readSemaphore.acquireUninterruptibly();
         Get.activeTasks().add(this);
     }
@@ -50,9 +55,7 @@ public class RF2RelationshipExporter extends RF2AbstractExporter {
     @Override
     protected Void call() {
 
-        final String modifierId = "900000000000451002"; //Existential restriction modifier (core metadata concept)
         final String isASCTID = rf2ExportHelper.getIdString(TermAux.IS_A.getNid());
-        final AtomicInteger roleGroup = new AtomicInteger(0);
 
         try{
 
@@ -62,197 +65,18 @@ public class RF2RelationshipExporter extends RF2AbstractExporter {
                         super.clearLineOutput();
                         super.incrementProgressCount();
 
-                        switch (this.rf2Configuration.getRf2ReleaseType()){
-                            case FULL:
-
-                                for(Version version : Get.assemblageService().getSemanticChronology(nid).getVersionList()){
-
-                                    String characteristicTypeId;
-                                    int semanticRelationshipAssemblage = version.getAssemblageNid();
-
-                                    if (semanticRelationshipAssemblage == TermAux.EL_PLUS_PLUS_INFERRED_ASSEMBLAGE.getNid())
-                                        characteristicTypeId = "900000000000011006";
-                                    else if (semanticRelationshipAssemblage == TermAux.EL_PLUS_PLUS_STATED_ASSEMBLAGE.getNid())
-                                        characteristicTypeId = "900000000000010007";
-                                    else
-                                        characteristicTypeId = "Issue:RF2RelationshipExporter()";
-
-                                    LogicalExpression logicalExpression = ((LogicGraphVersion)version).getLogicalExpression();
-                                    logicalExpression.processDepthFirst((logicNode, treeNodeVisitData) -> {
-
-                                        if(logicNode.getNodeSemantic() == NodeSemantic.ROLE_ALL
-                                                || logicNode.getNodeSemantic() == NodeSemantic.ROLE_SOME){
-                                            roleGroup.getAndIncrement();
-                                        }
-
-                                        if (logicNode.getNodeSemantic() == NodeSemantic.CONCEPT) {
-
-                                            int conceptChronologyNid = logicNode.getNidForConceptBeingDefined();
-
-                                            LogicNode parentNode = null;
-                                            LogicNode tempNode = logicNode;
-
-                                            do {
-                                                if (parentNode != null)
-                                                    tempNode = parentNode;
-
-                                                int parentIndex = treeNodeVisitData.getPredecessorNid(tempNode.getNodeIndex()).getAsInt();
-                                                parentNode = logicalExpression.getNode(parentIndex);
-
-                                            } while (!(parentNode.getNodeSemantic() == NodeSemantic.NECESSARY_SET ||
-                                                    parentNode.getNodeSemantic() == NodeSemantic.SUFFICIENT_SET ||
-                                                    parentNode.getNodeSemantic() == NodeSemantic.ROLE_ALL |
-                                                            parentNode.getNodeSemantic() == NodeSemantic.ROLE_SOME));
-
-                                            if (parentNode.getNodeSemantic() == NodeSemantic.NECESSARY_SET || parentNode.getNodeSemantic() == NodeSemantic.SUFFICIENT_SET) {
-
-                                                super.outputToWrite
-                                                        .append(this.rf2ExportHelper.getIdString(version) + "\t")
-                                                        .append(this.rf2ExportHelper.getTimeString(version) + "\t")
-                                                        .append(this.rf2ExportHelper.getActiveString(version) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(version.getModuleNid()) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(conceptChronologyNid) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(((ConceptNodeWithNids) logicNode).getConceptNid()) + "\t")
-                                                        .append(roleGroup.get() + "\t")
-                                                        .append(isASCTID + "\t")
-                                                        .append(characteristicTypeId + "\t")
-                                                        .append(modifierId)
-                                                        .append("\r\n");
-
-                                            } else if (parentNode instanceof RoleNodeAllWithNids) {
-
-                                                super.outputToWrite
-                                                        .append(this.rf2ExportHelper.getIdString(version) + "\t")
-                                                        .append(this.rf2ExportHelper.getTimeString(version) + "\t")
-                                                        .append(this.rf2ExportHelper.getActiveString(version) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(version.getModuleNid()) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(conceptChronologyNid) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(((ConceptNodeWithNids) logicNode).getConceptNid()) + "\t")
-                                                        .append(roleGroup.get() + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(((RoleNodeAllWithNids) parentNode).getTypeConceptNid()) + "\t")
-                                                        .append(characteristicTypeId + "\t")
-                                                        .append(modifierId)
-                                                        .append("\r\n");
-
-                                            } else if (parentNode instanceof RoleNodeSomeWithNids) {
-
-                                                super.outputToWrite
-                                                        .append(this.rf2ExportHelper.getIdString(version) + "\t")
-                                                        .append(this.rf2ExportHelper.getTimeString(version) + "\t")
-                                                        .append(this.rf2ExportHelper.getActiveString(version) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(version.getModuleNid()) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(conceptChronologyNid) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(((ConceptNodeWithNids) logicNode).getConceptNid()) + "\t")
-                                                        .append(roleGroup.get() + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(((RoleNodeSomeWithNids) parentNode).getTypeConceptNid()) + "\t")
-                                                        .append(characteristicTypeId + "\t")
-                                                        .append(modifierId)
-                                                        .append("\r\n");
-
-                                            }
-                                        }
-                                    });
-                                }
-
-                                break;
-                            case SNAPSHOT:
-
-                                int moduleNid = this.rf2ExportHelper.getModuleNid(nid);
-                                LogicalExpression logicalExpression = ((LogicGraphVersion)this.rf2ExportHelper.getObservableSnapshotVersion(nid)).getLogicalExpression();
-
-                                String characteristicTypeId;
-                                int semanticRelationshipAssemblage = Get.assemblageService().getSemanticChronology(nid).getAssemblageNid();
-
-                                if (semanticRelationshipAssemblage == TermAux.EL_PLUS_PLUS_INFERRED_ASSEMBLAGE.getNid())
-                                    characteristicTypeId = "900000000000011006";
-                                else if (semanticRelationshipAssemblage == TermAux.EL_PLUS_PLUS_STATED_ASSEMBLAGE.getNid())
-                                    characteristicTypeId = "900000000000010007";
-                                else
-                                    characteristicTypeId = "Issue:RF2RelationshipExporter()";
-
-                                logicalExpression.processDepthFirst((logicNode, treeNodeVisitData) -> {
-
-                                    if(logicNode.getNodeSemantic() == NodeSemantic.ROLE_ALL
-                                            || logicNode.getNodeSemantic() == NodeSemantic.ROLE_SOME){
-                                        roleGroup.getAndIncrement();
-                                    }
-
-                                    if (logicNode.getNodeSemantic() == NodeSemantic.CONCEPT) {
-
-                                        int conceptChronologyNid = logicNode.getNidForConceptBeingDefined();
-
-                                        LogicNode parentNode = null;
-                                        LogicNode tempNode = logicNode;
-
-                                        do {
-                                            if (parentNode != null)
-                                                tempNode = parentNode;
-
-                                            int parentIndex = treeNodeVisitData.getPredecessorNid(tempNode.getNodeIndex()).getAsInt();
-                                            parentNode = logicalExpression.getNode(parentIndex);
-
-                                        } while (!(parentNode.getNodeSemantic() == NodeSemantic.NECESSARY_SET ||
-                                                parentNode.getNodeSemantic() == NodeSemantic.SUFFICIENT_SET ||
-                                                parentNode.getNodeSemantic() == NodeSemantic.ROLE_ALL |
-                                                        parentNode.getNodeSemantic() == NodeSemantic.ROLE_SOME));
-
-                                        if (parentNode.getNodeSemantic() == NodeSemantic.NECESSARY_SET || parentNode.getNodeSemantic() == NodeSemantic.SUFFICIENT_SET) {
-
-                                            super.outputToWrite
-                                                    .append(this.rf2ExportHelper.getIdString(nid) + "\t")
-                                                    .append(this.rf2ExportHelper.getTimeString(nid) + "\t")
-                                                    .append(this.rf2ExportHelper.getActiveString(nid) + "\t")
-                                                    .append(this.rf2ExportHelper.getIdString(moduleNid) + "\t")
-                                                    .append(this.rf2ExportHelper.getIdString(conceptChronologyNid) + "\t")
-                                                    .append(this.rf2ExportHelper.getIdString(((ConceptNodeWithNids) logicNode).getConceptNid()) + "\t")
-                                                    .append(roleGroup.get() + "\t")
-                                                    .append(isASCTID + "\t")
-                                                    .append(characteristicTypeId + "\t")
-                                                    .append(modifierId)
-                                                    .append("\r\n");
-
-                                        } else if (parentNode instanceof RoleNodeAllWithNids) {
-
-                                            super.outputToWrite
-                                                    .append(this.rf2ExportHelper.getIdString(nid) + "\t")
-                                                    .append(this.rf2ExportHelper.getTimeString(nid) + "\t")
-                                                    .append(this.rf2ExportHelper.getActiveString(nid) + "\t")
-                                                    .append(this.rf2ExportHelper.getIdString(moduleNid) + "\t")
-                                                    .append(this.rf2ExportHelper.getIdString(conceptChronologyNid) + "\t")
-                                                    .append(this.rf2ExportHelper.getIdString(((ConceptNodeWithNids) logicNode).getConceptNid()) + "\t")
-                                                    .append(roleGroup.get() + "\t")
-                                                    .append(this.rf2ExportHelper.getIdString(((RoleNodeAllWithNids) parentNode).getTypeConceptNid()) + "\t")
-                                                    .append(characteristicTypeId + "\t")
-                                                    .append(modifierId)
-                                                    .append("\r\n");
-
-                                        } else if (parentNode instanceof RoleNodeSomeWithNids) {
-
-                                            super.outputToWrite
-                                                    .append(this.rf2ExportHelper.getIdString(nid) + "\t")
-                                                    .append(this.rf2ExportHelper.getTimeString(nid) + "\t")
-                                                    .append(this.rf2ExportHelper.getActiveString(nid) + "\t")
-                                                    .append(this.rf2ExportHelper.getIdString(moduleNid) + "\t")
-                                                    .append(this.rf2ExportHelper.getIdString(conceptChronologyNid) + "\t")
-                                                    .append(this.rf2ExportHelper.getIdString(((ConceptNodeWithNids) logicNode).getConceptNid()) + "\t")
-                                                    .append(roleGroup.get() + "\t")
-                                                    .append(this.rf2ExportHelper.getIdString(((RoleNodeSomeWithNids) parentNode).getTypeConceptNid()) + "\t")
-                                                    .append(characteristicTypeId + "\t")
-                                                    .append(modifierId)
-                                                    .append("\r\n");
-
-                                        }
-                                    }
-                                });
-
-                                break;
-                        }
+                        SemanticChronology semanticChronology = Get.assemblageService().getSemanticChronology(nid);
+                        super.writeVersions(semanticChronology.getVersionList(),
+                                semanticChronology.getLatestVersion(this.rf2ExportHelper.getManifoldCoordinate().getVertexStampFilter()),
+                                (rf2ReleaseType, version) -> writeRelationships(super.getOutput(rf2ReleaseType),
+                                        this.roleGroups.get(rf2ReleaseType), (LogicGraphVersion) version, isASCTID));
 
                         super.writeToFile();
                         super.tryAndUpdateProgressTracker();
                     });
 
             super.clearLineOutput();
+            final StringBuilder metadataRows = new StringBuilder();
             String dateTime = DateTimeFormatter.ofPattern("YYYYMMdd").format(rf2Configuration.getLocalDateTime());
             StringBuilder isoInstantBuilder = new StringBuilder();
 
@@ -278,7 +102,7 @@ public class RF2RelationshipExporter extends RF2AbstractExporter {
                                     identifierSchemeProxy.getPrimordialUuid().toString() +
                                             Get.concept(nid).getPrimordialUuid().toString());
 
-                            super.outputToWrite
+                            metadataRows
                                     .append(UuidT5Generator.makeSolorIdFromUuid(relId) + "\t")
                                     .append(new SimpleDateFormat("YYYYMMdd").format(new Date(time)) + "\t")
                                     .append("1" + "\t")
@@ -288,13 +112,11 @@ public class RF2RelationshipExporter extends RF2AbstractExporter {
                                     .append("0" + "\t")
                                     .append(isASCTID + "\t")
                                     .append("900000000000010007" + "\t")
-                                    .append(modifierId)
+                                    .append(MODIFIER_ID)
                                     .append("\r\n");
                         }
                     });
-            super.writeToFile();
 
-            super.clearLineOutput();
             ConceptProxy moduleProxy = new ConceptProxy("Module (core metadata concept)",
                     UUID.fromString("40d1c869-b509-32f8-b735-836eac577a67"));
             Arrays.stream(this.rf2Configuration.getNoTreeTaxonomySnapshot().getTaxonomyChildConceptNids(TermAux.SOLOR_MODULE.getNid()))
@@ -306,7 +128,7 @@ public class RF2RelationshipExporter extends RF2AbstractExporter {
                                     moduleProxy.getPrimordialUuid().toString() +
                                             Get.concept(nid).getPrimordialUuid().toString());
 
-                            super.outputToWrite
+                            metadataRows
                                     .append(UuidT5Generator.makeSolorIdFromUuid(relId) + "\t")
                                     .append(new SimpleDateFormat("YYYYMMdd").format(new Date(time)) + "\t")
                                     .append("1" + "\t")
@@ -316,13 +138,11 @@ public class RF2RelationshipExporter extends RF2AbstractExporter {
                                     .append("0" + "\t")
                                     .append(isASCTID + "\t")
                                     .append("900000000000010007" + "\t")
-                                    .append(modifierId)
+                                    .append(MODIFIER_ID)
                                     .append("\r\n");
                         }
                     });
-            super.writeToFile();
 
-            super.clearLineOutput();
             ConceptProxy attributeTypeProxy = new ConceptProxy("Attribute type (foundation metadata concept)",
                     UUID.fromString("34e794d9-0405-3aa1-adf5-64801950c397"));
             int[] attNidsToWrite = new int[]{MetaData.INTEGER_FIELD____SOLOR.getNid(),
@@ -336,7 +156,7 @@ public class RF2RelationshipExporter extends RF2AbstractExporter {
                                     attributeTypeProxy.getPrimordialUuid().toString() +
                                             Get.concept(nid).getPrimordialUuid().toString());
 
-                            super.outputToWrite
+                            metadataRows
                                     .append(UuidT5Generator.makeSolorIdFromUuid(relId) + "\t")
                                     .append(new SimpleDateFormat("YYYYMMdd").format(new Date(time)) + "\t")
                                     .append("1" + "\t")
@@ -346,11 +166,12 @@ public class RF2RelationshipExporter extends RF2AbstractExporter {
                                     .append("0" + "\t")
                                     .append(isASCTID + "\t")
                                     .append("900000000000010007" + "\t")
-                                    .append(modifierId)
+                                    .append(MODIFIER_ID)
                                     .append("\r\n");
                         }
                     });
 
+            super.appendToAllOutputs(metadataRows);
             super.writeToFile();
 
         }finally {
@@ -360,4 +181,74 @@ public class RF2RelationshipExporter extends RF2AbstractExporter {
 
         return null;
     }
+
+    /**
+     * Appends a row for each concept in the necessary and sufficient sets, and in the roles, of a logic graph version.
+     */
+    private void writeRelationships(StringBuilder output, AtomicInteger roleGroup, LogicGraphVersion version, String isASCTID) {
+
+        String characteristicTypeId;
+        int semanticRelationshipAssemblage = version.getAssemblageNid();
+
+        if (semanticRelationshipAssemblage == TermAux.EL_PLUS_PLUS_INFERRED_ASSEMBLAGE.getNid())
+            characteristicTypeId = "900000000000011006";
+        else if (semanticRelationshipAssemblage == TermAux.EL_PLUS_PLUS_STATED_ASSEMBLAGE.getNid())
+            characteristicTypeId = "900000000000010007";
+        else
+            characteristicTypeId = "Issue:RF2RelationshipExporter()";
+
+        LogicalExpression logicalExpression = version.getLogicalExpression();
+        logicalExpression.processDepthFirst((logicNode, treeNodeVisitData) -> {
+
+            if(logicNode.getNodeSemantic() == NodeSemantic.ROLE_ALL
+                    || logicNode.getNodeSemantic() == NodeSemantic.ROLE_SOME){
+                roleGroup.getAndIncrement();
+            }
+
+            if (logicNode.getNodeSemantic() == NodeSemantic.CONCEPT) {
+
+                int conceptChronologyNid = logicNode.getNidForConceptBeingDefined();
+
+                LogicNode parentNode = null;
+                LogicNode tempNode = logicNode;
+
+                do {
+                    if (parentNode != null)
+                        tempNode = parentNode;
+
+                    int parentIndex = treeNodeVisitData.getPredecessorNid(tempNode.getNodeIndex()).getAsInt();
+                    parentNode = logicalExpression.getNode(parentIndex);
+
+                } while (!(parentNode.getNodeSemantic() == NodeSemantic.NECESSARY_SET ||
+                        parentNode.getNodeSemantic() == NodeSemantic.SUFFICIENT_SET ||
+                        parentNode.getNodeSemantic() == NodeSemantic.ROLE_ALL |
+                                parentNode.getNodeSemantic() == NodeSemantic.ROLE_SOME));
+
+                String typeId;
+
+                if (parentNode.getNodeSemantic() == NodeSemantic.NECESSARY_SET || parentNode.getNodeSemantic() == NodeSemantic.SUFFICIENT_SET) {
+                    typeId = isASCTID;
+                } else if (parentNode instanceof RoleNodeAllWithNids) {
+                    typeId = this.rf2ExportHelper.getIdString(((RoleNodeAllWithNids) parentNode).getTypeConceptNid());
+                } else if (parentNode instanceof RoleNodeSomeWithNids) {
+                    typeId = this.rf2ExportHelper.getIdString(((RoleNodeSomeWithNids) parentNode).getTypeConceptNid());
+                } else {
+                    return;
+                }
+
+                output
+                        .append(this.rf2ExportHelper.getIdString(version) + "\t")
+                        .append(this.rf2ExportHelper.getTimeString(version) + "\t")
+                        .append(this.rf2ExportHelper.getActiveString(version) + "\t")
+                        .append(this.rf2ExportHelper.getIdString(version.getModuleNid()) + "\t")
+                        .append(this.rf2ExportHelper.getIdString(conceptChronologyNid) + "\t")
+                        .append(this.rf2ExportHelper.getIdString(((ConceptNodeWithNids) logicNode).getConceptNid()) + "\t")
+                        .append(roleGroup.get() + "\t")
+                        .append(typeId + "\t")
+                        .append(characteristicTypeId + "\t")
+                        .append(MODIFIER_ID)
+                        .append("\r\n");
+            }
+        });
+    }
 }
@@ -7,6 +7,7 @@ import sh.isaac.solor.rf2.config.RF2Configuration;
 import sh.isaac.solor.rf2.exporters.RF2AbstractExporter;
 import sh.isaac.solor.rf2.utility.RF2ExportHelper;
 
+import java.util.List;
 import java.util.concurrent.Semaphore;
 import java.util.stream.IntStream;
 
@@ -15,11 +16,9 @@ public class RF2LanguageRefsetExporter extends RF2AbstractExporter {
     private final RF2ExportHelper rf2ExportHelper;
     private final IntStream intStream;
     private final Semaphore readSemaphore;
-    private final RF2Configuration rf2Configuration;
 
-    public RF2LanguageRefsetExporter(RF2Configuration rf2Configuration, RF2ExportHelper rf2ExportHelper, IntStream intStream, Semaphore readSemaphore) {
-        super(rf2Configuration);
-        this.rf2Configuration = rf2Configuration;
+    public RF2LanguageRefsetExporter(List<RF2Configuration> rf2Configurations, RF2ExportHelper rf2ExportHelper, IntStream intStream, Semaphore readSemaphore) {
+        super(rf2Configurations);
         this.rf2ExportHelper = rf2ExportHelper;
         this.intStream = intStream;
         this.readSemaphore = readSemaphore;
@@ -39,45 +38,25 @@ public class RF2LanguageRefsetExporter extends RF2AbstractExporter {
                         super.clearLineOutput();
                         super.incrementProgressCount();
 
-                        switch (this.rf2Configuration.getRf2ReleaseType()){
-
-                            case FULL:
-
-                                Get.assemblageService().getSemanticChronology(nid).getSemanticChronologyList().stream()
-                                        .filter(semanticChronology -> semanticChronology.getVersionType() == VersionType.COMPONENT_NID)
-                                        .flatMap(semanticChronology -> semanticChronology.getVersionList().stream())
-                                        .forEach(version ->
-
-                                                super.outputToWrite
-                                                        .append(version.getPrimordialUuid().toString() + "\t")
-                                                        .append(this.rf2ExportHelper.getTimeString(version) + "\t")
-                                                        .append(this.rf2ExportHelper.getActiveString(version) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(version.getModuleNid()) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(version.getAssemblageNid()) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(nid) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(((ComponentNidVersion)version).getComponentNid()))
-                                                        .append("\r\n")
-                                        );
-
-                                break;
-                            case SNAPSHOT:
-
-                                Get.assemblageService().getSemanticChronology(nid).getSemanticChronologyList().stream()
-                                        .filter(semanticChronology -> semanticChronology.getVersionType() == VersionType.COMPONENT_NID)
-                                        .forEach(semanticChronology ->
-                                                super.outputToWrite
-                                                        .append(semanticChronology.getPrimordialUuid().toString() + "\t")
-                                                        .append(this.rf2ExportHelper.getTimeString(nid) + "\t")
-                                                        .append(this.rf2ExportHelper.getActiveString(nid) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(this.rf2ExportHelper.getModuleNid(nid)) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(Get.assemblageService().getSemanticChronology(nid).getAssemblageNid()) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(nid) + "\t")
-                                                        .append(this.rf2ExportHelper.getIdString(this.rf2ExportHelper.getSemanticComponentNidValue(semanticChronology.getNid())))
-                                                        .append("\r\n")
-                                        );
-
-                                break;
-                        }
+                        String referencedComponentId = this.rf2ExportHelper.getIdString(nid);
+
+                        Get.assemblageService().getSemanticChronology(nid).getSemanticChronologyList().stream()
+                                .filter(semanticChronology -> semanticChronology.getVersionType() == VersionType.COMPONENT_NID)
+                                .forEach(semanticChronology ->
+                                        super.writeVersions(semanticChronology.getVersionList(),
+                                                semanticChronology.getLatestVersion(this.rf2ExportHelper.getManifoldCoordinate().getVertexStampFilter()),
+                                                (rf2ReleaseType, version) ->
+                                                        super.getOutput(rf2ReleaseType)
+                                                                .append(version.getPrimordialUuid().toString() + "\t")
+                                                                .append(this.rf2ExportHelper.getTimeString(version) + "\t")
+                                                                .append(this.rf2ExportHelper.getActiveString(version) + "\t")
+                                                                .append(this.rf2ExportHelper.getIdString(version.getModuleNid()) + "\t")
+                                                                .append(this.rf2ExportHelper.getIdString(version.getAssemblageNid()) + "\t")
+                                                                .append(referencedComponentId + "\t")
+                                                                .append(this.rf2ExportHelper.getIdString(((ComponentNidVersion)version).getComponentNid()))
+                                                                .append("\r\n")
+                                        )
+                                );
 
                         super.writeToFile();
                         super.tryAndUpdateProgressTracker();
@@ -1,9 +1,10 @@
 package sh.isaac.solor.rf2.exporters.refsets;
 
+import java.util.List;
 import java.util.concurrent.Semaphore;
 import java.util.stream.IntStream;
 import sh.isaac.api.Get;
-import sh.isaac.api.chronicle.LatestVersion;
+import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.component.semantic.version.ComponentNidVersion;
 import sh.isaac.api.component.semantic.version.DynamicVersion;
 import sh.isaac.api.component.semantic.version.LongVersion;
@@ -25,12 +26,12 @@ public class RF2RefsetExporter extends RF2AbstractExporter {
     private final Semaphore readSemaphore;
     private final RF2Configuration rf2Configuration;
 
-    public RF2RefsetExporter(RF2Configuration rf2Configuration, RF2ExportHelper rf2ExportHelper, IntStream intStream, Semaphore readSemaphore) {
-        super(rf2Configuration);
+    public RF2RefsetExporter(List<RF2Configuration> rf2Configurations, RF2ExportHelper rf2ExportHelper, IntStream intStream, Semaphore readSemaphore) {
+        super(rf2Configurations);
         this.rf2ExportHelper = rf2ExportHelper;
         this.intStream = intStream;
         this.readSemaphore = readSemaphore;
-        this.rf2Configuration = rf2Configuration;
+        this.rf2Configuration = rf2Configurations.get(0);
 
         readSemaphore.acquireUninterruptibly();
         Get.activeTasks().add(this);
@@ -45,21 +46,11 @@ public class RF2RefsetExporter extends RF2AbstractExporter {
                 super.clearLineOutput();
                 super.incrementProgressCount();
 
-                switch (this.rf2Configuration.getRf2ReleaseType()){
-
-                    case FULL:
-                        Get.assemblageService().getSemanticChronology(nid).getVersionList().stream().forEach(version -> writeSemantic((SemanticVersion)version));
-                        break;
-                    case SNAPSHOT:
-                        LatestVersion<SemanticVersion> lv = Get.assemblageService().getSemanticChronology(nid)
-                            .getLatestVersion(this.rf2ExportHelper.getManifoldCoordinate().getVertexStampFilter());
-                        if (lv.isPresent()) {
-                            writeSemantic(lv.get());
-                        }
-                        break;
-                    default :
-                        throw new RuntimeException("Unsupported case " + this.rf2Configuration.getRf2ReleaseType());
-                }
+                SemanticChronology semanticChronology = Get.assemblageService().getSemanticChronology(nid);
+                super.writeVersions(semanticChronology.getVersionList(),
+                        semanticChronology.getLatestVersion(this.rf2ExportHelper.getManifoldCoordinate().getVertexStampFilter()),
+                        (rf2ReleaseType, version) -> writeSemantic(super.getOutput(rf2ReleaseType), (SemanticVersion)version));
+
                 super.writeToFile();
                 super.tryAndUpdateProgressTracker();
             });
@@ -76,11 +67,11 @@ public class RF2RefsetExporter extends RF2AbstractExporter {
         return null;
     }
     
-    private void writeSemantic(final SemanticVersion sv)
+    private void writeSemantic(final StringBuilder output, final SemanticVersion sv)
     {
         String refsetID = this.rf2ExportHelper.getIdString(sv.getAssemblageNid());
         String referenceComponentID = this.rf2ExportHelper.getIdString(sv.getReferencedComponentNid());
-        super.outputToWrite
+        output
                 .append(sv.getPrimordialUuid() + "\t")
                 .append(this.rf2ExportHelper.getTimeString(sv) + "\t")
                 .append(this.rf2ExportHelper.getActiveString(sv) + "\t")
@@ -92,51 +83,51 @@ public class RF2RefsetExporter extends RF2AbstractExporter {
             case MEMBER:
                 break;
             case Nid1_Int2:
-                super.outputToWrite
+                output
                         .append("\t" + this.rf2ExportHelper.getIdString(((Nid1_Int2_Version)sv).getNid1()) + "\t")
                         .append(((Nid1_Int2_Version)sv).getInt2());
                 break;
             case Nid1_Long2:
-                super.outputToWrite
+                output
                         .append("\t" + this.rf2ExportHelper.getIdString(((Nid1_Long2_Version)sv).getNid1()) + "\t")
                         .append(((Nid1_Long2_Version)sv).getLong2());
                 break;
             case Nid1_Nid2:
-                super.outputToWrite
+                output
                         .append("\t" + this.rf2ExportHelper.getIdString(((Nid1_Nid2_Version)sv).getNid1()) + "\t")
                         .append(this.rf2ExportHelper.getIdString(((Nid1_Nid2_Version)sv).getNid2()));
                 break;
             case Nid1_Str2:
-                super.outputToWrite
+                output
                         .append("\t" + this.rf2ExportHelper.getIdString(((Nid1_Str2_Version)sv).getNid1()) + "\t")
                         .append(((Nid1_Str2_Version)sv).getStr2());
                 break;
             case Str1_Str2:
-                super.outputToWrite
+                output
                         .append("\t" + ((Str1_Str2_Version)sv).getStr1() + "\t")
                         .append(((Str1_Str2_Version)sv).getStr2());
                 break;
             case Nid1_Nid2_Str3:
-                super.outputToWrite
+                output
                         .append("\t" + this.rf2ExportHelper.getIdString(((Nid1_Nid2_Str3_Version)sv).getNid1()) + "\t")
                         .append(this.rf2ExportHelper.getIdString(((Nid1_Nid2_Str3_Version)sv).getNid2()) + "\t")
                         .append(((Nid1_Nid2_Str3_Version)sv).getStr3());
                 break;
             case Nid1_Nid2_Int3:
-                super.outputToWrite
+                output
                         .append("\t" + this.rf2ExportHelper.getIdString(((Nid1_Nid2_Int3_Version)sv).getNid1()) + "\t")
                         .append(this.rf2ExportHelper.getIdString(((Nid1_Nid2_Int3_Version)sv).getNid2()) + "\t")
                         .append(((Nid1_Nid2_Int3_Version)sv).getInt3());
                 break;
             case Str1_Nid2_Nid3_Nid4:
-                super.outputToWrite
+                output
                         .append("\t" + ((Str1_Nid2_Nid3_Nid4_Version)sv).getStr1() + "\t")
                         .append(this.rf2ExportHelper.getIdString(((Str1_Nid2_Nid3_Nid4_Version)sv).getNid2()) + "\t")
                         .append(this.rf2ExportHelper.getIdString(((Str1_Nid2_Nid3_Nid4_Version)sv).getNid3()) + "\t")
                         .append(this.rf2ExportHelper.getIdString(((Str1_Nid2_Nid3_Nid4_Version)sv).getNid4()));
                 break;
             case Str1_Str2_Nid3_Nid4:
-                super.outputToWrite
+                output
                         .append("\t" + ((Str1_Str2_Nid3_Nid4_Version)sv).getStr1() + "\t")
                         .append(((Str1_Str2_Nid3_Nid4_Version)sv).getStr2() + "\t")
                         .append(this.rf2ExportHelper.getIdString(((Str1_Str2_Nid3_Nid4_Version)sv).getNid3()) + "\t")
@@ -144,7 +135,7 @@ public class RF2RefsetExporter extends RF2AbstractExporter {
                 break;
             case Str1_Str2_Nid3_Nid4_Nid5:
 
-                super.outputToWrite
+                output
                         .append("\t" + ((Str1_Str2_Nid3_Nid4_Nid5_Version)sv).getStr1() + "\t")
                         .append(((Str1_Str2_Nid3_Nid4_Nid5_Version)sv).getStr2() + "\t")
                         .append(this.rf2ExportHelper.getIdString(((Str1_Str2_Nid3_Nid4_Nid5_Version)sv).getNid3()) + "\t")
@@ -152,7 +143,7 @@ public class RF2RefsetExporter extends RF2AbstractExporter {
                         .append(this.rf2ExportHelper.getIdString(((Str1_Str2_Nid3_Nid4_Nid5_Version)sv).getNid5()));
                 break;
             case Nid1_Int2_Str3_Str4_Nid5_Nid6:
-                super.outputToWrite
+                output
                         .append("\t" + this.rf2ExportHelper.getIdString(((Nid1_Int2_Str3_Str4_Nid5_Nid6_Version)sv).getNid1()) + "\t")
                         .append(((Nid1_Int2_Str3_Str4_Nid5_Nid6_Version)sv).getInt2() + "\t")
                         .append(((Nid1_Int2_Str3_Str4_Nid5_Nid6_Version)sv).getStr3() + "\t")
@@ -161,7 +152,7 @@ public class RF2RefsetExporter extends RF2AbstractExporter {
                         .append(this.rf2ExportHelper.getIdString(((Nid1_Int2_Str3_Str4_Nid5_Nid6_Version)sv).getNid6()));
                 break;
             case Int1_Int2_Str3_Str4_Str5_Nid6_Nid7:
-                super.outputToWrite
+                output
                         .append("\t" + ((Int1_Int2_Str3_Str4_Str5_Nid6_Nid7_Version)sv).getInt1() + "\t")
                         .append(((Int1_Int2_Str3_Str4_Str5_Nid6_Nid7_Version)sv).getInt2() + "\t")
                         .append(((Int1_Int2_Str3_Str4_Str5_Nid6_Nid7_Version)sv).getStr3() + "\t")
@@ -171,7 +162,7 @@ public class RF2RefsetExporter extends RF2AbstractExporter {
                         .append(this.rf2ExportHelper.getIdString(((Int1_Int2_Str3_Str4_Str5_Nid6_Nid7_Version)sv).getNid7()));
                 break;
             case Str1_Str2_Str3_Str4_Str5_Str6_Str7:
-                super.outputToWrite
+                output
                         .append("\t" + ((Str1_Str2_Str3_Str4_Str5_Str6_Str7_Version)sv).getStr1() + "\t")
                         .append(((Str1_Str2_Str3_Str4_Str5_Str6_Str7_Version)sv).getStr2() + "\t")
                         .append(((Str1_Str2_Str3_Str4_Str5_Str6_Str7_Version)sv).getStr3() + "\t")
@@ -181,11 +172,11 @@ public class RF2RefsetExporter extends RF2AbstractExporter {
                         .append(((Str1_Str2_Str3_Str4_Str5_Str6_Str7_Version)sv).getStr7());
                 break;
             case LONG:
-                super.outputToWrite
+                output
                         .append("\t" + ((LongVersion)sv).getLongValue());
                 break;
             case STRING:
-                super.outputToWrite
+                output
                         .append("\t" + ((StringVersion)sv).getString());
                 break;
             case DYNAMIC:
@@ -198,13 +189,13 @@ public class RF2RefsetExporter extends RF2AbstractExporter {
                         case INTEGER:
                         case LONG:
                         case STRING:
-                            super.outputToWrite.append("\t").append(di.dataToString());
+                            output.append("\t").append(di.dataToString());
                             break;
                         case NID:
-                            super.outputToWrite.append("\t").append(this.rf2ExportHelper.getIdString(((DynamicNid)di).getDataNid()));
+                            output.append("\t").append(this.rf2ExportHelper.getIdString(((DynamicNid)di).getDataNid()));
                             break;
                         case UUID:
-                            super.outputToWrite.append("\t").append(this.rf2ExportHelper.getIdString(Get.identifierService().getNidForUuids(((DynamicUUID)di).getDataUUID())));
+                            output.append("\t").append(this.rf2ExportHelper.getIdString(Get.identifierService().getNidForUuids(((DynamicUUID)di).getDataUUID())));
                             break;
                         case ARRAY:
                         case BYTEARRAY:
@@ -218,11 +209,11 @@ public class RF2RefsetExporter extends RF2AbstractExporter {
                 }
                 break;
             case COMPONENT_NID:
-                super.outputToWrite
+                output
                         .append("\t" + this.rf2ExportHelper.getIdString(((ComponentNidVersion)sv).getComponentNid()));
 
             case MEASURE_CONSTRAINTS:
-                super.outputToWrite
+                output
                     .append("\t" + ((MeasureConstraints)sv).getConstraintDescription() + "\t")
                     .append(((MeasureConstraints)sv).getConstraintDescription() + "\t")
                     .append(((MeasureConstraints)sv).getInitialLowerBound() + "\t")
@@ -247,6 +238,6 @@ public class RF2RefsetExporter extends RF2AbstractExporter {
             default :
                 throw new RuntimeException("Invalid / Unsupported data type passed into refset exporter: " + sv.getSemanticType());
         }
-        super.outputToWrite.append("\r\n");
+        output.append("\r\n");
     }
 }